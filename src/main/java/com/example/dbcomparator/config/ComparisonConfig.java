@@ -0,0 +1,51 @@
+package com.example.dbcomparator.config;
+
+import com.example.dbcomparator.repository.oracle.OracleDictionaryViews;
+import com.example.dbcomparator.repository.oracle.OracleMetadataRepository;
+import com.example.dbcomparator.repository.postgres.PostgresMetadataRepository;
+import com.example.dbcomparator.service.CatalogReader;
+import com.example.dbcomparator.service.ComparisonTaskExecutor;
+import com.example.dbcomparator.service.JdbcCatalogReader;
+import com.example.dbcomparator.service.RepositoryCatalogReader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Configuration for the comparison engine (concurrency limits and related beans)
+ */
+@Configuration
+public class ComparisonConfig {
+
+    @Bean
+    @ConfigurationProperties("comparison")
+    public ComparisonProperties comparisonProperties() {
+        return new ComparisonProperties();
+    }
+
+    // One bounded pool per datasource, so a slow Oracle dictionary can never starve PostgreSQL fetches (and vice versa)
+    @Bean(destroyMethod = "shutdown")
+    public ComparisonTaskExecutor comparisonTaskExecutor(ComparisonProperties comparisonProperties) {
+        return new ComparisonTaskExecutor(comparisonProperties.getOracleFetchConcurrency(),
+                comparisonProperties.getPostgresFetchConcurrency());
+    }
+
+    // Repositories by default; comparison.catalog-reader=jdbc skips Hibernate entirely for the read-only catalog queries
+    @Bean
+    public CatalogReader catalogReader(ComparisonProperties comparisonProperties,
+                                       OracleMetadataRepository oracleRepository,
+                                       PostgresMetadataRepository postgresRepository,
+                                       OracleDictionaryViews dictionaryViews,
+                                       @Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                       @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                       @Qualifier("supabaseReadOnlyTransactions") TransactionOperations supabaseReadOnlyTransactions) {
+        if (comparisonProperties.getCatalogReader() == ComparisonProperties.CatalogReaderType.JDBC) {
+            return new JdbcCatalogReader(oracleJdbcTemplate, supabaseJdbcTemplate, supabaseReadOnlyTransactions,
+                    dictionaryViews, comparisonProperties);
+        }
+        return new RepositoryCatalogReader(oracleRepository, postgresRepository);
+    }
+}
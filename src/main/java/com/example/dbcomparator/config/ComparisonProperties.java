@@ -0,0 +1,232 @@
+package com.example.dbcomparator.config;
+
+import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tunables for the comparison engine, bound from the "comparison.*" properties
+ */
+@Data
+public class ComparisonProperties {
+
+    /**
+     * Maximum number of catalog fetches running against Oracle at the same time.
+     * Keep this below the Oracle Hikari maximum-pool-size so other callers can still get a connection.
+     */
+    private int oracleFetchConcurrency = 4;
+
+    /**
+     * Maximum number of catalog fetches running against PostgreSQL at the same time.
+     * Keep this below the PostgreSQL Hikari maximum-pool-size, persistence shares the same pool.
+     */
+    private int postgresFetchConcurrency = 4;
+
+    /**
+     * Fetch each schema catalog once per side (one ALL_OBJECTS / pg_class scan) and split it in memory
+     * into the per-type comparisons, instead of running one dictionary query per object type.
+     */
+    private boolean snapshotMode = true;
+
+    /**
+     * Rows per sheet kept in memory while the Excel report is written; older rows are flushed to temp files.
+     */
+    private int reportRowAccessWindow = 100;
+
+    /**
+     * Worker threads running asynchronous comparison jobs. Each running job holds connections on both datasources.
+     */
+    private int jobWorkerThreads = 2;
+
+    /**
+     * Jobs that may wait for a worker; submissions beyond this are rejected.
+     */
+    private int jobQueueCapacity = 20;
+
+    /**
+     * How long a finished job and its report file are kept for download.
+     */
+    private Duration jobRetention = Duration.ofHours(1);
+
+    /**
+     * Distinct comparisons the report endpoints run at once; identical requests share the running one and do not count.
+     * Requests beyond the limit get 429 with Retry-After.
+     */
+    private int maxConcurrentComparisons = 4;
+
+    /**
+     * Retry-After sent with a rejected report request.
+     */
+    private Duration comparisonRetryAfter = Duration.ofSeconds(30);
+
+    /**
+     * Keep generated Excel reports on disk, served again by run id and reused while both catalog fingerprints are unchanged.
+     */
+    private boolean reportStoreEnabled = true;
+
+    /**
+     * Directory of stored reports.
+     */
+    private String reportStoreDir = System.getProperty("java.io.tmpdir") + "/db-comparator-reports";
+
+    /**
+     * Total size of stored reports; the least recently downloaded are deleted beyond it.
+     */
+    private DataSize reportStoreMaxSize = DataSize.ofGigabytes(1);
+
+    /**
+     * How long a stored report is reused for unchanged catalogs. Row counts are not fingerprinted, so volumes may be this old.
+     */
+    private Duration reportStoreMaxAge = Duration.ofMinutes(15);
+
+    /**
+     * Serve catalog fetches from memory while the schema fingerprint is unchanged.
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Maximum cached fetch results (one per side, schema and object type); least recently used are evicted first.
+     */
+    private int cacheMaxEntries = 64;
+
+    /**
+     * Cached fetch results are reloaded after this long, even if the fingerprint still matches.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(30);
+
+    /**
+     * Incremental mode (requires snapshot mode): keep a hash tree of each schema catalog between runs and
+     * only re-fetch the object types whose hashes changed, e.g. Oracle objects with a newer LAST_DDL_TIME.
+     */
+    private boolean incrementalEnabled = false;
+
+    /**
+     * Directory where the per-schema hash trees are persisted between runs.
+     */
+    private String incrementalStateDir = System.getProperty("java.io.tmpdir") + "/db-comparator-state";
+
+    /**
+     * Data comparison: primary key span of one chunk. Each side returns one checksum per chunk from a single scan.
+     */
+    private long dataChunkSize = 100_000;
+
+    /**
+     * Data comparison: mismatching ranges are bisected until they span at most this many keys,
+     * then the key/hash pairs of that range are fetched and merged.
+     */
+    private long dataRowFetchThreshold = 1_000;
+
+    /**
+     * Data comparison: mismatching keys listed per table in the report (all of them are counted).
+     */
+    private int dataMaxReportedMismatches = 1_000;
+
+    /**
+     * Data sample mode: percentage of blocks (Oracle SAMPLE BLOCK) / pages (PostgreSQL TABLESAMPLE SYSTEM) read per table.
+     */
+    private double dataSamplePercent = 1.0;
+
+    /**
+     * Data sample mode: upper bound on sampled rows per table and side.
+     */
+    private int dataSampleMaxRows = 10_000;
+
+    /**
+     * Data sample mode: seed for a repeatable sample; unset draws a new sample on every run.
+     */
+    private Long dataSampleSeed;
+
+    /**
+     * Data sample mode: confidence level of the reported mismatch rate interval.
+     */
+    private double dataSampleConfidence = 0.95;
+
+    /**
+     * Add a "Volume Comparison" sheet with row counts and sizes from optimizer statistics (one query per side).
+     */
+    private boolean volumeEnabled = true;
+
+    /**
+     * Tables (case-insensitive, "*" for all) that also get an exact COUNT(*) on both sides.
+     * Counts run in parallel, at most the fetch concurrency per datasource at a time.
+     */
+    private List<String> volumeExactCountTables = new ArrayList<>();
+
+    /**
+     * Add a "Column Comparison" sheet with column type, length, precision, nullability and default differences
+     * of the tables present on both sides (one dictionary query per side).
+     */
+    private boolean columnComparisonEnabled = true;
+
+    /**
+     * How catalogs are read: JPA (Spring Data native queries into entities) or JDBC (JdbcTemplate row callbacks
+     * mapped straight into plain objects, with an explicit fetch size per query).
+     */
+    private CatalogReaderType catalogReader = CatalogReaderType.JPA;
+
+    /**
+     * JDBC catalog reader: rows fetched per round trip (the Oracle driver defaults to 10).
+     */
+    private int catalogFetchSize = 1_000;
+
+    /**
+     * JDBC catalog reader: fetch size overrides keyed by query (reader method name, e.g. findCatalogSnapshotByOwner).
+     */
+    private Map<String, Integer> catalogFetchSizes = new HashMap<>();
+
+    /**
+     * Persist differences with COPY FROM STDIN when the result store is PostgreSQL, instead of INSERT batches.
+     */
+    private boolean resultCopyEnabled = true;
+
+    /**
+     * Differences waiting to be written (rows). When the queue is full, comparisons wait for the writer to catch up.
+     */
+    private int resultQueueCapacity = 100_000;
+
+    /**
+     * Rows written per COPY / INSERT batch by the background result writer.
+     */
+    private int resultBatchSize = 5_000;
+
+    /**
+     * Longest time the result writer waits to fill a batch before writing what it has.
+     */
+    private Duration resultFlushInterval = Duration.ofMillis(200);
+
+    /**
+     * Directory of exported catalog snapshot files (one .dbcs file per snapshot name), compared without a database session.
+     */
+    private String catalogSnapshotDir = System.getProperty("java.io.tmpdir") + "/db-comparator-snapshots";
+
+    /**
+     * Source sheet: compare procedure and function bodies present on both sides by a hash of their normalized text,
+     * with a line diff for the ones that differ.
+     */
+    private boolean sourceComparisonEnabled = true;
+
+    /**
+     * Dependency sheet: compare ALL_DEPENDENCIES with pg_depend for objects whose dependencies are known on both sides.
+     */
+    private boolean dependencyComparisonEnabled = true;
+
+    /**
+     * Fetch the DDL of every object found on one side only after the comparison, for the DDL sheet of the report.
+     * The DDL archive (GET /api/compare/ddl) extracts on demand regardless of this flag.
+     */
+    private boolean ddlExtractionEnabled = false;
+
+    /**
+     * Objects per DDL extraction batch: one DBMS_METADATA handle on Oracle, one query per object type on PostgreSQL.
+     */
+    private int ddlBatchSize = 200;
+
+    public enum CatalogReaderType {
+        JPA, JDBC
+    }
+}
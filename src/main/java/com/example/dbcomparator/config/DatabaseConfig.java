@@ -28,7 +28,9 @@ import java.util.Map;
     
         @Bean
         public DataSource supabaseDataSource() {
-            return supabaseDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            HikariDataSource dataSource = supabaseDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            dataSource.setPoolName("supabase"); // "pool" tag of the hikaricp.* metrics
+            return dataSource;
         }
     
         @Bean
@@ -46,7 +48,9 @@ import java.util.Map;
     
         @Bean
         public DataSource oracleDataSource() {
-            return oracleDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            HikariDataSource dataSource = oracleDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            dataSource.setPoolName("oracle"); // "pool" tag of the hikaricp.* metrics
+            return dataSource;
         }
     
         @Bean
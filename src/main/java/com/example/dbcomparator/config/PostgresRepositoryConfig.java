@@ -11,6 +11,7 @@ import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
 import java.util.HashMap;
@@ -51,4 +52,13 @@ public class PostgresRepositoryConfig {
             @Qualifier("postgresEntityManagerFactory") EntityManagerFactory entityManagerFactory) {
         return new JpaTransactionManager(entityManagerFactory);
     }
+
+    // pgjdbc only reads through a cursor, honouring the fetch size, with autocommit off; streamed catalog reads run in here
+    @Bean(name = "supabaseReadOnlyTransactions")
+    public TransactionTemplate supabaseReadOnlyTransactions(
+            @Qualifier("postgresTransactionManager") PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        transactions.setReadOnly(true);
+        return transactions;
+    }
 }
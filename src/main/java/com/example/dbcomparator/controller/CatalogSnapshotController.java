@@ -0,0 +1,162 @@
+package com.example.dbcomparator.controller;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.service.CatalogCache;
+import com.example.dbcomparator.service.CatalogSnapshotFile;
+import com.example.dbcomparator.service.CatalogSnapshotInfo;
+import com.example.dbcomparator.service.CatalogSnapshotStore;
+import com.example.dbcomparator.service.ComparisonRequestCoalescer;
+import com.example.dbcomparator.service.ComparisonRun;
+import com.example.dbcomparator.service.DatabaseComparisonService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller for catalog snapshots: export one side's catalog to a file, list the files, and compare against them
+ * (snapshot vs snapshot, or snapshot vs live) without a session on the captured database.
+ */
+@RestController
+@RequestMapping("/api/compare/snapshots")
+public class CatalogSnapshotController {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotController.class);
+
+    private static final DateTimeFormatter DEFAULT_NAME_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final CatalogSnapshotStore snapshotStore;
+    private final DatabaseComparisonService comparisonService;
+    private final ComparisonRequestCoalescer coalescer;
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public CatalogSnapshotController(CatalogSnapshotStore snapshotStore, DatabaseComparisonService comparisonService,
+                                     ComparisonRequestCoalescer coalescer, ComparisonProperties properties) {
+        this.snapshotStore = snapshotStore;
+        this.comparisonService = comparisonService;
+        this.coalescer = coalescer;
+        this.properties = properties;
+    }
+
+    /**
+     * Export the catalog of one schema.
+     *
+     * @param side   ORACLE or POSTGRES
+     * @param schema The schema (owner) to capture
+     * @param name   Snapshot name; defaults to side-schema-timestamp
+     * @return 201 with the snapshot listing entry, 400 for an invalid name, 503 if the database is unreachable
+     */
+    @PostMapping
+    public ResponseEntity<?> exportSnapshot(
+            @RequestParam("side") CatalogCache.Side side,
+            @RequestParam("schema") String schema,
+            @RequestParam(value = "name", required = false) String name) {
+        String snapshotName = name != null ? name
+                : side.name().toLowerCase(Locale.ROOT) + "-" + schema + "-" + DEFAULT_NAME_TIME.format(Instant.now());
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(snapshotStore.export(snapshotName, side, schema));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error writing catalog snapshot {}: {}", snapshotName, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error writing snapshot: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Error exporting catalog snapshot {}: {}", snapshotName, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Error exporting snapshot: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Exported snapshots, newest first.
+     */
+    @GetMapping
+    public List<CatalogSnapshotInfo> listSnapshots() throws IOException {
+        return snapshotStore.list();
+    }
+
+    /**
+     * Generate the Excel report with either side (or both) read from a snapshot instead of the live database.
+     * Each side takes a snapshot name or a live schema; the snapshot wins if both are given. Differences are only
+     * written to comparison_results when PostgreSQL is compared live.
+     *
+     * @return Excel file streamed to the response, 400 for unknown or mismatched snapshots,
+     *         429 if too many comparisons are running
+     */
+    @GetMapping("/report")
+    public ResponseEntity<?> generateReport(
+            @RequestParam(value = "oracleSnapshot", required = false) String oracleSnapshotName,
+            @RequestParam(value = "oracleSchema", required = false) String oracleSchema,
+            @RequestParam(value = "postgresSnapshot", required = false) String postgresSnapshotName,
+            @RequestParam(value = "postgresSchema", required = false) String postgresSchema) {
+        CatalogSnapshotFile oracleSnapshot;
+        CatalogSnapshotFile postgresSnapshot;
+        try {
+            oracleSnapshot = openSnapshot(oracleSnapshotName, oracleSchema, CatalogCache.Side.ORACLE);
+            postgresSnapshot = openSnapshot(postgresSnapshotName, postgresSchema, CatalogCache.Side.POSTGRES);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        String oracle = oracleSnapshot != null ? oracleSnapshot.getSchema() : oracleSchema;
+        String postgres = postgresSnapshot != null ? postgresSnapshot.getSchema() : postgresSchema;
+        log.info("Received request to compare Oracle {} '{}' with PostgreSQL {} '{}'",
+                oracleSnapshot != null ? "snapshot" : "schema", oracleSnapshot != null ? oracleSnapshotName : oracle,
+                postgresSnapshot != null ? "snapshot" : "schema", postgresSnapshot != null ? postgresSnapshotName : postgres);
+
+        ComparisonRun run;
+        try {
+            run = coalescer.runComparison(oracle, oracleSnapshotName, oracleSnapshot, postgres, postgresSnapshotName, postgresSnapshot);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(properties.getComparisonRetryAfter().toSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Error during comparison process (potentially connection issue): {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Error during comparison: " + e.getMessage()));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", "database_comparison_" + oracle + "_" + postgres + ".xlsx");
+        headers.set(ComparisonController.RUN_ID_HEADER, run.getComparisonRunUuid().toString());
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                comparisonService.writeComparisonReport(run, outputStream);
+            } catch (IOException e) {
+                log.error("Error streaming Excel report for run {}: {}", run.getComparisonRunUuid(), e.getMessage(), e);
+                throw e;
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private CatalogSnapshotFile openSnapshot(String name, String schema, CatalogCache.Side side) throws IOException {
+        if (name == null) {
+            if (schema == null) {
+                throw new IllegalArgumentException("Either a " + side.name().toLowerCase(Locale.ROOT)
+                        + " snapshot or a schema is required");
+            }
+            return null;
+        }
+        CatalogSnapshotFile snapshot = snapshotStore.open(name);
+        if (snapshot.getSide() != side) {
+            throw new IllegalArgumentException("Catalog snapshot " + name + " was captured from " + snapshot.getSide() + ", not " + side);
+        }
+        return snapshot;
+    }
+}
@@ -1,7 +1,17 @@
 package com.example.dbcomparator.controller;
 
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.service.CatalogCache;
+import com.example.dbcomparator.service.CatalogFingerprinter;
+import com.example.dbcomparator.service.ComparisonRequestCoalescer;
+import com.example.dbcomparator.service.ComparisonRun;
+import com.example.dbcomparator.service.ComparisonTaskExecutor;
 import com.example.dbcomparator.service.DatabaseComparisonService;
-import com.example.dbcomparator.service.DatabaseComparisonService;
+import com.example.dbcomparator.service.DdlExtractionService;
+import com.example.dbcomparator.service.ReportStore;
+import com.example.dbcomparator.service.ResultPersistenceQueue;
+import com.example.dbcomparator.service.ResultPersistenceStatus;
+import com.example.dbcomparator.service.StoredReport;
 // Removed unused imports
 // import lombok.extern.slf4j.Slf4j; // Removed Slf4j import
 import org.slf4j.Logger; // Added explicit logger import
@@ -12,10 +22,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller for handling database comparison requests
@@ -28,45 +44,226 @@ public class ComparisonController {
     // Explicitly define the logger
     private static final Logger log = LoggerFactory.getLogger(ComparisonController.class);
 
+    static final String RUN_ID_HEADER = "X-Comparison-Run-Id";
+
     private final DatabaseComparisonService comparisonService;
+    private final CatalogCache catalogCache;
+    private final ResultPersistenceQueue resultQueue;
+    private final DdlExtractionService ddlExtraction;
+    private final ComparisonRequestCoalescer coalescer;
+    private final ComparisonProperties properties;
+    private final ReportStore reportStore;
+    private final CatalogFingerprinter fingerprinter;
+    private final ComparisonTaskExecutor taskExecutor;
 
     @Autowired
-    public ComparisonController(DatabaseComparisonService comparisonService) {
+    public ComparisonController(DatabaseComparisonService comparisonService, CatalogCache catalogCache,
+                                ResultPersistenceQueue resultQueue, DdlExtractionService ddlExtraction,
+                                ComparisonRequestCoalescer coalescer, ComparisonProperties properties,
+                                ReportStore reportStore, CatalogFingerprinter fingerprinter,
+                                ComparisonTaskExecutor taskExecutor) {
         this.comparisonService = comparisonService;
+        this.catalogCache = catalogCache;
+        this.resultQueue = resultQueue;
+        this.ddlExtraction = ddlExtraction;
+        this.coalescer = coalescer;
+        this.properties = properties;
+        this.reportStore = reportStore;
+        this.fingerprinter = fingerprinter;
+        this.taskExecutor = taskExecutor;
     }
 
      /**
-     * Generate an Excel report with comparison results
+     * Generate an Excel report with comparison results.
+     * The comparison runs before the response is committed, so connection errors still map to an error status;
+     * the workbook is then streamed straight to the response without being buffered on the heap.
+     * Concurrent requests for the same schema pair share one comparison run (and its run id header).
+     * With the report store enabled, the workbook is written to disk once and served from there; while both catalog
+     * fingerprints are unchanged, the stored report of the last run is served without comparing again.
      *
      * @param oracleSchema   The Oracle schema name
      * @param postgresSchema The PostgreSQL schema name
-     * @return Excel file as byte array
+     * @return Excel file streamed to the response, or 429 if too many distinct comparisons are running
      */
     @GetMapping("/report")
-    public ResponseEntity<byte[]> generateReport(
+    public ResponseEntity<StreamingResponseBody> generateReport(
             @RequestParam("oracleSchema") String oracleSchema,
-            @RequestParam("postgresSchema") String postgresSchema) {
+            @RequestParam("postgresSchema") String postgresSchema,
+            @RequestHeader HttpHeaders requestHeaders) {
         
         log.info("Received request to generate report for Oracle schema '{}' and PostgreSQL schema '{}'", 
                 oracleSchema, postgresSchema);
-        
+        // Use underscores for better compatibility
+        String fileName = "database_comparison_" + oracleSchema + "_" + postgresSchema + ".xlsx";
+
+        String oracleFingerprint = null;
+        String postgresFingerprint = null;
+        String catalogKey = null;
+        if (reportStore.isEnabled()) {
+            // Taken once: they key the stored report and are handed to the run for its catalog cache lookups.
+            // The lookup needs no comparison slot, so an unchanged catalog is served even while all slots are taken
+            try {
+                CompletableFuture<String> oracleFingerprintFetch = taskExecutor.submitOracle(() -> fingerprinter.oracleFingerprint(oracleSchema));
+                CompletableFuture<String> postgresFingerprintFetch = taskExecutor.submitPostgres(() -> fingerprinter.postgresFingerprint(postgresSchema));
+                oracleFingerprint = ComparisonTaskExecutor.await(oracleFingerprintFetch);
+                postgresFingerprint = ComparisonTaskExecutor.await(postgresFingerprintFetch);
+            } catch (RuntimeException e) {
+                // Either database is unreachable; checkConnections() would fail the same way
+                log.error("Error fingerprinting the catalogs (potentially connection issue): {}", e.getMessage(), e);
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(textBody("Error during comparison: " + e.getMessage()));
+            }
+            catalogKey = reportStore.catalogKey(oracleSchema, postgresSchema, oracleFingerprint, postgresFingerprint);
+            Optional<StoredReport> current = reportStore.findCurrent(catalogKey);
+            if (current.isPresent()) {
+                log.info("Catalogs unchanged, serving the stored report of run {}", current.get().getComparisonRunUuid());
+                try {
+                    return ReportFileResponses.serve(current.get(), fileName, requestHeaders);
+                } catch (IOException e) {
+                    log.warn("Stored report of run {} is gone, comparing again: {}", current.get().getComparisonRunUuid(), e.getMessage());
+                }
+            }
+        }
+
+        ComparisonRun run;
         try {
-            byte[] reportBytes = comparisonService.generateComparisonReport(oracleSchema, postgresSchema);
-
-            HttpHeaders headers = new HttpHeaders();
-            // Use standard XLSX MIME type
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment",
-                    "database_comparison_" + oracleSchema + "_" + postgresSchema + ".xlsx"); // Use underscores for better compatibility
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            log.error("Error generating Excel report: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error generating report.".getBytes());
+            run = coalescer.runComparison(oracleSchema, postgresSchema, oracleFingerprint, postgresFingerprint);
+        } catch (RejectedExecutionException e) {
+            return tooManyComparisons(e);
         } catch (RuntimeException e) {
              // Catch potential connection errors from checkConnections()
              log.error("Error during comparison process (potentially connection issue): {}", e.getMessage(), e);
-             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(("Error during comparison: " + e.getMessage()).getBytes());
+             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(textBody("Error during comparison: " + e.getMessage()));
+        }
+
+        if (reportStore.isEnabled()) {
+            try {
+                return ReportFileResponses.serve(reportStore.save(run, catalogKey), fileName, requestHeaders);
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not store report of run {}, streaming it instead: {}", run.getComparisonRunUuid(), e.getMessage(), e);
+            }
         }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(ReportFileResponses.XLSX);
+        headers.setContentDispositionFormData("attachment", fileName);
+        // Differences are still being written in the background; poll /runs/{id}/persistence for the flush status
+        headers.set(RUN_ID_HEADER, run.getComparisonRunUuid().toString());
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                comparisonService.writeComparisonReport(run, outputStream);
+            } catch (IOException e) {
+                // Headers are already sent at this point; the client sees a truncated download
+                log.error("Error streaming Excel report for run {}: {}", run.getComparisonRunUuid(), e.getMessage(), e);
+                throw e;
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Download the stored report of a run again, with ETag revalidation (304) and byte ranges.
+     *
+     * @param id The run id from the X-Comparison-Run-Id header
+     * @return The report, or 404 for unknown or evicted runs
+     */
+    @GetMapping("/reports/{id}")
+    public ResponseEntity<StreamingResponseBody> downloadStoredReport(@PathVariable("id") UUID id,
+                                                                      @RequestHeader HttpHeaders requestHeaders) {
+        Optional<StoredReport> report = reportStore.find(id);
+        if (report.isPresent()) {
+            try {
+                return ReportFileResponses.serve(report.get(), "database_comparison_" + id + ".xlsx", requestHeaders);
+            } catch (IOException e) {
+                log.warn("Stored report of run {} was evicted before it could be served: {}", id, e.getMessage());
+            }
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Compare both schemas and download the DDL of every object found on one side only, as a zip of .sql files.
+     * Batches are extracted in parallel and written to the zip as they complete.
+     *
+     * @param oracleSchema   The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @return Zip file streamed to the response, or 429 if too many distinct comparisons are running
+     */
+    @GetMapping("/ddl")
+    public ResponseEntity<StreamingResponseBody> downloadDdl(
+            @RequestParam("oracleSchema") String oracleSchema,
+            @RequestParam("postgresSchema") String postgresSchema) {
+        log.info("Received request for the DDL of missing objects in Oracle schema '{}' and PostgreSQL schema '{}'",
+                oracleSchema, postgresSchema);
+
+        ComparisonRun run;
+        try {
+            run = coalescer.runComparison(oracleSchema, postgresSchema);
+        } catch (RejectedExecutionException e) {
+            return tooManyComparisons(e);
+        } catch (RuntimeException e) {
+            log.error("Error during comparison process (potentially connection issue): {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(textBody("Error during comparison: " + e.getMessage()));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "missing_objects_ddl_" + oracleSchema + "_" + postgresSchema + ".zip");
+        headers.set(RUN_ID_HEADER, run.getComparisonRunUuid().toString());
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                // Reuse the DDL of the run when extraction is enabled, otherwise extract straight into the zip
+                if (!run.getDdl().isEmpty()) {
+                    ddlExtraction.writeArchive(run.getDdl(), outputStream);
+                } else {
+                    ddlExtraction.writeArchive(oracleSchema, postgresSchema, run.getResults(), outputStream);
+                }
+            } catch (IOException e) {
+                log.error("Error streaming DDL archive for run {}: {}", run.getComparisonRunUuid(), e.getMessage(), e);
+                throw e;
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Write-behind status of a run's differences in comparison_results.
+     *
+     * @return The status (PENDING, FLUSHED or FAILED with row counts), 404 for unknown or expired runs
+     */
+    @GetMapping("/runs/{id}/persistence")
+    public ResponseEntity<ResultPersistenceStatus> getPersistenceStatus(@PathVariable("id") UUID id) {
+        return resultQueue.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Hit/miss statistics of the catalog cache.
+     */
+    @GetMapping("/cache/stats")
+    public CatalogCache.CacheStats getCacheStats() {
+        return catalogCache.stats();
+    }
+
+    /**
+     * Drop every cached catalog fetch, forcing the next comparison to rescan both dictionaries.
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        catalogCache.clear();
+        log.info("Catalog cache cleared");
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<StreamingResponseBody> tooManyComparisons(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(properties.getComparisonRetryAfter().toSeconds()))
+                .body(textBody(e.getMessage()));
+    }
+
+    private static StreamingResponseBody textBody(String message) {
+        return outputStream -> outputStream.write(message.getBytes(StandardCharsets.UTF_8));
     }
 }
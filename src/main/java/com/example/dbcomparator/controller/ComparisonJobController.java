@@ -0,0 +1,97 @@
+package com.example.dbcomparator.controller;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.service.ComparisonJob;
+import com.example.dbcomparator.service.ComparisonJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller for asynchronous comparison jobs: submit, poll status, download the finished report
+ */
+@RestController
+@RequestMapping("/api/compare/jobs")
+public class ComparisonJobController {
+
+    private static final Logger log = LoggerFactory.getLogger(ComparisonJobController.class);
+
+    private final ComparisonJobService jobService;
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public ComparisonJobController(ComparisonJobService jobService, ComparisonProperties properties) {
+        this.jobService = jobService;
+        this.properties = properties;
+    }
+
+    /**
+     * Queue a comparison for a schema pair and return its job id right away.
+     *
+     * @param oracleSchema   The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @return 202 with the job status and a Location header to poll, or 429 if the job queue is full
+     */
+    @PostMapping
+    public ResponseEntity<?> submitJob(
+            @RequestParam("oracleSchema") String oracleSchema,
+            @RequestParam("postgresSchema") String postgresSchema) {
+        try {
+            ComparisonJob job = jobService.submit(oracleSchema, postgresSchema);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}").buildAndExpand(job.getComparisonRunUuid()).toUri();
+            return ResponseEntity.accepted().location(location).body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(properties.getComparisonRetryAfter().toSeconds()))
+                    .body(Map.of("error", "Comparison job queue is full, retry later."));
+        }
+    }
+
+    /**
+     * Current status of a job.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ComparisonJob> getJob(@PathVariable("id") UUID id) {
+        return jobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Download the report of a finished job.
+     *
+     * @return The Excel file, 409 while the job is still queued/running or has failed, 404 for unknown/expired jobs
+     */
+    @GetMapping("/{id}/report")
+    public ResponseEntity<?> downloadReport(@PathVariable("id") UUID id) {
+        ComparisonJob job = jobService.getJob(id).orElse(null);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != ComparisonJob.Status.SUCCEEDED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job);
+        }
+
+        log.info("Serving report for comparison job {}", id);
+        Resource report = new FileSystemResource(job.getReportFile());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment",
+                "database_comparison_" + job.getOracleSchema() + "_" + job.getPostgresSchema() + ".xlsx");
+        return new ResponseEntity<>(report, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dbcomparator.controller;
+
+import com.example.dbcomparator.service.ComparisonReportWriter;
+import com.example.dbcomparator.service.DataComparisonMode;
+import com.example.dbcomparator.service.DataComparisonService;
+import com.example.dbcomparator.service.TableDataComparison;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Controller for row-level data comparison of migrated tables
+ */
+@RestController
+@RequestMapping("/api/compare/data")
+public class DataComparisonController {
+
+    private static final Logger log = LoggerFactory.getLogger(DataComparisonController.class);
+
+    private final DataComparisonService dataComparisonService;
+    private final ComparisonReportWriter reportWriter;
+
+    @Autowired
+    public DataComparisonController(DataComparisonService dataComparisonService, ComparisonReportWriter reportWriter) {
+        this.dataComparisonService = dataComparisonService;
+        this.reportWriter = reportWriter;
+    }
+
+    /**
+     * Compare table contents and return the per-table mismatch report as Excel.
+     *
+     * @param oracleSchema   The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @param tables         Optional table names; all tables present on both sides when omitted
+     * @param mode           CHECKSUM (exact, default) or SAMPLE (estimated mismatch rate from a block sample)
+     * @return Excel file streamed to the response
+     */
+    @GetMapping("/report")
+    public ResponseEntity<StreamingResponseBody> generateDataReport(
+            @RequestParam("oracleSchema") String oracleSchema,
+            @RequestParam("postgresSchema") String postgresSchema,
+            @RequestParam(value = "tables", required = false) List<String> tables,
+            @RequestParam(value = "mode", defaultValue = "CHECKSUM") DataComparisonMode mode) {
+
+        log.info("Received request to compare table data ({}) of Oracle schema '{}' and PostgreSQL schema '{}'",
+                mode, oracleSchema, postgresSchema);
+
+        List<TableDataComparison> results;
+        try {
+            results = dataComparisonService.compareData(oracleSchema, postgresSchema,
+                    tables != null ? tables : Collections.emptyList(), mode);
+        } catch (RuntimeException e) {
+            log.error("Error during data comparison: {}", e.getMessage(), e);
+            StreamingResponseBody error = outputStream ->
+                    outputStream.write(("Error during data comparison: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment",
+                "data_comparison_" + oracleSchema + "_" + postgresSchema + ".xlsx");
+
+        StreamingResponseBody body = outputStream -> reportWriter.writeDataReport(results, outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.dbcomparator.controller;
+
+import com.example.dbcomparator.service.StoredReport;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Responses for stored report files: conditional GET on the run's ETag (304), single byte ranges (206 / 416)
+ * and a body copied with {@link FileChannel#transferTo}, so the file is never read onto the heap.
+ * Multiple ranges are answered with the whole file, which RFC 9110 allows.
+ * The file is checked before the status and Content-Length are set, so a report already evicted is reported to
+ * the caller. It is only opened once the body is written, so a body that is never written holds no file handle;
+ * a report evicted in between ends the download early, like a file that is shorter than expected.
+ */
+final class ReportFileResponses {
+
+    static final MediaType XLSX = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private ReportFileResponses() {
+    }
+
+    /**
+     * @throws IOException If the report file is gone (e.g. it was evicted in the meantime)
+     */
+    static ResponseEntity<StreamingResponseBody> serve(StoredReport report, String fileName, HttpHeaders request) throws IOException {
+        if (!Files.isRegularFile(report.getFile())) {
+            throw new NoSuchFileException(report.getFile().toString());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(report.getETag());
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        headers.set(ComparisonController.RUN_ID_HEADER, report.getComparisonRunUuid().toString());
+        if (matches(request.getIfNoneMatch(), report.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.setContentType(XLSX);
+        headers.setContentDispositionFormData("attachment", fileName);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long length = report.getSizeBytes();
+        HttpRange range = singleRange(request, report.getETag());
+        if (range == null) {
+            headers.setContentLength(length);
+            return new ResponseEntity<>(body(report.getFile(), 0, length), headers, HttpStatus.OK);
+        }
+
+        long start = range.getRangeStart(length);
+        long end = range.getRangeEnd(length);
+        if (start >= length || start > end) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        headers.setContentLength(end - start + 1);
+        return new ResponseEntity<>(body(report.getFile(), start, end - start + 1), headers, HttpStatus.PARTIAL_CONTENT);
+    }
+
+    // Weak comparison, as for If-None-Match
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || candidate.replaceFirst("^W/", "").equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The requested range, or null to send the whole file (no or malformed Range, several ranges, stale If-Range)
+    private static HttpRange singleRange(HttpHeaders request, String etag) {
+        List<HttpRange> ranges;
+        try {
+            ranges = request.getRange();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String ifRange = request.getFirst(HttpHeaders.IF_RANGE);
+        if (ranges.size() != 1 || (ifRange != null && !ifRange.equals(etag))) {
+            return null;
+        }
+        return ranges.get(0);
+    }
+
+    private static StreamingResponseBody body(Path file, long position, long count) {
+        return outputStream -> {
+            FileChannel source;
+            try {
+                source = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                throw new EOFException("Stored report " + file + " was evicted before it was sent");
+            }
+            try (FileChannel channel = source) {
+                WritableByteChannel target = Channels.newChannel(outputStream);
+                long offset = position;
+                long remaining = count;
+                while (remaining > 0) {
+                    long sent = channel.transferTo(offset, remaining, target);
+                    if (sent <= 0) {
+                        throw new EOFException("Stored report " + file + " is shorter than expected");
+                    }
+                    offset += sent;
+                    remaining -= sent;
+                }
+            }
+        };
+    }
+}
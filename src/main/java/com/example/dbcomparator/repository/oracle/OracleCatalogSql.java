@@ -0,0 +1,88 @@
+package com.example.dbcomparator.repository.oracle;
+
+/**
+ * Oracle catalog query templates, shared by the repository and the JDBC catalog reader.
+ * {dict} and {owner} are filled in by {@link OracleDictionaryViews#render}; parameters are named
+ * (:owner, :objectType, :since). Columns are in the same order in every query:
+ * name, type, schema, id, owner, status, created, lastDdlTime.
+ */
+public final class OracleCatalogSql {
+
+    public static final String OBJECTS =
+        "SELECT OBJECT_NAME as name, OBJECT_TYPE as type, {owner} as schema, " +
+        "{owner} || '.' || OBJECT_NAME as id, " +
+        "{owner} as owner, STATUS as status, " +
+        "TO_CHAR(CREATED, 'YYYY-MM-DD HH24:MI:SS') as created, " +
+        "TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') as lastDdlTime " +
+        "FROM {dict}_OBJECTS " +
+        "WHERE {owner} = :owner " +
+        "ORDER BY OBJECT_TYPE, OBJECT_NAME";
+
+    public static final String OBJECTS_OF_TYPE =
+        "SELECT OBJECT_NAME as name, OBJECT_TYPE as type, {owner} as schema, " +
+        "{owner} || '.' || OBJECT_NAME as id, " +
+        "{owner} as owner, STATUS as status, " +
+        "TO_CHAR(CREATED, 'YYYY-MM-DD HH24:MI:SS') as created, " +
+        "TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') as lastDdlTime " +
+        "FROM {dict}_OBJECTS " +
+        "WHERE {owner} = :owner AND OBJECT_TYPE = :objectType " +
+        "ORDER BY OBJECT_NAME";
+
+    // The id includes the object type and subobject name, so rows sharing a name
+    // (package and package body, table partitions) are not collapsed into one entity
+    private static final String SNAPSHOT_SELECT =
+        "SELECT OBJECT_NAME as name, OBJECT_TYPE as type, {owner} as schema, " +
+        "{owner} || '.' || OBJECT_TYPE || '.' || OBJECT_NAME || " +
+        "CASE WHEN SUBOBJECT_NAME IS NOT NULL THEN '.' || SUBOBJECT_NAME END as id, " +
+        "{owner} as owner, STATUS as status, " +
+        "TO_CHAR(CREATED, 'YYYY-MM-DD HH24:MI:SS') as created, " +
+        "TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') as lastDdlTime " +
+        "FROM {dict}_OBJECTS ";
+
+    public static final String SNAPSHOT =
+        SNAPSHOT_SELECT +
+        "WHERE {owner} = :owner " +
+        "ORDER BY OBJECT_TYPE, OBJECT_NAME";
+
+    public static final String SNAPSHOT_OF_TYPE =
+        SNAPSHOT_SELECT +
+        "WHERE {owner} = :owner AND OBJECT_TYPE = :objectType " +
+        "ORDER BY OBJECT_NAME";
+
+    public static final String CHANGES_SINCE =
+        SNAPSHOT_SELECT +
+        "WHERE {owner} = :owner AND OBJECT_TYPE = :objectType " +
+        "AND LAST_DDL_TIME >= TO_DATE(:since, 'YYYY-MM-DD HH24:MI:SS') " +
+        "ORDER BY OBJECT_NAME";
+
+    public static final String INDEXES =
+        "SELECT INDEX_NAME as name, 'INDEX' as type, {owner} as schema, " +
+        "{owner} || '.' || INDEX_NAME as id, " +
+        "{owner} as owner, STATUS as status, " +
+        "NULL as created, " + // The index views don't have created/last_ddl_time
+        "NULL as lastDdlTime " +
+        "FROM {dict}_INDEXES " +
+        "WHERE {owner} = :owner " +
+        "ORDER BY INDEX_NAME";
+
+    public static final String CONSTRAINTS =
+        "SELECT CONSTRAINT_NAME as name, " +
+        "CASE CONSTRAINT_TYPE " +
+        "  WHEN 'P' THEN 'PRIMARY KEY' " +
+        "  WHEN 'U' THEN 'UNIQUE' " +
+        "  WHEN 'C' THEN 'CHECK' " +
+        "  WHEN 'R' THEN 'FOREIGN KEY' " +
+        "  ELSE 'CONSTRAINT' " + // Default type
+        "END as type, " +
+        "{owner} as schema, " +
+        "{owner} || '.' || CONSTRAINT_NAME as id, " +
+        "{owner} as owner, STATUS as status, " +
+        "NULL as created, " + // The constraint views don't have created/last_ddl_time
+        "NULL as lastDdlTime " +
+        "FROM {dict}_CONSTRAINTS " +
+        "WHERE {owner} = :owner " +
+        "ORDER BY CONSTRAINT_NAME";
+
+    private OracleCatalogSql() {
+    }
+}
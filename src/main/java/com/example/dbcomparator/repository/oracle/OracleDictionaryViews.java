@@ -0,0 +1,81 @@
+package com.example.dbcomparator.repository.oracle;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the cheapest Oracle dictionary view family for a schema. ALL_* views evaluate privilege predicates for
+ * every row; USER_* (the connected user's own schema) and DBA_* (no per-row checks) avoid that.
+ * Which one applies depends on the account, which is probed once per datasource and cached.
+ *
+ * Query templates use {dict} for the view prefix and {owner} for the owner column; USER_* views have no OWNER
+ * column, so there {owner} becomes the USER function.
+ */
+@Component
+public class OracleDictionaryViews {
+
+    private static final Logger log = LoggerFactory.getLogger(OracleDictionaryViews.class);
+
+    public enum View {
+        USER, DBA, ALL
+    }
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final Map<DataSource, Access> accessByDataSource = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OracleDictionaryViews(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+    }
+
+    /**
+     * USER when the connected user owns the schema, DBA when the account can read the DBA views, ALL otherwise.
+     */
+    public View viewFor(String owner) {
+        Access access = accessByDataSource.computeIfAbsent(oracleJdbcTemplate.getDataSource(), dataSource -> probe());
+        if (owner.equals(access.connectedUser)) {
+            return View.USER;
+        }
+        return access.dbaViews ? View.DBA : View.ALL;
+    }
+
+    /**
+     * Fill in a query template for the view family that applies to the given owner.
+     */
+    public String render(String template, String owner) {
+        View view = viewFor(owner);
+        return template
+                .replace("{dict}", view.name())
+                .replace("{owner}", view == View.USER ? "USER" : "OWNER");
+    }
+
+    private Access probe() {
+        String connectedUser = oracleJdbcTemplate.queryForObject("SELECT USER FROM DUAL", String.class);
+        boolean dbaViews;
+        try {
+            // Granted through SELECT ANY DICTIONARY or SELECT_CATALOG_ROLE
+            oracleJdbcTemplate.queryForObject("SELECT COUNT(*) FROM DBA_OBJECTS WHERE ROWNUM = 1", Integer.class);
+            dbaViews = true;
+        } catch (DataAccessException e) {
+            dbaViews = false;
+        }
+        log.info("Oracle dictionary access: connected as {}, DBA_ views {}", connectedUser, dbaViews ? "readable" : "not readable");
+        return new Access(connectedUser, dbaViews);
+    }
+
+    @RequiredArgsConstructor
+    private static class Access {
+        private final String connectedUser;
+        private final boolean dbaViews;
+    }
+}
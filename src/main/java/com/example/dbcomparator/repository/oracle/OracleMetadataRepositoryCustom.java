@@ -0,0 +1,105 @@
+package com.example.dbcomparator.repository.oracle;
+
+import com.example.dbcomparator.model.oracle.OracleObject;
+
+import java.util.List;
+
+/**
+ * Catalog queries of {@link OracleMetadataRepository}. They are built at runtime rather than declared with @Query,
+ * so each one reads from the cheapest dictionary view family (USER_, DBA_ or ALL_) for the schema.
+ */
+public interface OracleMetadataRepositoryCustom {
+
+    /**
+     * Find all objects in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of database objects
+     */
+    List<OracleObject> findAllObjectsByOwner(String owner);
+
+    /**
+     * Fetch the whole catalog of a schema in a single dictionary scan (snapshot mode).
+     * The id includes the object type and subobject name, so rows sharing a name
+     * (package and package body, table partitions) are not collapsed into one entity.
+     *
+     * @param owner The schema/owner name
+     * @return List of database objects ordered by type and name
+     */
+    List<OracleObject> findCatalogSnapshotByOwner(String owner);
+
+    /**
+     * Fetch one object type of the catalog snapshot (incremental mode, for a branch that has to be reloaded)
+     *
+     * @param owner The schema/owner name
+     * @param objectType The OBJECT_TYPE to fetch
+     * @return List of database objects ordered by name
+     */
+    List<OracleObject> findCatalogSnapshotByOwnerAndType(String owner, String objectType);
+
+    /**
+     * Fetch the objects of one type created or altered at or after a point in time (incremental mode delta query)
+     *
+     * @param owner The schema/owner name
+     * @param objectType The OBJECT_TYPE to fetch
+     * @param since Lower bound for LAST_DDL_TIME, formatted 'YYYY-MM-DD HH24:MI:SS'
+     * @return List of changed database objects ordered by name
+     */
+    List<OracleObject> findCatalogChangesSince(String owner, String objectType, String since);
+
+    /**
+     * Find all tables in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of tables
+     */
+    List<OracleObject> findAllTablesByOwner(String owner);
+
+    /**
+     * Find all views in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of views
+     */
+    List<OracleObject> findAllViewsByOwner(String owner);
+
+    /**
+     * Find all procedures in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of procedures
+     */
+    List<OracleObject> findAllProceduresByOwner(String owner);
+
+    /**
+     * Find all functions in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of functions
+     */
+    List<OracleObject> findAllFunctionsByOwner(String owner);
+
+    /**
+     * Find all sequences in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of sequences
+     */
+    List<OracleObject> findAllSequencesByOwner(String owner);
+
+    /**
+     * Find all indexes in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of indexes
+     */
+    List<OracleObject> findAllIndexesByOwner(String owner);
+
+    /**
+     * Find all constraints in a specific schema
+     *
+     * @param owner The schema/owner name
+     * @return List of constraints
+     */
+    List<OracleObject> findAllConstraintsByOwner(String owner);
+}
@@ -0,0 +1,92 @@
+package com.example.dbcomparator.repository.oracle;
+
+import com.example.dbcomparator.model.oracle.OracleObject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+/**
+ * Runs the {@link OracleCatalogSql} templates as native queries against the view family chosen by
+ * {@link OracleDictionaryViews}.
+ */
+public class OracleMetadataRepositoryCustomImpl implements OracleMetadataRepositoryCustom {
+
+    @PersistenceContext(unitName = "oracle")
+    private EntityManager entityManager;
+
+    private final OracleDictionaryViews dictionaryViews;
+
+    @Autowired
+    public OracleMetadataRepositoryCustomImpl(OracleDictionaryViews dictionaryViews) {
+        this.dictionaryViews = dictionaryViews;
+    }
+
+    @Override
+    public List<OracleObject> findAllObjectsByOwner(String owner) {
+        return query(OracleCatalogSql.OBJECTS, owner);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogSnapshotByOwner(String owner) {
+        return query(OracleCatalogSql.SNAPSHOT, owner);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogSnapshotByOwnerAndType(String owner, String objectType) {
+        return query(OracleCatalogSql.SNAPSHOT_OF_TYPE, owner, "objectType", objectType);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogChangesSince(String owner, String objectType, String since) {
+        return query(OracleCatalogSql.CHANGES_SINCE, owner, "objectType", objectType, "since", since);
+    }
+
+    @Override
+    public List<OracleObject> findAllTablesByOwner(String owner) {
+        return query(OracleCatalogSql.OBJECTS_OF_TYPE, owner, "objectType", "TABLE");
+    }
+
+    @Override
+    public List<OracleObject> findAllViewsByOwner(String owner) {
+        return query(OracleCatalogSql.OBJECTS_OF_TYPE, owner, "objectType", "VIEW");
+    }
+
+    @Override
+    public List<OracleObject> findAllProceduresByOwner(String owner) {
+        return query(OracleCatalogSql.OBJECTS_OF_TYPE, owner, "objectType", "PROCEDURE");
+    }
+
+    @Override
+    public List<OracleObject> findAllFunctionsByOwner(String owner) {
+        return query(OracleCatalogSql.OBJECTS_OF_TYPE, owner, "objectType", "FUNCTION");
+    }
+
+    @Override
+    public List<OracleObject> findAllSequencesByOwner(String owner) {
+        return query(OracleCatalogSql.OBJECTS_OF_TYPE, owner, "objectType", "SEQUENCE");
+    }
+
+    @Override
+    public List<OracleObject> findAllIndexesByOwner(String owner) {
+        return query(OracleCatalogSql.INDEXES, owner);
+    }
+
+    @Override
+    public List<OracleObject> findAllConstraintsByOwner(String owner) {
+        return query(OracleCatalogSql.CONSTRAINTS, owner);
+    }
+
+    // Extra parameters come as name/value pairs
+    @SuppressWarnings("unchecked")
+    private List<OracleObject> query(String template, String owner, String... parameters) {
+        Query query = entityManager.createNativeQuery(dictionaryViews.render(template, owner), OracleObject.class);
+        query.setParameter("owner", owner);
+        for (int i = 0; i < parameters.length; i += 2) {
+            query.setParameter(parameters[i], parameters[i + 1]);
+        }
+        return query.getResultList();
+    }
+}
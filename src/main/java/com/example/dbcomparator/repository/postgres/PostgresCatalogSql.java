@@ -0,0 +1,136 @@
+package com.example.dbcomparator.repository.postgres;
+
+import java.util.List;
+
+/**
+ * PostgreSQL catalog queries, shared by the repository (@Query constants) and the JDBC catalog reader.
+ * All of them read pg_catalog directly; the information_schema views stack joins and privilege checks
+ * on top of the same tables. Columns are in the same order in every query:
+ * name, type, schema, id, schemaName, objectType, createdAt, updatedAt.
+ */
+public final class PostgresCatalogSql {
+
+    /**
+     * Object types of the pg_class relations listed by {@link #RELATIONS}.
+     */
+    public static final List<String> RELATION_TYPES = List.of("TABLE", "VIEW", "INDEX", "SEQUENCE", "FOREIGN TABLE");
+
+    /**
+     * Object types {@link #CONSTRAINTS} can return.
+     */
+    public static final List<String> CONSTRAINT_TYPES = List.of("PRIMARY KEY", "UNIQUE", "CHECK", "FOREIGN KEY", "EXCLUDE", "CONSTRAINT");
+
+    private static final String RELATION_TYPE =
+        "CASE c.relkind " +
+        "  WHEN 'r' THEN 'TABLE' " +
+        "  WHEN 'v' THEN 'VIEW' " +
+        "  WHEN 'i' THEN 'INDEX' " +
+        "  WHEN 'S' THEN 'SEQUENCE' " +
+        "  WHEN 'f' THEN 'FOREIGN TABLE' " +
+        "  ELSE c.relkind::text " +
+        "END";
+
+    // Same names as information_schema.table_constraints.constraint_type
+    private static final String CONSTRAINT_TYPE =
+        "CASE k.contype " +
+        "  WHEN 'p' THEN 'PRIMARY KEY' " +
+        "  WHEN 'u' THEN 'UNIQUE' " +
+        "  WHEN 'c' THEN 'CHECK' " +
+        "  WHEN 'f' THEN 'FOREIGN KEY' " +
+        "  WHEN 'x' THEN 'EXCLUDE' " +
+        "  ELSE 'CONSTRAINT' " +
+        "END";
+
+    // pg_catalog has no creation time; kept for the entity columns
+    private static final String TIMESTAMPS =
+        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " +
+        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt ";
+
+    private static final String RELATION_SELECT =
+        "SELECT c.relname as name, " + RELATION_TYPE + " as type, n.nspname as schema, " +
+        "n.nspname || '.' || c.relname as id, " +
+        "n.nspname as schemaName, " + RELATION_TYPE + " as objectType, " +
+        TIMESTAMPS +
+        "FROM pg_class c " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = :schemaName ";
+
+    public static final String RELATIONS =
+        RELATION_SELECT +
+        "AND c.relkind IN ('r', 'v', 'i', 'S', 'f') " +
+        "ORDER BY c.relkind, c.relname";
+
+    public static final String RELATIONS_OF_KIND =
+        RELATION_SELECT +
+        "AND c.relkind::text = :relkind " +
+        "ORDER BY c.relname";
+
+    public static final String TABLES = RELATION_SELECT + "AND c.relkind = 'r' ORDER BY c.relname";
+
+    public static final String VIEWS = RELATION_SELECT + "AND c.relkind = 'v' ORDER BY c.relname";
+
+    public static final String SEQUENCES = RELATION_SELECT + "AND c.relkind = 'S' ORDER BY c.relname";
+
+    public static final String INDEXES = RELATION_SELECT + "AND c.relkind = 'i' ORDER BY c.relname";
+
+    // prokind (PostgreSQL 11+): 'f' function, 'p' procedure, 'a' aggregate, 'w' window function
+    private static final String ROUTINE_SELECT =
+        "SELECT p.proname as name, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END as type, " +
+        "n.nspname as schema, " +
+        "n.nspname || '.' || p.proname as id, " +
+        "n.nspname as schemaName, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END as objectType, " +
+        TIMESTAMPS +
+        "FROM pg_proc p " +
+        "JOIN pg_namespace n ON n.oid = p.pronamespace " +
+        "WHERE n.nspname = :schemaName ";
+
+    public static final String FUNCTIONS = ROUTINE_SELECT + "AND p.prokind = 'f' ORDER BY p.proname";
+
+    public static final String PROCEDURES = ROUTINE_SELECT + "AND p.prokind = 'p' ORDER BY p.proname";
+
+    // Table constraints only (conrelid = 0 are domain constraints), as in information_schema.table_constraints
+    private static final String CONSTRAINT_SELECT =
+        "SELECT k.conname as name, " + CONSTRAINT_TYPE + " as type, n.nspname as schema, " +
+        "n.nspname || '.' || k.conname as id, " +
+        "n.nspname as schemaName, " + CONSTRAINT_TYPE + " as objectType, " +
+        TIMESTAMPS +
+        "FROM pg_constraint k " +
+        "JOIN pg_namespace n ON n.oid = k.connamespace " +
+        "WHERE n.nspname = :schemaName AND k.conrelid <> 0 ";
+
+    public static final String CONSTRAINTS = CONSTRAINT_SELECT + "ORDER BY k.conname";
+
+    /**
+     * Relations, functions, procedures and constraints in one round trip. Ids carry the type (and the oid for
+     * routines and constraints, whose names need not be unique), so e.g. a primary key and its index of the same
+     * name stay two entities.
+     */
+    public static final String CATALOG =
+        "SELECT c.relname as name, " + RELATION_TYPE + " as type, n.nspname as schema, " +
+        "n.nspname || '.' || " + RELATION_TYPE + " || '.' || c.relname as id, " +
+        "n.nspname as schemaName, " + RELATION_TYPE + " as objectType, " +
+        TIMESTAMPS +
+        "FROM pg_class c " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = :schemaName AND c.relkind IN ('r', 'v', 'i', 'S', 'f') " +
+        "UNION ALL " +
+        "SELECT p.proname, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END, n.nspname, " +
+        "n.nspname || '.' || CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END || '.' || p.proname || '.' || p.oid::text, " +
+        "n.nspname, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END, " +
+        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS'), to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') " +
+        "FROM pg_proc p " +
+        "JOIN pg_namespace n ON n.oid = p.pronamespace " +
+        "WHERE n.nspname = :schemaName AND p.prokind IN ('f', 'p') " +
+        "UNION ALL " +
+        "SELECT k.conname, " + CONSTRAINT_TYPE + ", n.nspname, " +
+        "n.nspname || '.' || " + CONSTRAINT_TYPE + " || '.' || k.conname || '.' || k.oid::text, " +
+        "n.nspname, " + CONSTRAINT_TYPE + ", " +
+        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS'), to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') " +
+        "FROM pg_constraint k " +
+        "JOIN pg_namespace n ON n.oid = k.connamespace " +
+        "WHERE n.nspname = :schemaName AND k.conrelid <> 0 " +
+        "ORDER BY 2, 1";
+
+    private PostgresCatalogSql() {
+    }
+}
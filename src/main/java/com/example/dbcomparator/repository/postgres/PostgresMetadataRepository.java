@@ -9,139 +9,84 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 /**
- * Repository for querying PostgreSQL database metadata
+ * Repository for querying PostgreSQL database metadata.
+ * Every query reads pg_catalog directly (see {@link PostgresCatalogSql}).
  */
 @Repository
 public interface PostgresMetadataRepository extends JpaRepository<PostgresObject, String> {
-    
+
     /**
-     * Find all objects in a specific schema
-     * 
+     * Find all objects in a specific schema.
+     * Also serves as the pg_class scan behind incremental snapshot mode.
+     *
      * @param schemaName The schema name
      * @return List of database objects
      */
-    @Query(nativeQuery = true, value = 
-        "SELECT c.relname as name, " +
-        "CASE c.relkind " +
-        "  WHEN 'r' THEN 'TABLE' " +
-        "  WHEN 'v' THEN 'VIEW' " +
-        "  WHEN 'i' THEN 'INDEX' " +
-        "  WHEN 'S' THEN 'SEQUENCE' " +
-        "  WHEN 'f' THEN 'FOREIGN TABLE' " +
-        "  ELSE c.relkind::text " +
-        "END as type, " +
-        "n.nspname as schema, " +
-        "n.nspname || '.' || c.relname as id, " +
-        "n.nspname as schemaName, " +
-        "CASE c.relkind " +
-        "  WHEN 'r' THEN 'TABLE' " +
-        "  WHEN 'v' THEN 'VIEW' " +
-        "  WHEN 'i' THEN 'INDEX' " +
-        "  WHEN 'S' THEN 'SEQUENCE' " +
-        "  WHEN 'f' THEN 'FOREIGN TABLE' " +
-        "  ELSE c.relkind::text " +
-        "END as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM pg_class c " +
-        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
-        "WHERE n.nspname = :schemaName " +
-        "AND c.relkind IN ('r', 'v', 'i', 'S', 'f') " +
-        "ORDER BY c.relkind, c.relname")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.RELATIONS)
     List<PostgresObject> findAllObjectsBySchema(@Param("schemaName") String schemaName);
-    
+
+    /**
+     * Fetch relations, functions, procedures and constraints of a schema in a single round trip (snapshot mode).
+     *
+     * @param schemaName The schema name
+     * @return List of database objects ordered by type and name
+     */
+    @Query(nativeQuery = true, value = PostgresCatalogSql.CATALOG)
+    List<PostgresObject> findCatalogBySchema(@Param("schemaName") String schemaName);
+
+    /**
+     * Find all objects of one relation kind in a specific schema (incremental mode, for a branch that has to be reloaded)
+     *
+     * @param schemaName The schema name
+     * @param relkind The pg_class relkind ('r', 'v', 'i', 'S' or 'f')
+     * @return List of database objects
+     */
+    @Query(nativeQuery = true, value = PostgresCatalogSql.RELATIONS_OF_KIND)
+    List<PostgresObject> findAllObjectsBySchemaAndRelkind(@Param("schemaName") String schemaName, @Param("relkind") String relkind);
+
     /**
      * Find all tables in a specific schema
-     * 
+     *
      * @param schemaName The schema name
      * @return List of tables
      */
-    @Query(nativeQuery = true, value = 
-        "SELECT c.relname as name, 'TABLE' as type, n.nspname as schema, " +
-        "n.nspname || '.' || c.relname as id, " +
-        "n.nspname as schemaName, 'TABLE' as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM pg_class c " +
-        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
-        "WHERE n.nspname = :schemaName " +
-        "AND c.relkind = 'r' " +
-        "ORDER BY c.relname")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.TABLES)
     List<PostgresObject> findAllTablesBySchema(@Param("schemaName") String schemaName);
-    
+
     /**
      * Find all views in a specific schema
-     * 
+     *
      * @param schemaName The schema name
      * @return List of views
      */
-    @Query(nativeQuery = true, value = 
-        "SELECT c.relname as name, 'VIEW' as type, n.nspname as schema, " +
-        "n.nspname || '.' || c.relname as id, " +
-        "n.nspname as schemaName, 'VIEW' as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM pg_class c " +
-        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
-        "WHERE n.nspname = :schemaName " +
-        "AND c.relkind = 'v' " +
-        "ORDER BY c.relname")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.VIEWS)
     List<PostgresObject> findAllViewsBySchema(@Param("schemaName") String schemaName);
-    
+
     /**
      * Find all sequences in a specific schema
-     * 
+     *
      * @param schemaName The schema name
      * @return List of sequences
      */
-    @Query(nativeQuery = true, value = 
-        "SELECT c.relname as name, 'SEQUENCE' as type, n.nspname as schema, " +
-        "n.nspname || '.' || c.relname as id, " +
-        "n.nspname as schemaName, 'SEQUENCE' as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM pg_class c " +
-        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
-        "WHERE n.nspname = :schemaName " +
-        "AND c.relkind = 'S' " +
-        "ORDER BY c.relname")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.SEQUENCES)
     List<PostgresObject> findAllSequencesBySchema(@Param("schemaName") String schemaName);
-    
+
     /**
-     * Find all functions in a specific schema
-     * 
+     * Find all functions in a specific schema (prokind 'f'; procedures, aggregates and window functions are excluded)
+     *
      * @param schemaName The schema name
      * @return List of functions
      */
-    @Query(nativeQuery = true, value = 
-        "SELECT p.proname as name, 'FUNCTION' as type, n.nspname as schema, " +
-        "n.nspname || '.' || p.proname as id, " +
-        "n.nspname as schemaName, 'FUNCTION' as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM pg_proc p " +
-        "JOIN pg_namespace n ON n.oid = p.pronamespace " +
-        "WHERE n.nspname = :schemaName " +
-        "ORDER BY p.proname")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.FUNCTIONS)
     List<PostgresObject> findAllFunctionsBySchema(@Param("schemaName") String schemaName);
-    
+
     /**
      * Find all indexes in a specific schema
-     * 
+     *
      * @param schemaName The schema name
      * @return List of indexes
      */
-    @Query(nativeQuery = true, value = 
-        "SELECT c.relname as name, 'INDEX' as type, n.nspname as schema, " +
-        "n.nspname || '.' || c.relname as id, " +
-        "n.nspname as schemaName, 'INDEX' as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM pg_class c " +
-        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
-        "WHERE n.nspname = :schemaName " +
-        "AND c.relkind = 'i' " +
-        "ORDER BY c.relname")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.INDEXES)
     List<PostgresObject> findAllIndexesBySchema(@Param("schemaName") String schemaName);
 
     /**
@@ -150,16 +95,7 @@ public interface PostgresMetadataRepository extends JpaRepository<PostgresObject
      * @param schemaName The schema name
      * @return List of procedures
      */
-    @Query(nativeQuery = true, value =
-        "SELECT r.routine_name as name, 'PROCEDURE' as type, r.routine_schema as schema, " +
-        "r.routine_schema || '.' || r.routine_name as id, " +
-        "r.routine_schema as schemaName, 'PROCEDURE' as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " + // Information schema doesn't easily provide creation time
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM information_schema.routines r " +
-        "WHERE r.routine_schema = :schemaName " +
-        "AND r.routine_type = 'PROCEDURE' " +
-        "ORDER BY r.routine_name")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.PROCEDURES)
     List<PostgresObject> findAllProceduresBySchema(@Param("schemaName") String schemaName);
 
     /**
@@ -168,14 +104,6 @@ public interface PostgresMetadataRepository extends JpaRepository<PostgresObject
      * @param schemaName The schema name
      * @return List of constraints
      */
-    @Query(nativeQuery = true, value =
-        "SELECT tc.constraint_name as name, tc.constraint_type as type, tc.constraint_schema as schema, " +
-        "tc.constraint_schema || '.' || tc.constraint_name as id, " +
-        "tc.constraint_schema as schemaName, tc.constraint_type as objectType, " +
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as createdAt, " + // Information schema doesn't easily provide creation time
-        "to_char(CURRENT_TIMESTAMP, 'YYYY-MM-DD HH24:MI:SS') as updatedAt " +
-        "FROM information_schema.table_constraints tc " +
-        "WHERE tc.constraint_schema = :schemaName " +
-        "ORDER BY tc.constraint_name")
+    @Query(nativeQuery = true, value = PostgresCatalogSql.CONSTRAINTS)
     List<PostgresObject> findAllConstraintsBySchema(@Param("schemaName") String schemaName);
 }
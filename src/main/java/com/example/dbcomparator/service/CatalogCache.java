@@ -0,0 +1,163 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of catalog fetch results, in front of the Oracle and PostgreSQL metadata repositories.
+ * Entries are keyed by side, schema and object type, and are only served while the schema fingerprint
+ * still matches the one they were loaded under. Bounded by entry count (least recently used goes first) and TTL.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCache.class);
+
+    public enum Side {
+        ORACLE, POSTGRES
+    }
+
+    private final ComparisonProperties properties;
+    private final Clock clock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Access order for LRU
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+    private long expirations;
+    private long evictions;
+
+    @Autowired
+    public CatalogCache(ComparisonProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    CatalogCache(ComparisonProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Return the cached fetch result for the key if it was loaded under the same fingerprint and has not expired,
+     * otherwise run the loader and cache its result. A null fingerprint bypasses the cache.
+     */
+    public List<? extends DatabaseObject> get(Side side, String schema, String objectType, String fingerprint,
+                                              Supplier<? extends List<? extends DatabaseObject>> loader) {
+        if (fingerprint == null) {
+            return loader.get();
+        }
+        Key key = new Key(side, schema, objectType);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.isExpired(clock.instant())) {
+                    entries.remove(key);
+                    expirations++;
+                } else if (!entry.fingerprint.equals(fingerprint)) {
+                    entries.remove(key);
+                    invalidations++;
+                } else {
+                    hits++;
+                    return entry.objects;
+                }
+            }
+            misses++;
+        }
+
+        // Load outside the lock so fetches for other keys are not serialized behind a slow dictionary scan
+        List<? extends DatabaseObject> objects = List.copyOf(loader.get());
+        synchronized (this) {
+            entries.put(key, new Entry(fingerprint, objects, clock.instant().plus(properties.getCacheTtl())));
+            evictOverflow();
+        }
+        log.debug("Cached {} {} objects for {} schema '{}'", objects.size(), objectType, side, schema);
+        return objects;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(entries.size(), hits, misses, invalidations, expirations, evictions);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > properties.getCacheMaxEntries() && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class CacheStats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long invalidations;
+        private final long expirations;
+        private final long evictions;
+    }
+
+    private static final class Key {
+        private final Side side;
+        private final String schema;
+        private final String objectType;
+
+        private Key(Side side, String schema, String objectType) {
+            this.side = side;
+            this.schema = schema;
+            this.objectType = objectType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key that = (Key) obj;
+            return side == that.side && schema.equals(that.schema) && objectType.equals(that.objectType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(side, schema, objectType);
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final List<? extends DatabaseObject> objects;
+        private final Instant expiresAt;
+
+        private Entry(String fingerprint, List<? extends DatabaseObject> objects, Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.objects = objects;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
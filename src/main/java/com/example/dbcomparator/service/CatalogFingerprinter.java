@@ -0,0 +1,93 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.repository.oracle.OracleDictionaryViews;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computes a cheap fingerprint of a schema catalog: a single aggregate row per side that changes whenever
+ * an object is created, dropped or altered, including column definitions and view queries. Used to validate cached
+ * catalog fetches without a full dictionary scan, and as part of the key under which stored reports are reused.
+ */
+@Component
+public class CatalogFingerprinter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogFingerprinter.class);
+
+    // Any DDL bumps LAST_DDL_TIME (ALTER TABLE ... ADD CONSTRAINT / MODIFY column bumps the table's, CREATE OR REPLACE VIEW
+    // the view's and a recompile the dependent's), drops change the count. {dict}/{owner} as in OracleCatalogSql
+    static final String ORACLE_FINGERPRINT_SQL =
+        "SELECT COUNT(*) || ':' || TO_CHAR(MAX(LAST_DDL_TIME), 'YYYYMMDDHH24MISS') " +
+        "FROM {dict}_OBJECTS " +
+        "WHERE {owner} = ?";
+
+    // xmin changes every time a catalog row is rewritten, so it captures ALTERs as well as creates and drops.
+    // Column changes (SET NOT NULL, SET DEFAULT) only touch pg_attribute / pg_attrdef and CREATE OR REPLACE VIEW only
+    // pg_rewrite, so those are included for the column and dependency sheets of stored reports
+    static final String POSTGRES_FINGERPRINT_SQL =
+        "SELECT count(*)::text || ':' || coalesce(md5(string_agg(entry, ',' ORDER BY entry)), '') FROM (" +
+        "  SELECT 'c' || c.oid::text || ':' || c.xmin::text AS entry " +
+        "  FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? " +
+        "  UNION ALL " +
+        "  SELECT 'p' || p.oid::text || ':' || p.xmin::text " +
+        "  FROM pg_proc p JOIN pg_namespace n ON n.oid = p.pronamespace WHERE n.nspname = ? " +
+        "  UNION ALL " +
+        "  SELECT 'k' || k.oid::text || ':' || k.xmin::text " +
+        "  FROM pg_constraint k JOIN pg_namespace n ON n.oid = k.connamespace WHERE n.nspname = ? " +
+        "  UNION ALL " +
+        "  SELECT 'a' || a.attrelid::text || '.' || a.attnum::text || ':' || a.xmin::text " +
+        "  FROM pg_attribute a JOIN pg_class c ON c.oid = a.attrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "  WHERE n.nspname = ? AND a.attnum > 0 " +
+        "  UNION ALL " +
+        "  SELECT 'd' || d.oid::text || ':' || d.xmin::text " +
+        "  FROM pg_attrdef d JOIN pg_class c ON c.oid = d.adrelid JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? " +
+        "  UNION ALL " +
+        "  SELECT 'r' || r.oid::text || ':' || r.xmin::text " +
+        "  FROM pg_rewrite r JOIN pg_class c ON c.oid = r.ev_class JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? " +
+        ") entries";
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final OracleDictionaryViews dictionaryViews;
+
+    @Autowired
+    public CatalogFingerprinter(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                OracleDictionaryViews dictionaryViews) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.dictionaryViews = dictionaryViews;
+    }
+
+    /**
+     * @param owner The Oracle schema/owner name
+     * @return The fingerprint, or null if it could not be computed (callers then skip the cache)
+     */
+    public String oracleFingerprint(String owner) {
+        try {
+            return oracleJdbcTemplate.queryForObject(dictionaryViews.render(ORACLE_FINGERPRINT_SQL, owner), String.class, owner);
+        } catch (DataAccessException e) {
+            log.warn("Could not fingerprint Oracle schema '{}': {}", owner, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param schemaName The PostgreSQL schema name
+     * @return The fingerprint, or null if it could not be computed (callers then skip the cache)
+     */
+    public String postgresFingerprint(String schemaName) {
+        try {
+            return supabaseJdbcTemplate.queryForObject(POSTGRES_FINGERPRINT_SQL, String.class,
+                    schemaName, schemaName, schemaName, schemaName, schemaName, schemaName);
+        } catch (DataAccessException e) {
+            log.warn("Could not fingerprint PostgreSQL schema '{}': {}", schemaName, e.getMessage());
+            return null;
+        }
+    }
+}
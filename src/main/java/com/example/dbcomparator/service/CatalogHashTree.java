@@ -0,0 +1,293 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import com.example.dbcomparator.model.oracle.OracleObject;
+import com.example.dbcomparator.model.postgres.PostgresObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Two-level hash tree over a schema catalog: one leaf hash per object (type, name and definition attributes),
+ * one branch per object type, and a root over the branches.
+ * Each branch also keeps the digest the database reported for it (count plus MAX(LAST_DDL_TIME) on Oracle,
+ * an md5 over catalog row oid/xmin on PostgreSQL), so the next run can tell which branches to re-fetch
+ * from a single aggregate query.
+ */
+public class CatalogHashTree {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final CatalogCache.Side side;
+    private final Map<String, Branch> branches; // Sorted by object type
+    private final long rootHash;
+    private final CatalogSnapshot snapshot;
+
+    public CatalogHashTree(CatalogCache.Side side, Map<String, Branch> branches) {
+        this.side = side;
+        this.branches = Collections.unmodifiableMap(new TreeMap<>(branches));
+        long root = 17;
+        Map<String, List<DatabaseObject>> objectsByType = new LinkedHashMap<>();
+        for (Branch branch : this.branches.values()) {
+            root = 31 * root + mix(fnv(branch.type) ^ branch.hash);
+            objectsByType.put(branch.type, branch.objects);
+        }
+        this.rootHash = root;
+        this.snapshot = CatalogSnapshot.ofTypes(objectsByType);
+    }
+
+    public CatalogCache.Side getSide() {
+        return side;
+    }
+
+    public Map<String, Branch> getBranches() {
+        return branches;
+    }
+
+    public long getRootHash() {
+        return rootHash;
+    }
+
+    /**
+     * The catalog as a snapshot. Branch lists are handed out as-is, so an unchanged branch is the same instance in every run.
+     */
+    public CatalogSnapshot toSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * One object type of the catalog.
+     */
+    public static class Branch {
+        private final String type;
+        private final String serverDigest;
+        private final List<DatabaseObject> objects;
+        private final long hash;
+
+        public Branch(String type, String serverDigest, List<? extends DatabaseObject> objects) {
+            this.type = type;
+            this.serverDigest = serverDigest;
+            this.objects = List.copyOf(objects);
+            // Order-independent combination, so a branch can be rebuilt from a patched object set
+            long sum = 0;
+            for (DatabaseObject obj : this.objects) {
+                sum += mix(leafHash(obj));
+            }
+            this.hash = sum;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getServerDigest() {
+            return serverDigest;
+        }
+
+        public List<DatabaseObject> getObjects() {
+            return objects;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+
+        /**
+         * Latest LAST_DDL_TIME in the branch ('YYYY-MM-DD HH24:MI:SS' sorts chronologically), or null if unknown.
+         */
+        public String maxLastDdlTime() {
+            String max = null;
+            for (DatabaseObject obj : objects) {
+                if (obj instanceof OracleObject oracleObject && oracleObject.getLastDdlTime() != null
+                        && (max == null || oracleObject.getLastDdlTime().compareTo(max) > 0)) {
+                    max = oracleObject.getLastDdlTime();
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Hash of the attributes that define an object. PostgreSQL timestamps are query time, not catalog data, so they are left out.
+     */
+    static long leafHash(DatabaseObject obj) {
+        long hash = fnv(obj.getType());
+        hash = hash * 31 + fnv(obj.getName());
+        if (obj instanceof OracleObject oracleObject) {
+            hash = hash * 31 + fnv(oracleObject.getId());
+            hash = hash * 31 + fnv(oracleObject.getStatus());
+            hash = hash * 31 + fnv(oracleObject.getLastDdlTime());
+        } else if (obj instanceof PostgresObject postgresObject) {
+            hash = hash * 31 + fnv(postgresObject.getId());
+        }
+        return hash;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units
+    private static long fnv(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizer from SplitMix64, spreads leaf hashes before they are summed
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // --- Persistence ---
+
+    /**
+     * Persist the tree (branch digests, hashes and objects) atomically to the given file.
+     */
+    public void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(side.name());
+            out.writeLong(rootHash);
+            out.writeInt(branches.size());
+            for (Branch branch : branches.values()) {
+                out.writeUTF(branch.type);
+                writeNullable(out, branch.serverDigest);
+                out.writeLong(branch.hash);
+                out.writeInt(branch.objects.size());
+                for (DatabaseObject obj : branch.objects) {
+                    writeObject(out, obj);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load a persisted tree. Hashes are recomputed and checked, so a corrupt or outdated file is rejected.
+     */
+    public static CatalogHashTree readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported catalog hash tree version " + version + " in " + file);
+            }
+            CatalogCache.Side side = CatalogCache.Side.valueOf(in.readUTF());
+            long storedRoot = in.readLong();
+            int branchCount = in.readInt();
+            Map<String, Branch> branches = new TreeMap<>();
+            for (int b = 0; b < branchCount; b++) {
+                String type = in.readUTF();
+                String serverDigest = readNullable(in);
+                long storedHash = in.readLong();
+                int objectCount = in.readInt();
+                List<DatabaseObject> objects = new ArrayList<>(objectCount);
+                for (int i = 0; i < objectCount; i++) {
+                    objects.add(readObject(in, side));
+                }
+                Branch branch = new Branch(type, serverDigest, objects);
+                if (branch.hash != storedHash) {
+                    throw new IOException("Hash mismatch for branch " + type + " in " + file);
+                }
+                branches.put(type, branch);
+            }
+            CatalogHashTree tree = new CatalogHashTree(side, branches);
+            if (tree.rootHash != storedRoot) {
+                throw new IOException("Root hash mismatch in " + file);
+            }
+            return tree;
+        }
+    }
+
+    private static void writeObject(DataOutputStream out, DatabaseObject obj) throws IOException {
+        writeNullable(out, obj.getName());
+        writeNullable(out, obj.getType());
+        writeNullable(out, obj.getSchema());
+        if (obj instanceof OracleObject oracleObject) {
+            writeNullable(out, oracleObject.getId());
+            writeNullable(out, oracleObject.getOwner());
+            writeNullable(out, oracleObject.getStatus());
+            writeNullable(out, oracleObject.getCreated());
+            writeNullable(out, oracleObject.getLastDdlTime());
+        } else if (obj instanceof PostgresObject postgresObject) {
+            writeNullable(out, postgresObject.getId());
+            writeNullable(out, postgresObject.getSchemaName());
+            writeNullable(out, postgresObject.getObjectType());
+            writeNullable(out, postgresObject.getCreatedAt());
+            writeNullable(out, postgresObject.getUpdatedAt());
+        } else {
+            throw new IOException("Unsupported catalog object " + obj.getClass().getName());
+        }
+    }
+
+    private static DatabaseObject readObject(DataInputStream in, CatalogCache.Side side) throws IOException {
+        String name = readNullable(in);
+        String type = readNullable(in);
+        String schema = readNullable(in);
+        if (side == CatalogCache.Side.ORACLE) {
+            OracleObject obj = new OracleObject();
+            obj.setName(name);
+            obj.setType(type);
+            obj.setSchema(schema);
+            obj.setId(readNullable(in));
+            obj.setOwner(readNullable(in));
+            obj.setStatus(readNullable(in));
+            obj.setCreated(readNullable(in));
+            obj.setLastDdlTime(readNullable(in));
+            return obj;
+        }
+        PostgresObject obj = new PostgresObject();
+        obj.setName(name);
+        obj.setType(type);
+        obj.setSchema(schema);
+        obj.setId(readNullable(in));
+        obj.setSchemaName(readNullable(in));
+        obj.setObjectType(readNullable(in));
+        obj.setCreatedAt(readNullable(in));
+        obj.setUpdatedAt(readNullable(in));
+        return obj;
+    }
+
+    // Length-prefixed UTF-8, -1 for null (writeUTF can't hold nulls and caps at 64 KB)
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
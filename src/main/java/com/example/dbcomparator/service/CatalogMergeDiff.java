@@ -0,0 +1,109 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Merge-join diff of two catalogs sorted by the normalized (name, type) key.
+ * Both inputs are read once, front to back, and every object is handed to the listener as soon as its side is
+ * known, so the inputs can be cursors over catalogs that never fit in memory; the join itself keeps O(1) state.
+ */
+public final class CatalogMergeDiff {
+
+    /**
+     * Case-insensitive order on name, then type: the same key as {@link DatabaseObject#equals}.
+     * Compares char by char, without allocating lower-cased copies.
+     */
+    public static final Comparator<DatabaseObject> KEY_ORDER = Comparator
+            .comparing(DatabaseObject::getName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(DatabaseObject::getType, String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Receives the outcome of each object while the diff runs.
+     */
+    public interface Listener {
+
+        void onlyInOracle(DatabaseObject oracleObject);
+
+        void onlyInPostgres(DatabaseObject postgresObject);
+
+        default void matched(DatabaseObject oracleObject, DatabaseObject postgresObject) {
+        }
+    }
+
+    private CatalogMergeDiff() {
+    }
+
+    /**
+     * Merge-join both inputs. A key repeated on one side (e.g. several partitions of one table) matches the same
+     * key on the other side, as with set semantics.
+     *
+     * @param oracle   Oracle objects in {@link #KEY_ORDER}
+     * @param postgres PostgreSQL objects in {@link #KEY_ORDER}
+     * @param listener Receives matches and one-sided objects in key order
+     * @throws IllegalArgumentException If an input turns out not to be sorted
+     */
+    public static void diff(Iterator<? extends DatabaseObject> oracle, Iterator<? extends DatabaseObject> postgres, Listener listener) {
+        DatabaseObject oracleObject = next(oracle, null);
+        DatabaseObject postgresObject = next(postgres, null);
+        // Last matched pair, so that duplicates of a matched key still count as matched
+        DatabaseObject matchedOracle = null;
+        DatabaseObject matchedPostgres = null;
+
+        while (oracleObject != null || postgresObject != null) {
+            int order = oracleObject == null ? 1 : postgresObject == null ? -1 : KEY_ORDER.compare(oracleObject, postgresObject);
+            if (order == 0) {
+                listener.matched(oracleObject, postgresObject);
+                matchedOracle = oracleObject;
+                matchedPostgres = postgresObject;
+                oracleObject = next(oracle, oracleObject);
+                postgresObject = next(postgres, postgresObject);
+            } else if (order < 0) {
+                if (matchedPostgres != null && KEY_ORDER.compare(oracleObject, matchedPostgres) == 0) {
+                    listener.matched(oracleObject, matchedPostgres);
+                } else {
+                    listener.onlyInOracle(oracleObject);
+                }
+                oracleObject = next(oracle, oracleObject);
+            } else {
+                if (matchedOracle != null && KEY_ORDER.compare(matchedOracle, postgresObject) == 0) {
+                    listener.matched(matchedOracle, postgresObject);
+                } else {
+                    listener.onlyInPostgres(postgresObject);
+                }
+                postgresObject = next(postgres, postgresObject);
+            }
+        }
+    }
+
+    /**
+     * The list itself when it is already in {@link #KEY_ORDER} (a single pass), otherwise a sorted copy.
+     * Dictionary queries order by their own collation, which does not always agree with the case-insensitive key.
+     */
+    public static <T extends DatabaseObject> List<T> sorted(List<T> objects) {
+        for (int i = 1; i < objects.size(); i++) {
+            if (KEY_ORDER.compare(objects.get(i - 1), objects.get(i)) > 0) {
+                List<T> copy = new ArrayList<>(objects);
+                copy.sort(KEY_ORDER);
+                return copy;
+            }
+        }
+        return objects;
+    }
+
+    private static DatabaseObject next(Iterator<? extends DatabaseObject> objects, DatabaseObject previous) {
+        if (!objects.hasNext()) {
+            return null;
+        }
+        DatabaseObject next = objects.next();
+        if (previous != null && KEY_ORDER.compare(previous, next) > 0) {
+            throw new IllegalArgumentException("Catalog input is not sorted by name and type: "
+                    + next.getType() + " " + next.getName() + " after " + previous.getType() + " " + previous.getName());
+        }
+        return next;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.oracle.OracleObject;
+import com.example.dbcomparator.model.postgres.PostgresObject;
+
+import java.util.List;
+
+/**
+ * Read-only access to both catalogs. Method names and result shapes follow
+ * {@link com.example.dbcomparator.repository.oracle.OracleMetadataRepository} and
+ * {@link com.example.dbcomparator.repository.postgres.PostgresMetadataRepository}; the implementation is chosen
+ * with comparison.catalog-reader (JPA repositories or plain JDBC).
+ */
+public interface CatalogReader {
+
+    // --- Oracle (ALL_OBJECTS, ALL_INDEXES, ALL_CONSTRAINTS) ---
+
+    List<OracleObject> findAllObjectsByOwner(String owner);
+
+    List<OracleObject> findCatalogSnapshotByOwner(String owner);
+
+    List<OracleObject> findCatalogSnapshotByOwnerAndType(String owner, String objectType);
+
+    List<OracleObject> findCatalogChangesSince(String owner, String objectType, String since);
+
+    List<OracleObject> findAllTablesByOwner(String owner);
+
+    List<OracleObject> findAllViewsByOwner(String owner);
+
+    List<OracleObject> findAllProceduresByOwner(String owner);
+
+    List<OracleObject> findAllFunctionsByOwner(String owner);
+
+    List<OracleObject> findAllSequencesByOwner(String owner);
+
+    List<OracleObject> findAllIndexesByOwner(String owner);
+
+    List<OracleObject> findAllConstraintsByOwner(String owner);
+
+    // --- PostgreSQL (pg_class, pg_proc, pg_constraint) ---
+
+    List<PostgresObject> findAllObjectsBySchema(String schemaName);
+
+    List<PostgresObject> findCatalogBySchema(String schemaName);
+
+    List<PostgresObject> findAllObjectsBySchemaAndRelkind(String schemaName, String relkind);
+
+    List<PostgresObject> findAllTablesBySchema(String schemaName);
+
+    List<PostgresObject> findAllViewsBySchema(String schemaName);
+
+    List<PostgresObject> findAllSequencesBySchema(String schemaName);
+
+    List<PostgresObject> findAllFunctionsBySchema(String schemaName);
+
+    List<PostgresObject> findAllIndexesBySchema(String schemaName);
+
+    List<PostgresObject> findAllProceduresBySchema(String schemaName);
+
+    List<PostgresObject> findAllConstraintsBySchema(String schemaName);
+}
@@ -0,0 +1,103 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The whole catalog of one schema, fetched in a single dictionary scan and split in memory by object type.
+ * Per-type lists keep the order of the scan, so they match what the per-type queries would have returned.
+ */
+public class CatalogSnapshot {
+
+    private final List<? extends DatabaseObject> objects;
+    private final Map<String, List<DatabaseObject>> objectsByType;
+    // Multi-type lists, built once so a repeated ofTypes call hands back the same instance
+    private final Map<List<String>, List<DatabaseObject>> objectsByTypeGroup = new ConcurrentHashMap<>();
+
+    private CatalogSnapshot(List<? extends DatabaseObject> objects, Map<String, List<DatabaseObject>> objectsByType) {
+        this.objects = objects;
+        this.objectsByType = objectsByType;
+    }
+
+    public static CatalogSnapshot of(List<? extends DatabaseObject> objects) {
+        Map<String, List<DatabaseObject>> byType = new LinkedHashMap<>();
+        for (DatabaseObject obj : objects) {
+            byType.computeIfAbsent(obj.getType(), type -> new ArrayList<>()).add(obj);
+        }
+        byType.replaceAll((type, list) -> Collections.unmodifiableList(list));
+        return new CatalogSnapshot(Collections.unmodifiableList(objects), byType);
+    }
+
+    /**
+     * Build a snapshot from lists that are already split by type, keeping the given list instances
+     * (so an unchanged type is recognisable by identity across runs). All objects are listed in map order.
+     */
+    public static CatalogSnapshot ofTypes(Map<String, List<DatabaseObject>> objectsByType) {
+        List<DatabaseObject> all = new ArrayList<>();
+        objectsByType.values().forEach(all::addAll);
+        return new CatalogSnapshot(List.copyOf(all), new LinkedHashMap<>(objectsByType));
+    }
+
+    /**
+     * Returns a supplier that runs the scan on first use and hands the same snapshot to every later caller.
+     * Safe to share between the concurrent fetch threads of one comparison run.
+     */
+    public static Supplier<CatalogSnapshot> lazy(Supplier<CatalogSnapshot> scan) {
+        return new Supplier<>() {
+            private volatile CatalogSnapshot snapshot;
+
+            @Override
+            public CatalogSnapshot get() {
+                CatalogSnapshot result = snapshot;
+                if (result == null) {
+                    synchronized (this) {
+                        result = snapshot;
+                        if (result == null) {
+                            result = scan.get();
+                            snapshot = result;
+                        }
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * All objects of the schema, in scan order.
+     */
+    public List<? extends DatabaseObject> all() {
+        return objects;
+    }
+
+    /**
+     * Objects of a single type (e.g. "TABLE"), or an empty list if the schema has none.
+     */
+    public List<DatabaseObject> ofType(String type) {
+        return objectsByType.getOrDefault(type, Collections.emptyList());
+    }
+
+    /**
+     * Objects of any of the given types, grouped in the order the types are given.
+     * The list is built on first use and the same instance is returned for the same types afterwards.
+     */
+    public List<DatabaseObject> ofTypes(Collection<String> types) {
+        return objectsByTypeGroup.computeIfAbsent(List.copyOf(types), group -> {
+            List<DatabaseObject> result = new ArrayList<>();
+            group.forEach(type -> result.addAll(ofType(type)));
+            return Collections.unmodifiableList(result);
+        });
+    }
+
+    public int size() {
+        return objects.size();
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A schema catalog captured to a compact binary file and read back through a memory-mapped buffer.
+ * The file holds what each comparison task fetched for one side (a "section" per object type key), so a comparison
+ * against it sees exactly the lists a live run would have compared.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header      64 bytes: magic "DBCS", version, side, capture time, schema, counts, section offsets
+ * dictionary  (strings + 1) int offsets into a UTF-8 blob; every distinct name, type and schema is stored once
+ * records     12 bytes per object: name, type and schema as dictionary indices
+ * sections    per object type key: key index, object count, record indices in fetch order
+ * </pre>
+ * Objects shared between sections (snapshot mode splits one scan into the per-type lists) are stored once.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x44424353; // "DBCS"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 12;
+
+    private final CatalogCache.Side side;
+    private final String schema;
+    private final Instant capturedAt;
+    private final int objectCount;
+    private final ByteBuffer buffer;
+    private final long dictionaryOffset;
+    private final long recordsOffset;
+    private final int stringCount;
+    private final Map<String, Long> sectionOffsets;
+
+    // Decoded on first use, so opening a file only reads its header and section index
+    private final String[] strings;
+    private final DatabaseObject[] objects;
+    private final Map<String, List<DatabaseObject>> sections = new HashMap<>();
+
+    private CatalogSnapshotFile(CatalogCache.Side side, String schema, Instant capturedAt, int objectCount, ByteBuffer buffer,
+                                long dictionaryOffset, long recordsOffset, int stringCount, Map<String, Long> sectionOffsets) {
+        this.side = side;
+        this.schema = schema;
+        this.capturedAt = capturedAt;
+        this.objectCount = objectCount;
+        this.buffer = buffer;
+        this.dictionaryOffset = dictionaryOffset;
+        this.recordsOffset = recordsOffset;
+        this.stringCount = stringCount;
+        this.sectionOffsets = sectionOffsets;
+        this.strings = new String[stringCount];
+        this.objects = new DatabaseObject[objectCount];
+    }
+
+    /**
+     * Write the fetch results of one side to a file (replaced atomically).
+     *
+     * @param sections Objects per comparison task key (ALL_OBJECTS, TABLE, ...), in fetch order
+     */
+    public static void write(Path file, CatalogCache.Side side, String schema, Instant capturedAt,
+                             Map<String, ? extends List<? extends DatabaseObject>> sections) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> encodedStrings = new ArrayList<>();
+        IdentityHashMap<DatabaseObject, Integer> recordIndexes = new IdentityHashMap<>();
+        List<DatabaseObject> records = new ArrayList<>();
+        int schemaIndex = intern(schema, dictionary, encodedStrings);
+        for (Map.Entry<String, ? extends List<? extends DatabaseObject>> section : sections.entrySet()) {
+            intern(section.getKey(), dictionary, encodedStrings);
+            for (DatabaseObject obj : section.getValue()) {
+                if (recordIndexes.putIfAbsent(obj, records.size()) == null) {
+                    records.add(obj);
+                    intern(obj.getName(), dictionary, encodedStrings);
+                    intern(obj.getType(), dictionary, encodedStrings);
+                    intern(obj.getSchema(), dictionary, encodedStrings);
+                }
+            }
+        }
+
+        long blobSize = 0;
+        for (byte[] encoded : encodedStrings) {
+            blobSize += encoded.length;
+        }
+        long dictionaryOffset = HEADER_SIZE;
+        long recordsOffset = dictionaryOffset + 4L * (encodedStrings.size() + 1) + blobSize;
+        long sectionsOffset = recordsOffset + (long) RECORD_SIZE * records.size();
+
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(side.ordinal());
+            out.writeByte(0);
+            out.writeLong(capturedAt.toEpochMilli());
+            out.writeInt(schemaIndex);
+            out.writeInt(encodedStrings.size());
+            out.writeInt(records.size());
+            out.writeInt(sections.size());
+            out.writeLong(dictionaryOffset);
+            out.writeLong(recordsOffset);
+            out.writeLong(sectionsOffset);
+            out.write(new byte[HEADER_SIZE - out.size()]);
+
+            int offset = 0;
+            for (byte[] encoded : encodedStrings) {
+                out.writeInt(offset);
+                offset += encoded.length;
+            }
+            out.writeInt(offset);
+            for (byte[] encoded : encodedStrings) {
+                out.write(encoded);
+            }
+
+            // Every string was interned above, so these are lookups that map nulls the same way
+            for (DatabaseObject obj : records) {
+                out.writeInt(intern(obj.getName(), dictionary, encodedStrings));
+                out.writeInt(intern(obj.getType(), dictionary, encodedStrings));
+                out.writeInt(intern(obj.getSchema(), dictionary, encodedStrings));
+            }
+
+            for (Map.Entry<String, ? extends List<? extends DatabaseObject>> section : sections.entrySet()) {
+                out.writeInt(intern(section.getKey(), dictionary, encodedStrings));
+                out.writeInt(section.getValue().size());
+                for (DatabaseObject obj : section.getValue()) {
+                    out.writeInt(recordIndexes.get(obj));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Map a snapshot file. Only the header and the section index are read here; strings and objects are decoded
+     * when a section is first requested.
+     *
+     * @throws IOException If the file cannot be read or is not a catalog snapshot of a known version
+     */
+    public static CatalogSnapshotFile open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog snapshot: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot: " + file);
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + buffer.getShort(4) + ": " + file);
+        }
+        int sideOrdinal = buffer.get(6);
+        if (sideOrdinal < 0 || sideOrdinal >= CatalogCache.Side.values().length) {
+            throw corrupt(file, "unknown side " + sideOrdinal);
+        }
+        CatalogCache.Side side = CatalogCache.Side.values()[sideOrdinal];
+        Instant capturedAt = Instant.ofEpochMilli(buffer.getLong(8));
+        int schemaIndex = buffer.getInt(16);
+        int stringCount = buffer.getInt(20);
+        int objectCount = buffer.getInt(24);
+        int sectionCount = buffer.getInt(28);
+        long dictionaryOffset = buffer.getLong(32);
+        long recordsOffset = buffer.getLong(40);
+        long sectionsOffset = buffer.getLong(48);
+
+        // Everything read below is checked against the file size, so a truncated or corrupt file fails with an
+        // IOException here instead of an index error now or during a later comparison
+        long size = buffer.capacity();
+        if (stringCount < 0 || objectCount < 0 || sectionCount < 0) {
+            throw corrupt(file, "negative count");
+        }
+        checkRange(file, "dictionary", dictionaryOffset, 4L * (stringCount + 1), size);
+        long blobOffset = dictionaryOffset + 4L * (stringCount + 1);
+        int previous = 0;
+        for (int i = 0; i <= stringCount; i++) {
+            int offset = buffer.getInt((int) dictionaryOffset + 4 * i);
+            if (offset < previous) {
+                throw corrupt(file, "dictionary offsets out of order");
+            }
+            previous = offset;
+        }
+        checkRange(file, "dictionary", blobOffset, previous, size);
+        checkRange(file, "records", recordsOffset, (long) RECORD_SIZE * objectCount, size);
+        checkIndex(file, "string", schemaIndex, stringCount);
+
+        Map<String, Long> sectionOffsets = new LinkedHashMap<>();
+        long position = sectionsOffset;
+        for (int i = 0; i < sectionCount; i++) {
+            checkRange(file, "section index", position, 8, size);
+            int keyIndex = buffer.getInt((int) position);
+            int count = buffer.getInt((int) position + 4);
+            checkIndex(file, "string", keyIndex, stringCount);
+            if (count < 0) {
+                throw corrupt(file, "negative count");
+            }
+            checkRange(file, "section", position + 8, 4L * count, size);
+            sectionOffsets.put(decode(buffer, dictionaryOffset, stringCount, keyIndex), position + 4);
+            position += 8 + 4L * count;
+        }
+        String schema = decode(buffer, dictionaryOffset, stringCount, schemaIndex);
+        return new CatalogSnapshotFile(side, schema, capturedAt, objectCount, buffer, dictionaryOffset, recordsOffset,
+                stringCount, sectionOffsets);
+    }
+
+    public CatalogCache.Side getSide() {
+        return side;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public Instant getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * Distinct objects stored in the file.
+     */
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    public Set<String> getSectionKeys() {
+        return Collections.unmodifiableSet(sectionOffsets.keySet());
+    }
+
+    /**
+     * Objects of one comparison task key, in the order they were fetched; empty if the snapshot has no such section.
+     * Safe to call from the concurrent fetch threads of a comparison run.
+     */
+    public synchronized List<DatabaseObject> section(String key) {
+        List<DatabaseObject> section = sections.get(key);
+        if (section != null) {
+            return section;
+        }
+        Long offset = sectionOffsets.get(key);
+        if (offset == null) {
+            return Collections.emptyList();
+        }
+        int count = buffer.getInt(offset.intValue());
+        List<DatabaseObject> objectsOfSection = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = buffer.getInt(offset.intValue() + 4 + 4 * i);
+            if (index < 0 || index >= objectCount) {
+                throw new IllegalStateException("Corrupt catalog snapshot: record " + index + " out of range in section " + key);
+            }
+            objectsOfSection.add(object(index));
+        }
+        section = Collections.unmodifiableList(objectsOfSection);
+        sections.put(key, section);
+        return section;
+    }
+
+    private DatabaseObject object(int index) {
+        DatabaseObject obj = objects[index];
+        if (obj == null) {
+            int position = (int) (recordsOffset + (long) RECORD_SIZE * index);
+            obj = new DatabaseObject();
+            obj.setName(string(buffer.getInt(position)));
+            obj.setType(string(buffer.getInt(position + 4)));
+            obj.setSchema(string(buffer.getInt(position + 8)));
+            objects[index] = obj;
+        }
+        return obj;
+    }
+
+    private String string(int index) {
+        if (index < 0 || index >= stringCount) {
+            throw new IllegalStateException("Corrupt catalog snapshot: string " + index + " out of range");
+        }
+        String value = strings[index];
+        if (value == null) {
+            value = decode(buffer, dictionaryOffset, stringCount, index);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    private static String decode(ByteBuffer buffer, long dictionaryOffset, int stringCount, int index) {
+        int start = buffer.getInt((int) dictionaryOffset + 4 * index);
+        int end = buffer.getInt((int) dictionaryOffset + 4 * (index + 1));
+        byte[] bytes = new byte[end - start];
+        buffer.get((int) dictionaryOffset + 4 * (stringCount + 1) + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void checkRange(Path file, String region, long offset, long length, long size) throws IOException {
+        if (offset < HEADER_SIZE || length < 0 || offset + length > size) {
+            throw corrupt(file, region + " outside the file");
+        }
+    }
+
+    private static void checkIndex(Path file, String kind, int index, int count) throws IOException {
+        if (index < 0 || index >= count) {
+            throw corrupt(file, kind + " " + index + " out of range");
+        }
+    }
+
+    private static IOException corrupt(Path file, String reason) {
+        return new IOException("Corrupt catalog snapshot (" + reason + "): " + file);
+    }
+
+    private static int intern(String value, Map<String, Integer> dictionary, List<byte[]> encodedStrings) {
+        // Null names or schemas do not occur in the catalogs; store them as empty strings rather than failing
+        String key = value != null ? value : "";
+        Integer index = dictionary.get(key);
+        if (index == null) {
+            index = encodedStrings.size();
+            dictionary.put(key, index);
+            encodedStrings.add(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return index;
+    }
+}
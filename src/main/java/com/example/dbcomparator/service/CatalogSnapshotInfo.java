@@ -0,0 +1,20 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Listing entry of an exported catalog snapshot.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CatalogSnapshotInfo {
+    private final String name;
+    private final CatalogCache.Side side;
+    private final String schema;
+    private final Instant capturedAt;
+    private final int objectCount;
+    private final long sizeBytes;
+}
@@ -0,0 +1,107 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Exports schema catalogs to {@link CatalogSnapshotFile}s in comparison.catalog-snapshot-dir and opens them again
+ * by name, so a catalog captured once can be compared later without a session on its database.
+ */
+@Service
+public class CatalogSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    static final String FILE_EXTENSION = ".dbcs";
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9._-]{1,128}");
+
+    private final DatabaseComparisonService comparisonService;
+    private final Path directory;
+
+    @Autowired
+    public CatalogSnapshotStore(DatabaseComparisonService comparisonService, ComparisonProperties properties) {
+        this.comparisonService = comparisonService;
+        this.directory = Paths.get(properties.getCatalogSnapshotDir());
+    }
+
+    /**
+     * Fetch one side's catalog and write it under the given name, replacing an existing snapshot of that name.
+     *
+     * @throws IllegalArgumentException If the name is not a plain file name
+     */
+    public CatalogSnapshotInfo export(String name, CatalogCache.Side side, String schema) throws IOException {
+        Path file = resolve(name);
+        Instant capturedAt = Instant.now();
+        Map<String, List<? extends DatabaseObject>> catalog = comparisonService.fetchCatalog(side, schema);
+        Files.createDirectories(directory);
+        CatalogSnapshotFile.write(file, side, schema, capturedAt, catalog);
+        CatalogSnapshotInfo info = info(name, file);
+        log.info("Exported {} catalog of schema {} to {} ({} objects, {} bytes)", side, schema, file,
+                info.getObjectCount(), info.getSizeBytes());
+        return info;
+    }
+
+    /**
+     * Map a snapshot for comparison.
+     *
+     * @throws IllegalArgumentException If the name is invalid or no snapshot of that name exists
+     */
+    public CatalogSnapshotFile open(String name) throws IOException {
+        Path file = resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Unknown catalog snapshot: " + name);
+        }
+        return CatalogSnapshotFile.open(file);
+    }
+
+    /**
+     * Snapshots in the directory, newest first. Files that cannot be read as snapshots are skipped.
+     */
+    public List<CatalogSnapshotInfo> list() throws IOException {
+        List<CatalogSnapshotInfo> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                try {
+                    snapshots.add(info(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()), file));
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable catalog snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparing(CatalogSnapshotInfo::getCapturedAt).reversed());
+        return snapshots;
+    }
+
+    private CatalogSnapshotInfo info(String name, Path file) throws IOException {
+        CatalogSnapshotFile snapshot = CatalogSnapshotFile.open(file);
+        return new CatalogSnapshotInfo(name, snapshot.getSide(), snapshot.getSchema(), snapshot.getCapturedAt(),
+                snapshot.getObjectCount(), Files.size(file));
+    }
+
+    private Path resolve(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid catalog snapshot name: " + name);
+        }
+        return directory.resolve(name + FILE_EXTENSION);
+    }
+}
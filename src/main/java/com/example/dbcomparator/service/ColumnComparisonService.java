@@ -0,0 +1,206 @@
+package com.example.dbcomparator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Column-level structure comparison of the tables and views present on both sides.
+ * Each side's columns are read for the whole schema in one dictionary query, then joined in memory on
+ * lower-cased table and column names.
+ */
+@Service
+public class ColumnComparisonService {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnComparisonService.class);
+
+    // DATA_DEFAULT_VC (12.2+) instead of the LONG DATA_DEFAULT, which would disable row prefetching
+    static final String ORACLE_COLUMNS_SQL =
+        "SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE, " +
+        "CASE WHEN CHAR_LENGTH > 0 THEN CHAR_LENGTH WHEN DATA_TYPE = 'RAW' THEN DATA_LENGTH END AS CHAR_LENGTH, " +
+        "DATA_PRECISION, DATA_SCALE, NULLABLE, DATA_DEFAULT_VC AS DATA_DEFAULT " +
+        "FROM ALL_TAB_COLUMNS " +
+        "WHERE OWNER = ? AND TABLE_NAME NOT LIKE 'BIN$%' " +
+        "ORDER BY TABLE_NAME, COLUMN_ID";
+
+    // Before 12.2 only the LONG DATA_DEFAULT exists; slower (no prefetch), but the sheet is still filled
+    static final String ORACLE_LEGACY_COLUMNS_SQL = ORACLE_COLUMNS_SQL.replace("DATA_DEFAULT_VC AS DATA_DEFAULT", "DATA_DEFAULT");
+
+    static final String POSTGRES_COLUMNS_SQL =
+        "SELECT c.relname AS table_name, a.attname AS column_name, t.typname AS data_type, " +
+        "format_type(a.atttypid, a.atttypmod) AS display_type, " +
+        "CASE WHEN t.typname IN ('varchar', 'bpchar') AND a.atttypmod > 0 THEN a.atttypmod - 4 END AS char_length, " +
+        "CASE WHEN t.typname = 'numeric' AND a.atttypmod > 0 THEN ((a.atttypmod - 4) >> 16) & 65535 END AS numeric_precision, " +
+        "CASE WHEN t.typname = 'numeric' AND a.atttypmod > 0 THEN (a.atttypmod - 4) & 65535 END AS numeric_scale, " +
+        "NOT a.attnotnull AS nullable, " +
+        "CASE WHEN a.attidentity IN ('a', 'd') THEN 'nextval' ELSE pg_get_expr(d.adbin, d.adrelid) END AS column_default " +
+        "FROM pg_attribute a " +
+        "JOIN pg_class c ON c.oid = a.attrelid " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "JOIN pg_type t ON t.oid = a.atttypid " +
+        "LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum " +
+        "WHERE n.nspname = ? AND c.relkind IN ('r', 'p', 'v', 'm', 'f') AND a.attnum > 0 AND NOT a.attisdropped " +
+        "ORDER BY c.relname, a.attnum";
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final ComparisonTaskExecutor taskExecutor;
+    private volatile boolean legacyDictionary;
+
+    @Autowired
+    public ColumnComparisonService(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                   @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                   ComparisonTaskExecutor taskExecutor) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Compare the columns of every table present in both schemas.
+     *
+     * @param oracleSchema   The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @return Differences ordered by table and column name
+     */
+    public List<ColumnDifference> compareColumns(String oracleSchema, String postgresSchema) {
+        CompletableFuture<List<ColumnDefinition>> oracleFetch = taskExecutor.submitOracle(() -> fetchOracleColumns(oracleSchema));
+        CompletableFuture<List<ColumnDefinition>> postgresFetch = taskExecutor.submitPostgres(
+                () -> supabaseJdbcTemplate.query(POSTGRES_COLUMNS_SQL, (rs, rowNum) -> readPostgresColumn(rs), postgresSchema));
+        List<ColumnDefinition> oracleColumns = ComparisonTaskExecutor.await(oracleFetch);
+        List<ColumnDefinition> postgresColumns = ComparisonTaskExecutor.await(postgresFetch);
+        log.info("Fetched {} Oracle and {} PostgreSQL columns", oracleColumns.size(), postgresColumns.size());
+
+        List<ColumnDifference> differences = diff(oracleColumns, postgresColumns);
+        log.info("Found {} column differences", differences.size());
+        return differences;
+    }
+
+    private List<ColumnDefinition> fetchOracleColumns(String oracleSchema) {
+        if (!legacyDictionary) {
+            try {
+                return oracleJdbcTemplate.query(ORACLE_COLUMNS_SQL, (rs, rowNum) -> readOracleColumn(rs), oracleSchema);
+            } catch (BadSqlGrammarException e) {
+                // ORA-00904: DATA_DEFAULT_VC is an invalid identifier before 12.2
+                log.warn("ALL_TAB_COLUMNS.DATA_DEFAULT_VC not available, falling back to DATA_DEFAULT: {}", e.getMessage());
+                legacyDictionary = true;
+            }
+        }
+        return oracleJdbcTemplate.query(ORACLE_LEGACY_COLUMNS_SQL, (rs, rowNum) -> readOracleColumn(rs), oracleSchema);
+    }
+
+    /**
+     * Join both column lists on normalized table and column names and compare each matched pair.
+     * Tables that exist on one side only are left to the table comparison.
+     */
+    static List<ColumnDifference> diff(List<ColumnDefinition> oracleColumns, List<ColumnDefinition> postgresColumns) {
+        Map<String, Map<String, ColumnDefinition>> oracleTables = byTable(oracleColumns);
+        Map<String, Map<String, ColumnDefinition>> postgresTables = byTable(postgresColumns);
+
+        List<ColumnDifference> differences = new ArrayList<>();
+        for (Map.Entry<String, Map<String, ColumnDefinition>> entry : oracleTables.entrySet()) {
+            Map<String, ColumnDefinition> postgresTable = postgresTables.get(entry.getKey());
+            if (postgresTable == null) {
+                continue;
+            }
+            Map<String, ColumnDefinition> oracleTable = entry.getValue();
+            Set<String> columnNames = new java.util.TreeSet<>(oracleTable.keySet());
+            columnNames.addAll(postgresTable.keySet());
+            for (String columnName : columnNames) {
+                ColumnDefinition oracle = oracleTable.get(columnName);
+                ColumnDefinition postgres = postgresTable.get(columnName);
+                if (postgres == null) {
+                    differences.add(new ColumnDifference(oracle.getTableName(), oracle.getColumnName(),
+                            ColumnDifference.Kind.ONLY_IN_ORACLE, oracle.getDisplayType(), null));
+                } else if (oracle == null) {
+                    differences.add(new ColumnDifference(postgres.getTableName(), postgres.getColumnName(),
+                            ColumnDifference.Kind.ONLY_IN_POSTGRES, null, postgres.getDisplayType()));
+                } else {
+                    compareColumn(oracle, postgres, differences);
+                }
+            }
+        }
+        return differences;
+    }
+
+    private static void compareColumn(ColumnDefinition oracle, ColumnDefinition postgres, List<ColumnDifference> differences) {
+        if (!ColumnTypeEquivalence.postgresTypesFor(oracle).contains(postgres.getDataType())) {
+            differences.add(difference(oracle, ColumnDifference.Kind.TYPE, oracle.getDisplayType(), postgres.getDisplayType()));
+        } else if (ColumnTypeEquivalence.hasComparableLength(postgres.getDataType())
+                && postgres.getCharLength() != null && !Objects.equals(oracle.getCharLength(), postgres.getCharLength())) {
+            differences.add(difference(oracle, ColumnDifference.Kind.LENGTH, oracle.getDisplayType(), postgres.getDisplayType()));
+        } else if (postgres.getDataType().equals("numeric") && postgres.getPrecision() != null
+                && (!Objects.equals(oracle.getPrecision(), postgres.getPrecision())
+                    || !Objects.equals(nullToZero(oracle.getScale()), nullToZero(postgres.getScale())))) {
+            differences.add(difference(oracle, ColumnDifference.Kind.PRECISION, oracle.getDisplayType(), postgres.getDisplayType()));
+        }
+        if (oracle.isNullable() != postgres.isNullable()) {
+            differences.add(difference(oracle, ColumnDifference.Kind.NULLABILITY,
+                    oracle.isNullable() ? "NULL" : "NOT NULL", postgres.isNullable() ? "NULL" : "NOT NULL"));
+        }
+        if (!Objects.equals(ColumnTypeEquivalence.normalizeDefault(oracle.getDefaultValue()),
+                ColumnTypeEquivalence.normalizeDefault(postgres.getDefaultValue()))) {
+            differences.add(difference(oracle, ColumnDifference.Kind.DEFAULT, oracle.getDefaultValue(), postgres.getDefaultValue()));
+        }
+    }
+
+    private static ColumnDifference difference(ColumnDefinition oracle, ColumnDifference.Kind kind, String oracleValue, String postgresValue) {
+        return new ColumnDifference(oracle.getTableName(), oracle.getColumnName(), kind,
+                oracleValue != null ? oracleValue.trim() : null, postgresValue);
+    }
+
+    private static int nullToZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static Map<String, Map<String, ColumnDefinition>> byTable(List<ColumnDefinition> columns) {
+        Map<String, Map<String, ColumnDefinition>> tables = new TreeMap<>();
+        for (ColumnDefinition column : columns) {
+            tables.computeIfAbsent(column.getTableName().toLowerCase(Locale.ROOT), table -> new LinkedHashMap<>())
+                    .put(column.getColumnName().toLowerCase(Locale.ROOT), column);
+        }
+        return tables;
+    }
+
+    private static ColumnDefinition readOracleColumn(ResultSet rs) throws SQLException {
+        String dataType = rs.getString("DATA_TYPE");
+        Integer charLength = getInteger(rs, "CHAR_LENGTH");
+        Integer precision = getInteger(rs, "DATA_PRECISION");
+        Integer scale = getInteger(rs, "DATA_SCALE");
+        String displayType = dataType;
+        if (dataType.equals("NUMBER") && precision != null) {
+            displayType = "NUMBER(" + precision + "," + (scale != null ? scale : 0) + ")";
+        } else if (charLength != null) {
+            displayType = dataType + "(" + charLength + ")";
+        }
+        return new ColumnDefinition(rs.getString("TABLE_NAME"), rs.getString("COLUMN_NAME"), dataType, displayType,
+                charLength, precision, scale, "Y".equals(rs.getString("NULLABLE")), rs.getString("DATA_DEFAULT"));
+    }
+
+    private static ColumnDefinition readPostgresColumn(ResultSet rs) throws SQLException {
+        return new ColumnDefinition(rs.getString("table_name"), rs.getString("column_name"), rs.getString("data_type"),
+                rs.getString("display_type"), getInteger(rs, "char_length"), getInteger(rs, "numeric_precision"),
+                getInteger(rs, "numeric_scale"), rs.getBoolean("nullable"), rs.getString("column_default"));
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One column as read from the data dictionary (ALL_TAB_COLUMNS or pg_attribute).
+ * Length, precision and scale are null when the type has none.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ColumnDefinition {
+    private final String tableName;
+    private final String columnName;
+    private final String dataType;    // Oracle DATA_TYPE, PostgreSQL pg_type.typname
+    private final String displayType; // Full type as written in DDL, e.g. NUMBER(10,0) or character varying(50)
+    private final Integer charLength;
+    private final Integer precision;
+    private final Integer scale;
+    private final boolean nullable;
+    private final String defaultValue;
+}
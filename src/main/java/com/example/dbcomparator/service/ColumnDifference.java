@@ -0,0 +1,20 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A column that is missing on one side, or one attribute in which the two sides disagree.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ColumnDifference {
+
+    public enum Kind { ONLY_IN_ORACLE, ONLY_IN_POSTGRES, TYPE, LENGTH, PRECISION, NULLABILITY, DEFAULT }
+
+    private final String tableName;
+    private final String columnName;
+    private final Kind kind;
+    private final String oracleValue;
+    private final String postgresValue;
+}
@@ -0,0 +1,141 @@
+package com.example.dbcomparator.service;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Oracle to PostgreSQL type equivalence used by the column comparison, following the usual migration mappings
+ * (NUMBER(10) to integer, VARCHAR2 to varchar, DATE to timestamp, CLOB to text, ...).
+ * PostgreSQL types are named as in pg_type.typname (int4, varchar, bpchar, timestamptz).
+ */
+final class ColumnTypeEquivalence {
+
+    private static final Pattern POSTGRES_CAST = Pattern.compile("::[a-z_ ]+(\\([0-9, ]*\\))?(\\[\\])?");
+    private static final Set<String> CURRENT_TIME_DEFAULTS = Set.of("sysdate", "systimestamp", "current_date", "current_timestamp",
+            "localtimestamp", "now()", "clock_timestamp()", "statement_timestamp()", "transaction_timestamp()");
+
+    private ColumnTypeEquivalence() {
+    }
+
+    /**
+     * PostgreSQL types a migrated Oracle column may have.
+     */
+    static Set<String> postgresTypesFor(ColumnDefinition oracle) {
+        String type = oracle.getDataType().toUpperCase(Locale.ROOT);
+        if (type.equals("NUMBER")) {
+            Integer precision = oracle.getPrecision();
+            Integer scale = oracle.getScale();
+            if (precision == null) {
+                // Unconstrained NUMBER (or NUMBER(*,0))
+                return scale != null && scale == 0 ? Set.of("int8", "numeric") : Set.of("numeric", "float8", "int8");
+            }
+            if (scale == null || scale == 0) {
+                if (precision <= 4) {
+                    return Set.of("int2", "int4", "int8", "numeric");
+                }
+                if (precision <= 10) {
+                    return Set.of("int4", "int8", "numeric");
+                }
+                if (precision <= 18) {
+                    return Set.of("int8", "numeric");
+                }
+            }
+            return Set.of("numeric");
+        }
+        if (type.equals("INTEGER")) {
+            return Set.of("int4", "int8", "numeric");
+        }
+        if (type.equals("FLOAT") || type.equals("BINARY_DOUBLE")) {
+            return Set.of("float8", "float4", "numeric");
+        }
+        if (type.equals("BINARY_FLOAT")) {
+            return Set.of("float4", "float8");
+        }
+        if (type.equals("VARCHAR2") || type.equals("NVARCHAR2") || type.equals("VARCHAR")) {
+            return Set.of("varchar", "text");
+        }
+        if (type.equals("CHAR") || type.equals("NCHAR")) {
+            return oracle.getCharLength() != null && oracle.getCharLength() == 1
+                    ? Set.of("bpchar", "varchar", "text", "bool")
+                    : Set.of("bpchar", "varchar", "text");
+        }
+        if (type.equals("DATE")) {
+            return Set.of("timestamp", "date");
+        }
+        if (type.startsWith("TIMESTAMP") && type.contains("TIME ZONE")) {
+            return Set.of("timestamptz");
+        }
+        if (type.startsWith("TIMESTAMP")) {
+            return Set.of("timestamp");
+        }
+        if (type.startsWith("INTERVAL")) {
+            return Set.of("interval");
+        }
+        if (type.equals("CLOB") || type.equals("NCLOB") || type.equals("LONG")) {
+            return Set.of("text", "varchar");
+        }
+        if (type.equals("RAW")) {
+            return oracle.getCharLength() != null && oracle.getCharLength() == 16 ? Set.of("bytea", "uuid") : Set.of("bytea");
+        }
+        if (type.equals("BLOB") || type.equals("LONG RAW") || type.equals("BFILE")) {
+            return Set.of("bytea");
+        }
+        if (type.equals("XMLTYPE")) {
+            return Set.of("xml", "text");
+        }
+        if (type.equals("ROWID") || type.equals("UROWID")) {
+            return Set.of("varchar", "text", "oid");
+        }
+        return Set.of(type.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Whether the column's length is part of its type on both sides (varchar(n) vs VARCHAR2(n)); text has no length.
+     */
+    static boolean hasComparableLength(String postgresType) {
+        return postgresType.equals("varchar") || postgresType.equals("bpchar");
+    }
+
+    /**
+     * Canonical form of a column default, so that e.g. SYSDATE matches now() and 'A'::character varying matches 'A'.
+     * Returns null for no default.
+     */
+    static String normalizeDefault(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = POSTGRES_CAST.matcher(value.trim().toLowerCase(Locale.ROOT)).replaceAll("");
+        while (isWrappedInParentheses(normalized)) {
+            normalized = normalized.substring(1, normalized.length() - 1).trim();
+        }
+        if (normalized.isEmpty() || normalized.equals("null")) {
+            return null;
+        }
+        if (CURRENT_TIME_DEFAULTS.contains(normalized)) {
+            return "current_timestamp";
+        }
+        // Oracle identity columns default to "OWNER"."ISEQ$$_n".nextval, PostgreSQL serials to nextval('seq')
+        if (normalized.contains("nextval")) {
+            return "<sequence>";
+        }
+        return normalized;
+    }
+
+    // True for "(x)" but not for "(a) + (b)"
+    private static boolean isWrappedInParentheses(String value) {
+        if (!value.startsWith("(") || !value.endsWith(")")) {
+            return false;
+        }
+        int depth = 0;
+        for (int i = 0; i < value.length() - 1; i++) {
+            char c = value.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
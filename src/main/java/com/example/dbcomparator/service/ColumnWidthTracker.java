@@ -0,0 +1,68 @@
+package com.example.dbcomparator.service;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Records the widest value written to each column while rows are created, so column widths can be set once
+ * after the last row instead of re-measuring every cell with autoSizeColumn (which also can't see rows
+ * that a streaming workbook has already flushed).
+ */
+public class ColumnWidthTracker {
+
+    // Excel's hard limit for a column width, in characters
+    private static final int MAX_WIDTH_CHARS = 255;
+    // Room for the cell margins and the bold header font
+    private static final int PADDING_CHARS = 2;
+
+    private final int[] maxChars;
+
+    public ColumnWidthTracker(int columns) {
+        this.maxChars = new int[columns];
+    }
+
+    /**
+     * Record a value written to the given column.
+     */
+    public void track(int column, String value) {
+        if (value == null) {
+            return;
+        }
+        int width = displayWidth(value);
+        if (width > maxChars[column]) {
+            maxChars[column] = width;
+        }
+    }
+
+    /**
+     * Set every tracked column width on the sheet. Call once, after the last row has been written.
+     */
+    public void applyTo(Sheet sheet) {
+        for (int i = 0; i < maxChars.length; i++) {
+            int chars = Math.min(MAX_WIDTH_CHARS, maxChars[i] + PADDING_CHARS);
+            sheet.setColumnWidth(i, chars * 256); // Column widths are in 1/256th of a character
+        }
+    }
+
+    /**
+     * Widest value seen so far in the column, in characters.
+     */
+    public int maxChars(int column) {
+        return maxChars[column];
+    }
+
+    // Approximates the rendered width of the longest line: East Asian wide characters take two cells, everything else one
+    private static int displayWidth(String value) {
+        int widest = 0;
+        int width = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n') {
+                widest = Math.max(widest, width);
+                width = 0;
+            } else if (c != '\r') {
+                width += (c >= '\u2E80' && c <= '\uFF60') ? 2 : 1;
+            }
+        }
+        return Math.max(widest, width);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dbcomparator.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous comparison job. The job id is the comparison_run_uuid of the run it executes,
+ * so persisted results and the downloadable report share one identifier, unless the job joined a comparison of the
+ * same schema pair that was already running (see {@link #getJoinedRunUuid()}).
+ */
+@Getter
+public class ComparisonJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final UUID comparisonRunUuid;
+    private final String oracleSchema;
+    private final String postgresSchema;
+    private final Instant submittedAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    /** Run whose results and report the job took over, when it joined a running comparison; null otherwise */
+    private volatile UUID joinedRunUuid;
+
+    @JsonIgnore // Server-side location, never exposed to clients
+    private volatile Path reportFile;
+
+    public ComparisonJob(UUID comparisonRunUuid, String oracleSchema, String postgresSchema) {
+        this.comparisonRunUuid = comparisonRunUuid;
+        this.oracleSchema = oracleSchema;
+        this.postgresSchema = postgresSchema;
+        this.submittedAt = Instant.now();
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markSucceeded(Path reportFile, UUID runUuid) {
+        this.reportFile = reportFile;
+        if (!comparisonRunUuid.equals(runUuid)) {
+            joinedRunUuid = runUuid;
+        }
+        finishedAt = Instant.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
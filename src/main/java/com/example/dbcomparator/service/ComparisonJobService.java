@@ -0,0 +1,155 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs comparisons as asynchronous jobs on a bounded worker pool.
+ * Submitting returns immediately with the job id; the finished report is written to a temp file for later download,
+ * so no request thread (or gateway connection) is held for the duration of the comparison.
+ * Expired jobs and their report files are purged every minute.
+ */
+@Service
+public class ComparisonJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComparisonJobService.class);
+
+    private final DatabaseComparisonService comparisonService;
+    private final ComparisonRequestCoalescer coalescer;
+    private final ComparisonProperties properties;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService purger;
+    private final Map<UUID, ComparisonJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ComparisonJobService(DatabaseComparisonService comparisonService, ComparisonRequestCoalescer coalescer,
+                                ComparisonProperties properties) {
+        this.comparisonService = comparisonService;
+        this.coalescer = coalescer;
+        this.properties = properties;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                properties.getJobWorkerThreads(), properties.getJobWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getJobQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "comparison-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comparison-job-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpiredJobs, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Queue a comparison of the given schema pair.
+     *
+     * @return The queued job; its id is the comparison_run_uuid of the run
+     * @throws RejectedExecutionException If all workers are busy and the queue is full
+     */
+    public ComparisonJob submit(String oracleSchema, String postgresSchema) {
+        purgeExpiredJobs();
+
+        ComparisonJob job = new ComparisonJob(UUID.randomUUID(), oracleSchema, postgresSchema);
+        jobs.put(job.getComparisonRunUuid(), job);
+        try {
+            workers.execute(() -> execute(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getComparisonRunUuid());
+            log.warn("Rejected comparison job for '{}' / '{}': queue of {} is full",
+                    oracleSchema, postgresSchema, properties.getJobQueueCapacity());
+            throw e;
+        }
+        log.info("Queued comparison job {} for Oracle schema '{}' and PostgreSQL schema '{}'",
+                job.getComparisonRunUuid(), oracleSchema, postgresSchema);
+        return job;
+    }
+
+    public Optional<ComparisonJob> getJob(UUID comparisonRunUuid) {
+        return Optional.ofNullable(jobs.get(comparisonRunUuid));
+    }
+
+    private void execute(ComparisonJob job) {
+        job.markRunning();
+        log.info("Starting comparison job {}", job.getComparisonRunUuid());
+        Path reportFile = null;
+        try {
+            // Counts against comparison.max-concurrent-comparisons and shares a running comparison of the same pair
+            ComparisonRun run = coalescer.runComparison(job.getComparisonRunUuid(), job.getOracleSchema(), job.getPostgresSchema());
+            reportFile = Files.createTempFile("comparison-" + job.getComparisonRunUuid(), ".xlsx");
+            try (OutputStream outputStream = Files.newOutputStream(reportFile)) {
+                comparisonService.writeComparisonReport(run, outputStream);
+            }
+            job.markSucceeded(reportFile, run.getComparisonRunUuid());
+            log.info("Comparison job {} finished (run {})", job.getComparisonRunUuid(), run.getComparisonRunUuid());
+        } catch (IOException | RuntimeException e) {
+            log.error("Comparison job {} failed: {}", job.getComparisonRunUuid(), e.getMessage(), e);
+            deleteQuietly(reportFile);
+            job.markFailed(e.getMessage());
+        } catch (Error e) {
+            // Still finish the job, so pollers do not see it RUNNING forever
+            log.error("Comparison job {} failed: {}", job.getComparisonRunUuid(), e.toString(), e);
+            deleteQuietly(reportFile);
+            job.markFailed(e.toString());
+            throw e;
+        }
+    }
+
+    /**
+     * Drop finished jobs (and their report files) once they are older than the retention period.
+     */
+    void purgeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(properties.getJobRetention());
+        jobs.values().removeIf(job -> {
+            if (job.isFinished() && job.getFinishedAt().isBefore(cutoff)) {
+                deleteQuietly(job.getReportFile());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+        workers.shutdownNow();
+        jobs.values().forEach(job -> deleteQuietly(job.getReportFile()));
+    }
+}
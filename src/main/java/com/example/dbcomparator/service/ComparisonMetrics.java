@@ -0,0 +1,124 @@
+package com.example.dbcomparator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of a comparison run, exposed through actuator (/actuator/metrics, /actuator/prometheus).
+ * Fetch and diff meters are tagged by object type and side, so a slow run can be traced to one query;
+ * connection wait times come from Hikari's own hikaricp.connections.acquire timer, tagged by pool name.
+ */
+@Component
+public class ComparisonMetrics {
+
+    public static final String SIDE_ORACLE = "oracle";
+    public static final String SIDE_POSTGRES = "postgres";
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public ComparisonMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * One catalog fetch of an object type on one side (served from the catalog cache or not).
+     */
+    public void recordFetch(String objectType, String side, long nanos, int rows) {
+        Timer.builder("comparison.fetch")
+                .description("Catalog fetch latency per object type and side")
+                .tag("object.type", objectType)
+                .tag("side", side)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("comparison.fetch.rows")
+                .description("Catalog rows fetched per object type and side")
+                .tag("object.type", objectType)
+                .tag("side", side)
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * Diff of one object type: time spent and objects found on one side only.
+     */
+    public void recordDiff(String objectType, long nanos, int onlyInOracle, int onlyInPostgres) {
+        Timer.builder("comparison.diff")
+                .description("Merge-join diff time per object type")
+                .tag("object.type", objectType)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        differences(objectType, SIDE_ORACLE).increment(onlyInOracle);
+        differences(objectType, SIDE_POSTGRES).increment(onlyInPostgres);
+    }
+
+    /**
+     * One Excel report written.
+     */
+    public void recordReport(long nanos, long bytes) {
+        Timer.builder("comparison.report")
+                .description("Excel report generation time")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("comparison.report.size")
+                .description("Excel report size")
+                .baseUnit("bytes")
+                .register(registry)
+                .record(bytes);
+    }
+
+    /**
+     * One synchronous comparison request, by outcome: started, coalesced onto a running comparison, or rejected.
+     */
+    public void recordComparisonRequest(String outcome) {
+        Counter.builder("comparison.requests")
+                .description("Synchronous comparison requests by outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * One batch handed to the results store; rows are counted by outcome (persisted or failed).
+     */
+    public void recordResultBatch(long nanos, long persistedRows, long failedRows) {
+        Timer.builder("comparison.results.write")
+                .description("Time to write one batch of differences to comparison_results")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        resultRows("persisted").increment(persistedRows);
+        resultRows("failed").increment(failedRows);
+    }
+
+    /**
+     * Report the number of entries waiting in the write-behind queue.
+     */
+    public void monitorResultQueue(Collection<?> queue) {
+        Gauge.builder("comparison.results.queued", queue, Collection::size)
+                .description("Difference chunks waiting for the result writer")
+                .register(registry);
+    }
+
+    private Counter differences(String objectType, String side) {
+        return Counter.builder("comparison.differences")
+                .description("Objects found on one side only, tagged by the side that has them")
+                .tag("object.type", objectType)
+                .tag("side", side)
+                .register(registry);
+    }
+
+    private Counter resultRows(String outcome) {
+        return Counter.builder("comparison.results.rows")
+                .description("Rows written to comparison_results")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the multi-sheet Excel comparison report.
+ * Uses a streaming (SXSSF) workbook: only a window of rows per sheet stays on the heap, older rows are
+ * flushed to compressed temp files, and the zip is written straight to the caller's output stream.
+ */
+@Component
+public class ComparisonReportWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ComparisonReportWriter.class);
+
+    // Excel's hard limit for the text of one cell
+    private static final int MAX_CELL_CHARS = 32_767;
+
+    static final String VOLUME_SHEET = "Volume Comparison";
+    static final String COLUMN_SHEET = "Column Comparison";
+    static final String SOURCE_SHEET = "Source Comparison";
+    static final String DEPENDENCY_SHEET = "Dependency Comparison";
+    static final String DDL_SHEET = "DDL";
+
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public ComparisonReportWriter(ComparisonProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Creates the multi-sheet Excel report from the comparison results and writes it to the output stream.
+     * The stream is not closed.
+     */
+    public void write(ComparisonRun run, OutputStream outputStream) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(properties.getReportRowAccessWindow())) {
+            workbook.setCompressTempFiles(true);
+            try {
+                CellStyle headerStyle = createHeaderStyle(workbook);
+
+                // Create sheets for each comparison type
+                for (Map.Entry<String, ComparisonTask> taskEntry : run.getTasks().entrySet()) {
+                    String objectType = taskEntry.getKey();
+                    String sheetName = taskEntry.getValue().sheetName;
+                    ComparisonResult result = run.getResults().get(objectType);
+                    if (result != null) { // Ensure result exists before creating sheet
+                        createDifferenceSheet(workbook, sheetName, result, headerStyle);
+                    } else {
+                        log.warn("No comparison result found for object type: {}", objectType);
+                    }
+                }
+
+                if (!run.getVolumes().isEmpty()) {
+                    createVolumeSheet(workbook, run.getVolumes(), headerStyle);
+                }
+                if (!run.getColumnDifferences().isEmpty()) {
+                    createColumnSheet(workbook, run.getColumnDifferences(), headerStyle);
+                }
+                if (!run.getSourceDifferences().isEmpty()) {
+                    createSourceSheet(workbook, run.getSourceDifferences(), headerStyle);
+                }
+                if (!run.getDependencyDifferences().isEmpty()) {
+                    createDependencySheet(workbook, run.getDependencyDifferences(), headerStyle);
+                }
+                if (!run.getDdl().isEmpty()) {
+                    createDdlSheet(workbook, run.getDdl(), headerStyle);
+                }
+                for (Map.Entry<String, String> stageError : run.getStageErrors().entrySet()) {
+                    createErrorSheet(workbook, stageError.getKey(), stageError.getValue(), headerStyle);
+                }
+
+                workbook.write(outputStream);
+                log.info("Excel report generated successfully for run {}.", run.getComparisonRunUuid());
+            } catch (IOException e) {
+                log.error("Error generating Excel report", e);
+                throw e;
+            } finally {
+                // Delete the temp files backing the flushed rows
+                workbook.dispose();
+            }
+        }
+    }
+
+    /**
+     * Writes the row-level data comparison report: a summary sheet with one row per table (with the estimated
+     * mismatch rate for a sampled comparison) and a sheet listing the mismatching keys (capped per table).
+     * The stream is not closed.
+     */
+    public void writeDataReport(List<TableDataComparison> tables, OutputStream outputStream) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(properties.getReportRowAccessWindow())) {
+            workbook.setCompressTempFiles(true);
+            try {
+                CellStyle headerStyle = createHeaderStyle(workbook);
+
+                SXSSFSheet summary = workbook.createSheet("Data Summary");
+                boolean sampled = tables.stream().anyMatch(table -> table.getEstimate() != null);
+                ColumnWidthTracker summaryWidths = sampled
+                        ? writeHeader(summary, headerStyle, "Oracle Table", "PostgreSQL Table", "Status", "Key Column",
+                                "Columns Compared", "Oracle Sample Rows", "PostgreSQL Sample Rows", "Mismatched Rows",
+                                "Estimated Mismatch Rate", "Rate Lower Bound", "Rate Upper Bound", "Confidence", "Message")
+                        : writeHeader(summary, headerStyle, "Oracle Table", "PostgreSQL Table", "Status", "Key Column",
+                                "Columns Compared", "Oracle Rows", "PostgreSQL Rows", "Chunks", "Mismatched Chunks",
+                                "Mismatched Rows", "Message");
+                int rowNum = 1;
+                for (TableDataComparison table : tables) {
+                    Row row = summary.createRow(rowNum++);
+                    int col = 0;
+                    setCell(row, col++, table.getOracleTable(), summaryWidths);
+                    setCell(row, col++, table.getPostgresTable(), summaryWidths);
+                    setCell(row, col++, table.getStatus().name(), summaryWidths);
+                    setCell(row, col++, table.getKeyColumn(), summaryWidths);
+                    setCell(row, col++, table.getComparedColumns(), summaryWidths);
+                    setCell(row, col++, table.getOracleRows(), summaryWidths);
+                    setCell(row, col++, table.getPostgresRows(), summaryWidths);
+                    if (sampled) {
+                        setCell(row, col++, table.getMismatchCount(), summaryWidths);
+                        MismatchEstimate estimate = table.getEstimate();
+                        setCell(row, col++, estimate != null ? percent(estimate.getRate()) : null, summaryWidths);
+                        setCell(row, col++, estimate != null ? percent(estimate.getLowerBound()) : null, summaryWidths);
+                        setCell(row, col++, estimate != null ? percent(estimate.getUpperBound()) : null, summaryWidths);
+                        setCell(row, col++, estimate != null ? percent(estimate.getConfidence()) : null, summaryWidths);
+                    } else {
+                        setCell(row, col++, table.getChunks(), summaryWidths);
+                        setCell(row, col++, table.getMismatchedChunks(), summaryWidths);
+                        setCell(row, col++, table.getMismatchCount(), summaryWidths);
+                    }
+                    setCell(row, col, table.getMessage(), summaryWidths);
+                }
+                summaryWidths.applyTo(summary);
+
+                SXSSFSheet mismatches = workbook.createSheet("Row Mismatches");
+                ColumnWidthTracker mismatchWidths = writeHeader(mismatches, headerStyle, "Oracle Table", "Key", "Mismatch");
+                rowNum = 1;
+                for (TableDataComparison table : tables) {
+                    for (RowMismatch mismatch : table.getMismatches()) {
+                        Row row = mismatches.createRow(rowNum++);
+                        setCell(row, 0, table.getOracleTable(), mismatchWidths);
+                        setCell(row, 1, mismatch.getKey(), mismatchWidths);
+                        setCell(row, 2, mismatch.getKind().name(), mismatchWidths);
+                    }
+                }
+                mismatchWidths.applyTo(mismatches);
+
+                workbook.write(outputStream);
+                log.info("Data comparison report generated for {} tables.", tables.size());
+            } finally {
+                workbook.dispose();
+            }
+        }
+    }
+
+    private CellStyle createHeaderStyle(SXSSFWorkbook workbook) {
+        CellStyle headerStyle = workbook.createCellStyle();
+        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        return headerStyle;
+    }
+
+    private ColumnWidthTracker writeHeader(SXSSFSheet sheet, CellStyle headerStyle, String... headers) {
+        Row headerRow = sheet.createRow(0);
+        ColumnWidthTracker columnWidths = new ColumnWidthTracker(headers.length);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            columnWidths.track(i, headers[i]);
+        }
+        return columnWidths;
+    }
+
+    /**
+     * Helper method to create a single sheet showing differences for a specific object type.
+     * Column widths are computed while rows are written, so the sheet is built in a single pass.
+     */
+    private void createDifferenceSheet(SXSSFWorkbook workbook, String sheetName, ComparisonResult result, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(sheetName);
+
+        // Create header row
+        ColumnWidthTracker columnWidths = writeHeader(sheet, headerStyle, "Name", "Type", "Schema", "Status");
+
+        // Create data rows
+        int rowNum = 1;
+        // Add objects only in Oracle
+        for (DatabaseObject obj : result.getOnlyInOracle()) {
+            writeDifferenceRow(sheet.createRow(rowNum++), obj, "Only in Oracle", columnWidths);
+        }
+        // Add objects only in PostgreSQL
+        for (DatabaseObject obj : result.getOnlyInPostgres()) {
+            writeDifferenceRow(sheet.createRow(rowNum++), obj, "Only in PostgreSQL", columnWidths);
+        }
+
+        // Size columns once from the widths seen while writing
+        columnWidths.applyTo(sheet);
+    }
+
+    /**
+     * Row counts and sizes per table; estimates from statistics, exact counts where they were requested.
+     */
+    private void createVolumeSheet(SXSSFWorkbook workbook, List<TableVolume> volumes, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(VOLUME_SHEET);
+        ColumnWidthTracker columnWidths = writeHeader(sheet, headerStyle, "Oracle Table", "PostgreSQL Table",
+                "Oracle Est. Rows", "PostgreSQL Est. Rows", "Est. Row Difference", "Oracle Bytes", "PostgreSQL Bytes",
+                "Oracle Exact Rows", "PostgreSQL Exact Rows", "Exact Row Difference", "Oracle Last Analyzed", "PostgreSQL Last Analyzed");
+        int rowNum = 1;
+        for (TableVolume volume : volumes) {
+            Row row = sheet.createRow(rowNum++);
+            setCell(row, 0, volume.getOracleTableName(), columnWidths);
+            setCell(row, 1, volume.getPostgresTableName(), columnWidths);
+            setCell(row, 2, volume.getOracleEstimatedRows(), columnWidths);
+            setCell(row, 3, volume.getPostgresEstimatedRows(), columnWidths);
+            setCell(row, 4, difference(volume.getOracleEstimatedRows(), volume.getPostgresEstimatedRows()), columnWidths);
+            setCell(row, 5, volume.getOracleBytes(), columnWidths);
+            setCell(row, 6, volume.getPostgresBytes(), columnWidths);
+            setCell(row, 7, volume.getOracleExactRows(), columnWidths);
+            setCell(row, 8, volume.getPostgresExactRows(), columnWidths);
+            setCell(row, 9, difference(volume.getOracleExactRows(), volume.getPostgresExactRows()), columnWidths);
+            setCell(row, 10, volume.getOracleLastAnalyzed(), columnWidths);
+            setCell(row, 11, volume.getPostgresLastAnalyzed(), columnWidths);
+        }
+        columnWidths.applyTo(sheet);
+    }
+
+    /**
+     * One row per column difference, ordered by table and column.
+     */
+    private void createColumnSheet(SXSSFWorkbook workbook, List<ColumnDifference> differences, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(COLUMN_SHEET);
+        ColumnWidthTracker columnWidths = writeHeader(sheet, headerStyle, "Table", "Column", "Difference", "Oracle", "PostgreSQL");
+        int rowNum = 1;
+        for (ColumnDifference difference : differences) {
+            Row row = sheet.createRow(rowNum++);
+            setCell(row, 0, difference.getTableName(), columnWidths);
+            setCell(row, 1, difference.getColumnName(), columnWidths);
+            setCell(row, 2, difference.getKind().name(), columnWidths);
+            setCell(row, 3, difference.getOracleValue(), columnWidths);
+            setCell(row, 4, difference.getPostgresValue(), columnWidths);
+        }
+        columnWidths.applyTo(sheet);
+    }
+
+    /**
+     * Procedures and functions whose normalized bodies differ, with the changed lines.
+     */
+    private void createSourceSheet(SXSSFWorkbook workbook, List<RoutineSourceDifference> differences, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(SOURCE_SHEET);
+        ColumnWidthTracker columnWidths = writeHeader(sheet, headerStyle, "Type", "Name", "Oracle Lines", "PostgreSQL Lines", "Changed Lines");
+        int rowNum = 1;
+        for (RoutineSourceDifference difference : differences) {
+            Row row = sheet.createRow(rowNum++);
+            setCell(row, 0, difference.getType(), columnWidths);
+            setCell(row, 1, difference.getName(), columnWidths);
+            setCell(row, 2, difference.getOracleLines(), columnWidths);
+            setCell(row, 3, difference.getPostgresLines(), columnWidths);
+            setCell(row, 4, truncateToCell(difference.getDiff()), columnWidths);
+        }
+        columnWidths.applyTo(sheet);
+    }
+
+    /**
+     * Dependencies recorded on one side only, in migration order, with the objects affected downstream.
+     */
+    private void createDependencySheet(SXSSFWorkbook workbook, List<DependencyDifference> differences, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(DEPENDENCY_SHEET);
+        ColumnWidthTracker columnWidths = writeHeader(sheet, headerStyle, "Migration Order", "Type", "Name", "Status",
+                "Referenced Type", "Referenced Name", "Downstream Objects", "Downstream Sample");
+        int rowNum = 1;
+        for (DependencyDifference difference : differences) {
+            Row row = sheet.createRow(rowNum++);
+            setCell(row, 0, difference.getMigrationOrder(), columnWidths);
+            setCell(row, 1, difference.getObjectType(), columnWidths);
+            setCell(row, 2, difference.getObjectName(), columnWidths);
+            setCell(row, 3, difference.getKind() == DependencyDifference.Kind.ONLY_IN_ORACLE ? "Only in Oracle" : "Only in PostgreSQL", columnWidths);
+            setCell(row, 4, difference.getReferencedType(), columnWidths);
+            setCell(row, 5, difference.getReferencedName(), columnWidths);
+            setCell(row, 6, difference.getDownstreamCount(), columnWidths);
+            setCell(row, 7, difference.getDownstreamSample(), columnWidths);
+        }
+        columnWidths.applyTo(sheet);
+    }
+
+    /**
+     * Placeholder for a comparison stage that failed, so the report still says why the sheet has no rows.
+     */
+    private void createErrorSheet(SXSSFWorkbook workbook, String sheetName, String error, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(sheetName);
+        ColumnWidthTracker columnWidths = writeHeader(sheet, headerStyle, "Not compared");
+        setCell(sheet.createRow(1), 0, error, columnWidths);
+        columnWidths.applyTo(sheet);
+    }
+
+    /**
+     * DDL of the objects found on one side only. Long DDL is cut at Excel's cell limit; the DDL archive has it in full.
+     */
+    private void createDdlSheet(SXSSFWorkbook workbook, List<ObjectDdl> ddl, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(DDL_SHEET);
+        ColumnWidthTracker columnWidths = writeHeader(sheet, headerStyle, "Side", "Type", "Name", "DDL", "Error");
+        int rowNum = 1;
+        for (ObjectDdl objectDdl : ddl) {
+            Row row = sheet.createRow(rowNum++);
+            setCell(row, 0, objectDdl.getSide() == CatalogCache.Side.ORACLE ? "Oracle" : "PostgreSQL", columnWidths);
+            setCell(row, 1, objectDdl.getObjectType(), columnWidths);
+            setCell(row, 2, objectDdl.getName(), columnWidths);
+            setCell(row, 3, truncateToCell(objectDdl.getDdl()), columnWidths);
+            setCell(row, 4, objectDdl.getError(), columnWidths);
+        }
+        columnWidths.applyTo(sheet);
+    }
+
+    private static String truncateToCell(String value) {
+        if (value == null || value.length() <= MAX_CELL_CHARS) {
+            return value;
+        }
+        String marker = "\n-- truncated";
+        return value.substring(0, MAX_CELL_CHARS - marker.length()) + marker;
+    }
+
+    private static Long difference(Long oracle, Long postgres) {
+        return oracle != null && postgres != null ? postgres - oracle : null;
+    }
+
+    private void writeDifferenceRow(Row row, DatabaseObject obj, String status, ColumnWidthTracker columnWidths) {
+        setCell(row, 0, obj.getName(), columnWidths);
+        setCell(row, 1, obj.getType(), columnWidths);
+        setCell(row, 2, obj.getSchema(), columnWidths);
+        setCell(row, 3, status, columnWidths);
+    }
+
+    private void setCell(Row row, int column, String value, ColumnWidthTracker columnWidths) {
+        row.createCell(column).setCellValue(value);
+        columnWidths.track(column, value);
+    }
+
+    private static String percent(double fraction) {
+        return String.format(Locale.ROOT, "%.4f%%", fraction * 100);
+    }
+
+    private void setCell(Row row, int column, long value, ColumnWidthTracker columnWidths) {
+        row.createCell(column).setCellValue(value);
+        columnWidths.track(column, String.valueOf(value));
+    }
+
+    // Unknown values stay blank
+    private void setCell(Row row, int column, Long value, ColumnWidthTracker columnWidths) {
+        if (value != null) {
+            setCell(row, column, value.longValue(), columnWidths);
+        }
+    }
+}
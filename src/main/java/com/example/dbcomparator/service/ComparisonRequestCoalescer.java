@@ -0,0 +1,142 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight front of every comparison entry point (report, DDL, snapshot and job endpoints).
+ * Requests for a schema pair that is already being compared wait for that comparison and share its run
+ * (same comparison_run_uuid, one set of rows in comparison_results) instead of starting their own.
+ * Distinct comparisons are capped by comparison.max-concurrent-comparisons; requests beyond it are rejected
+ * rather than queued, since each comparison holds connections on both datasources. Asynchronous jobs wait for a slot
+ * instead; their worker pool is already the queue.
+ */
+@Service
+public class ComparisonRequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(ComparisonRequestCoalescer.class);
+
+    private final DatabaseComparisonService comparisonService;
+    private final ComparisonMetrics metrics;
+    private final Semaphore permits;
+    private final Map<String, CompletableFuture<ComparisonRun>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ComparisonRequestCoalescer(DatabaseComparisonService comparisonService, ComparisonProperties properties,
+                                      ComparisonMetrics metrics) {
+        this.comparisonService = comparisonService;
+        this.metrics = metrics;
+        this.permits = new Semaphore(properties.getMaxConcurrentComparisons());
+    }
+
+    /**
+     * Compare the schema pair, or wait for the comparison of the same pair that is already running.
+     * The leading request runs the comparison on its own thread; failures reach every waiting request.
+     *
+     * @throws RejectedExecutionException If the pair is not being compared and no comparison slot is free
+     */
+    public ComparisonRun runComparison(String oracleSchema, String postgresSchema) {
+        return run(key(oracleSchema, null, postgresSchema, null), oracleSchema, postgresSchema, false,
+                () -> comparisonService.runComparison(oracleSchema, postgresSchema));
+    }
+
+    /**
+     * Same as {@link #runComparison(String, String)}, with catalog fingerprints the caller already took, so the
+     * comparison does not query them again. Requests joining a running comparison share its fingerprints.
+     */
+    public ComparisonRun runComparison(String oracleSchema, String postgresSchema, String oracleFingerprint,
+                                       String postgresFingerprint) {
+        return run(key(oracleSchema, null, postgresSchema, null), oracleSchema, postgresSchema, false,
+                () -> comparisonService.runComparison(UUID.randomUUID(), oracleSchema, postgresSchema, null, null,
+                        oracleFingerprint, postgresFingerprint));
+    }
+
+    /**
+     * Same as {@link #runComparison(String, String)} for an asynchronous job: instead of being rejected, the job
+     * waits for a free comparison slot on its worker thread. A job that joins a running comparison of the same pair
+     * gets that run, whose id differs from the one it asked for.
+     *
+     * @throws RejectedExecutionException If the job is interrupted while waiting for a slot
+     */
+    public ComparisonRun runComparison(UUID comparisonRunUuid, String oracleSchema, String postgresSchema) {
+        return run(key(oracleSchema, null, postgresSchema, null), oracleSchema, postgresSchema, true,
+                () -> comparisonService.runComparison(comparisonRunUuid, oracleSchema, postgresSchema));
+    }
+
+    /**
+     * Same as {@link #runComparison(String, String)} where either side may be a catalog snapshot. Requests only
+     * share a run if they name the same snapshots (or the same live schemas).
+     */
+    public ComparisonRun runComparison(String oracleSchema, String oracleSnapshotName, CatalogSnapshotFile oracleSnapshot,
+                                       String postgresSchema, String postgresSnapshotName, CatalogSnapshotFile postgresSnapshot) {
+        return run(key(oracleSchema, oracleSnapshotName, postgresSchema, postgresSnapshotName), oracleSchema, postgresSchema, false,
+                () -> comparisonService.runComparison(UUID.randomUUID(), oracleSchema, postgresSchema, oracleSnapshot, postgresSnapshot));
+    }
+
+    private static String key(String oracleSchema, String oracleSnapshotName, String postgresSchema, String postgresSnapshotName) {
+        // Snapshot names are marked so they never collide with a live schema of the same name
+        return (oracleSnapshotName != null ? "\u0001" + oracleSnapshotName : oracleSchema) + '\u0000'
+                + (postgresSnapshotName != null ? "\u0001" + postgresSnapshotName : postgresSchema);
+    }
+
+    private ComparisonRun run(String key, String oracleSchema, String postgresSchema, boolean waitForSlot,
+                              Supplier<ComparisonRun> comparison) {
+        CompletableFuture<ComparisonRun> leader = new CompletableFuture<>();
+        CompletableFuture<ComparisonRun> running = inFlight.putIfAbsent(key, leader);
+        if (running != null) {
+            log.info("Joining the running comparison of Oracle schema '{}' and PostgreSQL schema '{}'", oracleSchema, postgresSchema);
+            metrics.recordComparisonRequest("coalesced");
+            return ComparisonTaskExecutor.await(running);
+        }
+
+        try {
+            if (!acquirePermit(waitForSlot)) {
+                metrics.recordComparisonRequest("rejected");
+                log.warn("Rejected comparison of '{}' / '{}': {} comparisons already running",
+                        oracleSchema, postgresSchema, inFlight.size() - 1);
+                RejectedExecutionException rejected = new RejectedExecutionException(waitForSlot
+                        ? "Interrupted while waiting for a comparison slot." : "Too many comparisons running, retry later.");
+                leader.completeExceptionally(rejected);
+                throw rejected;
+            }
+            try {
+                metrics.recordComparisonRequest("started");
+                ComparisonRun run = comparison.get();
+                leader.complete(run);
+                return run;
+            } catch (RuntimeException | Error e) {
+                leader.completeExceptionally(e);
+                throw e;
+            } finally {
+                permits.release();
+            }
+        } finally {
+            // Later requests start a fresh comparison; the finished run is not reused
+            inFlight.remove(key, leader);
+        }
+    }
+
+    private boolean acquirePermit(boolean waitForSlot) {
+        if (!waitForSlot) {
+            return permits.tryAcquire();
+        }
+        try {
+            permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
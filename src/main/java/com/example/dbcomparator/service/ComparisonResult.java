@@ -0,0 +1,17 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Holds the results of comparing two lists of objects.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ComparisonResult {
+    private final List<DatabaseObject> onlyInOracle;
+    private final List<DatabaseObject> onlyInPostgres;
+}
@@ -0,0 +1,140 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes batches of differences to the comparison_results table.
+ * On PostgreSQL a whole batch is streamed through a single COPY FROM STDIN; the run, type and status columns are
+ * encoded once per entry, so each row only encodes its name and schema into the shared buffer.
+ * Other result stores (or comparison.result-copy-enabled=false) get one INSERT batch per entry.
+ */
+@Component
+public class ComparisonResultWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ComparisonResultWriter.class);
+
+    static final String INSERT_SQL = "INSERT INTO comparison_results (comparison_run_uuid, run_timestamp, object_type, object_name, schema_name, status, source_db) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    static final String COPY_SQL = "COPY comparison_results (comparison_run_uuid, run_timestamp, object_type, object_name, schema_name, status, source_db) FROM STDIN";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Told about the outcome of every entry of a batch.
+     */
+    public interface Acknowledgement {
+        void persisted(PendingDifferences differences);
+
+        void failed(PendingDifferences differences, String error);
+    }
+
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public ComparisonResultWriter(@Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                  ComparisonProperties properties) {
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Persist a batch of differences, acknowledging each entry as persisted or failed.
+     */
+    public void write(List<PendingDifferences> batch, Acknowledgement acknowledgement) {
+        if (properties.isResultCopyEnabled()) {
+            try {
+                Long rows = supabaseJdbcTemplate.execute((ConnectionCallback<Long>) con ->
+                        con.isWrapperFor(PGConnection.class) ? copy(con.unwrap(PGConnection.class), batch) : null);
+                if (rows != null) {
+                    log.debug("Persisted {} differences with COPY", rows);
+                    batch.forEach(acknowledgement::persisted);
+                    return;
+                }
+            } catch (DataAccessException e) {
+                // COPY is all or nothing, so the INSERT batches below do not duplicate anything
+                log.warn("COPY into comparison_results failed, falling back to INSERT batches: {}", e.getMessage());
+            }
+        }
+        for (PendingDifferences differences : batch) {
+            try {
+                insert(differences);
+                acknowledgement.persisted(differences);
+            } catch (DataAccessException e) {
+                log.error("Failed to persist differences for type '{}' with status '{}': {}",
+                        differences.getObjectType(), differences.getStatus(), e.getMessage());
+                acknowledgement.failed(differences, e.getMessage());
+            }
+        }
+    }
+
+    private long copy(PGConnection connection, List<PendingDifferences> batch) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            CopyTextEncoder encoder = new CopyTextEncoder(copyIn::writeToCopy, COPY_BUFFER_SIZE);
+            encodeRows(batch, encoder);
+            encoder.flush();
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Encode the rows of a batch for COPY (without flushing the encoder).
+     */
+    static void encodeRows(List<PendingDifferences> batch, CopyTextEncoder encoder) throws SQLException {
+        for (PendingDifferences differences : batch) {
+            // Local time with its offset, read the same way as the bound Timestamp by timestamp and timestamptz columns
+            String timestamp = OffsetDateTime.ofInstant(differences.getRunTimestamp().toInstant(), ZoneId.systemDefault()).toString();
+            byte[] leading = CopyTextEncoder.encode(differences.getComparisonRunUuid().toString(), timestamp, differences.getObjectType());
+            byte[] trailing = CopyTextEncoder.encode(differences.getStatus(), differences.getSourceDb());
+            for (DatabaseObject obj : differences.getObjects()) {
+                encoder.columns(leading).column(obj.getName()).column(obj.getSchema()).columns(trailing);
+                encoder.endRow();
+            }
+        }
+    }
+
+    private void insert(PendingDifferences differences) {
+        supabaseJdbcTemplate.batchUpdate(INSERT_SQL, batchArgs(differences));
+        log.debug("Persisted {} differences for type '{}' with status '{}'",
+                differences.getObjects().size(), differences.getObjectType(), differences.getStatus());
+    }
+
+    /**
+     * INSERT parameters, one array per row.
+     */
+    static List<Object[]> batchArgs(PendingDifferences differences) {
+        return differences.getObjects().stream()
+                .map(obj -> new Object[]{
+                        differences.getComparisonRunUuid(),
+                        differences.getRunTimestamp(),
+                        differences.getObjectType(), // Use the overall object type category
+                        obj.getName(),
+                        obj.getSchema(),
+                        differences.getStatus(),
+                        differences.getSourceDb()
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The outcome of one comparison run: the tasks that were executed and their results, keyed by object type.
+ * Everything needed to render the report, so the report can be streamed after the comparison has finished.
+ */
+@Getter
+public class ComparisonRun {
+    private final UUID comparisonRunUuid;
+    private final Timestamp runTimestamp;
+    private final String oracleSchema;
+    private final String postgresSchema;
+    private final Map<String, ComparisonTask> tasks;
+    private final Map<String, ComparisonResult> results;
+    private final List<TableVolume> volumes; // Empty when the volume comparison is disabled
+    private final List<ColumnDifference> columnDifferences; // Empty when the column comparison is disabled
+    private final List<ObjectDdl> ddl; // Empty when DDL extraction is disabled
+    private final List<RoutineSourceDifference> sourceDifferences; // Empty when the source comparison is disabled
+    private final List<DependencyDifference> dependencyDifferences; // Empty when the dependency comparison is disabled
+    private final Map<String, String> stageErrors; // Sheet name -> error of a comparison stage that failed
+
+    public ComparisonRun(UUID comparisonRunUuid, Timestamp runTimestamp, String oracleSchema, String postgresSchema,
+                         Map<String, ComparisonTask> tasks, Map<String, ComparisonResult> results) {
+        this(comparisonRunUuid, runTimestamp, oracleSchema, postgresSchema, tasks, results, Collections.emptyList(), Collections.emptyList());
+    }
+
+    public ComparisonRun(UUID comparisonRunUuid, Timestamp runTimestamp, String oracleSchema, String postgresSchema,
+                         Map<String, ComparisonTask> tasks, Map<String, ComparisonResult> results, List<TableVolume> volumes,
+                         List<ColumnDifference> columnDifferences) {
+        this(comparisonRunUuid, runTimestamp, oracleSchema, postgresSchema, tasks, results, volumes, columnDifferences,
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyMap());
+    }
+
+    public ComparisonRun(UUID comparisonRunUuid, Timestamp runTimestamp, String oracleSchema, String postgresSchema,
+                         Map<String, ComparisonTask> tasks, Map<String, ComparisonResult> results, List<TableVolume> volumes,
+                         List<ColumnDifference> columnDifferences, List<ObjectDdl> ddl,
+                         List<RoutineSourceDifference> sourceDifferences, List<DependencyDifference> dependencyDifferences,
+                         Map<String, String> stageErrors) {
+        this.comparisonRunUuid = comparisonRunUuid;
+        this.runTimestamp = runTimestamp;
+        this.oracleSchema = oracleSchema;
+        this.postgresSchema = postgresSchema;
+        this.tasks = tasks;
+        this.results = results;
+        this.volumes = volumes;
+        this.columnDifferences = columnDifferences;
+        this.ddl = ddl;
+        this.sourceDifferences = sourceDifferences;
+        this.dependencyDifferences = dependencyDifferences;
+        this.stageErrors = stageErrors;
+    }
+}
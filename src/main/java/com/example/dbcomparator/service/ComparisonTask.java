@@ -0,0 +1,28 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Represents a comparison task for a specific object type.
+ */
+public class ComparisonTask {
+    final String sheetName;
+    final Function<String, List<? extends DatabaseObject>> oracleFetcher;
+    final Function<String, List<? extends DatabaseObject>> postgresFetcher;
+
+    // Explicit constructor to avoid potential Lombok issues
+    public ComparisonTask(String sheetName,
+                          Function<String, List<? extends DatabaseObject>> oracleFetcher,
+                          Function<String, List<? extends DatabaseObject>> postgresFetcher) {
+        this.sheetName = sheetName;
+        this.oracleFetcher = oracleFetcher;
+        this.postgresFetcher = postgresFetcher;
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+}
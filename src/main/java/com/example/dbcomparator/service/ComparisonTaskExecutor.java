@@ -0,0 +1,92 @@
+package com.example.dbcomparator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs catalog fetches concurrently, with a separate bounded pool per datasource.
+ * The pool sizes are the concurrency limits, so the Hikari pools behind each datasource are never exhausted
+ * no matter how many comparisons are running at once.
+ */
+public class ComparisonTaskExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ComparisonTaskExecutor.class);
+
+    private final ExecutorService oracleExecutor;
+    private final ExecutorService postgresExecutor;
+
+    public ComparisonTaskExecutor(int oracleConcurrency, int postgresConcurrency) {
+        if (oracleConcurrency < 1 || postgresConcurrency < 1) {
+            throw new IllegalArgumentException("Fetch concurrency must be at least 1 for each datasource.");
+        }
+        this.oracleExecutor = Executors.newFixedThreadPool(oracleConcurrency, namedDaemonThreads("oracle-fetch-"));
+        this.postgresExecutor = Executors.newFixedThreadPool(postgresConcurrency, namedDaemonThreads("postgres-fetch-"));
+        log.info("Comparison executor started with Oracle concurrency {} and PostgreSQL concurrency {}",
+                oracleConcurrency, postgresConcurrency);
+    }
+
+    /**
+     * Schedule a fetch against the Oracle datasource.
+     */
+    public <T> CompletableFuture<T> submitOracle(Supplier<T> fetch) {
+        return CompletableFuture.supplyAsync(fetch, oracleExecutor);
+    }
+
+    /**
+     * Schedule a fetch against the PostgreSQL datasource.
+     */
+    public <T> CompletableFuture<T> submitPostgres(Supplier<T> fetch) {
+        return CompletableFuture.supplyAsync(fetch, postgresExecutor);
+    }
+
+    /**
+     * Wait for a fetch and rethrow its original exception, so callers see the same errors as a serial run.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for catalog fetch.", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Catalog fetch failed.", cause);
+        }
+    }
+
+    public void shutdown() {
+        oracleExecutor.shutdownNow();
+        postgresExecutor.shutdownNow();
+        try {
+            oracleExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            postgresExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
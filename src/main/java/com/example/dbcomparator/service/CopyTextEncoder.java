@@ -0,0 +1,141 @@
+package com.example.dbcomparator.service;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
+
+/**
+ * Encodes rows in the PostgreSQL COPY text format (tab-separated, backslash escapes, \N for null, UTF-8)
+ * into one reusable buffer that is handed to the sink whenever it fills up.
+ * Strings are encoded char by char, so writing a row allocates nothing; columns that are the same for many rows
+ * can be encoded once with {@link #encode(String...)} and written with {@link #columns(byte[])}.
+ */
+final class CopyTextEncoder {
+
+    /**
+     * Receives the encoded bytes, e.g. pgjdbc's CopyIn.writeToCopy.
+     */
+    interface Sink {
+        void write(byte[] buffer, int offset, int length) throws SQLException;
+    }
+
+    private static final byte[] NULL = {'\\', 'N'};
+
+    private final Sink sink;
+    private final byte[] buffer;
+    private int position;
+    private boolean rowStart = true;
+
+    CopyTextEncoder(Sink sink, int bufferSize) {
+        this.sink = sink;
+        this.buffer = new byte[Math.max(bufferSize, 16)];
+    }
+
+    /**
+     * Pre-encode consecutive columns, for use with {@link #columns(byte[])}.
+     */
+    static byte[] encode(String... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CopyTextEncoder encoder = new CopyTextEncoder((buffer, offset, length) -> out.write(buffer, offset, length), 256);
+        try {
+            for (String value : values) {
+                encoder.column(value);
+            }
+            encoder.flush();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e); // Cannot happen, the sink does not throw
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Append one column value; null is written as \N.
+     */
+    CopyTextEncoder column(String value) throws SQLException {
+        separate();
+        if (value == null) {
+            put(NULL);
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            ensure(4);
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '\\' -> escape('\\');
+                    case '\n' -> escape('n');
+                    case '\r' -> escape('r');
+                    case '\t' -> escape('t');
+                    default -> buffer[position++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?'; // Unpaired surrogate, as String.getBytes(UTF_8) would
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Append columns encoded by {@link #encode(String...)}.
+     */
+    CopyTextEncoder columns(byte[] encoded) throws SQLException {
+        separate();
+        put(encoded);
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        ensure(1);
+        buffer[position++] = '\n';
+        rowStart = true;
+    }
+
+    void flush() throws SQLException {
+        if (position > 0) {
+            sink.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void separate() throws SQLException {
+        if (!rowStart) {
+            ensure(1);
+            buffer[position++] = '\t';
+        }
+        rowStart = false;
+    }
+
+    private void escape(char c) {
+        buffer[position++] = '\\';
+        buffer[position++] = (byte) c;
+    }
+
+    private void put(byte[] bytes) throws SQLException {
+        if (bytes.length > buffer.length) {
+            flush();
+            sink.write(bytes, 0, bytes.length);
+            return;
+        }
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws SQLException {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+}
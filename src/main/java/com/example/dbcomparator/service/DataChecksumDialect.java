@@ -0,0 +1,292 @@
+package com.example.dbcomparator.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * SQL for the chunked row checksums, one constant per database.
+ * Every column is rendered to the same canonical text on both sides (chosen from the Oracle data type, which is the
+ * migration source) and hashed on its own; the row hash is the MD5 of those column hashes, taken over groups of
+ * {@link #HASH_GROUP_SIZE} columns and then over the group hashes, so no intermediate string outgrows Oracle's
+ * 4000-byte VARCHAR2 limit however wide the table is. The row hash is split into two 32-bit halves that are summed
+ * per chunk. Sums are order-independent, so a chunk's checksum doesn't depend on scan order.
+ * Both databases are assumed to hash UTF-8 text (Oracle AL32UTF8 character set).
+ */
+enum DataChecksumDialect {
+
+    ORACLE {
+        @Override
+        String quote(String identifier) {
+            return "\"" + identifier.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        String encodeColumn(String column, String oracleType) {
+            String col = quote(column);
+            String type = oracleType.toUpperCase(Locale.ROOT);
+            if (isFloating(type)) {
+                return "UPPER(TRIM(TO_CHAR(" + col + ", '" + FLOAT_FORMAT + "')))";
+            }
+            if (isNumeric(type)) {
+                // TM9 gives the shortest form but drops the leading zero ('.5'); put it back
+                return "REGEXP_REPLACE(TO_CHAR(" + col + ", 'TM9', 'NLS_NUMERIC_CHARACTERS=''.,'''), '^(-?)\\.', '\\10.')";
+            }
+            if (type.equals("DATE")) {
+                return "TO_CHAR(" + col + ", 'YYYY-MM-DD HH24:MI:SS')";
+            }
+            if (type.startsWith("TIMESTAMP") && type.contains("TIME ZONE")) {
+                return "TO_CHAR(SYS_EXTRACT_UTC(" + col + "), 'YYYY-MM-DD HH24:MI:SS.FF6')";
+            }
+            if (type.startsWith("TIMESTAMP")) {
+                return "TO_CHAR(" + col + ", 'YYYY-MM-DD HH24:MI:SS.FF6')";
+            }
+            if (type.equals("CHAR") || type.equals("NCHAR")) {
+                return "RTRIM(" + col + ")";
+            }
+            if (type.equals("RAW")) {
+                return "RAWTOHEX(" + col + ")";
+            }
+            return "TO_CHAR(" + col + ")";
+        }
+
+        @Override
+        String md5Hex(String text) {
+            return "RAWTOHEX(STANDARD_HASH(" + text + ", 'MD5'))";
+        }
+
+        @Override
+        String nullMarker(String expr) {
+            return "NVL(" + expr + ", CHR(30))";
+        }
+
+        @Override
+        String hashedRows(String source, String keyColumn, String rowHash, String condition) {
+            return "SELECT " + quote(keyColumn) + " AS k, " + rowHash + " AS h " +
+                    "FROM " + source + " WHERE " + condition;
+        }
+
+        @Override
+        String sampledTable(String table, double percent, Long seed) {
+            // SAMPLE BLOCK reads only the chosen blocks; the percentage must stay below 100
+            return table + " SAMPLE BLOCK (" + percentLiteral(Math.min(percent, 99.999999)) + ")"
+                    + (seed != null ? " SEED (" + seed + ")" : "");
+        }
+
+        @Override
+        String limit(String sql, int rows) {
+            return sql + " FETCH FIRST " + rows + " ROWS ONLY";
+        }
+
+        @Override
+        String hashHalf(int start) {
+            return "TO_NUMBER(SUBSTR(h, " + start + ", 8), 'XXXXXXXX')";
+        }
+
+        @Override
+        String chunkNumber(long from, long width) {
+            return "FLOOR((k - " + from + ") / " + width + ")";
+        }
+    },
+
+    POSTGRES {
+        @Override
+        String quote(String identifier) {
+            return "\"" + identifier.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        String encodeColumn(String column, String oracleType) {
+            String col = quote(column);
+            String type = oracleType.toUpperCase(Locale.ROOT);
+            if (isFloating(type)) {
+                return "upper(trim(to_char(" + col + "::float8, '" + FLOAT_FORMAT + "')))";
+            }
+            if (isNumeric(type)) {
+                return "trim_scale(" + col + "::numeric)::text";
+            }
+            if (type.equals("DATE")) {
+                return "to_char(" + col + ", 'YYYY-MM-DD HH24:MI:SS')";
+            }
+            if (type.startsWith("TIMESTAMP") && type.contains("TIME ZONE")) {
+                return "to_char(" + col + " AT TIME ZONE 'UTC', 'YYYY-MM-DD HH24:MI:SS.US')";
+            }
+            if (type.startsWith("TIMESTAMP")) {
+                return "to_char(" + col + ", 'YYYY-MM-DD HH24:MI:SS.US')";
+            }
+            if (type.equals("CHAR") || type.equals("NCHAR")) {
+                return "NULLIF(rtrim(" + col + "::text), '')";
+            }
+            if (type.equals("RAW")) {
+                return "upper(encode(" + col + ", 'hex'))";
+            }
+            // Oracle stores '' as NULL, so a migrated empty string must hash like a NULL
+            return "NULLIF(" + col + "::text, '')";
+        }
+
+        @Override
+        String md5Hex(String text) {
+            return "upper(md5(" + text + "))";
+        }
+
+        @Override
+        String nullMarker(String expr) {
+            return "COALESCE(" + expr + ", chr(30))";
+        }
+
+        @Override
+        String hashedRows(String source, String keyColumn, String rowHash, String condition) {
+            return "SELECT " + quote(keyColumn) + "::bigint AS k, " + rowHash + " AS h " +
+                    "FROM " + source + " WHERE " + condition;
+        }
+
+        @Override
+        String sampledTable(String table, double percent, Long seed) {
+            return table + " TABLESAMPLE SYSTEM (" + percentLiteral(percent) + ")"
+                    + (seed != null ? " REPEATABLE (" + seed + ")" : "");
+        }
+
+        @Override
+        String limit(String sql, int rows) {
+            return sql + " LIMIT " + rows;
+        }
+
+        @Override
+        String hashHalf(int start) {
+            return "('x' || substr(h, " + start + ", 8))::bit(32)::bigint";
+        }
+
+        @Override
+        String chunkNumber(long from, long width) {
+            return "((k - " + from + ") / " + width + ")";
+        }
+    };
+
+    /**
+     * Column hashes per group: 100 x 32 hex digits stays below 4000 bytes, and 100 groups cover Oracle's 1000 columns.
+     */
+    static final int HASH_GROUP_SIZE = 100;
+
+    /**
+     * Floating-point columns are rendered in scientific notation with 15 significant digits on both sides: Oracle's
+     * shortest form of a binary double can need 17 digits, while PostgreSQL's float8 to numeric cast keeps 15.
+     */
+    static final String FLOAT_FORMAT = "9.99999999999999EEEE";
+
+    /**
+     * Column types that can't be rendered to comparable text in SQL; they are left out of the row hash.
+     * LOBs are among them: TO_CHAR of a CLOB over 4000 bytes fails, and STANDARD_HASH does not take LOBs.
+     */
+    static boolean isComparable(String oracleType) {
+        String type = oracleType.toUpperCase(Locale.ROOT);
+        return !(type.endsWith("LOB") || type.startsWith("LONG") || type.equals("BFILE")
+                || type.contains("XMLTYPE") || type.equals("ROWID") || type.equals("UROWID"));
+    }
+
+    /**
+     * Integer-valued key types usable for range chunking: NUMBER(p,0) and INTEGER (reported as NUMBER with scale 0).
+     * An unconstrained NUMBER has no scale and may hold fractions, which the integer chunk bounds would truncate.
+     */
+    static boolean isIntegerKey(String oracleType, Integer scale) {
+        String type = oracleType.toUpperCase(Locale.ROOT);
+        return (type.equals("NUMBER") || type.equals("INTEGER")) && scale != null && scale == 0;
+    }
+
+    private static boolean isNumeric(String type) {
+        return type.equals("NUMBER") || type.equals("INTEGER");
+    }
+
+    private static boolean isFloating(String type) {
+        return type.equals("FLOAT") || type.equals("BINARY_FLOAT") || type.equals("BINARY_DOUBLE");
+    }
+
+    abstract String quote(String identifier);
+
+    abstract String encodeColumn(String column, String oracleType);
+
+    /**
+     * MD5 of a text expression as 32 upper-case hex digits.
+     */
+    abstract String md5Hex(String text);
+
+    abstract String nullMarker(String expr);
+
+    /**
+     * Key and row hash (32 upper-case hex digits) for every row of the source (a table, possibly sampled) matching the condition.
+     */
+    abstract String hashedRows(String source, String keyColumn, String rowHash, String condition);
+
+    /**
+     * Row hash expression over the encoded columns: hash of the group hashes, each the hash of up to
+     * {@link #HASH_GROUP_SIZE} column hashes. Column hashes have a fixed length, so no separator is needed.
+     */
+    String rowHash(List<String> encodedColumns) {
+        List<String> groups = new ArrayList<>();
+        for (int from = 0; from < encodedColumns.size(); from += HASH_GROUP_SIZE) {
+            groups.add(md5Hex(encodedColumns.subList(from, Math.min(from + HASH_GROUP_SIZE, encodedColumns.size())).stream()
+                    .map(expr -> md5Hex(nullMarker(expr)))
+                    .collect(Collectors.joining(" || "))));
+        }
+        return md5Hex(String.join(" || ", groups));
+    }
+
+    /**
+     * The table with a block-level sampling clause, so only about percent of its blocks/pages are read.
+     */
+    abstract String sampledTable(String table, double percent, Long seed);
+
+    abstract String limit(String sql, int rows);
+
+    abstract String hashHalf(int start);
+
+    abstract String chunkNumber(long from, long width);
+
+    String qualifiedTable(String schema, String table) {
+        return quote(schema) + "." + quote(table);
+    }
+
+    /**
+     * Condition for from &lt;= key &lt; to.
+     */
+    String keyBetween(String keyColumn, long from, long to) {
+        return quote(keyColumn) + " >= " + from + " AND " + quote(keyColumn) + " < " + to;
+    }
+
+    /**
+     * Condition for a batch of keys; callers keep batches within Oracle's 1000-element IN list limit.
+     */
+    String keyIn(String keyColumn, List<Long> keys) {
+        return quote(keyColumn) + " IN (" + keys.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")";
+    }
+
+    private static String percentLiteral(double percent) {
+        return BigDecimal.valueOf(percent).toPlainString();
+    }
+
+    /**
+     * One checksum row per chunk of width keys, in a single scan of the range.
+     */
+    String chunkChecksums(String hashedRows, long from, long width) {
+        String chunk = chunkNumber(from, width);
+        return "SELECT " + chunk + " AS chunk_no, COUNT(*) AS row_count, " +
+                "SUM(" + hashHalf(1) + ") AS sum_hi, SUM(" + hashHalf(9) + ") AS sum_lo " +
+                "FROM (" + hashedRows + ") hashed GROUP BY " + chunk;
+    }
+
+    /**
+     * A single checksum row for a range.
+     */
+    String rangeChecksum(String hashedRows) {
+        return "SELECT COUNT(*) AS row_count, SUM(" + hashHalf(1) + ") AS sum_hi, SUM(" + hashHalf(9) + ") AS sum_lo " +
+                "FROM (" + hashedRows + ") hashed";
+    }
+
+    /**
+     * Key and hash of every row of a range, in key order.
+     */
+    String rowHashes(String hashedRows) {
+        return "SELECT k, h FROM (" + hashedRows + ") hashed ORDER BY k";
+    }
+}
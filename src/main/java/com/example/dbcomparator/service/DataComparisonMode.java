@@ -0,0 +1,11 @@
+package com.example.dbcomparator.service;
+
+/**
+ * How table contents are compared.
+ */
+public enum DataComparisonMode {
+    /** Exact: chunk checksums over the whole table, bisected down to the mismatching keys. */
+    CHECKSUM,
+    /** Approximate: a block-level sample of each side, looked up by key on the other side. */
+    SAMPLE
+}
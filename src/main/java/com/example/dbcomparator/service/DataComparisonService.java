@@ -0,0 +1,352 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Row-level data comparison of migrated tables.
+ * Each table is split into primary key ranges and both databases compute a checksum per range in SQL;
+ * only ranges whose checksums differ are bisected further, and only the smallest mismatching ranges
+ * have their key/hash pairs pulled over the network.
+ * In sample mode only a block-level sample is hashed and the result is an estimated mismatch rate.
+ */
+@Service
+public class DataComparisonService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataComparisonService.class);
+
+    static final String ORACLE_TABLES_SQL =
+        "SELECT TABLE_NAME FROM ALL_TABLES WHERE OWNER = ? ORDER BY TABLE_NAME";
+
+    static final String ORACLE_COLUMNS_SQL =
+        "SELECT COLUMN_NAME, DATA_TYPE, DATA_SCALE FROM ALL_TAB_COLUMNS WHERE OWNER = ? AND TABLE_NAME = ? ORDER BY COLUMN_ID";
+
+    static final String ORACLE_PRIMARY_KEY_SQL =
+        "SELECT cc.COLUMN_NAME " +
+        "FROM ALL_CONSTRAINTS c " +
+        "JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME " +
+        "WHERE c.OWNER = ? AND c.TABLE_NAME = ? AND c.CONSTRAINT_TYPE = 'P' " +
+        "ORDER BY cc.POSITION";
+
+    static final String POSTGRES_TABLES_SQL =
+        "SELECT c.relname FROM pg_class c " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = ? AND c.relkind IN ('r', 'p') " +
+        "ORDER BY c.relname";
+
+    static final String POSTGRES_COLUMNS_SQL =
+        "SELECT a.attname FROM pg_attribute a " +
+        "JOIN pg_class c ON c.oid = a.attrelid " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = ? AND c.relname = ? AND a.attnum > 0 AND NOT a.attisdropped " +
+        "ORDER BY a.attnum";
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final ComparisonTaskExecutor taskExecutor;
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public DataComparisonService(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                 @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                 ComparisonTaskExecutor taskExecutor,
+                                 ComparisonProperties properties) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+    }
+
+    /**
+     * Compare the contents of tables present in both schemas (matched by case-insensitive name).
+     *
+     * @param oracleSchema   The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @param tables         Table names to compare, or empty for every table found on both sides
+     * @return One result per table, in Oracle table name order
+     */
+    public List<TableDataComparison> compareData(String oracleSchema, String postgresSchema, List<String> tables) {
+        return compareData(oracleSchema, postgresSchema, tables, DataComparisonMode.CHECKSUM);
+    }
+
+    /**
+     * Same as {@link #compareData(String, String, List)}, exact or sampled.
+     *
+     * @param mode CHECKSUM for an exact comparison, SAMPLE for an estimated mismatch rate from a row sample
+     */
+    public List<TableDataComparison> compareData(String oracleSchema, String postgresSchema, List<String> tables,
+                                                 DataComparisonMode mode) {
+        List<String> oracleTables = oracleJdbcTemplate.queryForList(ORACLE_TABLES_SQL, String.class, oracleSchema);
+        Map<String, String> postgresTables = new LinkedHashMap<>();
+        for (String table : supabaseJdbcTemplate.queryForList(POSTGRES_TABLES_SQL, String.class, postgresSchema)) {
+            postgresTables.put(table.toLowerCase(Locale.ROOT), table);
+        }
+        Set<String> requested = new HashSet<>();
+        tables.forEach(table -> requested.add(table.toLowerCase(Locale.ROOT)));
+
+        List<TableDataComparison> results = new ArrayList<>();
+        for (String oracleTable : oracleTables) {
+            String normalized = oracleTable.toLowerCase(Locale.ROOT);
+            if (!requested.isEmpty() && !requested.contains(normalized)) {
+                continue;
+            }
+            String postgresTable = postgresTables.get(normalized);
+            TableDataComparison result = new TableDataComparison(oracleTable, postgresTable, properties.getDataMaxReportedMismatches());
+            if (postgresTable == null) {
+                result.skip("Table not found in PostgreSQL schema " + postgresSchema);
+            } else {
+                try {
+                    compareTable(oracleSchema, postgresSchema, result, mode);
+                } catch (DataAccessException | ArithmeticException e) {
+                    log.error("Data comparison of {} failed: {}", oracleTable, e.getMessage());
+                    result.fail(e.getMessage());
+                }
+            }
+            log.info("Data comparison of {}: {} ({} mismatching rows)", oracleTable, result.getStatus(), result.getMismatchCount());
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void compareTable(String oracleSchema, String postgresSchema, TableDataComparison result, DataComparisonMode mode) {
+        String oracleTable = result.getOracleTable();
+        String postgresTable = result.getPostgresTable();
+
+        // Key and column metadata, from both dictionaries at once
+        CompletableFuture<List<Map<String, Object>>> oracleColumnsFetch = taskExecutor.submitOracle(
+                () -> oracleJdbcTemplate.queryForList(ORACLE_COLUMNS_SQL, oracleSchema, oracleTable));
+        CompletableFuture<List<String>> oracleKeyFetch = taskExecutor.submitOracle(
+                () -> oracleJdbcTemplate.queryForList(ORACLE_PRIMARY_KEY_SQL, String.class, oracleSchema, oracleTable));
+        CompletableFuture<List<String>> postgresColumnsFetch = taskExecutor.submitPostgres(
+                () -> supabaseJdbcTemplate.queryForList(POSTGRES_COLUMNS_SQL, String.class, postgresSchema, postgresTable));
+
+        Map<String, String> oracleTypes = new LinkedHashMap<>();
+        Map<String, Integer> oracleScales = new HashMap<>();
+        for (Map<String, Object> column : ComparisonTaskExecutor.await(oracleColumnsFetch)) {
+            String name = (String) column.get("COLUMN_NAME");
+            oracleTypes.put(name, (String) column.get("DATA_TYPE"));
+            Object scale = column.get("DATA_SCALE");
+            oracleScales.put(name, scale != null ? ((Number) scale).intValue() : null);
+        }
+        List<String> keyColumns = ComparisonTaskExecutor.await(oracleKeyFetch);
+        Map<String, String> postgresColumns = new LinkedHashMap<>();
+        for (String column : ComparisonTaskExecutor.await(postgresColumnsFetch)) {
+            postgresColumns.put(column.toLowerCase(Locale.ROOT), column);
+        }
+
+        if (keyColumns.size() != 1
+                || !DataChecksumDialect.isIntegerKey(oracleTypes.getOrDefault(keyColumns.get(0), ""), oracleScales.get(keyColumns.get(0)))) {
+            result.skip("Data comparison needs a single-column integer primary key");
+            return;
+        }
+        String oracleKey = keyColumns.get(0);
+        String postgresKey = postgresColumns.get(oracleKey.toLowerCase(Locale.ROOT));
+        if (postgresKey == null) {
+            result.skip("Primary key column " + oracleKey + " not found in PostgreSQL");
+            return;
+        }
+
+        // Columns present on both sides, in a common (name) order; LOBs and the like are left out
+        List<String> oracleColumns = new ArrayList<>();
+        List<String> pairedPostgresColumns = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        oracleTypes.keySet().stream().sorted(Comparator.comparing(name -> name.toLowerCase(Locale.ROOT))).forEach(column -> {
+            String postgresColumn = postgresColumns.get(column.toLowerCase(Locale.ROOT));
+            String type = oracleTypes.get(column);
+            if (postgresColumn == null || !DataChecksumDialect.isComparable(type)) {
+                excluded.add(column);
+                return;
+            }
+            oracleColumns.add(column);
+            pairedPostgresColumns.add(postgresColumn);
+            types.add(type);
+        });
+        result.describe(oracleKey, oracleColumns.size(),
+                excluded.isEmpty() ? null : "Not compared: " + String.join(", ", excluded));
+
+        RowChecksumSource oracle = new JdbcRowChecksumSource(oracleJdbcTemplate, DataChecksumDialect.ORACLE,
+                oracleSchema, oracleTable, oracleKey, oracleColumns, types);
+        RowChecksumSource postgres = new JdbcRowChecksumSource(supabaseJdbcTemplate, DataChecksumDialect.POSTGRES,
+                postgresSchema, postgresTable, postgresKey, pairedPostgresColumns, types);
+        if (mode == DataComparisonMode.SAMPLE) {
+            compareSample(oracle, postgres, result);
+        } else {
+            compareRanges(oracle, postgres, result);
+        }
+    }
+
+    /**
+     * Chunk the combined key range of both sides, compare chunk checksums and bisect the chunks that differ.
+     */
+    void compareRanges(RowChecksumSource oracle, RowChecksumSource postgres, TableDataComparison result) {
+        CompletableFuture<RowChecksumSource.KeyRange> oracleRangeFetch = taskExecutor.submitOracle(oracle::keyRange);
+        CompletableFuture<RowChecksumSource.KeyRange> postgresRangeFetch = taskExecutor.submitPostgres(postgres::keyRange);
+        RowChecksumSource.KeyRange oracleRange = ComparisonTaskExecutor.await(oracleRangeFetch);
+        RowChecksumSource.KeyRange postgresRange = ComparisonTaskExecutor.await(postgresRangeFetch);
+        if (oracleRange == null && postgresRange == null) {
+            result.countRows(0, 0, 0);
+            return;
+        }
+
+        long from = Math.min(oracleRange != null ? oracleRange.getMin() : Long.MAX_VALUE,
+                postgresRange != null ? postgresRange.getMin() : Long.MAX_VALUE);
+        long to = Math.addExact(Math.max(oracleRange != null ? oracleRange.getMax() : Long.MIN_VALUE,
+                postgresRange != null ? postgresRange.getMax() : Long.MIN_VALUE), 1);
+        long width = Math.max(1, properties.getDataChunkSize());
+
+        // One scan per side returns every chunk checksum
+        CompletableFuture<Map<Long, RowChecksumSource.ChunkChecksum>> oracleChunksFetch =
+                taskExecutor.submitOracle(() -> oracle.chunkChecksums(from, to, width));
+        CompletableFuture<Map<Long, RowChecksumSource.ChunkChecksum>> postgresChunksFetch =
+                taskExecutor.submitPostgres(() -> postgres.chunkChecksums(from, to, width));
+        Map<Long, RowChecksumSource.ChunkChecksum> oracleChunks = ComparisonTaskExecutor.await(oracleChunksFetch);
+        Map<Long, RowChecksumSource.ChunkChecksum> postgresChunks = ComparisonTaskExecutor.await(postgresChunksFetch);
+
+        long oracleRows = oracleChunks.values().stream().mapToLong(RowChecksumSource.ChunkChecksum::getRowCount).sum();
+        long postgresRows = postgresChunks.values().stream().mapToLong(RowChecksumSource.ChunkChecksum::getRowCount).sum();
+        Set<Long> chunkNumbers = new HashSet<>(oracleChunks.keySet());
+        chunkNumbers.addAll(postgresChunks.keySet());
+        result.countRows(oracleRows, postgresRows, chunkNumbers.size());
+
+        chunkNumbers.stream().sorted().forEach(chunk -> {
+            RowChecksumSource.ChunkChecksum oracleChunk = oracleChunks.getOrDefault(chunk, RowChecksumSource.ChunkChecksum.EMPTY);
+            RowChecksumSource.ChunkChecksum postgresChunk = postgresChunks.getOrDefault(chunk, RowChecksumSource.ChunkChecksum.EMPTY);
+            if (!oracleChunk.matches(postgresChunk)) {
+                result.chunkMismatched();
+                long chunkFrom = from + chunk * width;
+                bisect(oracle, postgres, chunkFrom, Math.min(to, chunkFrom + width), result);
+            }
+        });
+    }
+
+    /**
+     * Sample both sides at block level and look every sampled key up on the other side, so the two samples are
+     * paired by key without a full scan. Oracle's sample finds rows missing or different in PostgreSQL, PostgreSQL's
+     * sample finds rows missing in Oracle.
+     */
+    void compareSample(RowChecksumSource oracle, RowChecksumSource postgres, TableDataComparison result) {
+        double percent = properties.getDataSamplePercent();
+        Long seed = properties.getDataSampleSeed();
+        int maxRows = properties.getDataSampleMaxRows();
+        CompletableFuture<List<RowChecksumSource.KeyHash>> oracleSampleFetch = taskExecutor.submitOracle(() -> oracle.sampleRowHashes(percent, seed, maxRows));
+        CompletableFuture<List<RowChecksumSource.KeyHash>> postgresSampleFetch = taskExecutor.submitPostgres(() -> postgres.sampleRowHashes(percent, seed, maxRows));
+        List<RowChecksumSource.KeyHash> oracleSample = ComparisonTaskExecutor.await(oracleSampleFetch);
+        List<RowChecksumSource.KeyHash> postgresSample = ComparisonTaskExecutor.await(postgresSampleFetch);
+
+        List<Long> oracleKeys = oracleSample.stream().map(RowChecksumSource.KeyHash::getKey).collect(Collectors.toList());
+        List<Long> postgresKeys = postgresSample.stream().map(RowChecksumSource.KeyHash::getKey).collect(Collectors.toList());
+        CompletableFuture<List<RowChecksumSource.KeyHash>> postgresLookup = taskExecutor.submitPostgres(() -> postgres.rowHashes(oracleKeys));
+        CompletableFuture<List<RowChecksumSource.KeyHash>> oracleLookup = taskExecutor.submitOracle(() -> oracle.rowHashes(postgresKeys));
+        Map<Long, String> postgresHashes = toHashMap(ComparisonTaskExecutor.await(postgresLookup));
+        Map<Long, String> oracleHashes = toHashMap(ComparisonTaskExecutor.await(oracleLookup));
+
+        // A key drawn by both samples is counted once
+        Set<Long> sampledKeys = new HashSet<>();
+        long mismatched = 0;
+        for (RowChecksumSource.KeyHash row : oracleSample) {
+            if (!sampledKeys.add(row.getKey())) {
+                continue;
+            }
+            String postgresHash = postgresHashes.get(row.getKey());
+            if (postgresHash == null) {
+                result.addMismatch(new RowMismatch(row.getKey(), RowMismatch.Kind.ONLY_IN_ORACLE));
+                mismatched++;
+            } else if (!postgresHash.equals(row.getHash())) {
+                result.addMismatch(new RowMismatch(row.getKey(), RowMismatch.Kind.DIFFERENT));
+                mismatched++;
+            }
+        }
+        for (RowChecksumSource.KeyHash row : postgresSample) {
+            if (!sampledKeys.add(row.getKey())) {
+                continue;
+            }
+            String oracleHash = oracleHashes.get(row.getKey());
+            if (oracleHash == null) {
+                result.addMismatch(new RowMismatch(row.getKey(), RowMismatch.Kind.ONLY_IN_POSTGRES));
+                mismatched++;
+            } else if (!oracleHash.equals(row.getHash())) {
+                result.addMismatch(new RowMismatch(row.getKey(), RowMismatch.Kind.DIFFERENT));
+                mismatched++;
+            }
+        }
+
+        result.countRows(oracleSample.size(), postgresSample.size(), 0);
+        if (sampledKeys.isEmpty()) {
+            result.skip("Sample was empty; raise comparison.data-sample-percent for small tables");
+            return;
+        }
+        result.estimate(MismatchEstimate.of(mismatched, sampledKeys.size(), properties.getDataSampleConfidence()));
+    }
+
+    private static Map<Long, String> toHashMap(List<RowChecksumSource.KeyHash> rows) {
+        Map<Long, String> hashes = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> hashes.put(row.getKey(), row.getHash()));
+        return hashes;
+    }
+
+    /**
+     * Narrow a mismatching range down by halves until it is small enough to compare key by key.
+     */
+    private void bisect(RowChecksumSource oracle, RowChecksumSource postgres, long from, long to, TableDataComparison result) {
+        if (to - from <= Math.max(1, properties.getDataRowFetchThreshold())) {
+            compareRows(oracle, postgres, from, to, result);
+            return;
+        }
+        long mid = from + (to - from) / 2;
+        CompletableFuture<RowChecksumSource.ChunkChecksum> oracleLower = taskExecutor.submitOracle(() -> oracle.rangeChecksum(from, mid));
+        CompletableFuture<RowChecksumSource.ChunkChecksum> oracleUpper = taskExecutor.submitOracle(() -> oracle.rangeChecksum(mid, to));
+        CompletableFuture<RowChecksumSource.ChunkChecksum> postgresLower = taskExecutor.submitPostgres(() -> postgres.rangeChecksum(from, mid));
+        CompletableFuture<RowChecksumSource.ChunkChecksum> postgresUpper = taskExecutor.submitPostgres(() -> postgres.rangeChecksum(mid, to));
+        if (!ComparisonTaskExecutor.await(oracleLower).matches(ComparisonTaskExecutor.await(postgresLower))) {
+            bisect(oracle, postgres, from, mid, result);
+        }
+        if (!ComparisonTaskExecutor.await(oracleUpper).matches(ComparisonTaskExecutor.await(postgresUpper))) {
+            bisect(oracle, postgres, mid, to, result);
+        }
+    }
+
+    /**
+     * Merge the key-ordered row hashes of both sides.
+     */
+    private void compareRows(RowChecksumSource oracle, RowChecksumSource postgres, long from, long to, TableDataComparison result) {
+        CompletableFuture<List<RowChecksumSource.KeyHash>> oracleFetch = taskExecutor.submitOracle(() -> oracle.rowHashes(from, to));
+        CompletableFuture<List<RowChecksumSource.KeyHash>> postgresFetch = taskExecutor.submitPostgres(() -> postgres.rowHashes(from, to));
+        List<RowChecksumSource.KeyHash> oracleRows = ComparisonTaskExecutor.await(oracleFetch);
+        List<RowChecksumSource.KeyHash> postgresRows = ComparisonTaskExecutor.await(postgresFetch);
+
+        int o = 0;
+        int p = 0;
+        while (o < oracleRows.size() || p < postgresRows.size()) {
+            if (p == postgresRows.size() || (o < oracleRows.size() && oracleRows.get(o).getKey() < postgresRows.get(p).getKey())) {
+                result.addMismatch(new RowMismatch(oracleRows.get(o++).getKey(), RowMismatch.Kind.ONLY_IN_ORACLE));
+            } else if (o == oracleRows.size() || postgresRows.get(p).getKey() < oracleRows.get(o).getKey()) {
+                result.addMismatch(new RowMismatch(postgresRows.get(p++).getKey(), RowMismatch.Kind.ONLY_IN_POSTGRES));
+            } else {
+                RowChecksumSource.KeyHash oracleRow = oracleRows.get(o++);
+                RowChecksumSource.KeyHash postgresRow = postgresRows.get(p++);
+                if (!oracleRow.getHash().equals(postgresRow.getHash())) {
+                    result.addMismatch(new RowMismatch(oracleRow.getKey(), RowMismatch.Kind.DIFFERENT));
+                }
+            }
+        }
+    }
+}
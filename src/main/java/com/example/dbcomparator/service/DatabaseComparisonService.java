@@ -3,14 +3,10 @@ package com.example.dbcomparator.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.dbcomparator.config.ComparisonProperties;
 import com.example.dbcomparator.model.DatabaseObject;
-import com.example.dbcomparator.model.oracle.OracleObject;
-import com.example.dbcomparator.model.postgres.PostgresObject;
-import com.example.dbcomparator.repository.oracle.OracleMetadataRepository;
-import com.example.dbcomparator.repository.postgres.PostgresMetadataRepository;
+import com.example.dbcomparator.repository.postgres.PostgresCatalogSql;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.DataAccessException;
@@ -18,13 +14,17 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Service for comparing database objects between Oracle and PostgreSQL
@@ -35,42 +35,91 @@ public class DatabaseComparisonService {
 
     private static final Logger log = LoggerFactory.getLogger(DatabaseComparisonService.class);
 
-    private final OracleMetadataRepository oracleRepository;
-    private final PostgresMetadataRepository postgresRepository;
+    private final CatalogReader catalogReader;
     private final JdbcTemplate oracleJdbcTemplate;
     private final JdbcTemplate supabaseJdbcTemplate;
+    private final ComparisonTaskExecutor taskExecutor;
+    private final ComparisonProperties properties;
+    private final ComparisonReportWriter reportWriter;
+    private final CatalogCache catalogCache;
+    private final CatalogFingerprinter fingerprinter;
+    private final IncrementalCatalogService incrementalCatalog;
+    private final VolumeComparisonService volumeComparison;
+    private final ColumnComparisonService columnComparison;
+    private final RoutineSourceComparisonService sourceComparison;
+    private final DependencyComparisonService dependencyComparison;
+    private final DdlExtractionService ddlExtraction;
+    private final ResultPersistenceQueue resultQueue;
+    private final ComparisonMetrics metrics;
+
+    // Last result per schema pair and object type, reused while both inputs are unchanged (incremental mode);
+    // least recently used entries are evicted beyond comparison.cache-max-entries
+    private final Map<String, PreviousResult> previousResults = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreviousResult> eldest) {
+            return size() > properties.getCacheMaxEntries();
+        }
+    };
 
     @Autowired
-    public DatabaseComparisonService(OracleMetadataRepository oracleRepository,
-                                     PostgresMetadataRepository postgresRepository,
+    public DatabaseComparisonService(CatalogReader catalogReader,
                                      @Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
-                                     @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate) {
-        this.oracleRepository = oracleRepository;
-        this.postgresRepository = postgresRepository;
+                                     @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                     ComparisonTaskExecutor taskExecutor,
+                                     ComparisonProperties properties,
+                                     ComparisonReportWriter reportWriter,
+                                     CatalogCache catalogCache,
+                                     CatalogFingerprinter fingerprinter,
+                                     IncrementalCatalogService incrementalCatalog,
+                                     VolumeComparisonService volumeComparison,
+                                     ColumnComparisonService columnComparison,
+                                     RoutineSourceComparisonService sourceComparison,
+                                     DependencyComparisonService dependencyComparison,
+                                     DdlExtractionService ddlExtraction,
+                                     ResultPersistenceQueue resultQueue,
+                                     ComparisonMetrics metrics) {
+        this.catalogReader = catalogReader;
         this.oracleJdbcTemplate = oracleJdbcTemplate;
         this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+        this.reportWriter = reportWriter;
+        this.catalogCache = catalogCache;
+        this.fingerprinter = fingerprinter;
+        this.incrementalCatalog = incrementalCatalog;
+        this.volumeComparison = volumeComparison;
+        this.columnComparison = columnComparison;
+        this.sourceComparison = sourceComparison;
+        this.dependencyComparison = dependencyComparison;
+        this.ddlExtraction = ddlExtraction;
+        this.resultQueue = resultQueue;
+        this.metrics = metrics;
     }
 
     /**
-     * Checks connectivity to both Oracle and PostgreSQL databases.
-     * Throws an exception if either connection fails.
+     * Checks connectivity to the Oracle and/or PostgreSQL databases.
+     * Throws an exception if a checked connection fails. A side compared from a snapshot file is not contacted.
      */
-    private void checkConnections() {
+    private void checkConnections(boolean oracle, boolean postgres) {
         log.info("Checking database connections...");
-        try {
-            oracleJdbcTemplate.queryForObject("SELECT 1 FROM DUAL", Integer.class);
-            log.info("Oracle connection successful.");
-        } catch (DataAccessException e) {
-            log.error("Oracle connection failed: {}", e.getMessage());
-            throw new RuntimeException("Failed to connect to Oracle database.", e);
+        if (oracle) {
+            try {
+                oracleJdbcTemplate.queryForObject("SELECT 1 FROM DUAL", Integer.class);
+                log.info("Oracle connection successful.");
+            } catch (DataAccessException e) {
+                log.error("Oracle connection failed: {}", e.getMessage());
+                throw new RuntimeException("Failed to connect to Oracle database.", e);
+            }
         }
 
-        try {
-            supabaseJdbcTemplate.queryForObject("SELECT 1", Integer.class);
-            log.info("PostgreSQL connection successful.");
-        } catch (DataAccessException e) {
-            log.error("PostgreSQL connection failed: {}", e.getMessage());
-            throw new RuntimeException("Failed to connect to PostgreSQL database.", e);
+        if (postgres) {
+            try {
+                supabaseJdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                log.info("PostgreSQL connection successful.");
+            } catch (DataAccessException e) {
+                log.error("PostgreSQL connection failed: {}", e.getMessage());
+                throw new RuntimeException("Failed to connect to PostgreSQL database.", e);
+            }
         }
         log.info("Database connections verified.");
     }
@@ -84,178 +133,309 @@ public class DatabaseComparisonService {
      * @throws IOException If an error occurs during report generation
      */
     public byte[] generateComparisonReport(String oracleSchema, String postgresSchema) throws IOException {
+        ComparisonRun run = runComparison(oracleSchema, postgresSchema);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeComparisonReport(run, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Stream the Excel report of a finished comparison run to the given output stream.
+     * Heap use is bounded by the report row window, not by the number of differences.
+     */
+    public void writeComparisonReport(ComparisonRun run, OutputStream outputStream) throws IOException {
+        long start = System.nanoTime();
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        reportWriter.write(run, countingStream);
+        metrics.recordReport(System.nanoTime() - start, countingStream.count);
+    }
+
+    /**
+     * Fetch both catalogs, compare them and persist the differences.
+     * The returned run holds everything needed to render the report afterwards.
+     *
+     * @param oracleSchema  The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @return The comparison run with results per object type
+     */
+    public ComparisonRun runComparison(String oracleSchema, String postgresSchema) {
+        // Generate a unique ID for this comparison run
+        return runComparison(UUID.randomUUID(), oracleSchema, postgresSchema);
+    }
+
+    /**
+     * Same as {@link #runComparison(String, String)}, under a run id chosen by the caller
+     * (e.g. an asynchronous job that handed the id out before the run started).
+     *
+     * @param comparisonRunUuid The id persisted as comparison_run_uuid
+     * @param oracleSchema  The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @return The comparison run with results per object type
+     */
+    public ComparisonRun runComparison(UUID comparisonRunUuid, String oracleSchema, String postgresSchema) {
+        return runComparison(comparisonRunUuid, oracleSchema, postgresSchema, null, null);
+    }
+
+    /**
+     * Compare where either side may be a catalog snapshot file instead of the live database.
+     * A snapshot side opens no session: its object lists come from the mapped file, and the volume and column
+     * comparisons (which need both dictionaries) are skipped. Differences are only persisted when PostgreSQL,
+     * which hosts comparison_results, is compared live.
+     *
+     * @param oracleSnapshot   Oracle catalog snapshot, or null to read Oracle live
+     * @param postgresSnapshot PostgreSQL catalog snapshot, or null to read PostgreSQL live
+     * @return The comparison run with results per object type
+     */
+    public ComparisonRun runComparison(UUID comparisonRunUuid, String oracleSchema, String postgresSchema,
+                                       CatalogSnapshotFile oracleSnapshot, CatalogSnapshotFile postgresSnapshot) {
+        return runComparison(comparisonRunUuid, oracleSchema, postgresSchema, oracleSnapshot, postgresSnapshot, null, null);
+    }
+
+    /**
+     * Same as {@link #runComparison(UUID, String, String, CatalogSnapshotFile, CatalogSnapshotFile)}, with catalog
+     * fingerprints the caller already took (e.g. for the report store key), so they are not queried again.
+     *
+     * @param oracleCatalogFingerprint   Fingerprint of the live Oracle catalog, or null to take it here
+     * @param postgresCatalogFingerprint Fingerprint of the live PostgreSQL catalog, or null to take it here
+     */
+    public ComparisonRun runComparison(UUID comparisonRunUuid, String oracleSchema, String postgresSchema,
+                                       CatalogSnapshotFile oracleSnapshot, CatalogSnapshotFile postgresSnapshot,
+                                       String oracleCatalogFingerprint, String postgresCatalogFingerprint) {
+        boolean oracleLive = oracleSnapshot == null;
+        boolean postgresLive = postgresSnapshot == null;
+
         // 1. Check Connections
-        checkConnections();
+        checkConnections(oracleLive, postgresLive);
 
-        // 2. Generate a unique ID for this comparison run
-        UUID comparisonRunUuid = UUID.randomUUID();
+        // 2. Stamp the comparison run
         Timestamp runTimestamp = Timestamp.from(Instant.now());
         log.info("Starting comparison run ID: {}", comparisonRunUuid);
 
         // 3. Define comparison tasks
         Map<String, ComparisonTask> tasks = defineComparisonTasks(oracleSchema, postgresSchema);
 
-        // 4. Execute comparisons, persist results, and prepare data for Excel
-        Map<String, ComparisonResult> comparisonResults = new HashMap<>();
+        // 4. Fingerprint both catalogs so unchanged schemas can be served from the catalog cache
+        String oracleFingerprint = null;
+        String postgresFingerprint = null;
+        if (properties.isCacheEnabled()) {
+            CompletableFuture<String> oracleFingerprintFetch = oracleLive && oracleCatalogFingerprint == null
+                    ? taskExecutor.submitOracle(() -> fingerprinter.oracleFingerprint(oracleSchema)) : null;
+            CompletableFuture<String> postgresFingerprintFetch = postgresLive && postgresCatalogFingerprint == null
+                    ? taskExecutor.submitPostgres(() -> fingerprinter.postgresFingerprint(postgresSchema)) : null;
+            if (oracleLive) {
+                oracleFingerprint = oracleFingerprintFetch != null
+                        ? ComparisonTaskExecutor.await(oracleFingerprintFetch) : oracleCatalogFingerprint;
+            }
+            if (postgresLive) {
+                postgresFingerprint = postgresFingerprintFetch != null
+                        ? ComparisonTaskExecutor.await(postgresFingerprintFetch) : postgresCatalogFingerprint;
+            }
+        }
+
+        // 5. Fan out all catalog fetches; each datasource has its own bounded pool
+        Map<String, CompletableFuture<List<? extends DatabaseObject>>> oracleFetches = new LinkedHashMap<>();
+        Map<String, CompletableFuture<List<? extends DatabaseObject>>> postgresFetches = new LinkedHashMap<>();
         for (Map.Entry<String, ComparisonTask> entry : tasks.entrySet()) {
             String objectType = entry.getKey();
             ComparisonTask task = entry.getValue();
-            log.info("Comparing {}...", objectType);
+            String oracleKey = oracleFingerprint;
+            String postgresKey = postgresFingerprint;
+            oracleFetches.put(objectType, oracleLive
+                    ? taskExecutor.submitOracle(() -> timedFetch(objectType, ComparisonMetrics.SIDE_ORACLE,
+                            () -> catalogCache.get(CatalogCache.Side.ORACLE, oracleSchema, objectType, oracleKey,
+                                    () -> task.oracleFetcher.apply(oracleSchema))))
+                    : CompletableFuture.completedFuture(oracleSnapshot.section(objectType)));
+            postgresFetches.put(objectType, postgresLive
+                    ? taskExecutor.submitPostgres(() -> timedFetch(objectType, ComparisonMetrics.SIDE_POSTGRES,
+                            () -> catalogCache.get(CatalogCache.Side.POSTGRES, postgresSchema, objectType, postgresKey,
+                                    () -> task.postgresFetcher.apply(postgresSchema))))
+                    : CompletableFuture.completedFuture(postgresSnapshot.section(objectType)));
+        }
+
+        // 6. Execute comparisons, queue results for persistence, and prepare data for Excel.
+        // Results are consumed in task order, so the output is identical to a serial run.
+        Map<String, ComparisonResult> comparisonResults = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, ComparisonTask> entry : tasks.entrySet()) {
+                String objectType = entry.getKey();
+                log.info("Comparing {}...", objectType);
+
+                List<? extends DatabaseObject> oracleList;
+                List<? extends DatabaseObject> postgresList;
+                try {
+                    oracleList = ComparisonTaskExecutor.await(oracleFetches.get(objectType));
+                    postgresList = ComparisonTaskExecutor.await(postgresFetches.get(objectType));
+                } catch (RuntimeException e) {
+                    // Don't let queued fetches keep the pools busy for a report that will never be produced
+                    oracleFetches.values().forEach(fetch -> fetch.cancel(false));
+                    postgresFetches.values().forEach(fetch -> fetch.cancel(false));
+                    throw e;
+                }
+                log.info("Found {} {} in Oracle, {} in PostgreSQL", oracleList.size(), objectType, postgresList.size());
+
+                long diffStart = System.nanoTime();
+                ComparisonResult result = compareOrReuse(oracleSchema, postgresSchema, objectType, oracleList, postgresList);
+                metrics.recordDiff(objectType, System.nanoTime() - diffStart,
+                        result.getOnlyInOracle().size(), result.getOnlyInPostgres().size());
+                comparisonResults.put(objectType, result);
+
+                // Hand the differences to the write-behind queue; the report does not wait for them to be written
+                if (postgresLive) {
+                    resultQueue.publish(comparisonRunUuid, runTimestamp, objectType, result.getOnlyInOracle(), "Only in Oracle", "Oracle");
+                    resultQueue.publish(comparisonRunUuid, runTimestamp, objectType, result.getOnlyInPostgres(), "Only in PostgreSQL", "PostgreSQL");
+                }
+            }
+        } finally {
+            if (postgresLive) {
+                resultQueue.complete(comparisonRunUuid);
+            }
+        }
 
-            List<? extends DatabaseObject> oracleList = task.oracleFetcher.apply(oracleSchema);
-            List<? extends DatabaseObject> postgresList = task.postgresFetcher.apply(postgresSchema);
-            log.info("Found {} {} in Oracle, {} in PostgreSQL", oracleList.size(), objectType, postgresList.size());
+        // Steps 7 to 11 fill their own sheets: a failing stage (e.g. a dictionary column missing on an older
+        // release) is reported on its sheet instead of failing the object comparison above
+        Map<String, String> stageErrors = new LinkedHashMap<>();
 
-            ComparisonResult result = compareObjectLists(oracleList, postgresList);
-            comparisonResults.put(objectType, result);
+        // 7. Row counts and sizes, from statistics plus any exact counts that were asked for
+        List<TableVolume> volumes = Collections.emptyList();
+        if (properties.isVolumeEnabled() && oracleLive && postgresLive) {
+            log.info("Comparing table volumes...");
+            volumes = runStage(ComparisonReportWriter.VOLUME_SHEET, stageErrors,
+                    () -> volumeComparison.compareVolumes(oracleSchema, postgresSchema));
+        }
+
+        // 8. Column definitions of the tables present on both sides
+        List<ColumnDifference> columnDifferences = Collections.emptyList();
+        if (properties.isColumnComparisonEnabled() && oracleLive && postgresLive) {
+            log.info("Comparing columns...");
+            columnDifferences = runStage(ComparisonReportWriter.COLUMN_SHEET, stageErrors,
+                    () -> columnComparison.compareColumns(oracleSchema, postgresSchema));
+        }
+
+        // 9. Bodies of the procedures and functions present on both sides
+        List<RoutineSourceDifference> sourceDifferences = Collections.emptyList();
+        if (properties.isSourceComparisonEnabled() && oracleLive && postgresLive) {
+            log.info("Comparing routine sources...");
+            sourceDifferences = runStage(ComparisonReportWriter.SOURCE_SHEET, stageErrors,
+                    () -> sourceComparison.compareSources(oracleSchema, postgresSchema));
+        }
 
-            // Persist differences
-            persistDifferences(comparisonRunUuid, runTimestamp, objectType, result.getOnlyInOracle(), "Only in Oracle", "Oracle");
-            persistDifferences(comparisonRunUuid, runTimestamp, objectType, result.getOnlyInPostgres(), "Only in PostgreSQL", "PostgreSQL");
+        // 10. Dependency edges of the objects present on both sides
+        List<DependencyDifference> dependencyDifferences = Collections.emptyList();
+        if (properties.isDependencyComparisonEnabled() && oracleLive && postgresLive) {
+            log.info("Comparing dependencies...");
+            dependencyDifferences = runStage(ComparisonReportWriter.DEPENDENCY_SHEET, stageErrors,
+                    () -> dependencyComparison.compareDependencies(oracleSchema, postgresSchema));
         }
 
-        // 5. Generate Excel Report
-        return createExcelReport(comparisonResults, tasks);
+        // 11. DDL of the objects found on one side only
+        List<ObjectDdl> ddl = Collections.emptyList();
+        if (properties.isDdlExtractionEnabled() && oracleLive && postgresLive) {
+            log.info("Extracting DDL of missing objects...");
+            ddl = runStage(ComparisonReportWriter.DDL_SHEET, stageErrors,
+                    () -> ddlExtraction.extract(oracleSchema, postgresSchema, comparisonResults));
+        }
+
+        return new ComparisonRun(comparisonRunUuid, runTimestamp, oracleSchema, postgresSchema, tasks, comparisonResults,
+                volumes, columnDifferences, ddl, sourceDifferences, dependencyDifferences, stageErrors);
+    }
+
+    private <T> List<T> runStage(String sheetName, Map<String, String> stageErrors, Supplier<List<T>> stage) {
+        try {
+            return stage.get();
+        } catch (DataAccessException e) {
+            log.error("{} failed, reporting the error on its sheet: {}", sheetName, e.getMessage(), e);
+            stageErrors.put(sheetName, e.getMessage());
+            return Collections.emptyList();
+        }
     }
 
     /**
-     * Creates the multi-sheet Excel report from the comparison results.
+     * Fetch one side's catalog the way a comparison run would, for export to a snapshot file.
+     *
+     * @return Objects per comparison task key (ALL_OBJECTS, TABLE, ...), in task order
      */
-    private byte[] createExcelReport(Map<String, ComparisonResult> comparisonResults, Map<String, ComparisonTask> tasks) throws IOException {
-         try (Workbook workbook = new XSSFWorkbook()) {
-             // Create cell styles for headers
-             CellStyle headerStyle = workbook.createCellStyle();
-             headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-             headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-             Font headerFont = workbook.createFont();
-             headerFont.setBold(true);
-             headerStyle.setFont(headerFont);
-
-             // Create sheets for each comparison type
-             for (Map.Entry<String, ComparisonTask> taskEntry : tasks.entrySet()) {
-                 String objectType = taskEntry.getKey();
-                 String sheetName = taskEntry.getValue().sheetName;
-                 ComparisonResult result = comparisonResults.get(objectType);
-                 if (result != null) { // Ensure result exists before creating sheet
-                    createDifferenceSheet(workbook, sheetName, result, headerStyle);
-                 } else {
-                    log.warn("No comparison result found for object type: {}", objectType);
-                 }
-             }
-
-             // Write the workbook to a byte array
-             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-             workbook.write(outputStream);
-             log.info("Excel report generated successfully.");
-             return outputStream.toByteArray();
-         } catch (IOException e) {
-             log.error("Error generating Excel report", e);
-             throw e;
-         }
-     }
+    public Map<String, List<? extends DatabaseObject>> fetchCatalog(CatalogCache.Side side, String schema) {
+        boolean oracle = side == CatalogCache.Side.ORACLE;
+        checkConnections(oracle, !oracle);
+        Map<String, ComparisonTask> tasks = oracle ? defineComparisonTasks(schema, null) : defineComparisonTasks(null, schema);
+
+        Map<String, CompletableFuture<List<? extends DatabaseObject>>> fetches = new LinkedHashMap<>();
+        for (Map.Entry<String, ComparisonTask> entry : tasks.entrySet()) {
+            String objectType = entry.getKey();
+            ComparisonTask task = entry.getValue();
+            fetches.put(objectType, oracle
+                    ? taskExecutor.submitOracle(() -> timedFetch(objectType, ComparisonMetrics.SIDE_ORACLE,
+                            () -> task.oracleFetcher.apply(schema)))
+                    : taskExecutor.submitPostgres(() -> timedFetch(objectType, ComparisonMetrics.SIDE_POSTGRES,
+                            () -> task.postgresFetcher.apply(schema))));
+        }
+        Map<String, List<? extends DatabaseObject>> catalog = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<List<? extends DatabaseObject>>> fetch : fetches.entrySet()) {
+            catalog.put(fetch.getKey(), ComparisonTaskExecutor.await(fetch.getValue()));
+        }
+        return catalog;
+    }
 
+    private List<? extends DatabaseObject> timedFetch(String objectType, String side, Supplier<List<? extends DatabaseObject>> fetch) {
+        long start = System.nanoTime();
+        List<? extends DatabaseObject> objects = fetch.get();
+        metrics.recordFetch(objectType, side, System.nanoTime() - start, objects.size());
+        return objects;
+    }
 
     /**
-     * Helper method to create a single sheet showing differences for a specific object type.
+     * In incremental mode, return the previous run's result when both inputs are the very same lists
+     * (the incremental catalog hands back unchanged branches as the same instances); otherwise compare.
      */
-    private void createDifferenceSheet(Workbook workbook, String sheetName, ComparisonResult result, CellStyle headerStyle) {
-        Sheet sheet = workbook.createSheet(sheetName);
-
-        // Create header row
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"Name", "Type", "Schema", "Status"}; // Added Status column
-
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
+    private ComparisonResult compareOrReuse(String oracleSchema, String postgresSchema, String objectType,
+                                            List<? extends DatabaseObject> oracleList, List<? extends DatabaseObject> postgresList) {
+        if (!properties.isIncrementalEnabled()) {
+            return compareObjectLists(oracleList, postgresList);
         }
-
-        // Create data rows
-        int rowNum = 1;
-        // Add objects only in Oracle
-        for (DatabaseObject obj : result.getOnlyInOracle()) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(obj.getName());
-            row.createCell(1).setCellValue(obj.getType());
-            row.createCell(2).setCellValue(obj.getSchema());
-            row.createCell(3).setCellValue("Only in Oracle");
+        String key = oracleSchema + "|" + postgresSchema + "|" + objectType;
+        PreviousResult previous;
+        synchronized (previousResults) {
+            previous = previousResults.get(key);
         }
-        // Add objects only in PostgreSQL
-        for (DatabaseObject obj : result.getOnlyInPostgres()) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(obj.getName());
-            row.createCell(1).setCellValue(obj.getType());
-            row.createCell(2).setCellValue(obj.getSchema());
-            row.createCell(3).setCellValue("Only in PostgreSQL");
+        if (previous != null && previous.oracleList.get() == oracleList && previous.postgresList.get() == postgresList) {
+            log.info("{} unchanged since the previous run, reusing its comparison result", objectType);
+            return previous.result;
         }
-
-        // Auto-size columns
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+        ComparisonResult result = compareObjectLists(oracleList, postgresList);
+        synchronized (previousResults) {
+            previousResults.put(key, new PreviousResult(oracleList, postgresList, result));
         }
+        return result;
     }
 
     /**
      * Compares two lists of DatabaseObjects based on name and type (case-insensitive).
+     * Both lists are merge-joined in key order; lists that already arrive in that order are not copied.
      *
      * @param oracleList   List of objects from Oracle.
      * @param postgresList List of objects from PostgreSQL.
      * @return A ComparisonResult containing lists of objects unique to each database.
      */
-    private ComparisonResult compareObjectLists(List<? extends DatabaseObject> oracleList, List<? extends DatabaseObject> postgresList) {
-        Set<String> postgresNames = postgresList.stream()
-                .map(obj -> obj.getName().toLowerCase()) // Compare names case-insensitively
-                .collect(Collectors.toSet());
-
-        Set<String> oracleNames = oracleList.stream()
-                .map(obj -> obj.getName().toLowerCase()) // Compare names case-insensitively
-                .collect(Collectors.toSet());
-
-        List<DatabaseObject> missingInPostgres = oracleList.stream()
-                .filter(oracle -> !postgresNames.contains(oracle.getName().toLowerCase()))
-                .collect(Collectors.toList());
-
-        List<DatabaseObject> missingInOracle = postgresList.stream()
-                .filter(postgres -> !oracleNames.contains(postgres.getName().toLowerCase()))
-                .collect(Collectors.toList());
+    static ComparisonResult compareObjectLists(List<? extends DatabaseObject> oracleList, List<? extends DatabaseObject> postgresList) {
+        List<DatabaseObject> missingInPostgres = new ArrayList<>();
+        List<DatabaseObject> missingInOracle = new ArrayList<>();
+
+        CatalogMergeDiff.diff(CatalogMergeDiff.sorted(oracleList).iterator(), CatalogMergeDiff.sorted(postgresList).iterator(),
+                new CatalogMergeDiff.Listener() {
+                    @Override
+                    public void onlyInOracle(DatabaseObject oracleObject) {
+                        missingInPostgres.add(oracleObject);
+                    }
+
+                    @Override
+                    public void onlyInPostgres(DatabaseObject postgresObject) {
+                        missingInOracle.add(postgresObject);
+                    }
+                });
 
         return new ComparisonResult(missingInPostgres, missingInOracle);
     }
 
-    /**
-     * Persists the differences found for a specific object type to the comparison_results table.
-     */
-    private void persistDifferences(UUID comparisonRunUuid, Timestamp runTimestamp, String objectType,
-                                    List<DatabaseObject> differences, String status, String sourceDb) {
-        if (differences.isEmpty()) {
-            return;
-        }
-
-        String sql = "INSERT INTO comparison_results (comparison_run_uuid, run_timestamp, object_type, object_name, schema_name, status, source_db) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-        List<Object[]> batchArgs = differences.stream()
-                .map(obj -> new Object[]{
-                        comparisonRunUuid,
-                        runTimestamp,
-                        objectType, // Use the overall object type category
-                        obj.getName(),
-                        obj.getSchema(),
-                        status,
-                        sourceDb
-                })
-                .collect(Collectors.toList());
-
-        try {
-            supabaseJdbcTemplate.batchUpdate(sql, batchArgs);
-            log.info("Persisted {} differences for type '{}' with status '{}'", differences.size(), objectType, status);
-        } catch (DataAccessException e) {
-            log.error("Failed to persist differences for type '{}' with status '{}': {}", objectType, status, e.getMessage());
-            // Decide if you want to throw an exception or just log the error
-            // throw new RuntimeException("Failed to persist comparison results.", e);
-        }
-    }
-
     /**
      * Defines the tasks for comparing different object types.
      * Each task includes the fetchers and the desired Excel sheet name.
@@ -263,50 +443,65 @@ public class DatabaseComparisonService {
     private Map<String, ComparisonTask> defineComparisonTasks(String oracleSchema, String postgresSchema) {
         Map<String, ComparisonTask> tasks = new LinkedHashMap<>(); // Use LinkedHashMap to maintain order
 
-        // Define fetchers using lambda expressions referencing repository methods
-        Function<String, List<OracleObject>> oracleAllFetcher = owner -> oracleRepository.findAllObjectsByOwner(owner);
-        Function<String, List<PostgresObject>> postgresAllFetcher = schema -> postgresRepository.findAllObjectsBySchema(schema);
-        Function<String, List<OracleObject>> oracleTableFetcher = owner -> oracleRepository.findAllTablesByOwner(owner);
-        Function<String, List<PostgresObject>> postgresTableFetcher = schema -> postgresRepository.findAllTablesBySchema(schema);
-        Function<String, List<OracleObject>> oracleViewFetcher = owner -> oracleRepository.findAllViewsByOwner(owner);
-        Function<String, List<PostgresObject>> postgresViewFetcher = schema -> postgresRepository.findAllViewsBySchema(schema);
-        Function<String, List<OracleObject>> oracleProcedureFetcher = owner -> oracleRepository.findAllProceduresByOwner(owner);
-        Function<String, List<PostgresObject>> postgresProcedureFetcher = schema -> postgresRepository.findAllProceduresBySchema(schema);
-        Function<String, List<OracleObject>> oracleFunctionFetcher = owner -> oracleRepository.findAllFunctionsByOwner(owner);
-        Function<String, List<PostgresObject>> postgresFunctionFetcher = schema -> postgresRepository.findAllFunctionsBySchema(schema);
-        Function<String, List<OracleObject>> oracleSequenceFetcher = owner -> oracleRepository.findAllSequencesByOwner(owner);
-        Function<String, List<PostgresObject>> postgresSequenceFetcher = schema -> postgresRepository.findAllSequencesBySchema(schema);
-        Function<String, List<OracleObject>> oracleConstraintFetcher = owner -> oracleRepository.findAllConstraintsByOwner(owner);
-        Function<String, List<PostgresObject>> postgresConstraintFetcher = schema -> postgresRepository.findAllConstraintsBySchema(schema);
-        Function<String, List<OracleObject>> oracleIndexFetcher = owner -> oracleRepository.findAllIndexesByOwner(owner);
-        Function<String, List<PostgresObject>> postgresIndexFetcher = schema -> postgresRepository.findAllIndexesBySchema(schema);
-
-
-        // Explicitly cast fetchers to the expected type for the constructor
-        tasks.put("ALL_OBJECTS", new ComparisonTask("Object Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleAllFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresAllFetcher));
-        tasks.put("TABLE", new ComparisonTask("Table Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleTableFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresTableFetcher));
-        tasks.put("VIEW", new ComparisonTask("View Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleViewFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresViewFetcher));
-        tasks.put("PROCEDURE", new ComparisonTask("Procedure Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleProcedureFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresProcedureFetcher));
-        tasks.put("FUNCTION", new ComparisonTask("Function Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleFunctionFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresFunctionFetcher));
-        tasks.put("SEQUENCE", new ComparisonTask("Sequence Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleSequenceFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresSequenceFetcher));
-        tasks.put("CONSTRAINT", new ComparisonTask("Constraint Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleConstraintFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresConstraintFetcher));
-        tasks.put("INDEX", new ComparisonTask("Index Comparison",
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) oracleIndexFetcher,
-                (Function<String, List<? extends DatabaseObject>>) (Function<?, ?>) postgresIndexFetcher));
+        // Define fetchers using lambda expressions referencing catalog reader methods
+        Function<String, List<? extends DatabaseObject>> oracleAllFetcher = owner -> catalogReader.findAllObjectsByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresAllFetcher = schema -> catalogReader.findAllObjectsBySchema(schema);
+        Function<String, List<? extends DatabaseObject>> oracleTableFetcher = owner -> catalogReader.findAllTablesByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresTableFetcher = schema -> catalogReader.findAllTablesBySchema(schema);
+        Function<String, List<? extends DatabaseObject>> oracleViewFetcher = owner -> catalogReader.findAllViewsByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresViewFetcher = schema -> catalogReader.findAllViewsBySchema(schema);
+        Function<String, List<? extends DatabaseObject>> oracleProcedureFetcher = owner -> catalogReader.findAllProceduresByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresProcedureFetcher = schema -> catalogReader.findAllProceduresBySchema(schema);
+        Function<String, List<? extends DatabaseObject>> oracleFunctionFetcher = owner -> catalogReader.findAllFunctionsByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresFunctionFetcher = schema -> catalogReader.findAllFunctionsBySchema(schema);
+        Function<String, List<? extends DatabaseObject>> oracleSequenceFetcher = owner -> catalogReader.findAllSequencesByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresSequenceFetcher = schema -> catalogReader.findAllSequencesBySchema(schema);
+        Function<String, List<? extends DatabaseObject>> oracleConstraintFetcher = owner -> catalogReader.findAllConstraintsByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresConstraintFetcher = schema -> catalogReader.findAllConstraintsBySchema(schema);
+        Function<String, List<? extends DatabaseObject>> oracleIndexFetcher = owner -> catalogReader.findAllIndexesByOwner(owner);
+        Function<String, List<? extends DatabaseObject>> postgresIndexFetcher = schema -> catalogReader.findAllIndexesBySchema(schema);
+
+        if (properties.isSnapshotMode()) {
+            // One dictionary scan per side; every type backed by ALL_OBJECTS / pg_class is split out of it in memory.
+            // Oracle indexes and constraints (ALL_INDEXES, ALL_CONSTRAINTS) keep their own queries. On PostgreSQL the
+            // full catalog (relations, routines and constraints) comes from the snapshot.
+            Supplier<CatalogSnapshot> oracleSnapshot;
+            Supplier<CatalogSnapshot> postgresSnapshot;
+            if (properties.isIncrementalEnabled()) {
+                // Patch the previous run's snapshot with only the branches whose hashes changed
+                oracleSnapshot = CatalogSnapshot.lazy(() -> incrementalCatalog.refreshOracle(oracleSchema));
+                postgresSnapshot = CatalogSnapshot.lazy(() -> incrementalCatalog.refreshPostgres(postgresSchema));
+            } else {
+                oracleSnapshot = CatalogSnapshot.lazy(() -> CatalogSnapshot.of(catalogReader.findCatalogSnapshotByOwner(oracleSchema)));
+                postgresSnapshot = CatalogSnapshot.lazy(() -> CatalogSnapshot.of(catalogReader.findCatalogBySchema(postgresSchema)));
+            }
+
+            oracleAllFetcher = owner -> oracleSnapshot.get().all();
+            oracleTableFetcher = owner -> oracleSnapshot.get().ofType("TABLE");
+            oracleViewFetcher = owner -> oracleSnapshot.get().ofType("VIEW");
+            oracleProcedureFetcher = owner -> oracleSnapshot.get().ofType("PROCEDURE");
+            oracleFunctionFetcher = owner -> oracleSnapshot.get().ofType("FUNCTION");
+            oracleSequenceFetcher = owner -> oracleSnapshot.get().ofType("SEQUENCE");
+
+            // "All objects" stays the pg_class listing, as without snapshot mode
+            postgresAllFetcher = schema -> postgresSnapshot.get().ofTypes(PostgresCatalogSql.RELATION_TYPES);
+            postgresTableFetcher = schema -> postgresSnapshot.get().ofType("TABLE");
+            postgresViewFetcher = schema -> postgresSnapshot.get().ofType("VIEW");
+            postgresProcedureFetcher = schema -> postgresSnapshot.get().ofType("PROCEDURE");
+            postgresFunctionFetcher = schema -> postgresSnapshot.get().ofType("FUNCTION");
+            postgresSequenceFetcher = schema -> postgresSnapshot.get().ofType("SEQUENCE");
+            postgresIndexFetcher = schema -> postgresSnapshot.get().ofType("INDEX");
+            postgresConstraintFetcher = schema -> postgresSnapshot.get().ofTypes(PostgresCatalogSql.CONSTRAINT_TYPES);
+        }
+
+        tasks.put("ALL_OBJECTS", new ComparisonTask("Object Comparison", oracleAllFetcher, postgresAllFetcher));
+        tasks.put("TABLE", new ComparisonTask("Table Comparison", oracleTableFetcher, postgresTableFetcher));
+        tasks.put("VIEW", new ComparisonTask("View Comparison", oracleViewFetcher, postgresViewFetcher));
+        tasks.put("PROCEDURE", new ComparisonTask("Procedure Comparison", oracleProcedureFetcher, postgresProcedureFetcher));
+        tasks.put("FUNCTION", new ComparisonTask("Function Comparison", oracleFunctionFetcher, postgresFunctionFetcher));
+        tasks.put("SEQUENCE", new ComparisonTask("Sequence Comparison", oracleSequenceFetcher, postgresSequenceFetcher));
+        tasks.put("CONSTRAINT", new ComparisonTask("Constraint Comparison", oracleConstraintFetcher, postgresConstraintFetcher));
+        tasks.put("INDEX", new ComparisonTask("Index Comparison", oracleIndexFetcher, postgresIndexFetcher));
 
 
         return tasks;
@@ -315,31 +510,40 @@ public class DatabaseComparisonService {
     // --- Helper Classes ---
 
     /**
-     * Holds the results of comparing two lists of objects.
+     * The inputs and result of the last comparison of one object type, for reuse in incremental mode.
+     * Inputs are only compared by identity, so they are held weakly: once the incremental catalog drops a list,
+     * it can never be handed back and the entry simply stops matching.
      */
-    @lombok.Getter
-    @lombok.RequiredArgsConstructor
-    private static class ComparisonResult {
-        private final List<DatabaseObject> onlyInOracle;
-        private final List<DatabaseObject> onlyInPostgres;
+    private static class PreviousResult {
+        private final WeakReference<List<? extends DatabaseObject>> oracleList;
+        private final WeakReference<List<? extends DatabaseObject>> postgresList;
+        private final ComparisonResult result;
+
+        PreviousResult(List<? extends DatabaseObject> oracleList, List<? extends DatabaseObject> postgresList, ComparisonResult result) {
+            this.oracleList = new WeakReference<>(oracleList);
+            this.postgresList = new WeakReference<>(postgresList);
+            this.result = result;
+        }
     }
 
-    /**
-     * Represents a comparison task for a specific object type.
-     */
-    // @lombok.RequiredArgsConstructor // Explicit constructor added below
-    private static class ComparisonTask {
-        final String sheetName;
-        final Function<String, List<? extends DatabaseObject>> oracleFetcher;
-        final Function<String, List<? extends DatabaseObject>> postgresFetcher;
-
-        // Explicit constructor to avoid potential Lombok issues
-        public ComparisonTask(String sheetName,
-                              Function<String, List<? extends DatabaseObject>> oracleFetcher,
-                              Function<String, List<? extends DatabaseObject>> postgresFetcher) {
-            this.sheetName = sheetName;
-            this.oracleFetcher = oracleFetcher;
-            this.postgresFetcher = postgresFetcher;
+    // Counts the report bytes on their way to the response or file
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
         }
     }
 }
@@ -0,0 +1,477 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.CallableStatementCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Fetches the DDL of the objects a comparison found on one side only.
+ * Oracle DDL comes from DBMS_METADATA with one handle per batch of names (OPEN, NAME_EXPR filter, FETCH_DDL loop)
+ * instead of one GET_DDL call per object; batches run in parallel on the Oracle fetch pool, so at most
+ * comparison.oracle-fetch-concurrency sessions are busy. PostgreSQL DDL is rebuilt from pg_catalog with the
+ * pg_get_*def functions, one query per object type and batch. Reading DDL of another schema needs
+ * SELECT_CATALOG_ROLE on Oracle.
+ */
+@Service
+public class DdlExtractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DdlExtractionService.class);
+
+    // Entries are framed as CHR(1) name CHR(2) ddl; an object may have several entries (e.g. a table and its comments)
+    static final String ORACLE_DDL_BLOCK =
+        "DECLARE " +
+        "  h NUMBER; " +
+        "  th NUMBER; " +
+        "  ddls sys.ku$_ddls; " +
+        "  object_name VARCHAR2(4000); " +
+        "  result CLOB; " +
+        "BEGIN " +
+        "  h := DBMS_METADATA.OPEN(?); " +
+        "  DBMS_METADATA.SET_FILTER(h, 'SCHEMA', ?); " +
+        "  DBMS_METADATA.SET_FILTER(h, 'NAME_EXPR', ?); " +
+        "  DBMS_METADATA.SET_COUNT(h, 100); " +
+        "  DBMS_METADATA.SET_PARSE_ITEM(h, 'NAME'); " +
+        "  th := DBMS_METADATA.ADD_TRANSFORM(h, 'DDL'); " +
+        "  DBMS_METADATA.SET_TRANSFORM_PARAM(th, 'SQLTERMINATOR', TRUE); " +
+        "  DBMS_METADATA.SET_TRANSFORM_PARAM(th, 'PRETTY', TRUE); " +
+        "  DBMS_LOB.CREATETEMPORARY(result, TRUE); " +
+        "  LOOP " +
+        "    ddls := DBMS_METADATA.FETCH_DDL(h); " +
+        "    EXIT WHEN ddls IS NULL; " +
+        "    FOR i IN 1 .. ddls.COUNT LOOP " +
+        "      object_name := 'UNKNOWN'; " +
+        "      IF ddls(i).parsedItems IS NOT NULL THEN " +
+        "        FOR j IN 1 .. ddls(i).parsedItems.COUNT LOOP " +
+        "          IF ddls(i).parsedItems(j).item = 'NAME' THEN object_name := ddls(i).parsedItems(j).value; END IF; " +
+        "        END LOOP; " +
+        "      END IF; " +
+        "      DBMS_LOB.WRITEAPPEND(result, LENGTH(object_name) + 2, CHR(1) || object_name || CHR(2)); " +
+        "      DBMS_LOB.APPEND(result, ddls(i).ddlText); " +
+        "    END LOOP; " +
+        "  END LOOP; " +
+        "  DBMS_METADATA.CLOSE(h); " +
+        "  ? := result; " +
+        "EXCEPTION WHEN OTHERS THEN " +
+        "  IF h IS NOT NULL THEN DBMS_METADATA.CLOSE(h); END IF; " +
+        "  RAISE; " +
+        "END;";
+
+    private static final String POSTGRES_RELATION_FILTER =
+        "FROM pg_class c " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = ? AND c.relname = ANY(?) ";
+
+    static final String POSTGRES_TABLE_DDL_SQL =
+        "SELECT c.relname AS name, " +
+        "'CREATE TABLE ' || quote_ident(n.nspname) || '.' || quote_ident(c.relname) || E' (\\n    ' || " +
+        "(SELECT string_agg(quote_ident(a.attname) || ' ' || format_type(a.atttypid, a.atttypmod) || " +
+        "    CASE a.attidentity WHEN 'a' THEN ' GENERATED ALWAYS AS IDENTITY' WHEN 'd' THEN ' GENERATED BY DEFAULT AS IDENTITY' " +
+        "      ELSE COALESCE(' DEFAULT ' || pg_get_expr(d.adbin, d.adrelid), '') END || " +
+        "    CASE WHEN a.attnotnull THEN ' NOT NULL' ELSE '' END, E',\\n    ' ORDER BY a.attnum) " +
+        "  FROM pg_attribute a " +
+        "  LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum " +
+        "  WHERE a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped) || " +
+        "COALESCE((SELECT string_agg(E',\\n    CONSTRAINT ' || quote_ident(k.conname) || ' ' || pg_get_constraintdef(k.oid), '' ORDER BY k.conname) " +
+        "  FROM pg_constraint k WHERE k.conrelid = c.oid AND k.contype <> 'n'), '') || " +
+        "E'\\n);' AS ddl " +
+        POSTGRES_RELATION_FILTER +
+        "AND c.relkind IN ('r', 'p')";
+
+    static final String POSTGRES_VIEW_DDL_SQL =
+        "SELECT c.relname AS name, " +
+        "'CREATE OR REPLACE VIEW ' || quote_ident(n.nspname) || '.' || quote_ident(c.relname) || E' AS\\n' || " +
+        "pg_get_viewdef(c.oid, true) AS ddl " +
+        POSTGRES_RELATION_FILTER +
+        "AND c.relkind = 'v'";
+
+    static final String POSTGRES_INDEX_DDL_SQL =
+        "SELECT c.relname AS name, pg_get_indexdef(c.oid) || ';' AS ddl " +
+        POSTGRES_RELATION_FILTER +
+        "AND c.relkind IN ('i', 'I')";
+
+    static final String POSTGRES_SEQUENCE_DDL_SQL =
+        "SELECT c.relname AS name, " +
+        "'CREATE SEQUENCE ' || quote_ident(n.nspname) || '.' || quote_ident(c.relname) || " +
+        "' AS ' || format_type(s.seqtypid, NULL) || ' INCREMENT BY ' || s.seqincrement || " +
+        "' MINVALUE ' || s.seqmin || ' MAXVALUE ' || s.seqmax || ' START WITH ' || s.seqstart || " +
+        "' CACHE ' || s.seqcache || CASE WHEN s.seqcycle THEN ' CYCLE' ELSE '' END || ';' AS ddl " +
+        "FROM pg_sequence s " +
+        "JOIN pg_class c ON c.oid = s.seqrelid " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = ? AND c.relname = ANY(?)";
+
+    // Overloads share a name; their definitions are returned together
+    private static final String POSTGRES_ROUTINE_DDL_SQL =
+        "SELECT p.proname AS name, string_agg(pg_get_functiondef(p.oid) || ';', E'\\n\\n' ORDER BY p.oid) AS ddl " +
+        "FROM pg_proc p " +
+        "JOIN pg_namespace n ON n.oid = p.pronamespace " +
+        "WHERE n.nspname = ? AND p.proname = ANY(?) AND p.prokind = ";
+
+    static final String POSTGRES_FUNCTION_DDL_SQL = POSTGRES_ROUTINE_DDL_SQL + "'f' GROUP BY p.proname";
+
+    static final String POSTGRES_PROCEDURE_DDL_SQL = POSTGRES_ROUTINE_DDL_SQL + "'p' GROUP BY p.proname";
+
+    static final String POSTGRES_CONSTRAINT_DDL_SQL =
+        "SELECT k.conname AS name, " +
+        "string_agg('ALTER TABLE ' || quote_ident(n.nspname) || '.' || quote_ident(c.relname) || " +
+        "' ADD CONSTRAINT ' || quote_ident(k.conname) || ' ' || pg_get_constraintdef(k.oid) || ';', E'\\n' ORDER BY c.relname) AS ddl " +
+        "FROM pg_constraint k " +
+        "JOIN pg_class c ON c.oid = k.conrelid " +
+        "JOIN pg_namespace n ON n.oid = k.connamespace " +
+        "WHERE n.nspname = ? AND k.conname = ANY(?) " +
+        "GROUP BY k.conname";
+
+    // DBMS_METADATA takes the NAME_EXPR filter as one VARCHAR2
+    private static final int MAX_NAME_EXPR_LENGTH = 30_000;
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final ComparisonTaskExecutor taskExecutor;
+    private final ComparisonProperties properties;
+
+    /**
+     * Receives extracted DDL batch by batch, in completion order, on the calling thread.
+     */
+    public interface Sink {
+        void accept(List<ObjectDdl> batch) throws IOException;
+    }
+
+    @Autowired
+    public DdlExtractionService(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                ComparisonTaskExecutor taskExecutor,
+                                ComparisonProperties properties) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+    }
+
+    /**
+     * DDL of every object found on one side only, ordered by side, object type and name.
+     */
+    public List<ObjectDdl> extract(String oracleSchema, String postgresSchema, Map<String, ComparisonResult> results) {
+        List<ObjectDdl> ddl = new ArrayList<>();
+        try {
+            extract(oracleSchema, postgresSchema, results, ddl::addAll);
+        } catch (IOException e) {
+            throw new RuntimeException("Unexpected I/O error while collecting DDL.", e); // The list sink never throws
+        }
+        ddl.sort(Comparator.comparing(ObjectDdl::getSide).thenComparing(ObjectDdl::getObjectType).thenComparing(ObjectDdl::getName));
+        return ddl;
+    }
+
+    /**
+     * Fetch the DDL of every object found on one side only and hand each batch to the sink as soon as it is done.
+     * A failing batch is reported as an error per object, the other batches continue.
+     */
+    public void extract(String oracleSchema, String postgresSchema, Map<String, ComparisonResult> results, Sink sink) throws IOException {
+        Map<String, List<String>> oracleMissing = missingByType(results, CatalogCache.Side.ORACLE);
+        Map<String, List<String>> postgresMissing = missingByType(results, CatalogCache.Side.POSTGRES);
+        int batchSize = Math.max(1, properties.getDdlBatchSize());
+
+        BlockingQueue<CompletableFuture<List<ObjectDdl>>> completed = new LinkedBlockingQueue<>();
+        int submitted = 0;
+        for (Map.Entry<String, List<String>> entry : oracleMissing.entrySet()) {
+            for (List<String> names : oracleBatches(entry.getValue(), batchSize)) {
+                CompletableFuture<List<ObjectDdl>> batch = taskExecutor.submitOracle(() -> fetchOracleDdl(oracleSchema, entry.getKey(), names));
+                batch.whenComplete((ddl, e) -> completed.add(batch));
+                submitted++;
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : postgresMissing.entrySet()) {
+            for (int from = 0; from < entry.getValue().size(); from += batchSize) {
+                List<String> names = entry.getValue().subList(from, Math.min(from + batchSize, entry.getValue().size()));
+                CompletableFuture<List<ObjectDdl>> batch = taskExecutor.submitPostgres(() -> fetchPostgresDdl(postgresSchema, entry.getKey(), names));
+                batch.whenComplete((ddl, e) -> completed.add(batch));
+                submitted++;
+            }
+        }
+        log.info("Extracting DDL of {} Oracle-only and {} PostgreSQL-only objects in {} batches",
+                oracleMissing.values().stream().mapToInt(List::size).sum(),
+                postgresMissing.values().stream().mapToInt(List::size).sum(), submitted);
+
+        for (int i = 0; i < submitted; i++) {
+            CompletableFuture<List<ObjectDdl>> batch;
+            try {
+                batch = completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for DDL extraction.", e);
+            }
+            sink.accept(ComparisonTaskExecutor.await(batch));
+        }
+    }
+
+    /**
+     * Write the DDL as a zip of .sql files, one per object (oracle/TABLE/NAME.sql, postgresql/view/name.sql, ...).
+     * Objects whose DDL could not be read get a file with the error as a comment. The stream is not closed.
+     */
+    public void writeArchive(List<ObjectDdl> ddl, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        new ArchiveSink(zip).accept(ddl);
+        zip.finish();
+    }
+
+    /**
+     * Same as {@link #writeArchive(List, OutputStream)}, extracting on the fly: each batch is written as soon as
+     * it arrives, so neither the DDL nor the zip is held in memory.
+     */
+    public void writeArchive(String oracleSchema, String postgresSchema, Map<String, ComparisonResult> results,
+                             OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        extract(oracleSchema, postgresSchema, results, new ArchiveSink(zip));
+        zip.finish();
+    }
+
+    /**
+     * Names of the objects missing on the other side, per object type, without duplicates
+     * (ALL_OBJECTS and the per-type tasks report the same objects).
+     */
+    static Map<String, List<String>> missingByType(Map<String, ComparisonResult> results, CatalogCache.Side side) {
+        Map<String, Set<String>> names = new TreeMap<>();
+        for (ComparisonResult result : results.values()) {
+            List<DatabaseObject> missing = side == CatalogCache.Side.ORACLE ? result.getOnlyInOracle() : result.getOnlyInPostgres();
+            for (DatabaseObject obj : missing) {
+                names.computeIfAbsent(obj.getType(), type -> new LinkedHashSet<>()).add(obj.getName());
+            }
+        }
+        Map<String, List<String>> byType = new LinkedHashMap<>();
+        names.forEach((type, typeNames) -> byType.put(type, new ArrayList<>(typeNames)));
+        return byType;
+    }
+
+    /**
+     * Split names into batches of at most batchSize names whose NAME_EXPR stays within the VARCHAR2 limit.
+     */
+    static List<List<String>> oracleBatches(List<String> names, int batchSize) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        int length = 0;
+        for (String name : names) {
+            int nameLength = name.length() + 4;
+            if (!batch.isEmpty() && (batch.size() >= batchSize || length + nameLength > MAX_NAME_EXPR_LENGTH)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                length = 0;
+            }
+            batch.add(name);
+            length += nameLength;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    static String nameExpression(List<String> names) {
+        StringBuilder expression = new StringBuilder("IN (");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                expression.append(',');
+            }
+            expression.append('\'').append(names.get(i).replace("'", "''")).append('\'');
+        }
+        return expression.append(')').toString();
+    }
+
+    /**
+     * DBMS_METADATA object type of an ALL_OBJECTS / constraint type.
+     */
+    static String metadataType(String objectType) {
+        switch (objectType) {
+            case "PACKAGE":
+                return "PACKAGE_SPEC";
+            case "TYPE":
+                return "TYPE_SPEC";
+            case "DATABASE LINK":
+                return "DB_LINK";
+            case "FOREIGN KEY":
+                return "REF_CONSTRAINT";
+            case "PRIMARY KEY":
+            case "UNIQUE":
+            case "CHECK":
+                return "CONSTRAINT";
+            default:
+                return objectType.replace(' ', '_');
+        }
+    }
+
+    /**
+     * Split the framed CLOB of {@link #ORACLE_DDL_BLOCK} into DDL per object name.
+     */
+    static Map<String, String> parseOracleDdl(String framed) {
+        Map<String, String> ddlByName = new LinkedHashMap<>();
+        int start = framed.indexOf('\u0001');
+        while (start >= 0) {
+            int nameEnd = framed.indexOf('\u0002', start);
+            int next = framed.indexOf('\u0001', nameEnd);
+            String name = framed.substring(start + 1, nameEnd);
+            String ddl = framed.substring(nameEnd + 1, next >= 0 ? next : framed.length()).trim();
+            ddlByName.merge(name, ddl, (previous, more) -> previous + "\n\n" + more);
+            start = next;
+        }
+        return ddlByName;
+    }
+
+    private List<ObjectDdl> fetchOracleDdl(String owner, String objectType, List<String> names) {
+        try {
+            String framed = oracleJdbcTemplate.execute(ORACLE_DDL_BLOCK, (CallableStatementCallback<String>) cs -> {
+                cs.setString(1, metadataType(objectType));
+                cs.setString(2, owner);
+                cs.setString(3, nameExpression(names));
+                cs.registerOutParameter(4, Types.CLOB);
+                cs.execute();
+                Clob clob = cs.getClob(4);
+                if (clob == null) {
+                    return "";
+                }
+                try {
+                    return clob.getSubString(1, (int) clob.length());
+                } finally {
+                    clob.free();
+                }
+            });
+            return toObjectDdl(CatalogCache.Side.ORACLE, objectType, names, parseOracleDdl(framed));
+        } catch (DataAccessException e) {
+            log.warn("Oracle DDL extraction failed for {} {} objects: {}", names.size(), objectType, e.getMessage());
+            return failed(CatalogCache.Side.ORACLE, objectType, names, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private List<ObjectDdl> fetchPostgresDdl(String schema, String objectType, List<String> names) {
+        String sql = postgresDdlSql(objectType);
+        if (sql == null) {
+            return failed(CatalogCache.Side.POSTGRES, objectType, names, "DDL extraction is not supported for " + objectType);
+        }
+        try {
+            Map<String, String> ddlByName = new LinkedHashMap<>();
+            supabaseJdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setString(1, schema);
+                Array nameArray = con.createArrayOf("text", names.toArray());
+                ps.setArray(2, nameArray);
+                return ps;
+            }, (RowCallbackHandler) rs -> ddlByName.put(rs.getString("name"), rs.getString("ddl")));
+            return toObjectDdl(CatalogCache.Side.POSTGRES, objectType, names, ddlByName);
+        } catch (DataAccessException e) {
+            log.warn("PostgreSQL DDL extraction failed for {} {} objects: {}", names.size(), objectType, e.getMessage());
+            return failed(CatalogCache.Side.POSTGRES, objectType, names, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static String postgresDdlSql(String objectType) {
+        switch (objectType) {
+            case "TABLE":
+                return POSTGRES_TABLE_DDL_SQL;
+            case "VIEW":
+                return POSTGRES_VIEW_DDL_SQL;
+            case "INDEX":
+                return POSTGRES_INDEX_DDL_SQL;
+            case "SEQUENCE":
+                return POSTGRES_SEQUENCE_DDL_SQL;
+            case "FUNCTION":
+                return POSTGRES_FUNCTION_DDL_SQL;
+            case "PROCEDURE":
+                return POSTGRES_PROCEDURE_DDL_SQL;
+            case "PRIMARY KEY":
+            case "UNIQUE":
+            case "CHECK":
+            case "FOREIGN KEY":
+            case "EXCLUDE":
+            case "CONSTRAINT":
+                return POSTGRES_CONSTRAINT_DDL_SQL;
+            default:
+                return null;
+        }
+    }
+
+    private static List<ObjectDdl> toObjectDdl(CatalogCache.Side side, String objectType, List<String> names, Map<String, String> ddlByName) {
+        List<ObjectDdl> ddl = new ArrayList<>(names.size());
+        for (String name : names) {
+            String text = ddlByName.get(name);
+            ddl.add(text != null
+                    ? new ObjectDdl(side, objectType, name, text, null)
+                    : new ObjectDdl(side, objectType, name, null, "No DDL returned for " + objectType.toLowerCase(Locale.ROOT)));
+        }
+        return ddl;
+    }
+
+    private static List<ObjectDdl> failed(CatalogCache.Side side, String objectType, List<String> names, String error) {
+        List<ObjectDdl> ddl = new ArrayList<>(names.size());
+        for (String name : names) {
+            ddl.add(new ObjectDdl(side, objectType, name, null, error));
+        }
+        return ddl;
+    }
+
+    /**
+     * Writes each object as its own zip entry; entry names are made file-system safe and unique.
+     */
+    static class ArchiveSink implements Sink {
+        private final ZipOutputStream zip;
+        private final Set<String> entryNames = new HashSet<>();
+
+        ArchiveSink(ZipOutputStream zip) {
+            this.zip = zip;
+        }
+
+        @Override
+        public void accept(List<ObjectDdl> batch) throws IOException {
+            for (ObjectDdl ddl : batch) {
+                zip.putNextEntry(new ZipEntry(entryName(ddl)));
+                String content = ddl.getDdl() != null ? ddl.getDdl() + "\n" : "-- DDL extraction failed: " + ddl.getError() + "\n";
+                zip.write(content.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.flush();
+        }
+
+        String entryName(ObjectDdl ddl) {
+            String directory = (ddl.getSide() == CatalogCache.Side.ORACLE ? "oracle/" : "postgresql/")
+                    + safe(ddl.getObjectType()) + "/";
+            String base = directory + safe(ddl.getName());
+            String entryName = base + ".sql";
+            // Names differing only in case or in replaced characters would collide on most file systems
+            for (int i = 2; !entryNames.add(entryName.toLowerCase(Locale.ROOT)); i++) {
+                entryName = base + "_" + i + ".sql";
+            }
+            return entryName;
+        }
+
+        private static String safe(String name) {
+            return name.replaceAll("[^A-Za-z0-9._$#-]", "_");
+        }
+    }
+}
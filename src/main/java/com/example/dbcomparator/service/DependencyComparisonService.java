@@ -0,0 +1,253 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compares object dependency graphs: ALL_DEPENDENCIES on Oracle, pg_depend through pg_rewrite (views) and pg_proc
+ * (routines) on PostgreSQL. Objects are interned to int ids and each graph is held as CSR arrays, so both graphs are
+ * compared with a sorted merge per object instead of per-edge maps.
+ * Only objects with recorded dependencies on both sides are compared: objects missing on a side are left to the
+ * object comparison, and PL/pgSQL routines, whose references PostgreSQL does not track, are skipped.
+ */
+@Service
+public class DependencyComparisonService {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyComparisonService.class);
+
+    static final String ORACLE_DEPENDENCIES_SQL =
+        "SELECT NAME, TYPE, REFERENCED_NAME, REFERENCED_TYPE FROM ALL_DEPENDENCIES " +
+        "WHERE OWNER = ? AND REFERENCED_OWNER = ? AND REFERENCED_TYPE <> 'NON-EXISTENT'";
+
+    static final String POSTGRES_DEPENDENCIES_SQL =
+        "WITH objects AS ( " +
+        "  SELECT 'pg_class'::regclass::oid AS classid, c.oid, c.relname AS name, " +
+        "    CASE c.relkind WHEN 'r' THEN 'TABLE' WHEN 'p' THEN 'TABLE' WHEN 'v' THEN 'VIEW' " +
+        "      WHEN 'm' THEN 'MATERIALIZED VIEW' WHEN 'S' THEN 'SEQUENCE' ELSE 'FOREIGN TABLE' END AS type " +
+        "  FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "  WHERE n.nspname = ? AND c.relkind IN ('r', 'p', 'v', 'm', 'S', 'f') " +
+        "  UNION ALL " +
+        "  SELECT 'pg_proc'::regclass::oid, p.oid, p.proname, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END " +
+        "  FROM pg_proc p JOIN pg_namespace n ON n.oid = p.pronamespace " +
+        "  WHERE n.nspname = ? AND p.prokind IN ('f', 'p') " +
+        "), edges AS ( " +
+        // A view's query depends on what it reads through its rewrite rule
+        "  SELECT 'pg_class'::regclass::oid AS classid, w.ev_class AS objid, d.refclassid, d.refobjid " +
+        "  FROM pg_depend d JOIN pg_rewrite w ON w.oid = d.objid " +
+        "  WHERE d.classid = 'pg_rewrite'::regclass AND d.deptype = 'n' " +
+        "  UNION ALL " +
+        // Routines record references only for SQL-standard bodies (BEGIN ATOMIC, PostgreSQL 14+)
+        "  SELECT d.classid, d.objid, d.refclassid, d.refobjid " +
+        "  FROM pg_depend d " +
+        "  WHERE d.classid = 'pg_proc'::regclass AND d.deptype = 'n' " +
+        ") " +
+        "SELECT DISTINCT o.name, o.type, r.name AS referenced_name, r.type AS referenced_type " +
+        "FROM edges e " +
+        "JOIN objects o ON o.classid = e.classid AND o.oid = e.objid " +
+        "JOIN objects r ON r.classid = e.refclassid AND r.oid = e.refobjid " +
+        "WHERE o.classid <> r.classid OR o.oid <> r.oid";
+
+    private static final int MAX_DOWNSTREAM = 10_000;
+    private static final int DOWNSTREAM_SAMPLE_SIZE = 10;
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final TransactionOperations supabaseReadOnlyTransactions;
+    private final ComparisonTaskExecutor taskExecutor;
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public DependencyComparisonService(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                       @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                       @Qualifier("supabaseReadOnlyTransactions") TransactionOperations supabaseReadOnlyTransactions,
+                                       ComparisonTaskExecutor taskExecutor,
+                                       ComparisonProperties properties) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.supabaseReadOnlyTransactions = supabaseReadOnlyTransactions;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+    }
+
+    /**
+     * Compare the dependency graphs of both schemas.
+     *
+     * @return Edges present on one side only, in migration order (referenced objects first)
+     */
+    public List<DependencyDifference> compareDependencies(String oracleSchema, String postgresSchema) {
+        CompletableFuture<DependencyGraph.Builder> oracleFetch = taskExecutor.submitOracle(() -> {
+            DependencyGraph.Builder builder = new DependencyGraph.Builder();
+            oracleJdbcTemplate.query(ORACLE_DEPENDENCIES_SQL, ps -> {
+                ps.setFetchSize(properties.getCatalogFetchSize());
+                ps.setString(1, oracleSchema);
+                ps.setString(2, oracleSchema);
+            }, (RowCallbackHandler) rs -> builder.addEdge(nodeKey(rs.getString(2), rs.getString(1)),
+                    nodeKey(rs.getString(4), rs.getString(3))));
+            return builder;
+        });
+        CompletableFuture<DependencyGraph.Builder> postgresFetch = taskExecutor.submitPostgres(() -> {
+            DependencyGraph.Builder builder = new DependencyGraph.Builder();
+            // Autocommit off, so pgjdbc streams the rows with the fetch size instead of reading them all at once
+            supabaseReadOnlyTransactions.executeWithoutResult(status ->
+                    supabaseJdbcTemplate.query(POSTGRES_DEPENDENCIES_SQL, ps -> {
+                        ps.setFetchSize(properties.getCatalogFetchSize());
+                        ps.setString(1, postgresSchema);
+                        ps.setString(2, postgresSchema);
+                    }, (RowCallbackHandler) rs -> builder.addEdge(nodeKey(rs.getString(2), rs.getString(1)),
+                            nodeKey(rs.getString(4), rs.getString(3)))));
+            return builder;
+        });
+        DependencyGraph.Builder oracle = ComparisonTaskExecutor.await(oracleFetch);
+        DependencyGraph.Builder postgres = ComparisonTaskExecutor.await(postgresFetch);
+        log.info("Fetched {} Oracle and {} PostgreSQL dependency edges", oracle.edgeCount(), postgres.edgeCount());
+
+        List<DependencyDifference> differences = diff(oracle, postgres);
+        log.info("Found {} dependency differences", differences.size());
+        return differences;
+    }
+
+    /**
+     * Build both graphs over one id space and merge the sorted edge lists of every object that has edges on both
+     * sides. Downstream objects and migration order are taken from the Oracle graph, the source of the migration.
+     */
+    static List<DependencyDifference> diff(DependencyGraph.Builder oracleBuilder, DependencyGraph.Builder postgresBuilder) {
+        // PostgreSQL keys join the Oracle id space, so Oracle ids stay as they are
+        ObjectInterner nodes = oracleBuilder.nodes();
+        int[] postgresIds = nodes.internAll(postgresBuilder.nodes());
+        int nodeCount = nodes.size();
+        DependencyGraph oracle = oracleBuilder.build();
+        DependencyGraph postgres = postgresBuilder.build(postgresIds, nodeCount);
+
+        DependencyGraph usedBy = oracle.transpose();
+        int[] ranks = oracle.topologicalRanks();
+        Downstream downstream = new Downstream(usedBy, nodes);
+
+        List<DependencyDifference> differences = new ArrayList<>();
+        for (int node = 0; node < nodeCount; node++) {
+            if (oracle.outDegree(node) == 0 || postgres.outDegree(node) == 0) {
+                continue;
+            }
+            int i = oracle.edgeStart(node);
+            int j = postgres.edgeStart(node);
+            while (i < oracle.edgeEnd(node) || j < postgres.edgeEnd(node)) {
+                int oracleTarget = i < oracle.edgeEnd(node) ? oracle.target(i) : Integer.MAX_VALUE;
+                int postgresTarget = j < postgres.edgeEnd(node) ? postgres.target(j) : Integer.MAX_VALUE;
+                if (oracleTarget == postgresTarget) {
+                    i++;
+                    j++;
+                } else if (oracleTarget < postgresTarget) {
+                    differences.add(difference(node, oracleTarget, DependencyDifference.Kind.ONLY_IN_ORACLE, ranks, nodes, downstream));
+                    i++;
+                } else {
+                    differences.add(difference(node, postgresTarget, DependencyDifference.Kind.ONLY_IN_POSTGRES, ranks, nodes, downstream));
+                    j++;
+                }
+            }
+        }
+        differences.sort(Comparator.comparingInt(DependencyDifference::getMigrationOrder)
+                .thenComparing(DependencyDifference::getObjectType)
+                .thenComparing(DependencyDifference::getObjectName)
+                .thenComparing(DependencyDifference::getReferencedName));
+        return differences;
+    }
+
+    private static DependencyDifference difference(int node, int referenced, DependencyDifference.Kind kind, int[] ranks,
+                                                   ObjectInterner nodes, Downstream downstream) {
+        String key = nodes.key(node);
+        String referencedKey = nodes.key(referenced);
+        Downstream.Result affected = downstream.of(node);
+        return new DependencyDifference(ranks[node], typeOf(key), nameOf(key), kind, typeOf(referencedKey), nameOf(referencedKey),
+                affected.count, affected.sample);
+    }
+
+    // Objects match on type and case-insensitive name
+    static String nodeKey(String type, String name) {
+        return type + ":" + name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String typeOf(String key) {
+        return key.substring(0, key.indexOf(':'));
+    }
+
+    private static String nameOf(String key) {
+        return key.substring(key.indexOf(':') + 1);
+    }
+
+    /**
+     * Breadth-first walk over "used by" edges, cached per object (an object usually has several differing edges).
+     * A visit stamp per node avoids clearing the visited set between walks.
+     */
+    private static final class Downstream {
+
+        private final DependencyGraph usedBy;
+        private final ObjectInterner nodes;
+        private final int[] visited;
+        private final int[] queue;
+        private final Map<Integer, Result> results = new HashMap<>();
+        private int stamp;
+
+        Downstream(DependencyGraph usedBy, ObjectInterner nodes) {
+            this.usedBy = usedBy;
+            this.nodes = nodes;
+            this.visited = new int[usedBy.nodeCount()];
+            this.queue = new int[usedBy.nodeCount()];
+        }
+
+        Result of(int start) {
+            return results.computeIfAbsent(start, this::walk);
+        }
+
+        private Result walk(int start) {
+            stamp++;
+            visited[start] = stamp;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            int count = 0;
+            StringJoiner sample = new StringJoiner(", ");
+            while (head < tail && count < MAX_DOWNSTREAM) {
+                int node = queue[head++];
+                for (int edge = usedBy.edgeStart(node); edge < usedBy.edgeEnd(node); edge++) {
+                    int dependent = usedBy.target(edge);
+                    if (visited[dependent] != stamp) {
+                        visited[dependent] = stamp;
+                        queue[tail++] = dependent;
+                        if (count++ < DOWNSTREAM_SAMPLE_SIZE) {
+                            sample.add(nameOf(nodes.key(dependent)));
+                        }
+                    }
+                }
+            }
+            if (count > DOWNSTREAM_SAMPLE_SIZE) {
+                sample.add("...");
+            }
+            return new Result(count, sample.toString());
+        }
+
+        private static final class Result {
+            private final int count;
+            private final String sample;
+
+            Result(int count, String sample) {
+                this.count = count;
+                this.sample = sample;
+            }
+        }
+    }
+}
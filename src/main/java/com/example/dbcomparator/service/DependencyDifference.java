@@ -0,0 +1,23 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A dependency recorded on one side only, for an object whose dependencies are known on both sides.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DependencyDifference {
+
+    public enum Kind { ONLY_IN_ORACLE, ONLY_IN_POSTGRES }
+
+    private final int migrationOrder; // Topological rank of the dependent object in the Oracle graph
+    private final String objectType;
+    private final String objectName;
+    private final Kind kind;
+    private final String referencedType;
+    private final String referencedName;
+    private final int downstreamCount; // Objects that depend on the dependent object, directly or transitively
+    private final String downstreamSample;
+}
@@ -0,0 +1,188 @@
+package com.example.dbcomparator.service;
+
+import java.util.Arrays;
+
+/**
+ * Directed object dependency graph in compressed sparse row form: the edges of node u ("u depends on v") are
+ * targets[offsets[u] .. offsets[u + 1]), sorted and without duplicates. Two int arrays hold the whole graph,
+ * about 4 bytes per edge plus 4 per node, so schemas with millions of edges fit without an object per edge.
+ * Node ids come from an {@link ObjectInterner}; graphs built over the same ids can be compared edge by edge.
+ */
+public final class DependencyGraph {
+
+    private final int[] offsets;
+    private final int[] targets;
+
+    private DependencyGraph(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    public int edgeCount() {
+        return offsets[offsets.length - 1];
+    }
+
+    public int outDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * Index of the node's first edge; its edges run up to {@link #edgeEnd(int)} and are read with {@link #target(int)}.
+     */
+    public int edgeStart(int node) {
+        return offsets[node];
+    }
+
+    public int edgeEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public boolean hasEdge(int from, int to) {
+        return Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to) >= 0;
+    }
+
+    /**
+     * The same graph with every edge reversed ("v is used by u").
+     */
+    public DependencyGraph transpose() {
+        int nodes = nodeCount();
+        int[] reversedOffsets = new int[nodes + 1];
+        for (int edge = 0; edge < targets.length; edge++) {
+            reversedOffsets[targets[edge] + 1]++;
+        }
+        for (int node = 0; node < nodes; node++) {
+            reversedOffsets[node + 1] += reversedOffsets[node];
+        }
+        int[] next = Arrays.copyOf(reversedOffsets, nodes);
+        int[] reversedTargets = new int[targets.length];
+        // Sources are visited in ascending order, so every reversed adjacency list comes out sorted
+        for (int node = 0; node < nodes; node++) {
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                reversedTargets[next[targets[edge]]++] = node;
+            }
+        }
+        return new DependencyGraph(reversedOffsets, reversedTargets);
+    }
+
+    /**
+     * Migration order per node: 0 for objects without dependencies, otherwise one more than the highest rank among
+     * the objects it depends on. Objects on a dependency cycle (or depending on one) rank after all others.
+     */
+    public int[] topologicalRanks() {
+        int nodes = nodeCount();
+        DependencyGraph usedBy = transpose();
+        int[] remaining = new int[nodes];
+        int[] rank = new int[nodes];
+        int[] queue = new int[nodes];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < nodes; node++) {
+            remaining[node] = outDegree(node);
+            if (remaining[node] == 0) {
+                queue[tail++] = node;
+            }
+        }
+        int maxRank = 0;
+        while (head < tail) {
+            int node = queue[head++];
+            maxRank = Math.max(maxRank, rank[node]);
+            for (int edge = usedBy.edgeStart(node); edge < usedBy.edgeEnd(node); edge++) {
+                int dependent = usedBy.target(edge);
+                rank[dependent] = Math.max(rank[dependent], rank[node] + 1);
+                if (--remaining[dependent] == 0) {
+                    queue[tail++] = dependent;
+                }
+            }
+        }
+        if (tail < nodes) {
+            for (int node = 0; node < nodes; node++) {
+                if (remaining[node] > 0) {
+                    rank[node] = maxRank + 1;
+                }
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Collects edges as int pairs and turns them into a {@link DependencyGraph}.
+     */
+    public static final class Builder {
+
+        private final ObjectInterner nodes = new ObjectInterner();
+        private int[] edges = new int[2048];
+        private int size;
+
+        /**
+         * Record that one object depends on another, by object key.
+         */
+        public void addEdge(String dependent, String referenced) {
+            addEdge(nodes.intern(dependent), nodes.intern(referenced));
+        }
+
+        void addEdge(int dependent, int referenced) {
+            if (size + 2 > edges.length) {
+                edges = Arrays.copyOf(edges, edges.length * 2);
+            }
+            edges[size++] = dependent;
+            edges[size++] = referenced;
+        }
+
+        ObjectInterner nodes() {
+            return nodes;
+        }
+
+        public int edgeCount() {
+            return size / 2;
+        }
+
+        public DependencyGraph build() {
+            int[] identity = new int[nodes.size()];
+            Arrays.setAll(identity, id -> id);
+            return build(identity, nodes.size());
+        }
+
+        /**
+         * Build over another id space: local id i becomes mapping[i] in a graph of nodeCount nodes.
+         */
+        DependencyGraph build(int[] mapping, int nodeCount) {
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < size; i += 2) {
+                offsets[mapping[edges[i]] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            int[] targets = new int[size / 2];
+            for (int i = 0; i < size; i += 2) {
+                targets[next[mapping[edges[i]]]++] = mapping[edges[i + 1]];
+            }
+
+            // Sort each adjacency list and drop duplicates (one edge per column reference on PostgreSQL), compacting in place
+            int write = 0;
+            int start = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                int end = offsets[node + 1];
+                Arrays.sort(targets, start, end);
+                offsets[node] = write;
+                for (int edge = start; edge < end; edge++) {
+                    if (edge == start || targets[edge] != targets[edge - 1]) {
+                        targets[write++] = targets[edge];
+                    }
+                }
+                start = end;
+            }
+            offsets[nodeCount] = write;
+            return new DependencyGraph(offsets, write == targets.length ? targets : Arrays.copyOf(targets, write));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import com.example.dbcomparator.model.oracle.OracleObject;
+import com.example.dbcomparator.repository.oracle.OracleDictionaryViews;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a persisted {@link CatalogHashTree} per schema and refreshes it incrementally.
+ * One aggregate query per side returns a digest per object type; only the types whose digest moved are fetched again.
+ * On Oracle that fetch is a delta query on LAST_DDL_TIME, falling back to a full reload of the type when objects were dropped.
+ * PostgreSQL has no DDL timestamp, so a changed type is reloaded from pg_class, pg_proc or pg_constraint.
+ */
+@Component
+public class IncrementalCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalCatalogService.class);
+
+    // {dict}/{owner} as in OracleCatalogSql
+    static final String ORACLE_BRANCH_DIGEST_SQL =
+        "SELECT OBJECT_TYPE, COUNT(*) AS object_count, " +
+        "TO_CHAR(MAX(LAST_DDL_TIME), 'YYYY-MM-DD HH24:MI:SS') AS max_ddl " +
+        "FROM {dict}_OBJECTS " +
+        "WHERE {owner} = ? " +
+        "GROUP BY OBJECT_TYPE";
+
+    // One row per relkind, routine kind and constraint type; kind is prefixed with its catalog for the latter two
+    static final String POSTGRES_BRANCH_DIGEST_SQL =
+        "SELECT c.relkind::text AS kind, count(*) AS object_count, " +
+        "md5(string_agg(c.oid::text || ':' || c.xmin::text, ',' ORDER BY c.oid)) AS digest " +
+        "FROM pg_class c " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = ? " +
+        "AND c.relkind IN ('r', 'v', 'i', 'S', 'f') " +
+        "GROUP BY c.relkind " +
+        "UNION ALL " +
+        "SELECT 'proc:' || p.prokind::text, count(*), " +
+        "md5(string_agg(p.oid::text || ':' || p.xmin::text, ',' ORDER BY p.oid)) " +
+        "FROM pg_proc p " +
+        "JOIN pg_namespace n ON n.oid = p.pronamespace " +
+        "WHERE n.nspname = ? " +
+        "AND p.prokind IN ('f', 'p') " +
+        "GROUP BY p.prokind " +
+        "UNION ALL " +
+        "SELECT 'con:' || k.contype::text, count(*), " +
+        "md5(string_agg(k.oid::text || ':' || k.xmin::text, ',' ORDER BY k.oid)) " +
+        "FROM pg_constraint k " +
+        "JOIN pg_namespace n ON n.oid = k.connamespace " +
+        "WHERE n.nspname = ? AND k.conrelid <> 0 " +
+        "GROUP BY k.contype";
+
+    // Same mapping as the CASE expressions in PostgresCatalogSql
+    private static final Map<String, String> POSTGRES_TYPES_BY_KIND = Map.ofEntries(
+            Map.entry("r", "TABLE"), Map.entry("v", "VIEW"), Map.entry("i", "INDEX"),
+            Map.entry("S", "SEQUENCE"), Map.entry("f", "FOREIGN TABLE"),
+            Map.entry("proc:f", "FUNCTION"), Map.entry("proc:p", "PROCEDURE"),
+            Map.entry("con:p", "PRIMARY KEY"), Map.entry("con:u", "UNIQUE"), Map.entry("con:c", "CHECK"),
+            Map.entry("con:f", "FOREIGN KEY"), Map.entry("con:x", "EXCLUDE"), Map.entry("con:t", "CONSTRAINT"));
+
+    private final CatalogReader catalogReader;
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final OracleDictionaryViews dictionaryViews;
+    private final ComparisonProperties properties;
+
+    private final Map<String, CatalogHashTree> trees = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IncrementalCatalogService(CatalogReader catalogReader,
+                                     @Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                     @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                     OracleDictionaryViews dictionaryViews, ComparisonProperties properties) {
+        this.catalogReader = catalogReader;
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.dictionaryViews = dictionaryViews;
+        this.properties = properties;
+    }
+
+    /**
+     * Refresh the Oracle catalog of an owner and return it as a snapshot.
+     */
+    public CatalogSnapshot refreshOracle(String owner) {
+        String key = "oracle-" + owner;
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            CatalogHashTree previous = loadTree(key);
+            Map<String, BranchDigest> digests = new LinkedHashMap<>();
+            oracleJdbcTemplate.query(dictionaryViews.render(ORACLE_BRANCH_DIGEST_SQL, owner), rs -> {
+                String type = rs.getString("OBJECT_TYPE");
+                long count = rs.getLong("object_count");
+                String maxDdl = rs.getString("max_ddl");
+                digests.put(type, new BranchDigest(type, count, count + ":" + maxDdl));
+            }, owner);
+
+            Map<String, CatalogHashTree.Branch> branches = new HashMap<>();
+            int refetched = 0;
+            for (BranchDigest digest : digests.values()) {
+                CatalogHashTree.Branch branch = previous != null ? previous.getBranches().get(digest.type) : null;
+                if (branch != null && digest.value.equals(branch.getServerDigest())) {
+                    branches.put(digest.type, branch);
+                    continue;
+                }
+                refetched++;
+                branches.put(digest.type, new CatalogHashTree.Branch(digest.type, digest.value, fetchOracleBranch(owner, digest, branch)));
+            }
+            return commit(key, previous, CatalogCache.Side.ORACLE, branches, digests.size(), refetched);
+        }
+    }
+
+    /**
+     * Refresh the PostgreSQL catalog of a schema and return it as a snapshot.
+     */
+    public CatalogSnapshot refreshPostgres(String schemaName) {
+        String key = "postgres-" + schemaName;
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            CatalogHashTree previous = loadTree(key);
+            Map<String, BranchDigest> digests = new LinkedHashMap<>();
+            Map<String, String> kinds = new HashMap<>();
+            supabaseJdbcTemplate.query(POSTGRES_BRANCH_DIGEST_SQL, rs -> {
+                String kind = rs.getString("kind");
+                String type = POSTGRES_TYPES_BY_KIND.getOrDefault(kind, kind);
+                long count = rs.getLong("object_count");
+                digests.put(type, new BranchDigest(type, count, count + ":" + rs.getString("digest")));
+                kinds.put(type, kind);
+            }, schemaName, schemaName, schemaName);
+
+            Map<String, CatalogHashTree.Branch> branches = new HashMap<>();
+            Map<String, List<DatabaseObject>> constraintsByType = null; // All constraint types come from one query
+            int refetched = 0;
+            for (BranchDigest digest : digests.values()) {
+                CatalogHashTree.Branch branch = previous != null ? previous.getBranches().get(digest.type) : null;
+                if (branch != null && digest.value.equals(branch.getServerDigest())) {
+                    branches.put(digest.type, branch);
+                    continue;
+                }
+                refetched++;
+                String kind = kinds.get(digest.type);
+                List<? extends DatabaseObject> objects;
+                if (kind.startsWith("con:")) {
+                    if (constraintsByType == null) {
+                        constraintsByType = new HashMap<>();
+                        for (DatabaseObject obj : catalogReader.findAllConstraintsBySchema(schemaName)) {
+                            constraintsByType.computeIfAbsent(obj.getType(), type -> new ArrayList<>()).add(obj);
+                        }
+                    }
+                    objects = constraintsByType.getOrDefault(digest.type, List.of());
+                } else if (kind.equals("proc:p")) {
+                    objects = catalogReader.findAllProceduresBySchema(schemaName);
+                } else if (kind.equals("proc:f")) {
+                    objects = catalogReader.findAllFunctionsBySchema(schemaName);
+                } else {
+                    objects = catalogReader.findAllObjectsBySchemaAndRelkind(schemaName, kind);
+                }
+                CatalogHashTree.Branch reloaded = new CatalogHashTree.Branch(digest.type, digest.value, objects);
+                // xmin also moves on VACUUM/ANALYZE; if the objects themselves are unchanged keep the old list instance
+                if (branch != null && branch.getHash() == reloaded.getHash() && branch.getObjects().size() == reloaded.getObjects().size()) {
+                    reloaded = new CatalogHashTree.Branch(digest.type, digest.value, branch.getObjects());
+                }
+                branches.put(digest.type, reloaded);
+            }
+            return commit(key, previous, CatalogCache.Side.POSTGRES, branches, digests.size(), refetched);
+        }
+    }
+
+    /**
+     * Apply the LAST_DDL_TIME delta to a changed Oracle branch, or reload the whole type when the delta can't explain the new count.
+     */
+    private List<? extends DatabaseObject> fetchOracleBranch(String owner, BranchDigest digest, CatalogHashTree.Branch previous) {
+        String since = previous != null ? previous.maxLastDdlTime() : null;
+        if (since != null) {
+            List<OracleObject> changes = catalogReader.findCatalogChangesSince(owner, digest.type, since);
+            Map<String, DatabaseObject> merged = new LinkedHashMap<>();
+            for (DatabaseObject obj : previous.getObjects()) {
+                merged.put(((OracleObject) obj).getId(), obj);
+            }
+            for (OracleObject change : changes) {
+                merged.put(change.getId(), change);
+            }
+            if (merged.size() == digest.count) {
+                log.debug("Patched {} {} objects of '{}' from a delta of {}", merged.size(), digest.type, owner, changes.size());
+                List<DatabaseObject> patched = new ArrayList<>(merged.values());
+                patched.sort(Comparator.comparing(DatabaseObject::getName).thenComparing(obj -> ((OracleObject) obj).getId()));
+                return patched;
+            }
+            // Objects were dropped (or renamed); a delta query can't see those
+        }
+        return catalogReader.findCatalogSnapshotByOwnerAndType(owner, digest.type);
+    }
+
+    private CatalogSnapshot commit(String key, CatalogHashTree previous, CatalogCache.Side side,
+                                   Map<String, CatalogHashTree.Branch> branches, int branchCount, int refetched) {
+        boolean unchanged = previous != null && refetched == 0 && previous.getBranches().size() == branchCount;
+        if (unchanged) {
+            log.info("Catalog {} unchanged (root hash {}), no dictionary scan needed", key, Long.toHexString(previous.getRootHash()));
+            return previous.toSnapshot();
+        }
+
+        CatalogHashTree tree = new CatalogHashTree(side, branches);
+        trees.put(key, tree);
+        try {
+            tree.writeTo(stateFile(key));
+        } catch (IOException e) {
+            log.warn("Could not persist catalog hash tree {}: {}", key, e.getMessage());
+        }
+        log.info("Catalog {} refreshed: {} of {} object types re-fetched", key, refetched, branchCount);
+        return tree.toSnapshot();
+    }
+
+    private CatalogHashTree loadTree(String key) {
+        CatalogHashTree tree = trees.get(key);
+        if (tree != null) {
+            return tree;
+        }
+        Path file = stateFile(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            tree = CatalogHashTree.readFrom(file);
+            trees.put(key, tree);
+            return tree;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable catalog hash tree {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path stateFile(String key) {
+        return Paths.get(properties.getIncrementalStateDir()).resolve(key.replaceAll("[^A-Za-z0-9_.-]", "_") + ".tree");
+    }
+
+    private static final class BranchDigest {
+        private final String type;
+        private final long count;
+        private final String value;
+
+        private BranchDigest(String type, long count, String value) {
+            this.type = type;
+            this.count = count;
+            this.value = value;
+        }
+    }
+}
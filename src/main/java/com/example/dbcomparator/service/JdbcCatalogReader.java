@@ -0,0 +1,225 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.oracle.OracleObject;
+import com.example.dbcomparator.model.postgres.PostgresObject;
+import com.example.dbcomparator.repository.oracle.OracleCatalogSql;
+import com.example.dbcomparator.repository.oracle.OracleDictionaryViews;
+import com.example.dbcomparator.repository.postgres.PostgresCatalogSql;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog reader on plain JDBC (comparison.catalog-reader=jdbc).
+ * Rows are mapped by column index straight into detached objects from a streaming {@link RowCallbackHandler}:
+ * no persistence context, no dirty-checking snapshots, no entity proxies. Each query runs with its own fetch size
+ * (comparison.catalog-fetch-size, overridable per method name in comparison.catalog-fetch-sizes), so a large
+ * ALL_OBJECTS scan is not bound by the Oracle driver's default prefetch of 10 rows. PostgreSQL queries run in a
+ * read-only transaction, since pgjdbc ignores the fetch size (and reads the whole result at once) under autocommit.
+ * Queries are the repositories' own: {@link OracleCatalogSql} templates on the same dictionary views and
+ * {@link PostgresCatalogSql} on pg_catalog.
+ */
+public class JdbcCatalogReader implements CatalogReader {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcCatalogReader.class);
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final TransactionOperations supabaseReadOnlyTransactions;
+    private final OracleDictionaryViews dictionaryViews;
+    private final ComparisonProperties properties;
+
+    public JdbcCatalogReader(JdbcTemplate oracleJdbcTemplate, JdbcTemplate supabaseJdbcTemplate,
+                             TransactionOperations supabaseReadOnlyTransactions,
+                             OracleDictionaryViews dictionaryViews, ComparisonProperties properties) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.supabaseReadOnlyTransactions = supabaseReadOnlyTransactions;
+        this.dictionaryViews = dictionaryViews;
+        this.properties = properties;
+    }
+
+    // --- Oracle ---
+
+    @Override
+    public List<OracleObject> findAllObjectsByOwner(String owner) {
+        return queryOracle("findAllObjectsByOwner", OracleCatalogSql.OBJECTS, owner, null, null);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogSnapshotByOwner(String owner) {
+        return queryOracle("findCatalogSnapshotByOwner", OracleCatalogSql.SNAPSHOT, owner, null, null);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogSnapshotByOwnerAndType(String owner, String objectType) {
+        return queryOracle("findCatalogSnapshotByOwnerAndType", OracleCatalogSql.SNAPSHOT_OF_TYPE, owner, objectType, null);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogChangesSince(String owner, String objectType, String since) {
+        return queryOracle("findCatalogChangesSince", OracleCatalogSql.CHANGES_SINCE, owner, objectType, since);
+    }
+
+    @Override
+    public List<OracleObject> findAllTablesByOwner(String owner) {
+        return oracleObjectsOfType("findAllTablesByOwner", owner, "TABLE");
+    }
+
+    @Override
+    public List<OracleObject> findAllViewsByOwner(String owner) {
+        return oracleObjectsOfType("findAllViewsByOwner", owner, "VIEW");
+    }
+
+    @Override
+    public List<OracleObject> findAllProceduresByOwner(String owner) {
+        return oracleObjectsOfType("findAllProceduresByOwner", owner, "PROCEDURE");
+    }
+
+    @Override
+    public List<OracleObject> findAllFunctionsByOwner(String owner) {
+        return oracleObjectsOfType("findAllFunctionsByOwner", owner, "FUNCTION");
+    }
+
+    @Override
+    public List<OracleObject> findAllSequencesByOwner(String owner) {
+        return oracleObjectsOfType("findAllSequencesByOwner", owner, "SEQUENCE");
+    }
+
+    @Override
+    public List<OracleObject> findAllIndexesByOwner(String owner) {
+        return queryOracle("findAllIndexesByOwner", OracleCatalogSql.INDEXES, owner, null, null);
+    }
+
+    @Override
+    public List<OracleObject> findAllConstraintsByOwner(String owner) {
+        return queryOracle("findAllConstraintsByOwner", OracleCatalogSql.CONSTRAINTS, owner, null, null);
+    }
+
+    // --- PostgreSQL ---
+
+    @Override
+    public List<PostgresObject> findAllObjectsBySchema(String schemaName) {
+        return queryPostgres("findAllObjectsBySchema", PostgresCatalogSql.RELATIONS, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findCatalogBySchema(String schemaName) {
+        return queryPostgres("findCatalogBySchema", PostgresCatalogSql.CATALOG, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findAllObjectsBySchemaAndRelkind(String schemaName, String relkind) {
+        return queryPostgres("findAllObjectsBySchemaAndRelkind", PostgresCatalogSql.RELATIONS_OF_KIND, schemaName, relkind);
+    }
+
+    @Override
+    public List<PostgresObject> findAllTablesBySchema(String schemaName) {
+        return queryPostgres("findAllTablesBySchema", PostgresCatalogSql.TABLES, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findAllViewsBySchema(String schemaName) {
+        return queryPostgres("findAllViewsBySchema", PostgresCatalogSql.VIEWS, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findAllSequencesBySchema(String schemaName) {
+        return queryPostgres("findAllSequencesBySchema", PostgresCatalogSql.SEQUENCES, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findAllFunctionsBySchema(String schemaName) {
+        return queryPostgres("findAllFunctionsBySchema", PostgresCatalogSql.FUNCTIONS, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findAllIndexesBySchema(String schemaName) {
+        return queryPostgres("findAllIndexesBySchema", PostgresCatalogSql.INDEXES, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findAllProceduresBySchema(String schemaName) {
+        return queryPostgres("findAllProceduresBySchema", PostgresCatalogSql.PROCEDURES, schemaName, null);
+    }
+
+    @Override
+    public List<PostgresObject> findAllConstraintsBySchema(String schemaName) {
+        return queryPostgres("findAllConstraintsBySchema", PostgresCatalogSql.CONSTRAINTS, schemaName, null);
+    }
+
+    // --- Helpers ---
+
+    private List<OracleObject> oracleObjectsOfType(String queryName, String owner, String objectType) {
+        return queryOracle(queryName, OracleCatalogSql.OBJECTS_OF_TYPE, owner, objectType, null);
+    }
+
+    private List<OracleObject> queryOracle(String queryName, String template, String owner, String objectType, String since) {
+        // Render the view family first, then turn the named parameters into JDBC placeholders
+        ParsedSql sql = NamedParameterUtils.parseSqlStatement(dictionaryViews.render(template, owner));
+        MapSqlParameterSource parameters = new MapSqlParameterSource("owner", owner)
+                .addValue("objectType", objectType)
+                .addValue("since", since);
+        List<OracleObject> objects = new ArrayList<>();
+        RowCallbackHandler handler = rs -> {
+            OracleObject obj = new OracleObject();
+            obj.setName(rs.getString(1));
+            obj.setType(rs.getString(2));
+            obj.setSchema(rs.getString(3));
+            obj.setId(rs.getString(4));
+            obj.setOwner(rs.getString(5));
+            obj.setStatus(rs.getString(6));
+            obj.setCreated(rs.getString(7));
+            obj.setLastDdlTime(rs.getString(8));
+            objects.add(obj);
+        };
+        oracleJdbcTemplate.query(NamedParameterUtils.substituteNamedParameters(sql, parameters),
+                statement(queryName, NamedParameterUtils.buildValueArray(sql, parameters, null)), handler);
+        log.debug("{} returned {} Oracle rows", queryName, objects.size());
+        return objects;
+    }
+
+    private List<PostgresObject> queryPostgres(String queryName, String sql, String schemaName, String relkind) {
+        ParsedSql parsed = NamedParameterUtils.parseSqlStatement(sql);
+        MapSqlParameterSource parameters = new MapSqlParameterSource("schemaName", schemaName)
+                .addValue("relkind", relkind);
+        List<PostgresObject> objects = new ArrayList<>();
+        RowCallbackHandler handler = rs -> {
+            PostgresObject obj = new PostgresObject();
+            obj.setName(rs.getString(1));
+            obj.setType(rs.getString(2));
+            obj.setSchema(rs.getString(3));
+            obj.setId(rs.getString(4));
+            obj.setSchemaName(rs.getString(5));
+            obj.setObjectType(rs.getString(6));
+            obj.setCreatedAt(rs.getString(7));
+            obj.setUpdatedAt(rs.getString(8));
+            objects.add(obj);
+        };
+        supabaseReadOnlyTransactions.executeWithoutResult(status ->
+                supabaseJdbcTemplate.query(NamedParameterUtils.substituteNamedParameters(parsed, parameters),
+                        statement(queryName, NamedParameterUtils.buildValueArray(parsed, parameters, null)), handler));
+        log.debug("{} returned {} PostgreSQL rows", queryName, objects.size());
+        return objects;
+    }
+
+    private PreparedStatementSetter statement(String queryName, Object[] args) {
+        int fetchSize = properties.getCatalogFetchSizes().getOrDefault(queryName, properties.getCatalogFetchSize());
+        return ps -> {
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+        };
+    }
+}
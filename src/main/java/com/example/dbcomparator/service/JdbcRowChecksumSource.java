@@ -0,0 +1,102 @@
+package com.example.dbcomparator.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RowChecksumSource} computing the checksums in SQL, so only aggregates (and, for small mismatching
+ * ranges, key/hash pairs) cross the network.
+ */
+class JdbcRowChecksumSource implements RowChecksumSource {
+
+    // Oracle rejects IN lists longer than 1000 elements
+    private static final int KEY_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataChecksumDialect dialect;
+    private final String table;
+    private final String keyColumn;
+    private final String rowHash;
+
+    JdbcRowChecksumSource(JdbcTemplate jdbcTemplate, DataChecksumDialect dialect, String schema, String table,
+                          String keyColumn, List<String> columns, List<String> oracleTypes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = dialect;
+        this.table = dialect.qualifiedTable(schema, table);
+        this.keyColumn = keyColumn;
+        List<String> encoded = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            encoded.add(dialect.encodeColumn(columns.get(i), oracleTypes.get(i)));
+        }
+        this.rowHash = dialect.rowHash(encoded);
+    }
+
+    @Override
+    public KeyRange keyRange() {
+        String key = dialect.quote(keyColumn);
+        return jdbcTemplate.query("SELECT MIN(" + key + ") AS min_key, MAX(" + key + ") AS max_key FROM " + table, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            BigDecimal min = rs.getBigDecimal("min_key");
+            BigDecimal max = rs.getBigDecimal("max_key");
+            return min == null ? null : new KeyRange(min.longValueExact(), max.longValueExact());
+        });
+    }
+
+    @Override
+    public Map<Long, ChunkChecksum> chunkChecksums(long from, long to, long width) {
+        String sql = dialect.chunkChecksums(dialect.hashedRows(table, keyColumn, rowHash, dialect.keyBetween(keyColumn, from, to)), from, width);
+        Map<Long, ChunkChecksum> checksums = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            checksums.put(rs.getLong("chunk_no"), readChecksum(rs));
+        });
+        return checksums;
+    }
+
+    @Override
+    public ChunkChecksum rangeChecksum(long from, long to) {
+        String sql = dialect.rangeChecksum(dialect.hashedRows(table, keyColumn, rowHash, dialect.keyBetween(keyColumn, from, to)));
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> readChecksum(rs));
+    }
+
+    @Override
+    public List<KeyHash> rowHashes(long from, long to) {
+        String sql = dialect.rowHashes(dialect.hashedRows(table, keyColumn, rowHash, dialect.keyBetween(keyColumn, from, to)));
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new KeyHash(rs.getLong("k"), rs.getString("h")));
+    }
+
+    @Override
+    public List<KeyHash> sampleRowHashes(double percent, Long seed, int maxRows) {
+        String sql = dialect.limit(dialect.hashedRows(dialect.sampledTable(table, percent, seed), keyColumn, rowHash, "1 = 1"), maxRows);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new KeyHash(rs.getLong("k"), rs.getString("h")));
+    }
+
+    @Override
+    public List<KeyHash> rowHashes(List<Long> keys) {
+        List<KeyHash> hashes = new ArrayList<>(keys.size());
+        for (int start = 0; start < keys.size(); start += KEY_BATCH_SIZE) {
+            List<Long> batch = keys.subList(start, Math.min(keys.size(), start + KEY_BATCH_SIZE));
+            String sql = dialect.hashedRows(table, keyColumn, rowHash, dialect.keyIn(keyColumn, batch));
+            jdbcTemplate.query(sql, rs -> {
+                hashes.add(new KeyHash(rs.getLong("k"), rs.getString("h")));
+            });
+        }
+        return hashes;
+    }
+
+    private static ChunkChecksum readChecksum(ResultSet rs) throws SQLException {
+        long rowCount = rs.getLong("row_count");
+        if (rowCount == 0) {
+            return ChunkChecksum.EMPTY;
+        }
+        return new ChunkChecksum(rowCount, rs.getBigDecimal("sum_hi"), rs.getBigDecimal("sum_lo"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+
+/**
+ * Mismatch rate estimated from a row sample, with a Wilson score confidence interval
+ * (well behaved for the rates near zero a healthy migration produces, unlike the normal approximation).
+ */
+@Getter
+public class MismatchEstimate {
+
+    private final long sampledRows;
+    private final long mismatchedRows;
+    private final double confidence;
+    private final double rate;
+    private final double lowerBound;
+    private final double upperBound;
+
+    private MismatchEstimate(long sampledRows, long mismatchedRows, double confidence, double rate, double lowerBound, double upperBound) {
+        this.sampledRows = sampledRows;
+        this.mismatchedRows = mismatchedRows;
+        this.confidence = confidence;
+        this.rate = rate;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * @param mismatchedRows Sampled rows that were missing on the other side or differed
+     * @param sampledRows    Distinct sampled rows, must be positive
+     * @param confidence     Two-sided confidence level, e.g. 0.95
+     */
+    public static MismatchEstimate of(long mismatchedRows, long sampledRows, double confidence) {
+        if (sampledRows <= 0) {
+            throw new IllegalArgumentException("A mismatch rate needs at least one sampled row.");
+        }
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1, got " + confidence);
+        }
+        double n = sampledRows;
+        double p = mismatchedRows / n;
+        double z = zScore(confidence);
+        double z2 = z * z;
+        double denominator = 1 + z2 / n;
+        double center = (p + z2 / (2 * n)) / denominator;
+        double halfWidth = z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n)) / denominator;
+        return new MismatchEstimate(sampledRows, mismatchedRows, confidence, p,
+                Math.max(0, center - halfWidth), Math.min(1, center + halfWidth));
+    }
+
+    /**
+     * Two-sided standard normal quantile for a confidence level
+     * (Abramowitz and Stegun 26.2.23, absolute error below 4.5e-4).
+     */
+    static double zScore(double confidence) {
+        double tail = (1 - confidence) / 2;
+        double t = Math.sqrt(-2 * Math.log(tail));
+        return t - (2.515517 + 0.802853 * t + 0.010328 * t * t)
+                / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+    }
+}
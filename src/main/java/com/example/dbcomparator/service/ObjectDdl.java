@@ -0,0 +1,17 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * DDL of an object that exists on one side only. Either the DDL or the error is set.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ObjectDdl {
+    private final CatalogCache.Side side;
+    private final String objectType;
+    private final String name;
+    private final String ddl;
+    private final String error;
+}
@@ -0,0 +1,47 @@
+package com.example.dbcomparator.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense int ids for object keys: every key is stored once and referenced by its id everywhere else.
+ * Not thread-safe; each fetch interns into its own instance and the ids are aligned afterwards with {@link #internAll}.
+ */
+final class ObjectInterner {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+
+    int intern(String key) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = keys.size();
+            ids.put(key, id);
+            keys.add(key);
+        }
+        return id;
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    String key(int id) {
+        return keys.get(id);
+    }
+
+    /**
+     * Intern every key of another interner here.
+     *
+     * @return The id in this interner for each id of the other one
+     */
+    int[] internAll(ObjectInterner other) {
+        int[] mapping = new int[other.size()];
+        for (int id = 0; id < mapping.length; id++) {
+            mapping[id] = intern(other.key(id));
+        }
+        return mapping;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Differences of one run, object type and status waiting to be written to comparison_results.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PendingDifferences {
+    private final UUID comparisonRunUuid;
+    private final Timestamp runTimestamp;
+    private final String objectType;
+    private final String status;
+    private final String sourceDb;
+    private final List<DatabaseObject> objects;
+}
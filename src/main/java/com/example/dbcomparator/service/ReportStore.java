@@ -0,0 +1,255 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generated Excel reports on local disk (comparison.report-store-dir), one file per run named after the run id
+ * and a hash of the catalog fingerprints and report settings it was produced with. Files are written once and served
+ * from disk, so a report is downloaded again by run id without regenerating it, and a new request for schemas whose
+ * catalogs and report settings are unchanged gets the stored report without a comparison. The least recently used reports are deleted once the
+ * directory exceeds comparison.report-store-max-size.
+ */
+@Service
+public class ReportStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportStore.class);
+
+    static final String FILE_EXTENSION = ".xlsx";
+    // <catalog key or "-">_<run id>.xlsx
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64}|-)_([0-9a-f-]{36})\\.xlsx");
+
+    private final DatabaseComparisonService comparisonService;
+    private final ComparisonProperties properties;
+    private final Path directory;
+    // Access order: iteration starts at the least recently used report
+    private final LinkedHashMap<UUID, StoredReport> reports = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, CompletableFuture<StoredReport>> writing = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    @Autowired
+    public ReportStore(DatabaseComparisonService comparisonService, ComparisonProperties properties) {
+        this.comparisonService = comparisonService;
+        this.properties = properties;
+        this.directory = Paths.get(properties.getReportStoreDir());
+        if (properties.isReportStoreEnabled()) {
+            loadExisting();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isReportStoreEnabled();
+    }
+
+    /**
+     * Key of the state of both catalogs, from their {@link CatalogFingerprinter} fingerprints, and of the report settings.
+     *
+     * @return The key, or null if either side could not be fingerprinted (stored reports are then not reused)
+     */
+    public String catalogKey(String oracleSchema, String postgresSchema, String oracleFingerprint, String postgresFingerprint) {
+        if (oracleFingerprint == null || postgresFingerprint == null) {
+            return null;
+        }
+        return catalogKey(oracleSchema, postgresSchema, oracleFingerprint, postgresFingerprint, reportFeatures());
+    }
+
+    // Settings that decide which sheets a report has; a report written under other settings is not reused
+    private String reportFeatures() {
+        return "volume=" + properties.isVolumeEnabled()
+                + ",exactCounts=" + properties.getVolumeExactCountTables()
+                + ",columns=" + properties.isColumnComparisonEnabled()
+                + ",sources=" + properties.isSourceComparisonEnabled()
+                + ",dependencies=" + properties.isDependencyComparisonEnabled()
+                + ",ddl=" + properties.isDdlExtractionEnabled();
+    }
+
+    private static String catalogKey(String oracleSchema, String postgresSchema, String oracleFingerprint, String postgresFingerprint,
+                                     String features) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String key = oracleSchema + '\u0000' + postgresSchema + '\u0000' + oracleFingerprint + '\u0000' + postgresFingerprint
+                    + '\u0000' + features;
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The stored report of a run, marked as recently used.
+     */
+    public synchronized Optional<StoredReport> find(UUID comparisonRunUuid) {
+        return Optional.ofNullable(reports.get(comparisonRunUuid)).filter(this::exists);
+    }
+
+    /**
+     * The newest report compared on the same catalogs, if it is younger than comparison.report-store-max-age.
+     * Row counts are not part of the fingerprint, hence the age limit.
+     */
+    public synchronized Optional<StoredReport> findCurrent(String catalogKey) {
+        if (catalogKey == null) {
+            return Optional.empty();
+        }
+        Instant cutoff = Instant.now().minus(properties.getReportStoreMaxAge());
+        StoredReport newest = null;
+        for (StoredReport report : reports.values()) {
+            if (catalogKey.equals(report.getCatalogKey()) && report.getCreatedAt().isAfter(cutoff)
+                    && (newest == null || report.getCreatedAt().isAfter(newest.getCreatedAt()))) {
+                newest = report;
+            }
+        }
+        if (newest != null) {
+            reports.get(newest.getComparisonRunUuid()); // Mark as used
+        }
+        return Optional.ofNullable(newest).filter(this::exists);
+    }
+
+    // Drops the entry of a file deleted behind the store's back
+    private boolean exists(StoredReport report) {
+        if (Files.isRegularFile(report.getFile())) {
+            return true;
+        }
+        reports.remove(report.getComparisonRunUuid());
+        totalBytes -= report.getSizeBytes();
+        return false;
+    }
+
+    /**
+     * Write the report of a run to the store, or return it if it is already stored.
+     * Requests sharing a run (see {@link ComparisonRequestCoalescer}) write the file once.
+     *
+     * @param catalogKey Key from {@link #catalogKey(String, String, String, String)} taken before the run, or null
+     */
+    public StoredReport save(ComparisonRun run, String catalogKey) throws IOException {
+        UUID id = run.getComparisonRunUuid();
+        Optional<StoredReport> stored = find(id);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        CompletableFuture<StoredReport> write = new CompletableFuture<>();
+        CompletableFuture<StoredReport> running = writing.putIfAbsent(id, write);
+        if (running != null) {
+            return ComparisonTaskExecutor.await(running);
+        }
+        try {
+            StoredReport report = write(run, catalogKey);
+            write.complete(report);
+            return report;
+        } catch (IOException e) {
+            write.completeExceptionally(new UncheckedIOException(e));
+            throw e;
+        } catch (RuntimeException e) {
+            write.completeExceptionally(e);
+            throw e;
+        } finally {
+            writing.remove(id, write);
+        }
+    }
+
+    private StoredReport write(ComparisonRun run, String catalogKey) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve((catalogKey != null ? catalogKey : "-") + "_" + run.getComparisonRunUuid() + FILE_EXTENSION);
+        Path temp = Files.createTempFile(directory, "report-", ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                comparisonService.writeComparisonReport(run, outputStream);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        StoredReport report = new StoredReport(run.getComparisonRunUuid(), catalogKey, file, Files.size(file), Instant.now());
+        List<StoredReport> evicted = add(report);
+        evicted.forEach(this::delete);
+        log.info("Stored report of run {} ({} bytes, {} evicted)", run.getComparisonRunUuid(), report.getSizeBytes(), evicted.size());
+        return report;
+    }
+
+    // Files are deleted outside the lock; a download that already opened an evicted file keeps reading through its handle
+    private synchronized List<StoredReport> add(StoredReport report) {
+        reports.put(report.getComparisonRunUuid(), report);
+        totalBytes += report.getSizeBytes();
+        List<StoredReport> evicted = new ArrayList<>();
+        long maxBytes = properties.getReportStoreMaxSize().toBytes();
+        Iterator<StoredReport> leastRecentlyUsed = reports.values().iterator();
+        while (totalBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            StoredReport candidate = leastRecentlyUsed.next();
+            if (candidate == report) {
+                continue;
+            }
+            leastRecentlyUsed.remove();
+            totalBytes -= candidate.getSizeBytes();
+            evicted.add(candidate);
+        }
+        return evicted;
+    }
+
+    private void delete(StoredReport report) {
+        try {
+            Files.deleteIfExists(report.getFile());
+        } catch (IOException e) {
+            log.warn("Could not delete stored report {}: {}", report.getFile(), e.getMessage());
+        }
+    }
+
+    /**
+     * Index the reports left by a previous process, oldest first, so they are evicted first.
+     */
+    private void loadExisting() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<StoredReport> existing = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Matcher name = FILE_NAME.matcher(file.getFileName().toString());
+                if (name.matches()) {
+                    existing.add(new StoredReport(UUID.fromString(name.group(2)), name.group(1).equals("-") ? null : name.group(1),
+                            file, Files.size(file), Files.getLastModifiedTime(file).toInstant()));
+                } else if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(file); // Interrupted write
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not index stored reports in {}: {}", directory, e.getMessage());
+            return;
+        }
+        existing.sort(Comparator.comparing(StoredReport::getCreatedAt));
+        List<StoredReport> evicted = new ArrayList<>();
+        for (StoredReport report : existing) {
+            evicted.addAll(add(report));
+        }
+        evicted.forEach(this::delete);
+        log.info("Indexed {} stored reports in {} ({} bytes)", reports.size(), directory, totalBytes);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.oracle.OracleObject;
+import com.example.dbcomparator.model.postgres.PostgresObject;
+import com.example.dbcomparator.repository.oracle.OracleMetadataRepository;
+import com.example.dbcomparator.repository.postgres.PostgresMetadataRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Catalog reader backed by the Spring Data JPA native queries (comparison.catalog-reader=jpa, the default).
+ */
+@RequiredArgsConstructor
+public class RepositoryCatalogReader implements CatalogReader {
+
+    private final OracleMetadataRepository oracleRepository;
+    private final PostgresMetadataRepository postgresRepository;
+
+    @Override
+    public List<OracleObject> findAllObjectsByOwner(String owner) {
+        return oracleRepository.findAllObjectsByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogSnapshotByOwner(String owner) {
+        return oracleRepository.findCatalogSnapshotByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogSnapshotByOwnerAndType(String owner, String objectType) {
+        return oracleRepository.findCatalogSnapshotByOwnerAndType(owner, objectType);
+    }
+
+    @Override
+    public List<OracleObject> findCatalogChangesSince(String owner, String objectType, String since) {
+        return oracleRepository.findCatalogChangesSince(owner, objectType, since);
+    }
+
+    @Override
+    public List<OracleObject> findAllTablesByOwner(String owner) {
+        return oracleRepository.findAllTablesByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findAllViewsByOwner(String owner) {
+        return oracleRepository.findAllViewsByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findAllProceduresByOwner(String owner) {
+        return oracleRepository.findAllProceduresByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findAllFunctionsByOwner(String owner) {
+        return oracleRepository.findAllFunctionsByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findAllSequencesByOwner(String owner) {
+        return oracleRepository.findAllSequencesByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findAllIndexesByOwner(String owner) {
+        return oracleRepository.findAllIndexesByOwner(owner);
+    }
+
+    @Override
+    public List<OracleObject> findAllConstraintsByOwner(String owner) {
+        return oracleRepository.findAllConstraintsByOwner(owner);
+    }
+
+    @Override
+    public List<PostgresObject> findAllObjectsBySchema(String schemaName) {
+        return postgresRepository.findAllObjectsBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findCatalogBySchema(String schemaName) {
+        return postgresRepository.findCatalogBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findAllObjectsBySchemaAndRelkind(String schemaName, String relkind) {
+        return postgresRepository.findAllObjectsBySchemaAndRelkind(schemaName, relkind);
+    }
+
+    @Override
+    public List<PostgresObject> findAllTablesBySchema(String schemaName) {
+        return postgresRepository.findAllTablesBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findAllViewsBySchema(String schemaName) {
+        return postgresRepository.findAllViewsBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findAllSequencesBySchema(String schemaName) {
+        return postgresRepository.findAllSequencesBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findAllFunctionsBySchema(String schemaName) {
+        return postgresRepository.findAllFunctionsBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findAllIndexesBySchema(String schemaName) {
+        return postgresRepository.findAllIndexesBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findAllProceduresBySchema(String schemaName) {
+        return postgresRepository.findAllProceduresBySchema(schemaName);
+    }
+
+    @Override
+    public List<PostgresObject> findAllConstraintsBySchema(String schemaName) {
+        return postgresRepository.findAllConstraintsBySchema(schemaName);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence of comparison differences.
+ * Comparison runs publish their differences and move on; a single background writer drains the bounded queue in
+ * batches of up to comparison.result-batch-size rows, or whatever arrived within comparison.result-flush-interval,
+ * and hands each batch to the {@link ComparisonResultWriter}. When the queue is full, publishing blocks until the
+ * writer catches up, so a slow results store throttles comparisons instead of filling the heap.
+ * Progress is tracked per comparison_run_uuid in a {@link ResultPersistenceStatus}.
+ */
+@Service
+public class ResultPersistenceQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultPersistenceQueue.class);
+
+    private static final Duration SHUTDOWN_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ComparisonResultWriter resultWriter;
+    private final ComparisonProperties properties;
+    private final ComparisonMetrics metrics;
+    private final BlockingQueue<PendingDifferences> queue;
+    private final Map<UUID, ResultPersistenceStatus> statuses = new ConcurrentHashMap<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // Entries published but not yet acknowledged (queued or in the batch being written)
+    private final Object idleLock = new Object();
+    private long unacknowledged;
+
+    @Autowired
+    public ResultPersistenceQueue(ComparisonResultWriter resultWriter, ComparisonProperties properties, ComparisonMetrics metrics) {
+        this.resultWriter = resultWriter;
+        this.properties = properties;
+        this.metrics = metrics;
+        // Bounded in rows: entries are chunks of at most one batch
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getResultQueueCapacity() / properties.getResultBatchSize()));
+        metrics.monitorResultQueue(queue);
+        this.writerThread = new Thread(this::writeLoop, "comparison-result-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue differences of a run for persistence. Blocks while the queue is full.
+     */
+    public void publish(UUID comparisonRunUuid, Timestamp runTimestamp, String objectType, List<DatabaseObject> differences,
+                        String status, String sourceDb) {
+        if (differences.isEmpty()) {
+            return;
+        }
+        ResultPersistenceStatus runStatus = statuses.computeIfAbsent(comparisonRunUuid, ResultPersistenceStatus::new);
+        int batchSize = properties.getResultBatchSize();
+        for (int from = 0; from < differences.size(); from += batchSize) {
+            List<DatabaseObject> chunk = differences.subList(from, Math.min(from + batchSize, differences.size()));
+            runStatus.published(chunk.size());
+            synchronized (idleLock) {
+                unacknowledged++;
+            }
+            try {
+                queue.put(new PendingDifferences(comparisonRunUuid, runTimestamp, objectType, status, sourceDb, chunk));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acknowledged(1);
+                // Later chunks were never published, so only this one counts as failed
+                runStatus.failed(chunk.size(), "Interrupted while queueing differences");
+                throw new RuntimeException("Interrupted while queueing comparison results.", e);
+            }
+        }
+    }
+
+    /**
+     * Mark a run as having published all of its differences; its status turns FLUSHED once they are all written.
+     */
+    public void complete(UUID comparisonRunUuid) {
+        purgeExpiredStatuses();
+        statuses.computeIfAbsent(comparisonRunUuid, ResultPersistenceStatus::new).completePublishing();
+    }
+
+    public Optional<ResultPersistenceStatus> getStatus(UUID comparisonRunUuid) {
+        return Optional.ofNullable(statuses.get(comparisonRunUuid));
+    }
+
+    /**
+     * Wait until everything published so far has been written (or has failed).
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean drain(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (idleLock) {
+            while (unacknowledged > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(idleLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        long flushIntervalNanos = properties.getResultFlushInterval().toNanos();
+        int batchSize = properties.getResultBatchSize();
+        List<PendingDifferences> batch = new ArrayList<>();
+        while (running) {
+            try {
+                PendingDifferences first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long rows = first.getObjects().size();
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (rows < batchSize) {
+                    PendingDifferences next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    rows += next.getObjects().size();
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingDifferences> batch) {
+        long start = System.nanoTime();
+        int[] acknowledgedEntries = {0};
+        long[] rows = {0, 0}; // Persisted, failed
+        try {
+            resultWriter.write(batch, new ComparisonResultWriter.Acknowledgement() {
+                @Override
+                public void persisted(PendingDifferences differences) {
+                    acknowledgedEntries[0]++;
+                    rows[0] += differences.getObjects().size();
+                    getStatus(differences.getComparisonRunUuid())
+                            .ifPresent(status -> status.persisted(differences.getObjects().size()));
+                }
+
+                @Override
+                public void failed(PendingDifferences differences, String error) {
+                    acknowledgedEntries[0]++;
+                    rows[1] += differences.getObjects().size();
+                    getStatus(differences.getComparisonRunUuid())
+                            .ifPresent(status -> status.failed(differences.getObjects().size(), error));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Writing {} queued result entries failed: {}", batch.size(), e.getMessage(), e);
+            rows[1] += failUnacknowledged(batch.subList(acknowledgedEntries[0], batch.size()), e.getMessage());
+        } catch (Error e) {
+            // Keep the only writer thread alive, otherwise the queue fills up and every publish blocks forever
+            log.error("Writing {} queued result entries failed: {}", batch.size(), e.toString(), e);
+            rows[1] += failUnacknowledged(batch.subList(acknowledgedEntries[0], batch.size()), e.toString());
+        } finally {
+            metrics.recordResultBatch(System.nanoTime() - start, rows[0], rows[1]);
+            acknowledged(batch.size());
+        }
+    }
+
+    // Entries are acknowledged in batch order, so the rest never reached the store; returns the failed row count
+    private long failUnacknowledged(List<PendingDifferences> entries, String error) {
+        long rows = 0;
+        for (PendingDifferences differences : entries) {
+            rows += differences.getObjects().size();
+            getStatus(differences.getComparisonRunUuid())
+                    .ifPresent(status -> status.failed(differences.getObjects().size(), error));
+        }
+        return rows;
+    }
+
+    private void acknowledged(int entries) {
+        synchronized (idleLock) {
+            unacknowledged -= entries;
+            idleLock.notifyAll();
+        }
+    }
+
+    /**
+     * Forget finished runs once they are older than the job retention period.
+     */
+    void purgeExpiredStatuses() {
+        Instant cutoff = Instant.now().minus(properties.getJobRetention());
+        statuses.values().removeIf(status -> status.getFinishedAt() != null && status.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            if (!drain(SHUTDOWN_DRAIN_TIMEOUT)) {
+                log.warn("{} queued result entries were not written before shutdown", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+        writerThread.interrupt();
+    }
+}
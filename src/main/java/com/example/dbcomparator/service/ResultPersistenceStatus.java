@@ -0,0 +1,68 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Write-behind progress of one comparison run: rows handed to the persistence queue and rows acknowledged by the
+ * results store. A run is FLUSHED once it has published its last difference and every row has been written.
+ */
+@Getter
+public class ResultPersistenceStatus {
+
+    public enum State {
+        PENDING, FLUSHED, FAILED
+    }
+
+    private final UUID comparisonRunUuid;
+    // Written under the instance lock, read lock-free by the getters
+    private volatile long publishedRows;
+    private volatile long persistedRows;
+    private volatile long failedRows;
+    private volatile boolean publishingComplete;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    ResultPersistenceStatus(UUID comparisonRunUuid) {
+        this.comparisonRunUuid = comparisonRunUuid;
+    }
+
+    public synchronized State getState() {
+        if (failedRows > 0) {
+            return State.FAILED;
+        }
+        return finishedAt != null ? State.FLUSHED : State.PENDING;
+    }
+
+    public synchronized boolean isFinished() {
+        return publishingComplete && persistedRows + failedRows == publishedRows;
+    }
+
+    synchronized void published(long rows) {
+        publishedRows += rows;
+    }
+
+    synchronized void completePublishing() {
+        publishingComplete = true;
+        checkFinished();
+    }
+
+    synchronized void persisted(long rows) {
+        persistedRows += rows;
+        checkFinished();
+    }
+
+    synchronized void failed(long rows, String error) {
+        failedRows += rows;
+        this.error = error;
+        checkFinished();
+    }
+
+    private void checkFinished() {
+        if (finishedAt == null && isFinished()) {
+            finishedAt = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Body comparison of the procedures and functions present on both sides.
+ * Each side's sources are streamed in one query (ALL_SOURCE line by line, pg_proc.prosrc per routine) and every
+ * body is reduced to a hash of its normalized form while it streams by; no body is kept. Only routines whose hashes
+ * differ are read again in full to produce a line diff.
+ */
+@Service
+public class RoutineSourceComparisonService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutineSourceComparisonService.class);
+
+    static final String ORACLE_SOURCE_SQL =
+        "SELECT NAME, TYPE, TEXT FROM ALL_SOURCE " +
+        "WHERE OWNER = ? AND TYPE IN ('PROCEDURE', 'FUNCTION') " +
+        "ORDER BY NAME, TYPE, LINE";
+
+    static final String POSTGRES_SOURCE_SQL =
+        "SELECT p.proname AS name, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END AS type, p.prosrc AS text " +
+        "FROM pg_proc p " +
+        "JOIN pg_namespace n ON n.oid = p.pronamespace " +
+        "WHERE n.nspname = ? AND p.prokind IN ('f', 'p') " +
+        "ORDER BY p.proname, p.oid";
+
+    private static final String ORACLE_SOURCE_OF_SQL =
+        "SELECT NAME, TYPE, TEXT FROM ALL_SOURCE " +
+        "WHERE OWNER = ? AND TYPE IN ('PROCEDURE', 'FUNCTION') AND NAME IN (%s) " +
+        "ORDER BY NAME, TYPE, LINE";
+
+    private static final String POSTGRES_SOURCE_OF_SQL =
+        "SELECT p.proname AS name, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END AS type, p.prosrc AS text " +
+        "FROM pg_proc p " +
+        "JOIN pg_namespace n ON n.oid = p.pronamespace " +
+        "WHERE n.nspname = ? AND p.prokind IN ('f', 'p') AND p.proname = ANY(?) " +
+        "ORDER BY p.proname, p.oid";
+
+    // Oracle allows at most 1000 expressions in an IN list
+    private static final int IN_LIST_SIZE = 500;
+    // Larger bodies are reported as different without a line diff (the LCS table grows with the product)
+    private static final long MAX_DIFF_CELLS = 4_000_000;
+    private static final int MAX_DIFF_LINES = 200;
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final TransactionOperations supabaseReadOnlyTransactions;
+    private final ComparisonTaskExecutor taskExecutor;
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public RoutineSourceComparisonService(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                          @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                          @Qualifier("supabaseReadOnlyTransactions") TransactionOperations supabaseReadOnlyTransactions,
+                                          ComparisonTaskExecutor taskExecutor,
+                                          ComparisonProperties properties) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.supabaseReadOnlyTransactions = supabaseReadOnlyTransactions;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+    }
+
+    /**
+     * Compare the bodies of every procedure and function present in both schemas.
+     *
+     * @return Differences ordered by routine type and name
+     */
+    public List<RoutineSourceDifference> compareSources(String oracleSchema, String postgresSchema) {
+        CompletableFuture<Map<String, String>> oracleFetch = taskExecutor.submitOracle(() -> hashOracle(oracleSchema));
+        CompletableFuture<Map<String, List<String>>> postgresFetch = taskExecutor.submitPostgres(() -> hashPostgres(postgresSchema));
+        Map<String, String> oracleHashes = ComparisonTaskExecutor.await(oracleFetch);
+        Map<String, List<String>> postgresHashes = ComparisonTaskExecutor.await(postgresFetch);
+        log.info("Hashed {} Oracle and {} PostgreSQL routine bodies", oracleHashes.size(), postgresHashes.size());
+
+        // Keys present on both sides with no matching hash; any PostgreSQL overload may match
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> entry : oracleHashes.entrySet()) {
+            List<String> postgres = postgresHashes.get(entry.getKey());
+            if (postgres != null && !postgres.contains(entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        if (changed.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        CompletableFuture<Map<String, List<String>>> oracleSources = taskExecutor.submitOracle(() -> loadOracle(oracleSchema, changed));
+        CompletableFuture<Map<String, List<String>>> postgresSources = taskExecutor.submitPostgres(() -> loadPostgres(postgresSchema, changed));
+        Map<String, List<String>> oracleLines = ComparisonTaskExecutor.await(oracleSources);
+        Map<String, List<String>> postgresLines = ComparisonTaskExecutor.await(postgresSources);
+
+        List<RoutineSourceDifference> differences = new ArrayList<>(changed.size());
+        for (String key : changed) {
+            List<String> oracle = oracleLines.getOrDefault(key, Collections.emptyList());
+            List<String> postgres = postgresLines.getOrDefault(key, Collections.emptyList());
+            int separator = key.indexOf(' ');
+            differences.add(new RoutineSourceDifference(key.substring(separator + 1), key.substring(0, separator),
+                    oracle.size(), postgres.size(), lineDiff(oracle, postgres)));
+        }
+        log.info("Found {} routines with differing bodies", differences.size());
+        return differences;
+    }
+
+    private Map<String, String> hashOracle(String owner) {
+        Map<String, String> hashes = new TreeMap<>();
+        RoutineHasher hasher = new RoutineHasher(true, (key, hash) -> hashes.put(key, hash));
+        oracleJdbcTemplate.query(ORACLE_SOURCE_SQL, statement(owner), hasher);
+        hasher.finish();
+        return hashes;
+    }
+
+    private Map<String, List<String>> hashPostgres(String schema) {
+        Map<String, List<String>> hashes = new HashMap<>();
+        RoutineHasher hasher = new RoutineHasher(false, (key, hash) -> hashes.computeIfAbsent(key, k -> new ArrayList<>()).add(hash));
+        // Autocommit off, so pgjdbc streams the rows with the fetch size instead of reading them all at once
+        supabaseReadOnlyTransactions.executeWithoutResult(status ->
+                supabaseJdbcTemplate.query(POSTGRES_SOURCE_SQL, statement(schema), hasher));
+        hasher.finish();
+        return hashes;
+    }
+
+    private Map<String, List<String>> loadOracle(String owner, List<String> keys) {
+        Map<String, List<String>> sources = new LinkedHashMap<>();
+        List<String> names = keys.stream().map(key -> key.substring(key.indexOf(' ') + 1).toUpperCase(Locale.ROOT)).distinct().toList();
+        for (int from = 0; from < names.size(); from += IN_LIST_SIZE) {
+            List<String> chunk = names.subList(from, Math.min(from + IN_LIST_SIZE, names.size()));
+            String sql = String.format(ORACLE_SOURCE_OF_SQL, String.join(", ", Collections.nCopies(chunk.size(), "?")));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(owner);
+            args.addAll(chunk);
+            oracleJdbcTemplate.query(sql, (RowCallbackHandler) rs -> sources
+                    .computeIfAbsent(key(rs.getString(2), rs.getString(1)), k -> new ArrayList<>())
+                    .add(stripLineEnd(rs.getString(3))), args.toArray());
+        }
+        return sources;
+    }
+
+    private Map<String, List<String>> loadPostgres(String schema, List<String> keys) {
+        Map<String, List<String>> sources = new LinkedHashMap<>();
+        Object[] names = keys.stream().map(key -> key.substring(key.indexOf(' ') + 1)).distinct().toArray();
+        supabaseJdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(POSTGRES_SOURCE_OF_SQL);
+            ps.setString(1, schema);
+            ps.setArray(2, con.createArrayOf("text", names));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            String text = rs.getString(3);
+            List<String> lines = sources.computeIfAbsent(key(rs.getString(2), rs.getString(1)), k -> new ArrayList<>());
+            if (!lines.isEmpty()) {
+                lines.add("-- next overload");
+            }
+            lines.addAll(text != null ? List.of(text.split("\n", -1)) : List.of());
+        });
+        return sources;
+    }
+
+    /**
+     * Changed lines between both bodies, compared trimmed and case-insensitively with blank lines ignored.
+     * Oracle lines are prefixed with "-", PostgreSQL lines with "+".
+     */
+    static String lineDiff(List<String> oracle, List<String> postgres) {
+        List<String> a = significantLines(oracle);
+        List<String> b = significantLines(postgres);
+        if ((long) a.size() * b.size() > MAX_DIFF_CELLS) {
+            return "Bodies differ (" + a.size() + " / " + b.size() + " lines, too large for a line diff)";
+        }
+        // Longest common subsequence table, filled from the end so the walk below goes forward
+        int[][] lcs = new int[a.size() + 1][b.size() + 1];
+        for (int i = a.size() - 1; i >= 0; i--) {
+            for (int j = b.size() - 1; j >= 0; j--) {
+                lcs[i][j] = a.get(i).equalsIgnoreCase(b.get(j)) ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        StringBuilder diff = new StringBuilder();
+        int lines = 0;
+        int i = 0;
+        int j = 0;
+        while ((i < a.size() || j < b.size()) && lines < MAX_DIFF_LINES) {
+            if (i < a.size() && j < b.size() && a.get(i).equalsIgnoreCase(b.get(j))) {
+                i++;
+                j++;
+            } else if (j == b.size() || (i < a.size() && lcs[i + 1][j] >= lcs[i][j + 1])) {
+                diff.append("- ").append(a.get(i++)).append('\n');
+                lines++;
+            } else {
+                diff.append("+ ").append(b.get(j++)).append('\n');
+                lines++;
+            }
+        }
+        if (i < a.size() || j < b.size()) {
+            diff.append("...\n");
+        }
+        return diff.toString();
+    }
+
+    private static List<String> significantLines(List<String> lines) {
+        List<String> significant = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                significant.add(trimmed);
+            }
+        }
+        return significant;
+    }
+
+    // Routines match on type and case-insensitive name
+    static String key(String type, String name) {
+        return type + " " + name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripLineEnd(String line) {
+        return line != null && line.endsWith("\n") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private PreparedStatementSetter statement(String schema) {
+        int fetchSize = properties.getCatalogFetchSize();
+        return ps -> {
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, schema);
+        };
+    }
+
+    /**
+     * Streams source rows ordered by routine into one {@link SourceNormalizer} per routine.
+     */
+    static class RoutineHasher implements RowCallbackHandler {
+
+        interface Listener {
+            void hashed(String key, String hash);
+        }
+
+        private final boolean oracle;
+        private final Listener listener;
+        private String currentKey;
+        private SourceNormalizer normalizer;
+
+        RoutineHasher(boolean oracle, Listener listener) {
+            this.oracle = oracle;
+            this.listener = listener;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            accept(rs.getString(1), rs.getString(2), rs.getString(3));
+        }
+
+        void accept(String name, String type, String text) {
+            String key = key(type, name);
+            // ALL_SOURCE continues a routine over many rows; pg_proc has one row per routine (overloads repeat the key)
+            if (!oracle || !key.equals(currentKey)) {
+                finish();
+                currentKey = key;
+                normalizer = SourceNormalizer.hashing(oracle);
+            }
+            normalizer.append(text);
+        }
+
+        void finish() {
+            if (normalizer != null) {
+                listener.hashed(currentKey, normalizer.finish());
+                normalizer = null;
+            }
+        }
+    }
+}
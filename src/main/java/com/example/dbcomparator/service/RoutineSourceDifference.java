@@ -0,0 +1,17 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A procedure or function present on both sides whose normalized bodies differ.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RoutineSourceDifference {
+    private final String name;
+    private final String type;
+    private final int oracleLines;
+    private final int postgresLines;
+    private final String diff; // Changed lines, "-" for Oracle and "+" for PostgreSQL
+}
@@ -0,0 +1,67 @@
+package com.example.dbcomparator.service;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row checksums of one table on one side of a data comparison, addressed by integer primary key ranges.
+ * Ranges are half-open: from &lt;= key &lt; to.
+ */
+interface RowChecksumSource {
+
+    /**
+     * Smallest and largest key, or null if the table is empty.
+     */
+    KeyRange keyRange();
+
+    /**
+     * Checksums of all chunks of the range in one scan, by chunk number ((key - from) / width). Empty chunks are absent.
+     */
+    Map<Long, ChunkChecksum> chunkChecksums(long from, long to, long width);
+
+    ChunkChecksum rangeChecksum(long from, long to);
+
+    /**
+     * Key and row hash of every row in the range, in key order.
+     */
+    List<KeyHash> rowHashes(long from, long to);
+
+    /**
+     * Key and row hash of a block-level sample of about percent of the table, at most maxRows rows.
+     * A seed makes the sample repeatable; null picks a new sample each time.
+     */
+    List<KeyHash> sampleRowHashes(double percent, Long seed, int maxRows);
+
+    /**
+     * Key and row hash of the rows with the given keys (keys that don't exist are absent), in no particular order.
+     */
+    List<KeyHash> rowHashes(List<Long> keys);
+
+    @Value
+    class KeyRange {
+        long min;
+        long max;
+    }
+
+    @Value
+    class ChunkChecksum {
+        static final ChunkChecksum EMPTY = new ChunkChecksum(0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        long rowCount;
+        BigDecimal sumHi;
+        BigDecimal sumLo;
+
+        boolean matches(ChunkChecksum other) {
+            return rowCount == other.rowCount && sumHi.compareTo(other.sumHi) == 0 && sumLo.compareTo(other.sumLo) == 0;
+        }
+    }
+
+    @Value
+    class KeyHash {
+        long key;
+        String hash;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A primary key whose row differs between the two databases.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RowMismatch {
+
+    public enum Kind { ONLY_IN_ORACLE, ONLY_IN_POSTGRES, DIFFERENT }
+
+    private final long key;
+    private final Kind kind;
+}
@@ -0,0 +1,250 @@
+package com.example.dbcomparator.service;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single-pass normalizer of a routine body, fed line by line and hashed on the fly.
+ * Comments are dropped, case is folded outside string literals, double quotes around identifiers are removed and
+ * whitespace is kept only where it separates two words, so formatting changes do not change the hash.
+ * Dialect noise between PL/SQL and PL/pgSQL bodies is evened out where it is purely syntactic: the Oracle
+ * signature up to IS/AS (pg_proc.prosrc holds the body only), a leading DECLARE and the name after the final END.
+ * Only a bounded window of normalized text is held; everything before it has already gone into the digest.
+ */
+final class SourceNormalizer {
+
+    private static final int TAIL_WINDOW = 256;
+    private static final Pattern FINAL_END = Pattern.compile("\\bend( [a-z0-9_$#]+)?;?$");
+
+    private enum Mode { CODE, LINE_COMMENT, BLOCK_COMMENT, STRING }
+
+    private final Output output;
+    private Mode mode = Mode.CODE;
+    private char held; // '-' or '/' waiting for the next character to tell whether a comment starts
+    private char previous; // Previous character inside a block comment
+    private boolean pendingSpace;
+    private char lastEmitted;
+
+    // Oracle signature skipping
+    private boolean inHeader;
+    private final StringBuilder headerToken = new StringBuilder();
+    private int headerDepth;
+
+    private SourceNormalizer(Output output, boolean skipSignature) {
+        this.output = output;
+        this.inHeader = skipSignature;
+    }
+
+    /**
+     * Normalizer feeding a SHA-256 digest; {@link #finish()} returns the hex hash.
+     *
+     * @param skipSignature True for Oracle ALL_SOURCE text, which starts with the PROCEDURE/FUNCTION signature
+     */
+    static SourceNormalizer hashing(boolean skipSignature) {
+        return new SourceNormalizer(new Output(newDigest(), null), skipSignature);
+    }
+
+    /**
+     * The normalized form as text, for tests and diagnostics.
+     */
+    static String normalize(String source, boolean skipSignature) {
+        StringBuilder text = new StringBuilder();
+        SourceNormalizer normalizer = new SourceNormalizer(new Output(null, text), skipSignature);
+        normalizer.append(source);
+        normalizer.finish();
+        return text.toString();
+    }
+
+    void append(CharSequence text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    /**
+     * End of the routine: flush what is held back and return the hex digest (null for a text normalizer).
+     */
+    String finish() {
+        if (held != 0) {
+            char c = held;
+            held = 0;
+            code(c);
+        }
+        if (inHeader) {
+            endHeaderToken();
+        }
+        return output.finish();
+    }
+
+    private void accept(char c) {
+        switch (mode) {
+            case LINE_COMMENT:
+                if (c == '\n') {
+                    mode = Mode.CODE;
+                    pendingSpace = true;
+                }
+                return;
+            case BLOCK_COMMENT:
+                if (previous == '*' && c == '/') {
+                    mode = Mode.CODE;
+                    pendingSpace = true;
+                    previous = 0;
+                } else {
+                    previous = c;
+                }
+                return;
+            case STRING:
+                emit(c);
+                if (c == '\'') {
+                    mode = Mode.CODE; // A doubled quote re-enters the literal right away
+                }
+                return;
+            default:
+                break;
+        }
+        if (held != 0) {
+            char first = held;
+            held = 0;
+            if (first == '-' && c == '-') {
+                mode = Mode.LINE_COMMENT;
+                return;
+            }
+            if (first == '/' && c == '*') {
+                mode = Mode.BLOCK_COMMENT;
+                return;
+            }
+            code(first);
+        }
+        if (c == '-' || c == '/') {
+            held = c;
+        } else {
+            code(c);
+        }
+    }
+
+    private void code(char c) {
+        if (Character.isWhitespace(c)) {
+            pendingSpace = true;
+        } else if (c == '"') {
+            // Quoted and unquoted identifiers fold to the same name
+        } else if (c == '\'') {
+            emit(c);
+            mode = Mode.STRING;
+        } else {
+            emit(Character.toLowerCase(c));
+        }
+    }
+
+    private void emit(char c) {
+        if (inHeader) {
+            if (pendingSpace || !isWord(c)) {
+                endHeaderToken();
+            }
+            pendingSpace = false;
+            if (inHeader) {
+                if (isWord(c)) {
+                    headerToken.append(c);
+                } else if (c == '(') {
+                    headerDepth++;
+                } else if (c == ')') {
+                    headerDepth--;
+                }
+                return;
+            }
+        }
+        if (pendingSpace && mode == Mode.CODE && isWord(lastEmitted) && isWord(c)) {
+            output.append(' ');
+        }
+        pendingSpace = false;
+        output.append(c);
+        lastEmitted = c;
+    }
+
+    private void endHeaderToken() {
+        if (headerDepth == 0 && (contentEquals(headerToken, "is") || contentEquals(headerToken, "as"))) {
+            inHeader = false;
+        }
+        headerToken.setLength(0);
+    }
+
+    private static boolean contentEquals(StringBuilder token, String value) {
+        return token.length() == value.length() && token.indexOf(value) == 0;
+    }
+
+    private static boolean isWord(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Holds back the first few characters (to drop a leading DECLARE) and the last window (to even out the final
+     * END name;), passing everything in between to the digest or text.
+     */
+    private static final class Output {
+        private final MessageDigest digest;
+        private final StringBuilder text;
+        private final StringBuilder window = new StringBuilder(TAIL_WINDOW * 2);
+        private boolean headChecked;
+
+        Output(MessageDigest digest, StringBuilder text) {
+            this.digest = digest;
+            this.text = text;
+        }
+
+        void append(char c) {
+            window.append(c);
+            if (!headChecked && window.length() > 8) {
+                dropLeadingDeclare();
+            }
+            if (window.length() >= TAIL_WINDOW * 2) {
+                write(window.subSequence(0, TAIL_WINDOW));
+                window.delete(0, TAIL_WINDOW);
+            }
+        }
+
+        String finish() {
+            dropLeadingDeclare();
+            Matcher end = FINAL_END.matcher(window);
+            if (end.find()) {
+                window.replace(end.start(), window.length(), "end;");
+            }
+            write(window);
+            window.setLength(0);
+            return digest != null ? HexFormat.of().formatHex(digest.digest()) : null;
+        }
+
+        private void dropLeadingDeclare() {
+            if (headChecked) {
+                return;
+            }
+            headChecked = true;
+            if (window.length() >= 7 && window.indexOf("declare") == 0
+                    && (window.length() == 7 || !isWord(window.charAt(7)))) {
+                window.delete(0, window.length() > 7 && window.charAt(7) == ' ' ? 8 : 7);
+            }
+        }
+
+        private void write(CharSequence chars) {
+            if (digest != null) {
+                digest.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(chars)));
+            } else {
+                text.append(chars);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A generated Excel report kept in the {@link ReportStore}. The file never changes once stored.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StoredReport {
+    private final UUID comparisonRunUuid;
+    private final String catalogKey; // Hash of both schema names and catalog fingerprints, null if not fingerprinted
+    private final Path file;
+    private final long sizeBytes;
+    private final Instant createdAt;
+
+    /**
+     * Strong entity tag: the run id identifies the file content.
+     */
+    public String getETag() {
+        return "\"" + comparisonRunUuid + "\"";
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of the row-level comparison of one table.
+ */
+@Getter
+public class TableDataComparison {
+
+    public enum Status { MATCH, MISMATCH, SKIPPED, FAILED }
+
+    private final String oracleTable;
+    private final String postgresTable;
+    private Status status = Status.MATCH;
+    private String message;
+    private String keyColumn;
+    private int comparedColumns;
+    private long oracleRows;
+    private long postgresRows;
+    private int chunks;
+    private int mismatchedChunks;
+    private long mismatchCount;
+    private final List<RowMismatch> mismatches = new ArrayList<>(); // Capped, see mismatchCount for the total
+    private MismatchEstimate estimate; // Only set in sample mode
+    private final int maxReportedMismatches;
+
+    TableDataComparison(String oracleTable, String postgresTable, int maxReportedMismatches) {
+        this.oracleTable = oracleTable;
+        this.postgresTable = postgresTable;
+        this.maxReportedMismatches = maxReportedMismatches;
+    }
+
+    public List<RowMismatch> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+    void skip(String reason) {
+        this.status = Status.SKIPPED;
+        this.message = reason;
+    }
+
+    void fail(String reason) {
+        this.status = Status.FAILED;
+        this.message = reason;
+    }
+
+    void describe(String keyColumn, int comparedColumns, String message) {
+        this.keyColumn = keyColumn;
+        this.comparedColumns = comparedColumns;
+        this.message = message;
+    }
+
+    void countRows(long oracleRows, long postgresRows, int chunks) {
+        this.oracleRows = oracleRows;
+        this.postgresRows = postgresRows;
+        this.chunks = chunks;
+    }
+
+    void estimate(MismatchEstimate estimate) {
+        this.estimate = estimate;
+    }
+
+    void chunkMismatched() {
+        mismatchedChunks++;
+        status = Status.MISMATCH;
+    }
+
+    void addMismatch(RowMismatch mismatch) {
+        mismatchCount++;
+        status = Status.MISMATCH;
+        if (mismatches.size() < maxReportedMismatches) {
+            mismatches.add(mismatch);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.dbcomparator.service;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Row count and size of one table on both sides. Estimates come from optimizer statistics;
+ * exact counts are only filled in for tables flagged for COUNT(*). Null means unknown or absent on that side.
+ */
+@Getter
+@Setter
+public class TableVolume {
+    private final String tableName;
+    private String oracleTableName;
+    private String postgresTableName;
+    private Long oracleEstimatedRows;
+    private Long postgresEstimatedRows;
+    private Long oracleBytes;
+    private Long postgresBytes;
+    private String oracleLastAnalyzed;
+    private String postgresLastAnalyzed;
+    private Long oracleExactRows;
+    private Long postgresExactRows;
+
+    public TableVolume(String tableName) {
+        this.tableName = tableName;
+    }
+}
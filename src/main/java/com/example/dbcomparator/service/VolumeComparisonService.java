@@ -0,0 +1,189 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Row counts and sizes per table for the "Volume Comparison" sheet.
+ * The fast path reads optimizer statistics with one dictionary query per side; exact COUNT(*) runs only for
+ * the tables listed in comparison.volume-exact-count-tables, in parallel on the per-datasource fetch pools.
+ */
+@Service
+public class VolumeComparisonService {
+
+    private static final Logger log = LoggerFactory.getLogger(VolumeComparisonService.class);
+
+    // Table, index and LOB segments, so the size is comparable to pg_total_relation_size
+    static final String ORACLE_VOLUME_SQL =
+        "SELECT t.TABLE_NAME, t.NUM_ROWS, TO_CHAR(t.LAST_ANALYZED, 'YYYY-MM-DD HH24:MI:SS') AS LAST_ANALYZED, seg.BYTES " +
+        "FROM ALL_TABLES t " +
+        "LEFT JOIN (" +
+        "  SELECT TABLE_NAME, SUM(BYTES) AS BYTES FROM (" +
+        "    SELECT s.SEGMENT_NAME AS TABLE_NAME, s.BYTES FROM DBA_SEGMENTS s " +
+        "    WHERE s.OWNER = ? AND s.SEGMENT_TYPE LIKE 'TABLE%' " +
+        "    UNION ALL " +
+        "    SELECT i.TABLE_NAME, s.BYTES FROM DBA_INDEXES i " +
+        "    JOIN DBA_SEGMENTS s ON s.OWNER = i.OWNER AND s.SEGMENT_NAME = i.INDEX_NAME " +
+        "    WHERE i.OWNER = ? " +
+        "    UNION ALL " +
+        "    SELECT l.TABLE_NAME, s.BYTES FROM DBA_LOBS l " +
+        "    JOIN DBA_SEGMENTS s ON s.OWNER = l.OWNER AND s.SEGMENT_NAME = l.SEGMENT_NAME " +
+        "    WHERE l.OWNER = ?" +
+        "  ) GROUP BY TABLE_NAME" +
+        ") seg ON seg.TABLE_NAME = t.TABLE_NAME " +
+        "WHERE t.OWNER = ?";
+
+    // Without SELECT on the DBA_ views only the statistics are available
+    static final String ORACLE_STATS_ONLY_SQL =
+        "SELECT TABLE_NAME, NUM_ROWS, TO_CHAR(LAST_ANALYZED, 'YYYY-MM-DD HH24:MI:SS') AS LAST_ANALYZED, NULL AS BYTES " +
+        "FROM ALL_TABLES " +
+        "WHERE OWNER = ?";
+
+    static final String POSTGRES_VOLUME_SQL =
+        "SELECT c.relname, c.reltuples::bigint AS reltuples, pg_total_relation_size(c.oid) AS total_bytes, " +
+        "to_char(GREATEST(s.last_analyze, s.last_autoanalyze), 'YYYY-MM-DD HH24:MI:SS') AS last_analyzed " +
+        "FROM pg_class c " +
+        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "LEFT JOIN pg_stat_all_tables s ON s.relid = c.oid " +
+        "WHERE n.nspname = ? AND c.relkind IN ('r', 'p')";
+
+    private final JdbcTemplate oracleJdbcTemplate;
+    private final JdbcTemplate supabaseJdbcTemplate;
+    private final ComparisonTaskExecutor taskExecutor;
+    private final ComparisonProperties properties;
+
+    @Autowired
+    public VolumeComparisonService(@Qualifier("oracleJdbcTemplate") JdbcTemplate oracleJdbcTemplate,
+                                   @Qualifier("supabaseJdbcTemplate") JdbcTemplate supabaseJdbcTemplate,
+                                   ComparisonTaskExecutor taskExecutor,
+                                   ComparisonProperties properties) {
+        this.oracleJdbcTemplate = oracleJdbcTemplate;
+        this.supabaseJdbcTemplate = supabaseJdbcTemplate;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+    }
+
+    /**
+     * Volumes of all tables of both schemas, matched by case-insensitive name and sorted by it.
+     *
+     * @param oracleSchema   The Oracle schema name
+     * @param postgresSchema The PostgreSQL schema name
+     * @return One entry per table found on either side
+     */
+    public List<TableVolume> compareVolumes(String oracleSchema, String postgresSchema) {
+        Map<String, TableVolume> volumes = new TreeMap<>();
+
+        // 1. One statistics query per side, both at once
+        CompletableFuture<Void> oracleStats = taskExecutor.submitOracle(() -> {
+            readOracleStatistics(oracleSchema, volumes);
+            return null;
+        });
+        CompletableFuture<Void> postgresStats = taskExecutor.submitPostgres(() -> {
+            readPostgresStatistics(postgresSchema, volumes);
+            return null;
+        });
+        ComparisonTaskExecutor.await(oracleStats);
+        ComparisonTaskExecutor.await(postgresStats);
+
+        // 2. Exact counts for flagged tables; the fetch pool sizes cap the parallelism per datasource
+        Set<String> flagged = new HashSet<>();
+        properties.getVolumeExactCountTables().forEach(table -> flagged.add(table.toLowerCase(Locale.ROOT)));
+        if (!flagged.isEmpty()) {
+            List<CompletableFuture<Void>> counts = new ArrayList<>();
+            for (TableVolume volume : volumes.values()) {
+                if (!flagged.contains("*") && !flagged.contains(volume.getTableName())) {
+                    continue;
+                }
+                if (volume.getOracleTableName() != null) {
+                    counts.add(taskExecutor.submitOracle(() -> {
+                        volume.setOracleExactRows(exactCount(oracleJdbcTemplate, DataChecksumDialect.ORACLE, oracleSchema, volume.getOracleTableName()));
+                        return null;
+                    }));
+                }
+                if (volume.getPostgresTableName() != null) {
+                    counts.add(taskExecutor.submitPostgres(() -> {
+                        volume.setPostgresExactRows(exactCount(supabaseJdbcTemplate, DataChecksumDialect.POSTGRES, postgresSchema, volume.getPostgresTableName()));
+                        return null;
+                    }));
+                }
+            }
+            counts.forEach(ComparisonTaskExecutor::await);
+            log.info("Ran {} exact row counts", counts.size());
+        }
+
+        return new ArrayList<>(volumes.values());
+    }
+
+    private void readOracleStatistics(String owner, Map<String, TableVolume> volumes) {
+        List<Object[]> rows;
+        try {
+            rows = oracleJdbcTemplate.query(ORACLE_VOLUME_SQL, (rs, rowNum) -> readRow(rs, "TABLE_NAME", "NUM_ROWS", "BYTES", "LAST_ANALYZED"),
+                    owner, owner, owner, owner);
+        } catch (DataAccessException e) {
+            log.warn("Oracle segment sizes unavailable (no access to DBA_SEGMENTS?), using statistics only: {}", e.getMessage());
+            rows = oracleJdbcTemplate.query(ORACLE_STATS_ONLY_SQL, (rs, rowNum) -> readRow(rs, "TABLE_NAME", "NUM_ROWS", "BYTES", "LAST_ANALYZED"),
+                    owner);
+        }
+        synchronized (volumes) {
+            for (Object[] row : rows) {
+                TableVolume volume = volumes.computeIfAbsent(((String) row[0]).toLowerCase(Locale.ROOT), TableVolume::new);
+                volume.setOracleTableName((String) row[0]);
+                volume.setOracleEstimatedRows((Long) row[1]);
+                volume.setOracleBytes((Long) row[2]);
+                volume.setOracleLastAnalyzed((String) row[3]);
+            }
+        }
+    }
+
+    private void readPostgresStatistics(String schemaName, Map<String, TableVolume> volumes) {
+        List<Object[]> rows = supabaseJdbcTemplate.query(POSTGRES_VOLUME_SQL,
+                (rs, rowNum) -> readRow(rs, "relname", "reltuples", "total_bytes", "last_analyzed"), schemaName);
+        synchronized (volumes) {
+            for (Object[] row : rows) {
+                TableVolume volume = volumes.computeIfAbsent(((String) row[0]).toLowerCase(Locale.ROOT), TableVolume::new);
+                volume.setPostgresTableName((String) row[0]);
+                // reltuples is -1 (0 before PostgreSQL 14) until the table is first analyzed
+                Long estimate = (Long) row[1];
+                volume.setPostgresEstimatedRows(estimate != null && estimate >= 0 ? estimate : null);
+                volume.setPostgresBytes((Long) row[2]);
+                volume.setPostgresLastAnalyzed((String) row[3]);
+            }
+        }
+    }
+
+    private static Object[] readRow(ResultSet rs, String nameColumn, String rowsColumn, String bytesColumn, String analyzedColumn)
+            throws SQLException {
+        return new Object[]{rs.getString(nameColumn), getLong(rs, rowsColumn), getLong(rs, bytesColumn), rs.getString(analyzedColumn)};
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private Long exactCount(JdbcTemplate jdbcTemplate, DataChecksumDialect dialect, String schema, String table) {
+        try {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + dialect.qualifiedTable(schema, table), Long.class);
+        } catch (DataAccessException e) {
+            log.error("COUNT(*) on {}.{} failed: {}", schema, table, e.getMessage());
+            return null;
+        }
+    }
+}
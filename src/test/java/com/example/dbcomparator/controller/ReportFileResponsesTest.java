@@ -0,0 +1,137 @@
+package com.example.dbcomparator.controller;
+
+import com.example.dbcomparator.service.StoredReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportFileResponsesTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path directory;
+
+    private StoredReport report;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = directory.resolve("report.xlsx");
+        Files.writeString(file, CONTENT, StandardCharsets.UTF_8);
+        report = new StoredReport(UUID.randomUUID(), null, file, CONTENT.length(), Instant.now());
+    }
+
+    private ResponseEntity<StreamingResponseBody> serve(HttpHeaders request) throws IOException {
+        return ReportFileResponses.serve(report, "report.xlsx", request);
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Without conditions or ranges the whole file is sent with its ETag")
+    void serve_WholeFile() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = serve(new HttpHeaders());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(report.getETag(), response.getHeaders().getETag());
+        assertEquals(CONTENT.length(), response.getHeaders().getContentLength());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(CONTENT, body(response));
+    }
+
+    @Test
+    @DisplayName("A matching If-None-Match is answered with 304 and no body")
+    void serve_NotModified() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.setIfNoneMatch("W/" + report.getETag());
+
+        ResponseEntity<StreamingResponseBody> response = serve(request);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(report.getETag(), response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("A single range is answered with 206 and its Content-Range")
+    void serve_SingleRange() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=5-9");
+        request.set(HttpHeaders.IF_RANGE, report.getETag());
+
+        ResponseEntity<StreamingResponseBody> response = serve(request);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 5-9/20", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(5, response.getHeaders().getContentLength());
+        assertEquals("56789", body(response));
+    }
+
+    @Test
+    @DisplayName("A range starting past the end is answered with 416")
+    void serve_UnsatisfiableRange() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=20-30");
+
+        ResponseEntity<StreamingResponseBody> response = serve(request);
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+        assertEquals("bytes */20", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("A stale If-Range gets the whole file instead of the range")
+    void serve_StaleIfRange() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=5-9");
+        request.set(HttpHeaders.IF_RANGE, "\"" + UUID.randomUUID() + "\"");
+
+        ResponseEntity<StreamingResponseBody> response = serve(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(CONTENT, body(response));
+    }
+
+    @Test
+    @DisplayName("Multiple ranges are answered with the whole file")
+    void serve_MultipleRanges() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=0-1,5-6");
+
+        ResponseEntity<StreamingResponseBody> response = serve(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(CONTENT.length(), response.getHeaders().getContentLength());
+        assertEquals(CONTENT, body(response));
+    }
+
+    @Test
+    @DisplayName("An evicted report is reported to the caller before any response is built")
+    void serve_EvictedReport() throws IOException {
+        Files.delete(report.getFile());
+
+        assertThrows(NoSuchFileException.class, () -> serve(new HttpHeaders()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.dbcomparator.repository.oracle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OracleDictionaryViewsTest {
+
+    private static final String DBA_PROBE = "SELECT COUNT(*) FROM DBA_OBJECTS WHERE ROWNUM = 1";
+
+    private JdbcTemplate oracleJdbcTemplate(boolean dbaViews) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+        when(jdbcTemplate.queryForObject(eq("SELECT USER FROM DUAL"), eq(String.class))).thenReturn("APP");
+        if (dbaViews) {
+            when(jdbcTemplate.queryForObject(eq(DBA_PROBE), eq(Integer.class))).thenReturn(1);
+        } else {
+            when(jdbcTemplate.queryForObject(eq(DBA_PROBE), eq(Integer.class)))
+                    .thenThrow(new DataAccessResourceFailureException("ORA-00942: table or view does not exist"));
+        }
+        return jdbcTemplate;
+    }
+
+    @Test
+    @DisplayName("Own schema reads USER_ views, other schemas DBA_ when readable; the probe runs once")
+    void viewFor_WithDbaAccess() {
+        JdbcTemplate jdbcTemplate = oracleJdbcTemplate(true);
+        OracleDictionaryViews views = new OracleDictionaryViews(jdbcTemplate);
+
+        assertEquals(OracleDictionaryViews.View.USER, views.viewFor("APP"));
+        assertEquals(OracleDictionaryViews.View.DBA, views.viewFor("HR"));
+        verify(jdbcTemplate, times(1)).queryForObject(eq("SELECT USER FROM DUAL"), eq(String.class));
+    }
+
+    @Test
+    @DisplayName("Without DBA_ access other schemas fall back to ALL_ views")
+    void viewFor_WithoutDbaAccess() {
+        OracleDictionaryViews views = new OracleDictionaryViews(oracleJdbcTemplate(false));
+
+        assertEquals(OracleDictionaryViews.View.ALL, views.viewFor("HR"));
+    }
+
+    @Test
+    @DisplayName("USER_ views have no OWNER column, so the template uses the USER function instead")
+    void render() {
+        OracleDictionaryViews views = new OracleDictionaryViews(oracleJdbcTemplate(false));
+        String template = "SELECT {owner} as owner FROM {dict}_OBJECTS WHERE {owner} = :owner";
+
+        assertEquals("SELECT USER as owner FROM USER_OBJECTS WHERE USER = :owner", views.render(template, "APP"));
+        assertEquals("SELECT OWNER as owner FROM ALL_OBJECTS WHERE OWNER = :owner", views.render(template, "HR"));
+    }
+}
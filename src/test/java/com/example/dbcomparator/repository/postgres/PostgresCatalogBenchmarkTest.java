@@ -0,0 +1,92 @@
+package com.example.dbcomparator.repository.postgres;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Times the former information_schema catalog queries against the pg_catalog ones on a live database.
+ * Best run on a schema with 50k+ objects:
+ * -Dcatalog.benchmark.postgres-schema=big_schema (optionally -Dcatalog.benchmark.iterations=10).
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "catalog.benchmark.postgres-schema", matches = ".+")
+class PostgresCatalogBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresCatalogBenchmarkTest.class);
+
+    // The queries replaced by PostgresCatalogSql.PROCEDURES and CONSTRAINTS
+    private static final String INFORMATION_SCHEMA_PROCEDURES =
+        "SELECT r.routine_name as name FROM information_schema.routines r " +
+        "WHERE r.routine_schema = :schemaName AND r.routine_type = 'PROCEDURE' ORDER BY r.routine_name";
+
+    private static final String INFORMATION_SCHEMA_CONSTRAINTS =
+        "SELECT tc.constraint_name as name, tc.constraint_type as type FROM information_schema.table_constraints tc " +
+        "WHERE tc.constraint_schema = :schemaName ORDER BY tc.constraint_name";
+
+    @Autowired
+    @Qualifier("supabaseJdbcTemplate")
+    private JdbcTemplate supabaseJdbcTemplate;
+
+    @Test
+    @DisplayName("pg_catalog queries list the same procedures and constraints; logs timings for both")
+    void compareCatalogQueries() {
+        String schema = System.getProperty("catalog.benchmark.postgres-schema");
+        int iterations = Integer.getInteger("catalog.benchmark.iterations", 5);
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(supabaseJdbcTemplate);
+        MapSqlParameterSource parameters = new MapSqlParameterSource("schemaName", schema);
+
+        assertEquals(names(jdbc.queryForList(INFORMATION_SCHEMA_PROCEDURES, parameters)),
+                names(jdbc.queryForList(PostgresCatalogSql.PROCEDURES, parameters)));
+        // information_schema also lists NOT NULL columns as CHECK constraints named <oid>_<attnum>_not_null
+        List<Map<String, Object>> informationSchemaConstraints = new ArrayList<>(jdbc.queryForList(INFORMATION_SCHEMA_CONSTRAINTS, parameters));
+        informationSchemaConstraints.removeIf(row -> ((String) row.get("name")).endsWith("_not_null"));
+        assertEquals(names(informationSchemaConstraints), names(jdbc.queryForList(PostgresCatalogSql.CONSTRAINTS, parameters)));
+
+        time("information_schema procedures", iterations, () -> jdbc.queryForList(INFORMATION_SCHEMA_PROCEDURES, parameters));
+        time("pg_proc procedures            ", iterations, () -> jdbc.queryForList(PostgresCatalogSql.PROCEDURES, parameters));
+        time("information_schema constraints", iterations, () -> jdbc.queryForList(INFORMATION_SCHEMA_CONSTRAINTS, parameters));
+        time("pg_constraint constraints     ", iterations, () -> jdbc.queryForList(PostgresCatalogSql.CONSTRAINTS, parameters));
+        time("four per-kind queries         ", iterations, () -> {
+            List<Map<String, Object>> rows = new ArrayList<>(jdbc.queryForList(PostgresCatalogSql.RELATIONS, parameters));
+            rows.addAll(jdbc.queryForList(PostgresCatalogSql.FUNCTIONS, parameters));
+            rows.addAll(jdbc.queryForList(INFORMATION_SCHEMA_PROCEDURES, parameters));
+            rows.addAll(jdbc.queryForList(INFORMATION_SCHEMA_CONSTRAINTS, parameters));
+            return rows;
+        });
+        time("single catalog round trip     ", iterations, () -> jdbc.queryForList(PostgresCatalogSql.CATALOG, parameters));
+    }
+
+    private static TreeSet<String> names(List<Map<String, Object>> rows) {
+        TreeSet<String> names = new TreeSet<>();
+        rows.forEach(row -> names.add((String) row.get("name")));
+        return names;
+    }
+
+    private static void time(String label, int iterations, Supplier<List<Map<String, Object>>> read) {
+        read.get(); // Warm up statement caches and the pool
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            rows = read.get().size();
+        }
+        long averageMillis = (System.nanoTime() - start) / iterations / 1_000_000;
+        log.info("{}: {} rows, {} ms per read", label, rows, averageMillis);
+    }
+}
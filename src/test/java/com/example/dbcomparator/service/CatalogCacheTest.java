@@ -0,0 +1,111 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+
+    private ComparisonProperties properties;
+    private MutableClock clock;
+    private CatalogCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ComparisonProperties();
+        properties.setCacheMaxEntries(2);
+        properties.setCacheTtl(Duration.ofMinutes(10));
+        clock = new MutableClock();
+        cache = new CatalogCache(properties, clock);
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<List<DatabaseObject>> loader(String name) {
+        return () -> {
+            loads.incrementAndGet();
+            DatabaseObject obj = new DatabaseObject();
+            obj.setName(name);
+            obj.setType("TABLE");
+            obj.setSchema("TEST_ORA");
+            return List.of(obj);
+        };
+    }
+
+    @Test
+    @DisplayName("Should serve an unchanged schema from memory")
+    void get_HitsWhileFingerprintMatches() {
+        cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "TABLE", "10:20240101", loader("TABLE_A"));
+        List<? extends DatabaseObject> cached = cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "TABLE", "10:20240101", loader("TABLE_B"));
+
+        assertEquals(1, loads.get());
+        assertEquals("TABLE_A", cached.get(0).getName());
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Should reload when the fingerprint changes or the entry expires")
+    void get_ReloadsOnNewFingerprintOrExpiry() {
+        cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "TABLE", "10:20240101", loader("TABLE_A"));
+        List<? extends DatabaseObject> changed = cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "TABLE", "11:20240102", loader("TABLE_B"));
+        assertEquals("TABLE_B", changed.get(0).getName());
+        assertEquals(1, cache.stats().getInvalidations());
+
+        clock.advance(Duration.ofMinutes(11));
+        cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "TABLE", "11:20240102", loader("TABLE_C"));
+        assertEquals(1, cache.stats().getExpirations());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full, and bypass the cache without a fingerprint")
+    void get_EvictsLeastRecentlyUsed() {
+        cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "TABLE", "fp", loader("A"));
+        cache.get(CatalogCache.Side.POSTGRES, "test_pg", "TABLE", "fp", loader("B"));
+        cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "TABLE", "fp", loader("A")); // Touch, so POSTGRES is the eldest
+        cache.get(CatalogCache.Side.ORACLE, "TEST_ORA", "VIEW", "fp", loader("C"));
+
+        assertEquals(2, cache.stats().getSize());
+        assertEquals(1, cache.stats().getEvictions());
+
+        cache.get(CatalogCache.Side.POSTGRES, "test_pg", "TABLE", null, loader("B"));
+        cache.get(CatalogCache.Side.POSTGRES, "test_pg", "TABLE", null, loader("B"));
+        assertEquals(5, loads.get());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
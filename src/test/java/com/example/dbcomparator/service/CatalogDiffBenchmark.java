@@ -0,0 +1,47 @@
+package com.example.dbcomparator.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name/type diff of two catalogs (DatabaseComparisonService.compareObjectLists), 1k to 1M objects per side.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="CatalogDiffBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class CatalogDiffBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int objects;
+
+    @Param({"0.95", "0.5"})
+    private double overlap;
+
+    private SyntheticCatalog catalog;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        catalog = SyntheticCatalog.generate(objects, overlap, 42);
+    }
+
+    @Benchmark
+    public ComparisonResult compareObjectLists() {
+        return DatabaseComparisonService.compareObjectLists(catalog.oracle(), catalog.postgres());
+    }
+}
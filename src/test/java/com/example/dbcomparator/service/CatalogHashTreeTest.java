@@ -0,0 +1,92 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import com.example.dbcomparator.model.oracle.OracleObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogHashTreeTest {
+
+    @TempDir
+    Path stateDir;
+
+    private OracleObject oracleObject(String name, String type, String lastDdlTime) {
+        OracleObject obj = new OracleObject();
+        obj.setId("TEST_ORA." + type + "." + name);
+        obj.setName(name);
+        obj.setType(type);
+        obj.setSchema("TEST_ORA");
+        obj.setOwner("TEST_ORA");
+        obj.setStatus("VALID");
+        obj.setLastDdlTime(lastDdlTime);
+        return obj;
+    }
+
+    @Test
+    @DisplayName("Branch hash should not depend on object order but change with object definitions")
+    void branchHash_OrderIndependent() {
+        OracleObject a = oracleObject("TABLE_A", "TABLE", "2024-01-01 10:00:00");
+        OracleObject b = oracleObject("TABLE_B", "TABLE", "2024-01-02 10:00:00");
+
+        CatalogHashTree.Branch forward = new CatalogHashTree.Branch("TABLE", "2:x", List.of(a, b));
+        CatalogHashTree.Branch reversed = new CatalogHashTree.Branch("TABLE", "2:x", List.of(b, a));
+        CatalogHashTree.Branch altered = new CatalogHashTree.Branch("TABLE", "2:x",
+                List.of(a, oracleObject("TABLE_B", "TABLE", "2024-03-01 10:00:00")));
+
+        assertEquals(forward.getHash(), reversed.getHash());
+        assertNotEquals(forward.getHash(), altered.getHash());
+        assertEquals("2024-01-02 10:00:00", forward.maxLastDdlTime());
+    }
+
+    @Test
+    @DisplayName("Snapshot should hand out the branch lists themselves")
+    void toSnapshot_KeepsBranchInstances() {
+        CatalogHashTree.Branch tables = new CatalogHashTree.Branch("TABLE", "1:x", List.of(oracleObject("TABLE_A", "TABLE", null)));
+        CatalogHashTree.Branch views = new CatalogHashTree.Branch("VIEW", "1:y", List.of(oracleObject("VIEW_A", "VIEW", null)));
+
+        CatalogHashTree tree = new CatalogHashTree(CatalogCache.Side.ORACLE, Map.of("TABLE", tables, "VIEW", views));
+
+        assertSame(tables.getObjects(), tree.toSnapshot().ofType("TABLE"));
+        assertEquals(2, tree.toSnapshot().size());
+    }
+
+    @Test
+    @DisplayName("Snapshot should build a multi-type list once and hand out the same instance afterwards")
+    void toSnapshot_KeepsMultiTypeInstances() {
+        CatalogHashTree.Branch tables = new CatalogHashTree.Branch("TABLE", "1:x", List.of(oracleObject("TABLE_A", "TABLE", null)));
+        CatalogHashTree.Branch views = new CatalogHashTree.Branch("VIEW", "1:y", List.of(oracleObject("VIEW_A", "VIEW", null)));
+        CatalogHashTree tree = new CatalogHashTree(CatalogCache.Side.ORACLE, Map.of("TABLE", tables, "VIEW", views));
+
+        List<DatabaseObject> relations = tree.toSnapshot().ofTypes(List.of("TABLE", "VIEW"));
+
+        assertSame(relations, tree.toSnapshot().ofTypes(List.of("TABLE", "VIEW")));
+        assertEquals(List.of("TABLE_A", "VIEW_A"), relations.stream().map(DatabaseObject::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should persist and reload a tree with identical hashes")
+    void writeTo_RoundTrip() throws Exception {
+        CatalogHashTree.Branch tables = new CatalogHashTree.Branch("TABLE", "2:2024-01-02 10:00:00", List.of(
+                oracleObject("TABLE_A", "TABLE", "2024-01-01 10:00:00"),
+                oracleObject("TABLE_B", "TABLE", "2024-01-02 10:00:00")));
+        CatalogHashTree tree = new CatalogHashTree(CatalogCache.Side.ORACLE, Map.of("TABLE", tables));
+        Path file = stateDir.resolve("oracle-TEST_ORA.tree");
+
+        tree.writeTo(file);
+        CatalogHashTree loaded = CatalogHashTree.readFrom(file);
+
+        assertEquals(tree.getRootHash(), loaded.getRootHash());
+        assertEquals("2:2024-01-02 10:00:00", loaded.getBranches().get("TABLE").getServerDigest());
+        List<? extends DatabaseObject> objects = loaded.toSnapshot().all();
+        assertEquals(2, objects.size());
+        assertTrue(objects.get(0) instanceof OracleObject);
+        assertEquals("TEST_ORA.TABLE.TABLE_A", ((OracleObject) objects.get(0)).getId());
+    }
+}
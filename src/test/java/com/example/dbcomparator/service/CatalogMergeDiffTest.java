@@ -0,0 +1,73 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogMergeDiffTest {
+
+    private DatabaseObject object(String name, String type) {
+        DatabaseObject obj = new DatabaseObject();
+        obj.setName(name);
+        obj.setType(type);
+        return obj;
+    }
+
+    private List<String> diff(List<DatabaseObject> oracle, List<DatabaseObject> postgres) {
+        List<String> events = new ArrayList<>();
+        CatalogMergeDiff.diff(oracle.iterator(), postgres.iterator(), new CatalogMergeDiff.Listener() {
+            @Override
+            public void onlyInOracle(DatabaseObject oracleObject) {
+                events.add("oracle:" + oracleObject.getName());
+            }
+
+            @Override
+            public void onlyInPostgres(DatabaseObject postgresObject) {
+                events.add("postgres:" + postgresObject.getName());
+            }
+
+            @Override
+            public void matched(DatabaseObject oracleObject, DatabaseObject postgresObject) {
+                events.add("match:" + oracleObject.getName());
+            }
+        });
+        return events;
+    }
+
+    @Test
+    @DisplayName("Objects are matched on case-insensitive name and type, in key order")
+    void diff_MatchesOnNameAndType() {
+        List<DatabaseObject> oracle = List.of(object("ACCOUNTS", "TABLE"), object("ORDERS", "TABLE"), object("ORDERS_V", "VIEW"));
+        List<DatabaseObject> postgres = List.of(object("customers", "TABLE"), object("orders", "TABLE"), object("orders_v", "TABLE"));
+
+        assertEquals(List.of("oracle:ACCOUNTS", "postgres:customers", "match:ORDERS", "postgres:orders_v", "oracle:ORDERS_V"),
+                diff(oracle, postgres), "Same name with another type is a difference on both sides");
+    }
+
+    @Test
+    @DisplayName("A key repeated on one side matches the other side's single entry")
+    void diff_DuplicateKeys() {
+        List<DatabaseObject> oracle = List.of(object("SALES", "TABLE PARTITION"), object("SALES", "TABLE PARTITION"));
+        List<DatabaseObject> postgres = List.of(object("sales", "TABLE PARTITION"));
+
+        assertEquals(List.of("match:SALES", "match:SALES"), diff(oracle, postgres));
+    }
+
+    @Test
+    @DisplayName("Unsorted input is rejected; sorted() only copies lists that are out of order")
+    void diff_RequiresSortedInput() {
+        List<DatabaseObject> unsorted = List.of(object("B", "TABLE"), object("a", "TABLE"));
+
+        assertThrows(IllegalArgumentException.class, () -> diff(unsorted, List.of()));
+
+        List<DatabaseObject> sorted = CatalogMergeDiff.sorted(unsorted);
+        assertEquals(List.of("a", "B"), sorted.stream().map(DatabaseObject::getName).toList());
+        assertSame(sorted, CatalogMergeDiff.sorted(sorted));
+        assertEquals(List.of("oracle:a", "oracle:B"), diff(sorted, List.of()));
+    }
+}
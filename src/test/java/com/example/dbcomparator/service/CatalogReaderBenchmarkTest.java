@@ -0,0 +1,93 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import com.example.dbcomparator.repository.oracle.OracleDictionaryViews;
+import com.example.dbcomparator.repository.oracle.OracleMetadataRepository;
+import com.example.dbcomparator.repository.postgres.PostgresMetadataRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Times the JPA repositories against the JDBC catalog reader on live databases.
+ * Run with -Dcatalog.benchmark.oracle-schema=HR -Dcatalog.benchmark.postgres-schema=hr
+ * (optionally -Dcatalog.benchmark.iterations=10).
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "catalog.benchmark.oracle-schema", matches = ".+")
+class CatalogReaderBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogReaderBenchmarkTest.class);
+
+    @Autowired
+    private OracleMetadataRepository oracleRepository;
+
+    @Autowired
+    private PostgresMetadataRepository postgresRepository;
+
+    @Autowired
+    @Qualifier("oracleJdbcTemplate")
+    private JdbcTemplate oracleJdbcTemplate;
+
+    @Autowired
+    @Qualifier("supabaseJdbcTemplate")
+    private JdbcTemplate supabaseJdbcTemplate;
+
+    @Autowired
+    @Qualifier("supabaseReadOnlyTransactions")
+    private TransactionOperations supabaseReadOnlyTransactions;
+
+    @Autowired
+    private OracleDictionaryViews dictionaryViews;
+
+    @Autowired
+    private ComparisonProperties properties;
+
+    @Test
+    @DisplayName("JDBC reader returns the same catalog as the repositories; logs timings for both")
+    void compareReaders() {
+        String oracleSchema = System.getProperty("catalog.benchmark.oracle-schema");
+        String postgresSchema = System.getProperty("catalog.benchmark.postgres-schema", oracleSchema.toLowerCase());
+        int iterations = Integer.getInteger("catalog.benchmark.iterations", 5);
+
+        CatalogReader jpa = new RepositoryCatalogReader(oracleRepository, postgresRepository);
+        CatalogReader jdbc = new JdbcCatalogReader(oracleJdbcTemplate, supabaseJdbcTemplate, supabaseReadOnlyTransactions,
+                dictionaryViews, properties);
+
+        assertEquals(keys(jpa.findCatalogSnapshotByOwner(oracleSchema)), keys(jdbc.findCatalogSnapshotByOwner(oracleSchema)));
+        assertEquals(keys(jpa.findAllObjectsBySchema(postgresSchema)), keys(jdbc.findAllObjectsBySchema(postgresSchema)));
+
+        time("Oracle snapshot, JPA ", iterations, () -> jpa.findCatalogSnapshotByOwner(oracleSchema));
+        time("Oracle snapshot, JDBC", iterations, () -> jdbc.findCatalogSnapshotByOwner(oracleSchema));
+        time("PostgreSQL objects, JPA ", iterations, () -> jpa.findAllObjectsBySchema(postgresSchema));
+        time("PostgreSQL objects, JDBC", iterations, () -> jdbc.findAllObjectsBySchema(postgresSchema));
+    }
+
+    private static List<String> keys(List<? extends DatabaseObject> objects) {
+        return objects.stream().map(obj -> obj.getType() + " " + obj.getName()).toList();
+    }
+
+    private static void time(String label, int iterations, Supplier<List<? extends DatabaseObject>> read) {
+        read.get(); // Warm up statement caches and the pool
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            rows = read.get().size();
+        }
+        long averageMillis = (System.nanoTime() - start) / iterations / 1_000_000;
+        log.info("{}: {} rows, {} ms per read", label, rows, averageMillis);
+    }
+}
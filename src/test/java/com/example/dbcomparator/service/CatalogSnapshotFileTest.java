@@ -0,0 +1,111 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import com.example.dbcomparator.model.postgres.PostgresObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static PostgresObject object(String name, String type) {
+        PostgresObject obj = new PostgresObject();
+        obj.setName(name);
+        obj.setType(type);
+        obj.setSchema("app");
+        return obj;
+    }
+
+    @Test
+    @DisplayName("Sections round-trip in fetch order, with objects shared between sections stored once")
+    void writeAndOpen_RoundTrip() throws IOException {
+        PostgresObject orders = object("orders", "TABLE");
+        PostgresObject customers = object("Kundenübersicht_€", "VIEW");
+        PostgresObject sequence = object("orders_seq", "SEQUENCE");
+        Map<String, List<? extends DatabaseObject>> sections = new LinkedHashMap<>();
+        sections.put("ALL_OBJECTS", List.of(sequence, orders, customers));
+        sections.put("TABLE", List.of(orders));
+        sections.put("VIEW", List.of(customers));
+        sections.put("INDEX", List.of());
+        Instant capturedAt = Instant.parse("2024-05-01T10:15:30Z");
+        Path file = tempDir.resolve("pg.dbcs");
+
+        CatalogSnapshotFile.write(file, CatalogCache.Side.POSTGRES, "app", capturedAt, sections);
+        CatalogSnapshotFile snapshot = CatalogSnapshotFile.open(file);
+
+        assertEquals(CatalogCache.Side.POSTGRES, snapshot.getSide());
+        assertEquals("app", snapshot.getSchema());
+        assertEquals(capturedAt, snapshot.getCapturedAt());
+        assertEquals(3, snapshot.getObjectCount());
+        assertEquals(List.of("ALL_OBJECTS", "TABLE", "VIEW", "INDEX"), List.copyOf(snapshot.getSectionKeys()));
+
+        List<DatabaseObject> all = snapshot.section("ALL_OBJECTS");
+        assertEquals(List.of("orders_seq", "orders", "Kundenübersicht_€"), all.stream().map(DatabaseObject::getName).toList());
+        assertEquals(List.of("SEQUENCE", "TABLE", "VIEW"), all.stream().map(DatabaseObject::getType).toList());
+        assertEquals("app", all.get(0).getSchema());
+        // The same record backs both sections
+        assertSame(all.get(1), snapshot.section("TABLE").get(0));
+        assertTrue(snapshot.section("INDEX").isEmpty());
+        assertTrue(snapshot.section("CONSTRAINT").isEmpty(), "Unknown sections are empty");
+    }
+
+    @Test
+    @DisplayName("Null schemas are stored as empty strings instead of failing the export")
+    void write_NullSchema() throws IOException {
+        PostgresObject orders = object("orders", "TABLE");
+        orders.setSchema(null);
+        Path file = tempDir.resolve("pg.dbcs");
+
+        CatalogSnapshotFile.write(file, CatalogCache.Side.POSTGRES, "app", Instant.now(), Map.of("TABLE", List.of(orders)));
+
+        DatabaseObject stored = CatalogSnapshotFile.open(file).section("TABLE").get(0);
+        assertEquals("orders", stored.getName());
+        assertEquals("", stored.getSchema());
+    }
+
+    @Test
+    @DisplayName("Files that are not catalog snapshots are rejected")
+    void open_RejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("report.dbcs");
+        Files.write(file, "PK\u0003\u0004 not a catalog snapshot, just some bytes to fill the header....".getBytes(StandardCharsets.UTF_8));
+
+        IOException exception = assertThrows(IOException.class, () -> CatalogSnapshotFile.open(file));
+        assertTrue(exception.getMessage().startsWith("Not a catalog snapshot"));
+    }
+
+    @Test
+    @DisplayName("Truncated files and headers with an unknown side are rejected with an IOException")
+    void open_RejectsCorruptFile() throws IOException {
+        Map<String, List<? extends DatabaseObject>> sections = new LinkedHashMap<>();
+        sections.put("ALL_OBJECTS", List.of(object("orders", "TABLE"), object("customers", "VIEW")));
+        Path file = tempDir.resolve("pg.dbcs");
+        CatalogSnapshotFile.write(file, CatalogCache.Side.POSTGRES, "app", Instant.now(), sections);
+        byte[] content = Files.readAllBytes(file);
+
+        Path truncated = tempDir.resolve("truncated.dbcs");
+        Files.write(truncated, Arrays.copyOf(content, content.length - 6));
+        IOException exception = assertThrows(IOException.class, () -> CatalogSnapshotFile.open(truncated));
+        assertTrue(exception.getMessage().startsWith("Corrupt catalog snapshot"));
+
+        Path unknownSide = tempDir.resolve("side.dbcs");
+        content[6] = 9;
+        Files.write(unknownSide, content);
+        exception = assertThrows(IOException.class, () -> CatalogSnapshotFile.open(unknownSide));
+        assertTrue(exception.getMessage().startsWith("Corrupt catalog snapshot"));
+    }
+}
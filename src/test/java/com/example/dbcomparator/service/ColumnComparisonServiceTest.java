@@ -0,0 +1,109 @@
+package com.example.dbcomparator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ColumnComparisonServiceTest {
+
+    private ColumnDefinition oracle(String table, String column, String type, Integer length, Integer precision, Integer scale,
+                                    boolean nullable, String defaultValue) {
+        return new ColumnDefinition(table, column, type, type, length, precision, scale, nullable, defaultValue);
+    }
+
+    private ColumnDefinition postgres(String table, String column, String type, Integer length, Integer precision, Integer scale,
+                                      boolean nullable, String defaultValue) {
+        return new ColumnDefinition(table, column, type, type, length, precision, scale, nullable, defaultValue);
+    }
+
+    @Test
+    @DisplayName("Usual migration mappings are not reported")
+    void diff_EquivalentColumns() {
+        List<ColumnDefinition> oracleColumns = List.of(
+                oracle("ORDERS", "ID", "NUMBER", null, 10, 0, false, null),
+                oracle("ORDERS", "STATUS", "VARCHAR2", 20, null, null, true, "'NEW' "),
+                oracle("ORDERS", "CREATED", "DATE", null, null, null, false, "SYSDATE"),
+                oracle("ORDERS", "AMOUNT", "NUMBER", null, 12, 2, true, null),
+                oracle("ORDERS", "NOTES", "CLOB", null, null, null, true, null));
+        List<ColumnDefinition> postgresColumns = List.of(
+                postgres("orders", "id", "int4", null, null, null, false, null),
+                postgres("orders", "status", "varchar", 20, null, null, true, "'NEW'::character varying"),
+                postgres("orders", "created", "timestamp", null, null, null, false, "now()"),
+                postgres("orders", "amount", "numeric", null, 12, 2, true, null),
+                postgres("orders", "notes", "text", null, null, null, true, null));
+
+        assertTrue(ColumnComparisonService.diff(oracleColumns, postgresColumns).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Missing columns, length, nullability and default differences are reported per column")
+    void diff_ReportsDifferences() {
+        List<ColumnDefinition> oracleColumns = List.of(
+                oracle("ORDERS", "ID", "NUMBER", null, 10, 0, false, null),
+                oracle("ORDERS", "CODE", "VARCHAR2", 50, null, null, false, null),
+                oracle("ORDERS", "QTY", "NUMBER", null, 5, 0, true, "0"),
+                oracle("ORDERS", "LEGACY_FLAG", "CHAR", 1, null, null, true, null),
+                oracle("ONLY_ORACLE", "ID", "NUMBER", null, 10, 0, false, null));
+        List<ColumnDefinition> postgresColumns = List.of(
+                postgres("orders", "id", "varchar", 10, null, null, false, null),
+                postgres("orders", "code", "varchar", 40, null, null, true, null),
+                postgres("orders", "qty", "int4", null, null, null, true, "1"),
+                postgres("orders", "extra", "text", null, null, null, true, null));
+
+        List<ColumnDifference> differences = ColumnComparisonService.diff(oracleColumns, postgresColumns);
+
+        assertEquals(List.of("CODE:LENGTH", "CODE:NULLABILITY", "extra:ONLY_IN_POSTGRES", "ID:TYPE",
+                        "LEGACY_FLAG:ONLY_IN_ORACLE", "QTY:DEFAULT"),
+                differences.stream().map(d -> d.getColumnName() + ":" + d.getKind()).toList(),
+                "Tables missing on one side are left to the table comparison");
+    }
+
+    @Test
+    @DisplayName("Defaults are compared after removing casts, parentheses and dialect spellings")
+    void normalizeDefault() {
+        assertEquals("current_timestamp", ColumnTypeEquivalence.normalizeDefault("SYSTIMESTAMP"));
+        assertEquals("current_timestamp", ColumnTypeEquivalence.normalizeDefault("CURRENT_TIMESTAMP"));
+        assertEquals("0", ColumnTypeEquivalence.normalizeDefault("(0)::numeric"));
+        assertEquals("<sequence>", ColumnTypeEquivalence.normalizeDefault("\"TEST_ORA\".\"ISEQ$$_1234\".nextval"));
+        assertEquals("<sequence>", ColumnTypeEquivalence.normalizeDefault("nextval('orders_id_seq'::regclass)"));
+        assertNull(ColumnTypeEquivalence.normalizeDefault("NULL "));
+        assertEquals("(a) + (b)", ColumnTypeEquivalence.normalizeDefault("(a) + (b)"));
+    }
+
+    @Test
+    @DisplayName("Dictionaries without DATA_DEFAULT_VC (before 12.2) are read through DATA_DEFAULT")
+    @SuppressWarnings("unchecked")
+    void compareColumns_FallsBackToDataDefault() {
+        JdbcTemplate oracleJdbcTemplate = mock(JdbcTemplate.class);
+        JdbcTemplate supabaseJdbcTemplate = mock(JdbcTemplate.class);
+        when(oracleJdbcTemplate.query(eq(ColumnComparisonService.ORACLE_COLUMNS_SQL), any(RowMapper.class), eq("TEST_ORA")))
+                .thenThrow(new BadSqlGrammarException("columns", ColumnComparisonService.ORACLE_COLUMNS_SQL,
+                        new SQLException("ORA-00904: \"DATA_DEFAULT_VC\": invalid identifier", "42000", 904)));
+        when(oracleJdbcTemplate.query(eq(ColumnComparisonService.ORACLE_LEGACY_COLUMNS_SQL), any(RowMapper.class), eq("TEST_ORA")))
+                .thenReturn(List.of(oracle("ORDERS", "ID", "NUMBER", null, 10, 0, false, null)));
+        when(supabaseJdbcTemplate.query(eq(ColumnComparisonService.POSTGRES_COLUMNS_SQL), any(RowMapper.class), eq("test_pg")))
+                .thenReturn(List.of(postgres("orders", "id", "int4", null, null, null, false, null)));
+        ComparisonTaskExecutor taskExecutor = new ComparisonTaskExecutor(1, 1);
+        try {
+            ColumnComparisonService service = new ColumnComparisonService(oracleJdbcTemplate, supabaseJdbcTemplate, taskExecutor);
+
+            assertTrue(service.compareColumns("TEST_ORA", "test_pg").isEmpty());
+            assertTrue(service.compareColumns("TEST_ORA", "test_pg").isEmpty());
+
+            // The failing query is only tried once
+            verify(oracleJdbcTemplate, times(1)).query(eq(ColumnComparisonService.ORACLE_COLUMNS_SQL), any(RowMapper.class), eq("TEST_ORA"));
+            assertFalse(ColumnComparisonService.ORACLE_LEGACY_COLUMNS_SQL.contains("DATA_DEFAULT_VC"));
+        } finally {
+            taskExecutor.shutdown();
+        }
+    }
+}
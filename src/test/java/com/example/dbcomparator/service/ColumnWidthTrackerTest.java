@@ -0,0 +1,21 @@
+package com.example.dbcomparator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnWidthTrackerTest {
+
+    @Test
+    @DisplayName("Should size multi-line values to their longest line")
+    void track_MultiLineValue() {
+        ColumnWidthTracker tracker = new ColumnWidthTracker(2);
+
+        tracker.track(0, "CREATE TABLE t (\r\n  id NUMBER(10) NOT NULL\n)");
+        tracker.track(1, "表名\nab");
+
+        assertEquals("  id NUMBER(10) NOT NULL".length(), tracker.maxChars(0));
+        assertEquals(4, tracker.maxChars(1), "Wide characters count twice");
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComparisonJobServiceTest {
+
+    @Mock
+    private DatabaseComparisonService comparisonService;
+
+    private ComparisonProperties properties;
+    private ComparisonJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ComparisonProperties();
+        properties.setJobWorkerThreads(1);
+        properties.setJobQueueCapacity(1);
+        ComparisonRequestCoalescer coalescer = new ComparisonRequestCoalescer(comparisonService, properties,
+                new ComparisonMetrics(new SimpleMeterRegistry()));
+        jobService = new ComparisonJobService(comparisonService, coalescer, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    private ComparisonRun emptyRun(UUID id) {
+        return new ComparisonRun(id, null, "TEST_ORA", "test_pg", Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    private void awaitFinished(ComparisonJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "Job did not finish in time");
+    }
+
+    @Test
+    @DisplayName("Should run the job under its own run id and keep the report for download")
+    void submit_RunsJobAndStoresReport() throws Exception {
+        when(comparisonService.runComparison(any(UUID.class), eq("TEST_ORA"), eq("test_pg")))
+                .thenAnswer(invocation -> emptyRun(invocation.getArgument(0)));
+
+        ComparisonJob job = jobService.submit("TEST_ORA", "test_pg");
+        awaitFinished(job);
+
+        assertEquals(ComparisonJob.Status.SUCCEEDED, job.getStatus());
+        assertTrue(Files.exists(job.getReportFile()));
+        assertSame(job, jobService.getJob(job.getComparisonRunUuid()).orElseThrow());
+        assertNull(job.getJoinedRunUuid(), "The job ran its own comparison");
+        verify(comparisonService).runComparison(eq(job.getComparisonRunUuid()), eq("TEST_ORA"), eq("test_pg"));
+        verify(comparisonService).writeComparisonReport(any(ComparisonRun.class), any());
+    }
+
+    @Test
+    @DisplayName("Should record the failure message when the comparison fails")
+    void submit_RecordsFailure() throws Exception {
+        when(comparisonService.runComparison(any(UUID.class), anyString(), anyString()))
+                .thenThrow(new RuntimeException("Failed to connect to Oracle database."));
+
+        ComparisonJob job = jobService.submit("TEST_ORA", "test_pg");
+        awaitFinished(job);
+
+        assertEquals(ComparisonJob.Status.FAILED, job.getStatus());
+        assertEquals("Failed to connect to Oracle database.", job.getError());
+        assertNull(job.getReportFile());
+    }
+
+    @Test
+    @DisplayName("Should finish the job as failed when the comparison throws an Error")
+    void submit_RecordsErrorAsFailure() throws Exception {
+        when(comparisonService.runComparison(any(UUID.class), anyString(), anyString()))
+                .thenThrow(new OutOfMemoryError("Java heap space"));
+
+        ComparisonJob job = jobService.submit("TEST_ORA", "test_pg");
+        awaitFinished(job);
+
+        assertEquals(ComparisonJob.Status.FAILED, job.getStatus());
+        assertEquals("java.lang.OutOfMemoryError: Java heap space", job.getError());
+    }
+
+    @Test
+    @DisplayName("Should reject submissions once the worker and the queue are full")
+    void submit_RejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(comparisonService.runComparison(any(UUID.class), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return emptyRun(invocation.getArgument(0));
+                });
+
+        ComparisonJob running = jobService.submit("TEST_ORA", "test_pg");
+        ComparisonJob queued = jobService.submit("TEST_ORA", "test_pg");
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit("TEST_ORA", "test_pg"));
+
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+        assertEquals(ComparisonJob.Status.SUCCEEDED, queued.getStatus());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComparisonReportWriterTest {
+
+    private DatabaseObject createObject(String name, String type, String schema) {
+        DatabaseObject obj = new DatabaseObject();
+        obj.setName(name);
+        obj.setType(type);
+        obj.setSchema(schema);
+        return obj;
+    }
+
+    @Test
+    @DisplayName("Should stream all rows past the row window and size columns from the written values")
+    void write_StreamsRowsAndSizesColumns() throws IOException {
+        // --- Arrange ---
+        ComparisonProperties properties = new ComparisonProperties();
+        properties.setReportRowAccessWindow(10); // Force most rows to be flushed to temp files
+
+        List<DatabaseObject> onlyInOracle = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            onlyInOracle.add(createObject("TABLE_" + i, "TABLE", "TEST_ORA"));
+        }
+        String longName = "A_VERY_LONG_TABLE_NAME_THAT_SHOULD_DRIVE_THE_COLUMN_WIDTH";
+        List<DatabaseObject> onlyInPostgres = List.of(createObject(longName, "TABLE", "test_pg"));
+
+        Map<String, ComparisonTask> tasks = new LinkedHashMap<>();
+        tasks.put("TABLE", new ComparisonTask("Table Comparison", schema -> Collections.emptyList(), schema -> Collections.emptyList()));
+        Map<String, ComparisonResult> results = Map.of("TABLE", new ComparisonResult(onlyInOracle, onlyInPostgres));
+        ComparisonRun run = new ComparisonRun(UUID.randomUUID(), Timestamp.from(Instant.now()), "TEST_ORA", "test_pg", tasks, results);
+
+        // --- Act ---
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ComparisonReportWriter(properties).write(run, outputStream);
+
+        // --- Assert ---
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Table Comparison");
+            assertNotNull(sheet);
+            assertEquals(251, sheet.getLastRowNum(), "Header plus 251 difference rows expected");
+            assertEquals("TABLE_0", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(longName, sheet.getRow(251).getCell(0).getStringCellValue());
+            assertEquals("Only in PostgreSQL", sheet.getRow(251).getCell(3).getStringCellValue());
+
+            // Name column is sized for the longest name, the Type column only for "TABLE"
+            assertTrue(sheet.getColumnWidth(0) >= longName.length() * 256);
+            assertTrue(sheet.getColumnWidth(1) < sheet.getColumnWidth(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should add a volume sheet with estimated and exact row differences")
+    void write_AddsVolumeSheet() throws IOException {
+        TableVolume orders = new TableVolume("orders");
+        orders.setOracleTableName("ORDERS");
+        orders.setPostgresTableName("orders");
+        orders.setOracleEstimatedRows(1_000L);
+        orders.setPostgresEstimatedRows(990L);
+        orders.setOracleExactRows(1_002L);
+        orders.setPostgresExactRows(1_002L);
+        TableVolume legacy = new TableVolume("legacy");
+        legacy.setOracleTableName("LEGACY");
+        legacy.setOracleEstimatedRows(5L);
+        ComparisonRun run = new ComparisonRun(UUID.randomUUID(), Timestamp.from(Instant.now()), "TEST_ORA", "test_pg",
+                Collections.emptyMap(), Collections.emptyMap(), List.of(legacy, orders), Collections.emptyList());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ComparisonReportWriter(new ComparisonProperties()).write(run, outputStream);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Volume Comparison");
+            assertNotNull(sheet);
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("", sheet.getRow(1).getCell(1).getStringCellValue(), "LEGACY has no PostgreSQL table");
+            assertNull(sheet.getRow(1).getCell(4), "No difference without both estimates");
+            assertEquals(-10, sheet.getRow(2).getCell(4).getNumericCellValue());
+            assertEquals(0, sheet.getRow(2).getCell(9).getNumericCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("A failed comparison stage gets its sheet with the error instead of rows")
+    void write_FailedStageSheet() throws IOException {
+        ComparisonRun run = new ComparisonRun(UUID.randomUUID(), Timestamp.from(Instant.now()), "TEST_ORA", "test_pg",
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+                Map.of(ComparisonReportWriter.COLUMN_SHEET, "ORA-00904: \"DATA_DEFAULT_VC\": invalid identifier"));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ComparisonReportWriter(new ComparisonProperties()).write(run, outputStream);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet(ComparisonReportWriter.COLUMN_SHEET);
+            assertNotNull(sheet);
+            assertEquals("Not compared", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertTrue(sheet.getRow(1).getCell(0).getStringCellValue().startsWith("ORA-00904"));
+        }
+    }
+}
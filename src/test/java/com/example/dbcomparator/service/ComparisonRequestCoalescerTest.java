@@ -0,0 +1,114 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComparisonRequestCoalescerTest {
+
+    @Mock
+    private DatabaseComparisonService comparisonService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ComparisonRequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        ComparisonProperties properties = new ComparisonProperties();
+        properties.setMaxConcurrentComparisons(1);
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new ComparisonRequestCoalescer(comparisonService, properties, new ComparisonMetrics(meterRegistry));
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry.counter("comparison.requests", "outcome", outcome).count();
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for the same pair share one run; other pairs are rejected while no slot is free")
+    void runComparison_CoalescesAndRejects() throws Exception {
+        ComparisonRun run = new ComparisonRun(UUID.randomUUID(), null, "TEST_ORA", "test_pg",
+                Collections.emptyMap(), Collections.emptyMap());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(comparisonService.runComparison("TEST_ORA", "test_pg")).thenAnswer(invocation -> {
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return run;
+        });
+
+        CompletableFuture<ComparisonRun> leader = CompletableFuture.supplyAsync(() -> coalescer.runComparison("TEST_ORA", "test_pg"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ComparisonRun> follower = CompletableFuture.supplyAsync(() -> coalescer.runComparison("TEST_ORA", "test_pg"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests("coalesced") < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> coalescer.runComparison("OTHER_ORA", "other_pg"));
+        release.countDown();
+
+        assertSame(run, leader.get(5, TimeUnit.SECONDS));
+        assertSame(run, follower.get(5, TimeUnit.SECONDS));
+        verify(comparisonService, times(1)).runComparison("TEST_ORA", "test_pg");
+        assertEquals(1, requests("started"));
+        assertEquals(1, requests("coalesced"));
+        assertEquals(1, requests("rejected"));
+    }
+
+    @Test
+    @DisplayName("A failed comparison frees its slot and the next request runs again")
+    void runComparison_FailureReleasesSlot() {
+        when(comparisonService.runComparison("TEST_ORA", "test_pg"))
+                .thenThrow(new RuntimeException("Failed to connect to Oracle database."))
+                .thenReturn(new ComparisonRun(UUID.randomUUID(), null, "TEST_ORA", "test_pg",
+                        Collections.emptyMap(), Collections.emptyMap()));
+
+        assertThrows(RuntimeException.class, () -> coalescer.runComparison("TEST_ORA", "test_pg"));
+        assertNotNull(coalescer.runComparison("TEST_ORA", "test_pg"));
+        verify(comparisonService, times(2)).runComparison("TEST_ORA", "test_pg");
+    }
+
+    @Test
+    @DisplayName("A job waits for a free slot instead of being rejected")
+    void runComparison_JobWaitsForSlot() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(comparisonService.runComparison("TEST_ORA", "test_pg")).thenAnswer(invocation -> {
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return new ComparisonRun(UUID.randomUUID(), null, "TEST_ORA", "test_pg", Collections.emptyMap(), Collections.emptyMap());
+        });
+        UUID jobRunUuid = UUID.randomUUID();
+        ComparisonRun jobRun = new ComparisonRun(jobRunUuid, null, "OTHER_ORA", "other_pg", Collections.emptyMap(), Collections.emptyMap());
+        when(comparisonService.runComparison(jobRunUuid, "OTHER_ORA", "other_pg")).thenReturn(jobRun);
+
+        CompletableFuture<ComparisonRun> request = CompletableFuture.supplyAsync(() -> coalescer.runComparison("TEST_ORA", "test_pg"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ComparisonRun> job = CompletableFuture.supplyAsync(() -> coalescer.runComparison(jobRunUuid, "OTHER_ORA", "other_pg"));
+        Thread.sleep(100);
+        assertFalse(job.isDone(), "The job must wait while the only slot is taken");
+
+        release.countDown();
+        assertNotNull(request.get(5, TimeUnit.SECONDS));
+        assertSame(jobRun, job.get(5, TimeUnit.SECONDS));
+        assertEquals(0, requests("rejected"));
+        assertEquals(2, requests("started"));
+    }
+}
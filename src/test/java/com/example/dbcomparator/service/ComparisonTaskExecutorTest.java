@@ -0,0 +1,74 @@
+package com.example.dbcomparator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComparisonTaskExecutorTest {
+
+    private ComparisonTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ComparisonTaskExecutor(2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should never run more fetches per datasource than its concurrency limit")
+    void submit_RespectsPerDatasourceLimit() {
+        AtomicInteger oracleRunning = new AtomicInteger();
+        AtomicInteger oraclePeak = new AtomicInteger();
+        AtomicInteger postgresRunning = new AtomicInteger();
+        AtomicInteger postgresPeak = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> fetches = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            int value = i;
+            fetches.add(executor.submitOracle(() -> track(oracleRunning, oraclePeak, value)));
+            fetches.add(executor.submitPostgres(() -> track(postgresRunning, postgresPeak, value)));
+        }
+
+        int sum = fetches.stream().mapToInt(ComparisonTaskExecutor::await).sum();
+
+        assertEquals(2 * (11 * 12 / 2), sum);
+        assertTrue(oraclePeak.get() <= 2, "Oracle concurrency limit exceeded: " + oraclePeak.get());
+        assertTrue(postgresPeak.get() <= 3, "PostgreSQL concurrency limit exceeded: " + postgresPeak.get());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the original fetch exception")
+    void await_RethrowsOriginalException() {
+        CompletableFuture<Object> failing = executor.submitOracle(() -> {
+            throw new IllegalStateException("Simulated dictionary failure");
+        });
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> ComparisonTaskExecutor.await(failing));
+        assertEquals("Simulated dictionary failure", exception.getMessage());
+    }
+
+    private static int track(AtomicInteger running, AtomicInteger peak, int value) {
+        int now = running.incrementAndGet();
+        peak.accumulateAndGet(now, Math::max);
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+        return value;
+    }
+}
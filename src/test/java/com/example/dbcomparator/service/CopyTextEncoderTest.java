@@ -0,0 +1,44 @@
+package com.example.dbcomparator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyTextEncoderTest {
+
+    @Test
+    @DisplayName("Columns are tab-separated with COPY text escapes and \\N for null")
+    void column_EscapesAndNull() throws SQLException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CopyTextEncoder encoder = new CopyTextEncoder((buffer, offset, length) -> out.write(buffer, offset, length), 1024);
+
+        encoder.column("a\tb").column("c\\d\ne\r").column(null);
+        encoder.endRow();
+        encoder.flush();
+
+        assertEquals("a\\tb\tc\\\\d\\ne\\r\t\\N\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Multi-byte characters and pre-encoded columns survive buffer flushes")
+    void column_FlushesAcrossSmallBuffer() throws SQLException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CopyTextEncoder encoder = new CopyTextEncoder((buffer, offset, length) -> out.write(buffer, offset, length), 16);
+        byte[] prefix = CopyTextEncoder.encode("run-0001-0002-0003", "TABLE");
+        String name = "Bestellpositionen_äöü_€_😀";
+
+        for (int i = 0; i < 3; i++) {
+            encoder.columns(prefix).column(name);
+            encoder.endRow();
+        }
+        encoder.flush();
+
+        String row = "run-0001-0002-0003\tTABLE\t" + name + "\n";
+        assertEquals(row + row + row, out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.dbcomparator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataChecksumDialectTest {
+
+    @Test
+    @DisplayName("Only NUMBER columns with scale 0 are integer keys")
+    void isIntegerKey_RequiresScaleZero() {
+        assertTrue(DataChecksumDialect.isIntegerKey("NUMBER", 0));
+        assertTrue(DataChecksumDialect.isIntegerKey("INTEGER", 0));
+        assertFalse(DataChecksumDialect.isIntegerKey("NUMBER", 2));
+        // Unconstrained NUMBER
+        assertFalse(DataChecksumDialect.isIntegerKey("NUMBER", null));
+        assertFalse(DataChecksumDialect.isIntegerKey("VARCHAR2", 0));
+    }
+
+    @Test
+    @DisplayName("A wide table is hashed per column and per group, so no hashed string exceeds the VARCHAR2 limit")
+    void rowHash_WideTableStaysWithinVarcharLimit() {
+        List<String> columns = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            columns.add("C" + i);
+            types.add("VARCHAR2");
+        }
+        columns.add("DOC");
+        types.add("CLOB");
+        List<String> encoded = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if (DataChecksumDialect.isComparable(types.get(i))) {
+                encoded.add(DataChecksumDialect.ORACLE.encodeColumn(columns.get(i), types.get(i)));
+            }
+        }
+
+        String rowHash = DataChecksumDialect.ORACLE.rowHash(encoded);
+
+        assertFalse(DataChecksumDialect.isComparable("CLOB"));
+        assertFalse(DataChecksumDialect.isComparable("BLOB"));
+        assertFalse(rowHash.contains("\"DOC\""));
+        // Each column is hashed on its own: its text is at most one 4000-byte value
+        assertEquals(1000, count(rowHash, "STANDARD_HASH(NVL(TO_CHAR("));
+        // 10 group hashes of 100 column hashes each, plus the row hash over the groups
+        assertEquals(1000 + 10 + 1, count(rowHash, "STANDARD_HASH("));
+        assertTrue(DataChecksumDialect.HASH_GROUP_SIZE * 32 < 4000);
+    }
+
+    @Test
+    @DisplayName("Both dialects build the same hash tree over the same columns")
+    void rowHash_SameShapeOnBothSides() {
+        List<String> oracle = List.of(DataChecksumDialect.ORACLE.encodeColumn("ID", "NUMBER"),
+                DataChecksumDialect.ORACLE.encodeColumn("NAME", "VARCHAR2"));
+        // Two column hashes, one group hash, one row hash
+        List<String> postgres = List.of(DataChecksumDialect.POSTGRES.encodeColumn("id", "NUMBER"),
+                DataChecksumDialect.POSTGRES.encodeColumn("name", "VARCHAR2"));
+
+        assertEquals(4, count(DataChecksumDialect.ORACLE.rowHash(oracle), "STANDARD_HASH("));
+        assertEquals(4, count(DataChecksumDialect.POSTGRES.rowHash(postgres), "upper(md5("));
+    }
+
+    @Test
+    @DisplayName("Floating-point columns are rounded to the same significant digits on both sides")
+    void encodeColumn_FloatSameDigitsOnBothSides() {
+        String oracle = DataChecksumDialect.ORACLE.encodeColumn("RATE", "BINARY_DOUBLE");
+        String postgres = DataChecksumDialect.POSTGRES.encodeColumn("rate", "BINARY_DOUBLE");
+
+        assertEquals("UPPER(TRIM(TO_CHAR(\"RATE\", '9.99999999999999EEEE')))", oracle);
+        assertEquals("upper(trim(to_char(\"rate\"::float8, '9.99999999999999EEEE')))", postgres);
+        // Not the shortest-form TM9 rendering, which can carry 17 digits for a binary double
+        assertFalse(oracle.contains("TM9"));
+        assertFalse(postgres.contains("::numeric"));
+        assertEquals(DataChecksumDialect.ORACLE.encodeColumn("F", "FLOAT"), DataChecksumDialect.ORACLE.encodeColumn("F", "BINARY_FLOAT"));
+    }
+
+    private static int count(String text, String token) {
+        Matcher matcher = Pattern.compile(Pattern.quote(token)).matcher(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DataComparisonServiceTest {
+
+    private ComparisonTaskExecutor taskExecutor;
+    private ComparisonProperties properties;
+    private DataComparisonService service;
+
+    @BeforeEach
+    void setUp() {
+        taskExecutor = new ComparisonTaskExecutor(2, 2);
+        properties = new ComparisonProperties();
+        properties.setDataChunkSize(1_000);
+        properties.setDataRowFetchThreshold(50);
+        service = new DataComparisonService(mock(JdbcTemplate.class), mock(JdbcTemplate.class), taskExecutor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Identical tables should match without pulling any rows")
+    void compareRanges_IdenticalTables() {
+        InMemorySource oracle = new InMemorySource(rows(1, 10_000));
+        InMemorySource postgres = new InMemorySource(rows(1, 10_000));
+        TableDataComparison result = new TableDataComparison("ORDERS", "orders", 100);
+
+        service.compareRanges(oracle, postgres, result);
+
+        assertEquals(TableDataComparison.Status.MATCH, result.getStatus());
+        assertEquals(10_000, result.getOracleRows());
+        assertEquals(10, result.getChunks());
+        assertEquals(0, oracle.rowsPulled.get());
+        assertEquals(0, postgres.rowsPulled.get());
+    }
+
+    @Test
+    @DisplayName("Should find missing, extra and changed rows by bisecting only the mismatching chunks")
+    void compareRanges_FindsMismatchingKeys() {
+        TreeMap<Long, String> postgresRows = rows(1, 10_000);
+        postgresRows.remove(1_234L);
+        postgresRows.put(10_001L, hash(10_001));
+        postgresRows.put(7_777L, hash(-1));
+        InMemorySource oracle = new InMemorySource(rows(1, 10_000));
+        InMemorySource postgres = new InMemorySource(postgresRows);
+        TableDataComparison result = new TableDataComparison("ORDERS", "orders", 100);
+
+        service.compareRanges(oracle, postgres, result);
+
+        assertEquals(TableDataComparison.Status.MISMATCH, result.getStatus());
+        assertEquals(3, result.getMismatchedChunks());
+        Map<Long, RowMismatch.Kind> mismatches = new HashMap<>();
+        result.getMismatches().forEach(mismatch -> mismatches.put(mismatch.getKey(), mismatch.getKind()));
+        assertEquals(Map.of(1_234L, RowMismatch.Kind.ONLY_IN_ORACLE,
+                10_001L, RowMismatch.Kind.ONLY_IN_POSTGRES,
+                7_777L, RowMismatch.Kind.DIFFERENT), mismatches);
+        // Only the bisected ranges (at most 50 keys each) were pulled
+        assertTrue(oracle.rowsPulled.get() <= 150, "Pulled " + oracle.rowsPulled.get() + " Oracle rows");
+    }
+
+    @Test
+    @DisplayName("A row fetch threshold of 0 should bisect down to single keys instead of recursing forever")
+    void compareRanges_ZeroRowFetchThreshold() {
+        properties.setDataRowFetchThreshold(0);
+        TreeMap<Long, String> postgresRows = rows(1, 10_000);
+        postgresRows.put(7_777L, hash(-1));
+        TableDataComparison result = new TableDataComparison("ORDERS", "orders", 100);
+
+        service.compareRanges(new InMemorySource(rows(1, 10_000)), new InMemorySource(postgresRows), result);
+
+        assertEquals(1, result.getMismatches().size());
+        assertEquals(7_777L, result.getMismatches().get(0).getKey());
+    }
+
+    @Test
+    @DisplayName("Sample mode should pair both samples by key and estimate the mismatch rate")
+    void compareSample_EstimatesMismatchRate() {
+        properties.setDataSamplePercent(10);
+        TreeMap<Long, String> postgresRows = rows(1, 10_000);
+        for (long key = 10; key <= 1_000; key += 10) {
+            postgresRows.put(key, hash(-key)); // 100 of the 1000 sampled rows differ
+        }
+        TableDataComparison result = new TableDataComparison("ORDERS", "orders", 10);
+
+        service.compareSample(new InMemorySource(rows(1, 10_000)), new InMemorySource(postgresRows), result);
+
+        MismatchEstimate estimate = result.getEstimate();
+        assertEquals(1_000, estimate.getSampledRows());
+        assertEquals(100, result.getMismatchCount());
+        assertEquals(10, result.getMismatches().size());
+        assertEquals(0.1, estimate.getRate(), 1e-9);
+        assertTrue(estimate.getLowerBound() < 0.1 && estimate.getUpperBound() > 0.1);
+    }
+
+    @Test
+    @DisplayName("A clean sample should still give a non-zero upper bound")
+    void mismatchEstimate_ZeroMismatches() {
+        MismatchEstimate estimate = MismatchEstimate.of(0, 1_000, 0.95);
+
+        assertEquals(0, estimate.getRate());
+        assertEquals(0, estimate.getLowerBound(), 1e-12);
+        assertEquals(0.0038, estimate.getUpperBound(), 0.0002);
+        assertEquals(1.96, MismatchEstimate.zScore(0.95), 0.001);
+    }
+
+    private static TreeMap<Long, String> rows(long from, long to) {
+        TreeMap<Long, String> rows = new TreeMap<>();
+        for (long key = from; key <= to; key++) {
+            rows.put(key, hash(key));
+        }
+        return rows;
+    }
+
+    private static String hash(long value) {
+        return String.format("%016X%016X", value * 0x9E3779B97F4A7C15L, ~value);
+    }
+
+    /**
+     * Checksums computed the same way the SQL does, over an in-memory table.
+     */
+    private static class InMemorySource implements RowChecksumSource {
+        private final TreeMap<Long, String> rows;
+        private final AtomicLong rowsPulled = new AtomicLong();
+
+        InMemorySource(TreeMap<Long, String> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public KeyRange keyRange() {
+            return rows.isEmpty() ? null : new KeyRange(rows.firstKey(), rows.lastKey());
+        }
+
+        @Override
+        public Map<Long, ChunkChecksum> chunkChecksums(long from, long to, long width) {
+            Map<Long, List<String>> chunks = new HashMap<>();
+            rows.subMap(from, to).forEach((key, hash) ->
+                    chunks.computeIfAbsent((key - from) / width, chunk -> new ArrayList<>()).add(hash));
+            Map<Long, ChunkChecksum> checksums = new HashMap<>();
+            chunks.forEach((chunk, hashes) -> checksums.put(chunk, checksum(hashes)));
+            return checksums;
+        }
+
+        @Override
+        public ChunkChecksum rangeChecksum(long from, long to) {
+            return checksum(new ArrayList<>(rows.subMap(from, to).values()));
+        }
+
+        @Override
+        public List<KeyHash> rowHashes(long from, long to) {
+            List<KeyHash> hashes = new ArrayList<>();
+            rows.subMap(from, to).forEach((key, hash) -> hashes.add(new KeyHash(key, hash)));
+            rowsPulled.addAndGet(hashes.size());
+            return hashes;
+        }
+
+        @Override
+        public List<KeyHash> sampleRowHashes(double percent, Long seed, int maxRows) {
+            // Every n-th row stands in for a block sample
+            long step = Math.round(100 / percent);
+            List<KeyHash> sample = new ArrayList<>();
+            rows.forEach((key, hash) -> {
+                if (key % step == 0 && sample.size() < maxRows) {
+                    sample.add(new KeyHash(key, hash));
+                }
+            });
+            return sample;
+        }
+
+        @Override
+        public List<KeyHash> rowHashes(List<Long> keys) {
+            List<KeyHash> hashes = new ArrayList<>();
+            keys.stream().filter(rows::containsKey).forEach(key -> hashes.add(new KeyHash(key, rows.get(key))));
+            return hashes;
+        }
+
+        private static ChunkChecksum checksum(List<String> hashes) {
+            BigDecimal hi = BigDecimal.ZERO;
+            BigDecimal lo = BigDecimal.ZERO;
+            for (String hash : hashes) {
+                hi = hi.add(new BigDecimal(Long.parseLong(hash.substring(0, 8), 16)));
+                lo = lo.add(new BigDecimal(Long.parseLong(hash.substring(8, 16), 16)));
+            }
+            return new ChunkChecksum(hashes.size(), hi, lo);
+        }
+    }
+}
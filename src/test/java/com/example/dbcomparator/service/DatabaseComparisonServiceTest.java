@@ -1,28 +1,39 @@
 package com.example.dbcomparator.service;
 
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
 import com.example.dbcomparator.model.oracle.OracleObject;
 import com.example.dbcomparator.model.postgres.PostgresObject;
+import com.example.dbcomparator.repository.oracle.OracleDictionaryViews;
 import com.example.dbcomparator.repository.oracle.OracleMetadataRepository;
 import com.example.dbcomparator.repository.postgres.PostgresMetadataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Qualifier; // Added import
 import org.springframework.dao.DataAccessException; // Added import
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,7 +57,11 @@ class DatabaseComparisonServiceTest {
     @Qualifier("supabaseJdbcTemplate")
     private JdbcTemplate supabaseJdbcTemplate;
 
-    @InjectMocks // Automatically injects mocks into the service
+    private ComparisonTaskExecutor taskExecutor;
+    private ComparisonProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResultPersistenceQueue resultQueue;
     private DatabaseComparisonService comparisonService;
 
     @Captor
@@ -59,11 +74,40 @@ class DatabaseComparisonServiceTest {
 
     @BeforeEach
     void setUp() {
+        taskExecutor = new ComparisonTaskExecutor(2, 2);
+        properties = new ComparisonProperties();
+        properties.setCacheEnabled(false); // Every test exercises the repositories
+        properties.setVolumeEnabled(false);
+        properties.setColumnComparisonEnabled(false);
+        properties.setSourceComparisonEnabled(false);
+        properties.setDependencyComparisonEnabled(false);
+        CatalogReader catalogReader = new RepositoryCatalogReader(oracleRepository, postgresRepository);
+        OracleDictionaryViews dictionaryViews = new OracleDictionaryViews(oracleJdbcTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        ComparisonMetrics metrics = new ComparisonMetrics(meterRegistry);
+        resultQueue = new ResultPersistenceQueue(new ComparisonResultWriter(supabaseJdbcTemplate, properties), properties, metrics);
+        comparisonService = new DatabaseComparisonService(catalogReader,
+                oracleJdbcTemplate, supabaseJdbcTemplate, taskExecutor, properties, new ComparisonReportWriter(properties),
+                new CatalogCache(properties), new CatalogFingerprinter(oracleJdbcTemplate, supabaseJdbcTemplate, dictionaryViews),
+                new IncrementalCatalogService(catalogReader, oracleJdbcTemplate, supabaseJdbcTemplate, dictionaryViews, properties),
+                new VolumeComparisonService(oracleJdbcTemplate, supabaseJdbcTemplate, taskExecutor, properties),
+                new ColumnComparisonService(oracleJdbcTemplate, supabaseJdbcTemplate, taskExecutor),
+                new RoutineSourceComparisonService(oracleJdbcTemplate, supabaseJdbcTemplate, TransactionOperations.withoutTransaction(), taskExecutor, properties),
+                new DependencyComparisonService(oracleJdbcTemplate, supabaseJdbcTemplate, TransactionOperations.withoutTransaction(), taskExecutor, properties),
+                new DdlExtractionService(oracleJdbcTemplate, supabaseJdbcTemplate, taskExecutor, properties),
+                resultQueue, metrics);
+
         // Mock connection checks to always succeed
         when(oracleJdbcTemplate.queryForObject(eq("SELECT 1 FROM DUAL"), eq(Integer.class))).thenReturn(1);
         when(supabaseJdbcTemplate.queryForObject(eq("SELECT 1"), eq(Integer.class))).thenReturn(1);
     }
 
+    @AfterEach
+    void tearDown() {
+        taskExecutor.shutdown();
+        resultQueue.shutdown();
+    }
+
     private OracleObject createOracleObject(String name, String type) {
         OracleObject obj = new OracleObject();
         obj.setName(name);
@@ -83,8 +127,9 @@ class DatabaseComparisonServiceTest {
 
     @Test
     @DisplayName("Should generate report, persist differences, and call correct methods")
-    void generateComparisonReport_Success() throws IOException {
+    void generateComparisonReport_Success() throws IOException, InterruptedException {
         // --- Arrange ---
+        properties.setSnapshotMode(false); // Exercise the per-type queries
         // Mock repository responses
         OracleObject oraTable1 = createOracleObject("TABLE_A", "TABLE");
         OracleObject oraTableOnly = createOracleObject("TABLE_ORA_ONLY", "TABLE");
@@ -132,7 +177,16 @@ class DatabaseComparisonServiceTest {
         verify(postgresRepository, times(1)).findAllIndexesBySchema(POSTGRES_SCHEMA);
 
 
+        // Fetches and diff sizes are metered per object type and side
+        assertEquals(2, meterRegistry.get("comparison.fetch.rows").tag("object.type", "TABLE").tag("side", "oracle")
+                .summary().totalAmount());
+        assertEquals(1, meterRegistry.get("comparison.differences").tag("object.type", "TABLE").tag("side", "postgres")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("comparison.report").timer().count());
+
         // Verify persistence calls (should be called twice for TABLE type: once for Oracle-only, once for PG-only)
+        // The mocked JdbcTemplate is no PostgreSQL connection, so the writer uses INSERT batches
+        assertTrue(resultQueue.drain(Duration.ofSeconds(5)), "Queued differences should be written");
         verify(supabaseJdbcTemplate, times(2)).batchUpdate(sqlCaptor.capture(), batchArgsCaptor.capture());
 
         // Examine the captured arguments for the TABLE persistence
@@ -167,6 +221,115 @@ class DatabaseComparisonServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Should scan each catalog once in snapshot mode and split it by type")
+    void generateComparisonReport_SnapshotMode() throws IOException, InterruptedException {
+        // --- Arrange ---
+        properties.setSnapshotMode(true);
+        OracleObject oraTable = createOracleObject("TABLE_A", "TABLE");
+        OracleObject oraViewOnly = createOracleObject("VIEW_ORA_ONLY", "VIEW");
+        PostgresObject pgTable = createPostgresObject("table_a", "TABLE");
+        PostgresObject pgSequenceOnly = createPostgresObject("seq_pg_only", "SEQUENCE");
+        PostgresObject pgFunctionOnly = createPostgresObject("fn_pg_only", "FUNCTION");
+
+        when(oracleRepository.findCatalogSnapshotByOwner(ORACLE_SCHEMA)).thenReturn(Arrays.asList(oraTable, oraViewOnly));
+        when(postgresRepository.findCatalogBySchema(POSTGRES_SCHEMA)).thenReturn(Arrays.asList(pgTable, pgSequenceOnly, pgFunctionOnly));
+        // Oracle types that are not part of the snapshot still use their own queries
+        when(oracleRepository.findAllConstraintsByOwner(anyString())).thenReturn(Collections.emptyList());
+        when(oracleRepository.findAllIndexesByOwner(anyString())).thenReturn(Collections.emptyList());
+
+        // --- Act ---
+        byte[] reportBytes = comparisonService.generateComparisonReport(ORACLE_SCHEMA, POSTGRES_SCHEMA);
+
+        // --- Assert ---
+        assertNotNull(reportBytes);
+
+        // A single dictionary scan per side, shared by every snapshot-backed task
+        verify(oracleRepository, times(1)).findCatalogSnapshotByOwner(ORACLE_SCHEMA);
+        verify(postgresRepository, times(1)).findCatalogBySchema(POSTGRES_SCHEMA);
+        verify(postgresRepository, never()).findAllObjectsBySchema(anyString());
+        verify(postgresRepository, never()).findAllFunctionsBySchema(anyString());
+        verify(postgresRepository, never()).findAllConstraintsBySchema(anyString());
+        verify(oracleRepository, never()).findAllObjectsByOwner(anyString());
+        verify(oracleRepository, never()).findAllTablesByOwner(anyString());
+        verify(oracleRepository, never()).findAllViewsByOwner(anyString());
+        verify(postgresRepository, never()).findAllTablesBySchema(anyString());
+        verify(postgresRepository, never()).findAllIndexesBySchema(anyString());
+
+        // ALL_OBJECTS (view + sequence differences) and VIEW / SEQUENCE tasks each persist their differences
+        assertTrue(resultQueue.drain(Duration.ofSeconds(5)), "Queued differences should be written");
+        verify(supabaseJdbcTemplate, atLeastOnce()).batchUpdate(sqlCaptor.capture(), batchArgsCaptor.capture());
+        boolean tableReported = batchArgsCaptor.getAllValues().stream()
+                .flatMap(List::stream)
+                .anyMatch(args -> "TABLE".equals(args[2]));
+        assertFalse(tableReported, "TABLE_A exists on both sides and must not be reported as a difference.");
+        boolean viewReported = batchArgsCaptor.getAllValues().stream()
+                .flatMap(List::stream)
+                .anyMatch(args -> "VIEW".equals(args[2]) && "VIEW_ORA_ONLY".equals(args[3]));
+        assertTrue(viewReported, "VIEW_ORA_ONLY should be persisted as an Oracle-only view.");
+        // Routines come from the same round trip but are not part of the "all objects" (pg_class) listing
+        boolean functionReported = batchArgsCaptor.getAllValues().stream()
+                .flatMap(List::stream)
+                .anyMatch(args -> "FUNCTION".equals(args[2]) && "fn_pg_only".equals(args[3]));
+        assertTrue(functionReported, "fn_pg_only should be persisted as a PostgreSQL-only function.");
+        boolean functionInAllObjects = batchArgsCaptor.getAllValues().stream()
+                .flatMap(List::stream)
+                .anyMatch(args -> "ALL_OBJECTS".equals(args[2]) && "fn_pg_only".equals(args[3]));
+        assertFalse(functionInAllObjects, "Functions are not part of the ALL_OBJECTS listing.");
+    }
+
+    @Test
+    @DisplayName("Should compare live Oracle against a PostgreSQL catalog snapshot without touching PostgreSQL")
+    void runComparison_PostgresSnapshot(@TempDir Path tempDir) throws IOException {
+        // --- Arrange ---
+        reset(supabaseJdbcTemplate); // PostgreSQL is read from the snapshot file only
+        OracleObject oraTable = createOracleObject("TABLE_A", "TABLE");
+        OracleObject oraViewOnly = createOracleObject("VIEW_ORA_ONLY", "VIEW");
+        PostgresObject pgTable = createPostgresObject("table_a", "TABLE");
+        PostgresObject pgSequenceOnly = createPostgresObject("seq_pg_only", "SEQUENCE");
+        Path file = tempDir.resolve("pg.dbcs");
+        Map<String, List<? extends DatabaseObject>> sections = new LinkedHashMap<>();
+        sections.put("ALL_OBJECTS", Arrays.asList(pgTable, pgSequenceOnly));
+        sections.put("TABLE", List.of(pgTable));
+        sections.put("SEQUENCE", List.of(pgSequenceOnly));
+        CatalogSnapshotFile.write(file, CatalogCache.Side.POSTGRES, POSTGRES_SCHEMA, Instant.now(), sections);
+
+        when(oracleRepository.findCatalogSnapshotByOwner(ORACLE_SCHEMA)).thenReturn(Arrays.asList(oraTable, oraViewOnly));
+        when(oracleRepository.findAllConstraintsByOwner(anyString())).thenReturn(Collections.emptyList());
+        when(oracleRepository.findAllIndexesByOwner(anyString())).thenReturn(Collections.emptyList());
+
+        // --- Act ---
+        ComparisonRun run = comparisonService.runComparison(UUID.randomUUID(), ORACLE_SCHEMA, POSTGRES_SCHEMA,
+                null, CatalogSnapshotFile.open(file));
+
+        // --- Assert ---
+        assertTrue(run.getResults().get("TABLE").getOnlyInOracle().isEmpty());
+        assertTrue(run.getResults().get("TABLE").getOnlyInPostgres().isEmpty());
+        assertEquals("VIEW_ORA_ONLY", run.getResults().get("VIEW").getOnlyInOracle().get(0).getName());
+        assertEquals("seq_pg_only", run.getResults().get("SEQUENCE").getOnlyInPostgres().get(0).getName());
+        // Sections missing from the snapshot compare as empty
+        assertTrue(run.getResults().get("INDEX").getOnlyInPostgres().isEmpty());
+        verifyNoInteractions(postgresRepository, supabaseJdbcTemplate);
+        assertTrue(resultQueue.getStatus(run.getComparisonRunUuid()).isEmpty(), "Nothing is persisted without a live PostgreSQL");
+    }
+
+    @Test
+    @DisplayName("Should key the catalog cache on fingerprints taken by the caller instead of querying them again")
+    void runComparison_UsesGivenFingerprints() {
+        // --- Arrange ---
+        properties.setCacheEnabled(true);
+
+        // --- Act ---
+        ComparisonRun run = comparisonService.runComparison(UUID.randomUUID(), ORACLE_SCHEMA, POSTGRES_SCHEMA,
+                null, null, "0:20240101120000", "0:");
+
+        // --- Assert ---
+        assertNotNull(run);
+        verify(oracleJdbcTemplate, never()).queryForObject(contains("MAX(LAST_DDL_TIME)"), eq(String.class), any(Object[].class));
+        verify(supabaseJdbcTemplate, never()).queryForObject(eq(CatalogFingerprinter.POSTGRES_FINGERPRINT_SQL), eq(String.class), any(Object[].class));
+        verify(oracleRepository).findCatalogSnapshotByOwner(ORACLE_SCHEMA);
+    }
+
     @Test
     @DisplayName("Should throw exception if Oracle connection fails")
     void generateComparisonReport_OracleConnectionFails() {
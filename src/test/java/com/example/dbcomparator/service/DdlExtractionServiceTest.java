@@ -0,0 +1,100 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdlExtractionServiceTest {
+
+    private static DatabaseObject object(String name, String type) {
+        DatabaseObject obj = new DatabaseObject();
+        obj.setName(name);
+        obj.setType(type);
+        obj.setSchema("APP");
+        return obj;
+    }
+
+    @Test
+    @DisplayName("Missing objects are grouped by type once, although ALL_OBJECTS repeats the per-type results")
+    void missingByType_DeduplicatesAcrossTasks() {
+        Map<String, ComparisonResult> results = new LinkedHashMap<>();
+        results.put("ALL_OBJECTS", new ComparisonResult(List.of(object("ORDERS", "TABLE"), object("V_ORDERS", "VIEW")),
+                List.of(object("orders_seq", "SEQUENCE"))));
+        results.put("TABLE", new ComparisonResult(List.of(object("ORDERS", "TABLE")), Collections.emptyList()));
+        results.put("FOREIGN KEY", new ComparisonResult(List.of(object("FK_ORDERS", "FOREIGN KEY")), Collections.emptyList()));
+
+        Map<String, List<String>> oracle = DdlExtractionService.missingByType(results, CatalogCache.Side.ORACLE);
+        Map<String, List<String>> postgres = DdlExtractionService.missingByType(results, CatalogCache.Side.POSTGRES);
+
+        assertEquals(Map.of("TABLE", List.of("ORDERS"), "VIEW", List.of("V_ORDERS"), "FOREIGN KEY", List.of("FK_ORDERS")), oracle);
+        assertEquals(Map.of("SEQUENCE", List.of("orders_seq")), postgres);
+        assertEquals("REF_CONSTRAINT", DdlExtractionService.metadataType("FOREIGN KEY"));
+        assertEquals("PACKAGE_BODY", DdlExtractionService.metadataType("PACKAGE BODY"));
+    }
+
+    @Test
+    @DisplayName("Oracle batches respect the batch size and quote names for NAME_EXPR")
+    void oracleBatches_SplitAndQuote() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            names.add("T" + i);
+        }
+
+        List<List<String>> batches = DdlExtractionService.oracleBatches(names, 2);
+
+        assertEquals(List.of(List.of("T0", "T1"), List.of("T2", "T3"), List.of("T4")), batches);
+        assertEquals("IN ('T0','O''BRIEN')", DdlExtractionService.nameExpression(List.of("T0", "O'BRIEN")));
+    }
+
+    @Test
+    @DisplayName("Framed DBMS_METADATA output is split per object, joining several statements of one object")
+    void parseOracleDdl_SplitsFrames() {
+        String framed = "\u0001ORDERS\u0002\n  CREATE TABLE \"APP\".\"ORDERS\" (\"ID\" NUMBER);\n"
+                + "\u0001ORDERS\u0002\n  COMMENT ON TABLE \"APP\".\"ORDERS\" IS 'x';\n"
+                + "\u0001CUSTOMERS\u0002\n  CREATE TABLE \"APP\".\"CUSTOMERS\" (\"ID\" NUMBER);\n";
+
+        Map<String, String> ddl = DdlExtractionService.parseOracleDdl(framed);
+
+        assertEquals(List.of("ORDERS", "CUSTOMERS"), new ArrayList<>(ddl.keySet()));
+        assertEquals("CREATE TABLE \"APP\".\"ORDERS\" (\"ID\" NUMBER);\n\nCOMMENT ON TABLE \"APP\".\"ORDERS\" IS 'x';", ddl.get("ORDERS"));
+        assertTrue(DdlExtractionService.parseOracleDdl("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("The archive has one .sql file per object with unique, file-system safe names")
+    void writeArchive_OneEntryPerObject() throws IOException {
+        DdlExtractionService service = new DdlExtractionService(null, null, null, null);
+        List<ObjectDdl> ddl = List.of(
+                new ObjectDdl(CatalogCache.Side.ORACLE, "TABLE", "ORDERS", "CREATE TABLE ORDERS (ID NUMBER);", null),
+                new ObjectDdl(CatalogCache.Side.POSTGRES, "TABLE", "orders", "CREATE TABLE orders (id int);", null),
+                new ObjectDdl(CatalogCache.Side.POSTGRES, "PRIMARY KEY", "Orders", null, "permission denied"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeArchive(ddl, out);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(List.of("oracle/TABLE/ORDERS.sql", "postgresql/TABLE/orders.sql", "postgresql/PRIMARY_KEY/Orders.sql"),
+                new ArrayList<>(entries.keySet()));
+        assertEquals("CREATE TABLE orders (id int);\n", entries.get("postgresql/TABLE/orders.sql"));
+        assertEquals("-- DDL extraction failed: permission denied\n", entries.get("postgresql/PRIMARY_KEY/Orders.sql"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.dbcomparator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+
+    @Test
+    @DisplayName("Adjacency lists are sorted and deduplicated, and the transpose reverses every edge")
+    void build_SortsDeduplicatesAndTransposes() {
+        DependencyGraph.Builder builder = new DependencyGraph.Builder();
+        builder.addEdge("VIEW:v2", "TABLE:t1");
+        builder.addEdge("VIEW:v1", "TABLE:t1");
+        builder.addEdge("VIEW:v1", "TABLE:t1");
+        builder.addEdge("VIEW:v1", "VIEW:v2");
+        builder.addEdge("PROCEDURE:p", "VIEW:v1");
+        int v2 = id(builder, "VIEW:v2");
+        int t1 = id(builder, "TABLE:t1");
+        int v1 = id(builder, "VIEW:v1");
+        int p = id(builder, "PROCEDURE:p");
+
+        DependencyGraph graph = builder.build();
+
+        assertEquals(4, graph.nodeCount());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(2, graph.outDegree(v1));
+        assertEquals(v2, graph.target(graph.edgeStart(v1)));
+        assertEquals(t1, graph.target(graph.edgeStart(v1) + 1));
+        assertTrue(graph.hasEdge(v1, t1));
+        assertFalse(graph.hasEdge(t1, v1));
+
+        DependencyGraph usedBy = graph.transpose();
+        assertEquals(4, usedBy.edgeCount());
+        assertTrue(usedBy.hasEdge(t1, v1));
+        assertTrue(usedBy.hasEdge(t1, v2));
+        assertTrue(usedBy.hasEdge(v1, p));
+        assertEquals(0, usedBy.outDegree(p));
+
+        int[] ranks = graph.topologicalRanks();
+        assertEquals(0, ranks[t1]);
+        assertEquals(1, ranks[v2]);
+        assertEquals(2, ranks[v1]);
+        assertEquals(3, ranks[p]);
+    }
+
+    @Test
+    @DisplayName("Objects on a dependency cycle, and their dependents, rank after all others")
+    void topologicalRanks_CycleRanksLast() {
+        DependencyGraph.Builder builder = new DependencyGraph.Builder();
+        builder.addEdge("VIEW:a", "VIEW:b");
+        builder.addEdge("VIEW:b", "VIEW:a");
+        builder.addEdge("VIEW:c", "VIEW:a");
+        builder.addEdge("VIEW:e", "TABLE:f");
+
+        int[] ranks = builder.build().topologicalRanks();
+
+        assertEquals(0, ranks[id(builder, "TABLE:f")]);
+        assertEquals(1, ranks[id(builder, "VIEW:e")]);
+        assertEquals(2, ranks[id(builder, "VIEW:a")]);
+        assertEquals(2, ranks[id(builder, "VIEW:b")]);
+        assertEquals(2, ranks[id(builder, "VIEW:c")]);
+    }
+
+    @Test
+    @DisplayName("Only objects with dependencies on both sides are compared; differences carry their downstream objects")
+    void diff_ReportsMissingAndExtraEdges() {
+        DependencyGraph.Builder oracle = new DependencyGraph.Builder();
+        oracle.addEdge(DependencyComparisonService.nodeKey("VIEW", "V1"), DependencyComparisonService.nodeKey("TABLE", "T1"));
+        oracle.addEdge(DependencyComparisonService.nodeKey("VIEW", "V1"), DependencyComparisonService.nodeKey("TABLE", "T2"));
+        oracle.addEdge(DependencyComparisonService.nodeKey("PROCEDURE", "P"), DependencyComparisonService.nodeKey("VIEW", "V1"));
+        oracle.addEdge(DependencyComparisonService.nodeKey("VIEW", "V3"), DependencyComparisonService.nodeKey("TABLE", "T1"));
+
+        DependencyGraph.Builder postgres = new DependencyGraph.Builder();
+        postgres.addEdge(DependencyComparisonService.nodeKey("VIEW", "v1"), DependencyComparisonService.nodeKey("TABLE", "t3"));
+        postgres.addEdge(DependencyComparisonService.nodeKey("VIEW", "v1"), DependencyComparisonService.nodeKey("TABLE", "t1"));
+        // PostgreSQL-only edges of objects without Oracle dependencies are ignored, as are V3 and P (no PostgreSQL edges)
+        postgres.addEdge(DependencyComparisonService.nodeKey("VIEW", "v9"), DependencyComparisonService.nodeKey("TABLE", "t1"));
+
+        List<DependencyDifference> differences = DependencyComparisonService.diff(oracle, postgres);
+
+        assertEquals(2, differences.size());
+        DependencyDifference missing = differences.get(0);
+        assertEquals(DependencyDifference.Kind.ONLY_IN_ORACLE, missing.getKind());
+        assertEquals("VIEW", missing.getObjectType());
+        assertEquals("v1", missing.getObjectName());
+        assertEquals("t2", missing.getReferencedName());
+        assertEquals(1, missing.getMigrationOrder());
+        assertEquals(1, missing.getDownstreamCount());
+        assertEquals("p", missing.getDownstreamSample());
+        DependencyDifference extra = differences.get(1);
+        assertEquals(DependencyDifference.Kind.ONLY_IN_POSTGRES, extra.getKind());
+        assertEquals("TABLE", extra.getReferencedType());
+        assertEquals("t3", extra.getReferencedName());
+    }
+
+    private static int id(DependencyGraph.Builder builder, String key) {
+        return builder.nodes().intern(key);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel report generation (ComparisonReportWriter.write) for the differences of a synthetic catalog:
+ * one "all objects" sheet plus one sheet per object type, written to a discarding stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ReportBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int objects;
+
+    @Param({"0.9"})
+    private double overlap;
+
+    private ComparisonReportWriter reportWriter;
+    private ComparisonRun run;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        SyntheticCatalog catalog = SyntheticCatalog.generate(objects, overlap, 42);
+        Map<String, ComparisonTask> tasks = new LinkedHashMap<>();
+        Map<String, ComparisonResult> results = new LinkedHashMap<>();
+        tasks.put("ALL_OBJECTS", new ComparisonTask("Object Comparison", null, null));
+        results.put("ALL_OBJECTS", DatabaseComparisonService.compareObjectLists(catalog.oracle(), catalog.postgres()));
+        for (String type : List.of("TABLE", "VIEW", "PROCEDURE", "FUNCTION", "SEQUENCE", "CONSTRAINT", "INDEX")) {
+            tasks.put(type, new ComparisonTask(type.charAt(0) + type.substring(1).toLowerCase() + " Comparison", null, null));
+            results.put(type, DatabaseComparisonService.compareObjectLists(ofType(catalog.oracle(), type), ofType(catalog.postgres(), type)));
+        }
+        run = new ComparisonRun(UUID.randomUUID(), Timestamp.from(Instant.now()),
+                SyntheticCatalog.ORACLE_SCHEMA, SyntheticCatalog.POSTGRES_SCHEMA, tasks, results);
+        reportWriter = new ComparisonReportWriter(new ComparisonProperties());
+    }
+
+    @Benchmark
+    public void writeReport() throws IOException {
+        reportWriter.write(run, OutputStream.nullOutputStream());
+    }
+
+    private static List<DatabaseObject> ofType(List<? extends DatabaseObject> objects, String type) {
+        List<DatabaseObject> result = new ArrayList<>();
+        for (DatabaseObject obj : objects) {
+            if (obj.getType().equals(type)) {
+                result.add(obj);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportStoreTest {
+
+    @Mock
+    private DatabaseComparisonService comparisonService;
+
+    @TempDir
+    Path directory;
+
+    private ComparisonProperties properties;
+    private ReportStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ComparisonProperties();
+        properties.setReportStoreDir(directory.toString());
+        properties.setReportStoreMaxSize(DataSize.ofBytes(25));
+        // Every report is the 10 bytes "report-xyz"
+        lenient().doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("report-xyz".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(comparisonService).writeComparisonReport(any(ComparisonRun.class), any(OutputStream.class));
+        store = new ReportStore(comparisonService, properties);
+    }
+
+    private ComparisonRun run() {
+        return new ComparisonRun(UUID.randomUUID(), null, "TEST_ORA", "test_pg", Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    @Test
+    @DisplayName("A report is written once, found by run id and reused for an unchanged catalog key")
+    void save_StoresOnceAndFindsByKey() throws Exception {
+        String catalogKey = store.catalogKey("TEST_ORA", "test_pg", "12:20240101120000", "12:abc");
+        ComparisonRun run = run();
+
+        StoredReport report = store.save(run, catalogKey);
+        assertSame(report, store.save(run, catalogKey));
+
+        verify(comparisonService, times(1)).writeComparisonReport(eq(run), any(OutputStream.class));
+        assertEquals(10, report.getSizeBytes());
+        assertEquals("report-xyz", Files.readString(report.getFile()));
+        assertEquals("\"" + run.getComparisonRunUuid() + "\"", report.getETag());
+        assertSame(report, store.find(run.getComparisonRunUuid()).orElseThrow());
+        assertSame(report, store.findCurrent(catalogKey).orElseThrow());
+        assertTrue(store.findCurrent(store.catalogKey("TEST_ORA", "test_pg", "13:20240101130000", "12:abc")).isEmpty(),
+                "Changed catalog");
+        properties.setDependencyComparisonEnabled(false);
+        assertTrue(store.findCurrent(store.catalogKey("TEST_ORA", "test_pg", "12:20240101120000", "12:abc")).isEmpty(),
+                "Changed report settings");
+        properties.setDependencyComparisonEnabled(true);
+        assertNull(store.catalogKey("TEST_ORA", "test_pg", null, "12:abc"));
+        assertTrue(store.findCurrent(null).isEmpty());
+
+        // Indexed again after a restart
+        ReportStore restarted = new ReportStore(comparisonService, properties);
+        assertEquals(report.getFile(), restarted.findCurrent(catalogKey).orElseThrow().getFile());
+    }
+
+    @Test
+    @DisplayName("The least recently used report is evicted once the store exceeds its size")
+    void save_EvictsLeastRecentlyUsed() throws Exception {
+        StoredReport first = store.save(run(), null);
+        StoredReport second = store.save(run(), null);
+        store.find(first.getComparisonRunUuid());
+
+        StoredReport third = store.save(run(), null);
+
+        assertTrue(store.find(second.getComparisonRunUuid()).isEmpty());
+        assertFalse(Files.exists(second.getFile()));
+        assertTrue(store.find(first.getComparisonRunUuid()).isPresent());
+        assertTrue(store.find(third.getComparisonRunUuid()).isPresent());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of preparing differences for comparison_results: INSERT parameter arrays versus COPY text
+ * encoding, for all differences of a synthetic catalog in chunks of the default result batch size.
+ * Compare the gc.alloc.rate.norm of both with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ResultBatchBenchmark {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int objects;
+
+    @Param({"0.5"})
+    private double overlap;
+
+    private List<PendingDifferences> batch;
+    private CopyTextEncoder encoder;
+    private long encodedBytes;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        SyntheticCatalog catalog = SyntheticCatalog.generate(objects, overlap, 42);
+        ComparisonResult result = DatabaseComparisonService.compareObjectLists(catalog.oracle(), catalog.postgres());
+        UUID run = UUID.randomUUID();
+        Timestamp timestamp = Timestamp.from(Instant.now());
+        batch = new ArrayList<>();
+        chunk(run, timestamp, result.getOnlyInOracle(), "Only in Oracle", "Oracle");
+        chunk(run, timestamp, result.getOnlyInPostgres(), "Only in PostgreSQL", "PostgreSQL");
+        encoder = new CopyTextEncoder((buffer, offset, length) -> encodedBytes += length, 64 * 1024);
+    }
+
+    @Benchmark
+    public void insertBatchArgs(Blackhole blackhole) {
+        for (PendingDifferences differences : batch) {
+            blackhole.consume(ComparisonResultWriter.batchArgs(differences));
+        }
+    }
+
+    @Benchmark
+    public long copyEncoding() throws SQLException {
+        ComparisonResultWriter.encodeRows(batch, encoder);
+        encoder.flush();
+        return encodedBytes;
+    }
+
+    private void chunk(UUID run, Timestamp timestamp, List<DatabaseObject> differences, String status, String sourceDb) {
+        for (int from = 0; from < differences.size(); from += BATCH_SIZE) {
+            batch.add(new PendingDifferences(run, timestamp, "ALL_OBJECTS", status, sourceDb,
+                    differences.subList(from, Math.min(from + BATCH_SIZE, differences.size()))));
+        }
+    }
+}
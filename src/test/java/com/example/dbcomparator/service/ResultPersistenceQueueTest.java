@@ -0,0 +1,168 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import com.example.dbcomparator.model.DatabaseObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResultPersistenceQueueTest {
+
+    @Mock
+    private ComparisonResultWriter resultWriter;
+
+    private ResultPersistenceQueue resultQueue;
+    private final List<PendingDifferences> written = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ComparisonProperties properties = new ComparisonProperties();
+        properties.setResultBatchSize(5);
+        properties.setResultQueueCapacity(10);
+        properties.setResultFlushInterval(Duration.ofMillis(20));
+        resultQueue = new ResultPersistenceQueue(resultWriter, properties, new ComparisonMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        resultQueue.shutdown();
+    }
+
+    private List<DatabaseObject> objects(int count) {
+        List<DatabaseObject> objects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DatabaseObject obj = new DatabaseObject();
+            obj.setName("T" + i);
+            obj.setType("TABLE");
+            objects.add(obj);
+        }
+        return objects;
+    }
+
+    @Test
+    @DisplayName("Published differences are written in chunks of the batch size and the run turns FLUSHED")
+    void publish_FlushesRun() throws InterruptedException {
+        doAnswer(invocation -> {
+            List<PendingDifferences> batch = invocation.getArgument(0);
+            ComparisonResultWriter.Acknowledgement acknowledgement = invocation.getArgument(1);
+            written.addAll(batch);
+            batch.forEach(acknowledgement::persisted);
+            return null;
+        }).when(resultWriter).write(anyList(), any());
+        UUID run = UUID.randomUUID();
+
+        resultQueue.publish(run, Timestamp.from(Instant.now()), "TABLE", objects(12), "Only in Oracle", "Oracle");
+        assertTrue(resultQueue.drain(Duration.ofSeconds(5)));
+        assertEquals(ResultPersistenceStatus.State.PENDING, resultQueue.getStatus(run).orElseThrow().getState(),
+                "The run may still publish more differences");
+
+        resultQueue.complete(run);
+
+        ResultPersistenceStatus status = resultQueue.getStatus(run).orElseThrow();
+        assertEquals(ResultPersistenceStatus.State.FLUSHED, status.getState());
+        assertEquals(12, status.getPublishedRows());
+        assertEquals(12, status.getPersistedRows());
+        assertEquals(List.of(5, 5, 2), written.stream().map(differences -> differences.getObjects().size()).toList());
+    }
+
+    @Test
+    @DisplayName("Rows the store rejects mark the run FAILED with the error")
+    void publish_WriteFails() throws InterruptedException {
+        doAnswer(invocation -> {
+            List<PendingDifferences> batch = invocation.getArgument(0);
+            ComparisonResultWriter.Acknowledgement acknowledgement = invocation.getArgument(1);
+            batch.forEach(differences -> acknowledgement.failed(differences, "relation \"comparison_results\" does not exist"));
+            return null;
+        }).when(resultWriter).write(anyList(), any());
+        UUID run = UUID.randomUUID();
+
+        resultQueue.publish(run, Timestamp.from(Instant.now()), "VIEW", objects(3), "Only in PostgreSQL", "PostgreSQL");
+        resultQueue.complete(run);
+        assertTrue(resultQueue.drain(Duration.ofSeconds(5)));
+
+        ResultPersistenceStatus status = resultQueue.getStatus(run).orElseThrow();
+        assertEquals(ResultPersistenceStatus.State.FAILED, status.getState());
+        assertEquals(3, status.getFailedRows());
+        assertTrue(status.getError().contains("comparison_results"));
+    }
+
+    @Test
+    @DisplayName("An Error while writing fails the batch and the writer keeps draining the queue")
+    void publish_WriterSurvivesError() throws InterruptedException {
+        doThrow(new OutOfMemoryError("Java heap space"))
+                .doAnswer(invocation -> {
+                    List<PendingDifferences> batch = invocation.getArgument(0);
+                    ComparisonResultWriter.Acknowledgement acknowledgement = invocation.getArgument(1);
+                    batch.forEach(acknowledgement::persisted);
+                    return null;
+                })
+                .when(resultWriter).write(anyList(), any());
+        UUID failedRun = UUID.randomUUID();
+        UUID laterRun = UUID.randomUUID();
+
+        resultQueue.publish(failedRun, Timestamp.from(Instant.now()), "TABLE", objects(3), "Only in Oracle", "Oracle");
+        resultQueue.complete(failedRun);
+        assertTrue(resultQueue.drain(Duration.ofSeconds(5)));
+        // More than the queue holds, so this only returns if the writer is still draining it
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                resultQueue.publish(laterRun, Timestamp.from(Instant.now()), "TABLE", objects(20), "Only in Oracle", "Oracle"));
+        resultQueue.complete(laterRun);
+        assertTrue(resultQueue.drain(Duration.ofSeconds(5)));
+
+        ResultPersistenceStatus failed = resultQueue.getStatus(failedRun).orElseThrow();
+        assertEquals(ResultPersistenceStatus.State.FAILED, failed.getState());
+        assertTrue(failed.getError().contains("Java heap space"));
+        assertEquals(ResultPersistenceStatus.State.FLUSHED, resultQueue.getStatus(laterRun).orElseThrow().getState());
+    }
+
+    @Test
+    @DisplayName("A run without differences is FLUSHED as soon as it completes")
+    void complete_WithoutDifferences() {
+        UUID run = UUID.randomUUID();
+
+        resultQueue.publish(run, Timestamp.from(Instant.now()), "TABLE", List.of(), "Only in Oracle", "Oracle");
+        resultQueue.complete(run);
+
+        assertEquals(ResultPersistenceStatus.State.FLUSHED, resultQueue.getStatus(run).orElseThrow().getState());
+        verifyNoInteractions(resultWriter);
+    }
+
+    @Test
+    @DisplayName("An interrupted publish fails the chunk being queued and the run still finishes")
+    void publish_InterruptedRunFinishes() {
+        UUID run = UUID.randomUUID();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(RuntimeException.class, () ->
+                    resultQueue.publish(run, Timestamp.from(Instant.now()), "TABLE", objects(12), "Only in Oracle", "Oracle"));
+        } finally {
+            Thread.interrupted();
+        }
+        resultQueue.complete(run);
+
+        ResultPersistenceStatus status = resultQueue.getStatus(run).orElseThrow();
+        assertEquals(ResultPersistenceStatus.State.FAILED, status.getState());
+        assertTrue(status.isFinished(), "Only the published chunk may count as failed");
+        assertNotNull(status.getFinishedAt());
+        verifyNoInteractions(resultWriter);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.dbcomparator.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineSourceComparisonServiceTest {
+
+    private static final String ORACLE_PROCEDURE =
+            "PROCEDURE raise_salary(p_id IN NUMBER) IS\n" +
+            "BEGIN\n" +
+            "  UPDATE emp SET sal = sal * 1.1 -- ten percent\n" +
+            "   WHERE id = p_id;\n" +
+            "END raise_salary;\n";
+
+    private static final String POSTGRES_PROCEDURE =
+            "\nDECLARE\n" +
+            "BEGIN\n" +
+            "    /* ten percent */\n" +
+            "    update EMP set sal=sal*1.1 where id=p_id;\n" +
+            "END;\n";
+
+    @Test
+    @DisplayName("Formatting, comments, case, the Oracle signature and END name do not change the normalized body")
+    void normalize_EvensOutSyntax() {
+        String oracle = SourceNormalizer.normalize(ORACLE_PROCEDURE, true);
+        String postgres = SourceNormalizer.normalize(POSTGRES_PROCEDURE, false);
+
+        assertEquals("begin update emp set sal=sal*1.1 where id=p_id;end;", oracle);
+        assertEquals(oracle, postgres);
+        // String literals keep their case and spacing
+        assertNotEquals(SourceNormalizer.normalize("BEGIN x := 'Active  '; END;", false),
+                SourceNormalizer.normalize("BEGIN x := 'ACTIVE'; END;", false));
+        assertEquals("begin x:='it''s';end;", SourceNormalizer.normalize("BEGIN x := 'it''s'; END;", false));
+    }
+
+    @Test
+    @DisplayName("ALL_SOURCE rows are hashed per routine, the same as the one-row pg_proc body")
+    void routineHasher_HashesPerRoutine() {
+        Map<String, String> oracleHashes = new LinkedHashMap<>();
+        RoutineSourceComparisonService.RoutineHasher oracle = new RoutineSourceComparisonService.RoutineHasher(true, oracleHashes::put);
+        for (String line : ORACLE_PROCEDURE.split("(?<=\n)")) {
+            oracle.accept("RAISE_SALARY", "PROCEDURE", line);
+        }
+        oracle.accept("GET_RATE", "FUNCTION", "FUNCTION get_rate RETURN NUMBER AS\n");
+        oracle.accept("GET_RATE", "FUNCTION", "BEGIN RETURN 2; END;\n");
+        oracle.finish();
+
+        Map<String, String> postgresHashes = new LinkedHashMap<>();
+        RoutineSourceComparisonService.RoutineHasher postgres = new RoutineSourceComparisonService.RoutineHasher(false, postgresHashes::put);
+        postgres.accept("raise_salary", "PROCEDURE", POSTGRES_PROCEDURE);
+        postgres.accept("get_rate", "FUNCTION", "BEGIN RETURN 1; END;");
+        postgres.finish();
+
+        assertEquals(List.of("PROCEDURE raise_salary", "FUNCTION get_rate"), List.copyOf(oracleHashes.keySet()));
+        assertEquals(oracleHashes.get("PROCEDURE raise_salary"), postgresHashes.get("PROCEDURE raise_salary"));
+        assertNotEquals(oracleHashes.get("FUNCTION get_rate"), postgresHashes.get("FUNCTION get_rate"));
+    }
+
+    @Test
+    @DisplayName("The line diff lists only changed lines, ignoring indentation and case")
+    void lineDiff_ChangedLinesOnly() {
+        List<String> oracle = List.of("BEGIN", "  x := 1;", "", "  COMMIT;", "END;");
+        List<String> postgres = List.of("begin", "    x := 2;", "    commit;", "end;");
+
+        assertEquals("- x := 1;\n+ x := 2;\n", RoutineSourceComparisonService.lineDiff(oracle, postgres));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.model.DatabaseObject;
+import com.example.dbcomparator.model.oracle.OracleObject;
+import com.example.dbcomparator.model.postgres.PostgresObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates an Oracle catalog and its migrated PostgreSQL counterpart for benchmarks.
+ * Object types follow a typical OLTP schema (mostly indexes and tables); names are upper case on Oracle and
+ * lower case on PostgreSQL, and both lists come in dictionary order (type, then name) like the catalog queries.
+ * A share of the Oracle objects (the overlap) also exists on PostgreSQL; PostgreSQL gets as many objects of its own
+ * as Oracle has unmatched ones, so both catalogs have the same size.
+ */
+final class SyntheticCatalog {
+
+    static final String ORACLE_SCHEMA = "APP";
+    static final String POSTGRES_SCHEMA = "app";
+
+    // Cumulative type distribution: 35% indexes, 25% tables, 12% constraints, 10% views, 8% functions, 5% procedures, 5% sequences
+    private static final String[] TYPES = {"INDEX", "TABLE", "CONSTRAINT", "VIEW", "FUNCTION", "PROCEDURE", "SEQUENCE"};
+    private static final int[] CUMULATIVE_PERCENT = {35, 60, 72, 82, 90, 95, 100};
+
+    private static final String[] WORDS = {"ORDER", "CUSTOMER", "INVOICE", "ACCOUNT", "PAYMENT", "SHIPMENT", "PRODUCT",
+            "LEDGER", "AUDIT", "USER", "ROLE", "ADDRESS", "CONTRACT", "PRICE", "STOCK", "BATCH"};
+
+    private static final Comparator<DatabaseObject> DICTIONARY_ORDER =
+            Comparator.comparing(DatabaseObject::getType).thenComparing(DatabaseObject::getName);
+
+    private final List<OracleObject> oracle;
+    private final List<PostgresObject> postgres;
+
+    private SyntheticCatalog(List<OracleObject> oracle, List<PostgresObject> postgres) {
+        this.oracle = oracle;
+        this.postgres = postgres;
+    }
+
+    /**
+     * @param objects Objects per side
+     * @param overlap Share of objects present on both sides, 0 to 1
+     * @param seed    Random seed, for repeatable catalogs
+     */
+    static SyntheticCatalog generate(int objects, double overlap, long seed) {
+        Random random = new Random(seed);
+        int shared = (int) Math.round(objects * overlap);
+        List<OracleObject> oracle = new ArrayList<>(objects);
+        List<PostgresObject> postgres = new ArrayList<>(objects);
+        for (int i = 0; i < objects; i++) {
+            String type = randomType(random);
+            String name = randomName(random, type, i);
+            oracle.add(oracleObject(name, type));
+            if (i < shared) {
+                postgres.add(postgresObject(name.toLowerCase(Locale.ROOT), type));
+            }
+        }
+        for (int i = shared; i < objects; i++) {
+            String type = randomType(random);
+            // Different counter range, so the name never collides with an Oracle object
+            postgres.add(postgresObject(randomName(random, type, objects + i).toLowerCase(Locale.ROOT), type));
+        }
+        oracle.sort(DICTIONARY_ORDER);
+        postgres.sort(DICTIONARY_ORDER);
+        return new SyntheticCatalog(oracle, postgres);
+    }
+
+    List<OracleObject> oracle() {
+        return oracle;
+    }
+
+    List<PostgresObject> postgres() {
+        return postgres;
+    }
+
+    private static String randomType(Random random) {
+        int percent = random.nextInt(100);
+        for (int i = 0; i < TYPES.length; i++) {
+            if (percent < CUMULATIVE_PERCENT[i]) {
+                return TYPES[i];
+            }
+        }
+        return TYPES[TYPES.length - 1];
+    }
+
+    private static String randomName(Random random, String type, int counter) {
+        String base = WORDS[random.nextInt(WORDS.length)] + "_" + WORDS[random.nextInt(WORDS.length)];
+        String prefix = switch (type) {
+            case "INDEX" -> "IX_";
+            case "CONSTRAINT" -> "PK_";
+            case "VIEW" -> "V_";
+            case "FUNCTION" -> "FN_";
+            case "PROCEDURE" -> "P_";
+            case "SEQUENCE" -> "SEQ_";
+            default -> "";
+        };
+        return prefix + base + "_" + Integer.toString(counter, 36).toUpperCase(Locale.ROOT);
+    }
+
+    private static OracleObject oracleObject(String name, String type) {
+        OracleObject obj = new OracleObject();
+        obj.setId(ORACLE_SCHEMA + "." + type + "." + name);
+        obj.setName(name);
+        obj.setType(type);
+        obj.setSchema(ORACLE_SCHEMA);
+        obj.setOwner(ORACLE_SCHEMA);
+        obj.setStatus("VALID");
+        obj.setCreated("2024-01-15 09:30:00");
+        obj.setLastDdlTime("2024-06-01 18:05:12");
+        return obj;
+    }
+
+    private static PostgresObject postgresObject(String name, String type) {
+        PostgresObject obj = new PostgresObject();
+        obj.setId(POSTGRES_SCHEMA + "." + type + "." + name);
+        obj.setName(name);
+        obj.setType(type);
+        obj.setObjectType(type);
+        obj.setSchema(POSTGRES_SCHEMA);
+        obj.setSchemaName(POSTGRES_SCHEMA);
+        obj.setCreatedAt("2024-06-02 08:00:00");
+        obj.setUpdatedAt("2024-06-02 08:00:00");
+        return obj;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.dbcomparator.service;
+
+import com.example.dbcomparator.config.ComparisonProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VolumeComparisonServiceTest {
+
+    @Mock
+    private JdbcTemplate oracleJdbcTemplate;
+
+    @Mock
+    private JdbcTemplate supabaseJdbcTemplate;
+
+    private ComparisonTaskExecutor taskExecutor;
+    private ComparisonProperties properties;
+    private VolumeComparisonService service;
+
+    private final String ORACLE_SCHEMA = "TEST_ORA";
+    private final String POSTGRES_SCHEMA = "test_pg";
+
+    @BeforeEach
+    void setUp() {
+        taskExecutor = new ComparisonTaskExecutor(2, 2);
+        properties = new ComparisonProperties();
+        service = new VolumeComparisonService(oracleJdbcTemplate, supabaseJdbcTemplate, taskExecutor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should merge both sides by case-insensitive table name and treat reltuples -1 as unknown")
+    void compareVolumes_MergesBothSides() {
+        stubOracle(VolumeComparisonService.ORACLE_VOLUME_SQL,
+                oracleRow("ORDERS", 1_000L, 65_536L), oracleRow("CUSTOMERS", 50L, 8_192L));
+        stubPostgres(postgresRow("orders", -1L, 73_728L), postgresRow("invoices", 10L, 16_384L));
+
+        List<TableVolume> volumes = service.compareVolumes(ORACLE_SCHEMA, POSTGRES_SCHEMA);
+
+        assertEquals(List.of("customers", "invoices", "orders"), volumes.stream().map(TableVolume::getTableName).toList());
+        TableVolume orders = volumes.get(2);
+        assertEquals("ORDERS", orders.getOracleTableName());
+        assertEquals("orders", orders.getPostgresTableName());
+        assertEquals(1_000L, orders.getOracleEstimatedRows());
+        assertNull(orders.getPostgresEstimatedRows(), "Never analyzed");
+        assertEquals(73_728L, orders.getPostgresBytes());
+        assertNull(volumes.get(0).getPostgresTableName());
+        assertNull(volumes.get(1).getOracleTableName());
+        verify(oracleJdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+        verify(supabaseJdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Should fall back to statistics only when the DBA_ segment views are not readable")
+    void compareVolumes_StatisticsOnlyWithoutDbaSegments() {
+        when(oracleJdbcTemplate.query(eq(VolumeComparisonService.ORACLE_VOLUME_SQL), any(RowMapper.class), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("ORA-00942: table or view does not exist"));
+        stubOracle(VolumeComparisonService.ORACLE_STATS_ONLY_SQL, oracleRow("ORDERS", 1_000L, null));
+        stubPostgres(postgresRow("orders", 990L, 73_728L));
+
+        List<TableVolume> volumes = service.compareVolumes(ORACLE_SCHEMA, POSTGRES_SCHEMA);
+
+        assertEquals(1, volumes.size());
+        assertEquals(1_000L, volumes.get(0).getOracleEstimatedRows());
+        assertNull(volumes.get(0).getOracleBytes());
+        assertEquals(990L, volumes.get(0).getPostgresEstimatedRows());
+    }
+
+    @Test
+    @DisplayName("Should run exact counts only for the flagged tables")
+    void compareVolumes_ExactCountsForFlaggedTables() {
+        properties.setVolumeExactCountTables(List.of("Orders"));
+        stubOracle(VolumeComparisonService.ORACLE_VOLUME_SQL,
+                oracleRow("ORDERS", 1_000L, 65_536L), oracleRow("CUSTOMERS", 50L, 8_192L));
+        stubPostgres(postgresRow("orders", 990L, 73_728L), postgresRow("customers", 50L, 8_192L));
+        when(oracleJdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"TEST_ORA\".\"ORDERS\"", Long.class)).thenReturn(1_002L);
+        when(supabaseJdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"test_pg\".\"orders\"", Long.class)).thenReturn(1_001L);
+
+        List<TableVolume> volumes = service.compareVolumes(ORACLE_SCHEMA, POSTGRES_SCHEMA);
+
+        assertEquals(1_002L, volumes.get(1).getOracleExactRows());
+        assertEquals(1_001L, volumes.get(1).getPostgresExactRows());
+        assertNull(volumes.get(0).getOracleExactRows());
+        verify(oracleJdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+        verify(supabaseJdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Should run exact counts for every table with '*'")
+    void compareVolumes_ExactCountsForAllTables() {
+        properties.setVolumeExactCountTables(List.of("*"));
+        stubOracle(VolumeComparisonService.ORACLE_VOLUME_SQL,
+                oracleRow("ORDERS", 1_000L, 65_536L), oracleRow("CUSTOMERS", 50L, 8_192L));
+        stubPostgres(postgresRow("orders", 990L, 73_728L));
+        when(oracleJdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Long.class))).thenReturn(7L);
+        when(supabaseJdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Long.class))).thenReturn(7L);
+
+        List<TableVolume> volumes = service.compareVolumes(ORACLE_SCHEMA, POSTGRES_SCHEMA);
+
+        assertEquals(7L, volumes.get(0).getOracleExactRows());
+        assertNull(volumes.get(0).getPostgresExactRows(), "Only in Oracle");
+        assertEquals(7L, volumes.get(1).getPostgresExactRows());
+        verify(oracleJdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+        verify(supabaseJdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    // --- Helpers ---
+
+    private static Map<String, Object> oracleRow(String table, Long rows, Long bytes) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("TABLE_NAME", table);
+        row.put("NUM_ROWS", rows);
+        row.put("BYTES", bytes);
+        row.put("LAST_ANALYZED", "2024-01-01 10:00:00");
+        return row;
+    }
+
+    private static Map<String, Object> postgresRow(String table, Long reltuples, Long bytes) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("relname", table);
+        row.put("reltuples", reltuples);
+        row.put("total_bytes", bytes);
+        row.put("last_analyzed", null);
+        return row;
+    }
+
+    @SafeVarargs
+    private void stubOracle(String sql, Map<String, Object>... rows) {
+        when(oracleJdbcTemplate.query(eq(sql), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> map(invocation.getArgument(1), rows));
+    }
+
+    @SafeVarargs
+    private void stubPostgres(Map<String, Object>... rows) {
+        when(supabaseJdbcTemplate.query(eq(VolumeComparisonService.POSTGRES_VOLUME_SQL), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> map(invocation.getArgument(1), rows));
+    }
+
+    // Runs the service's row mapper over in-memory rows, with getLong/wasNull behaving like JDBC
+    private static List<Object> map(RowMapper<?> mapper, Map<String, Object>[] rows) throws Exception {
+        List<Object> mapped = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            Map<String, Object> row = rows[i];
+            AtomicBoolean wasNull = new AtomicBoolean();
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(anyString())).thenAnswer(get -> (String) row.get(get.<String>getArgument(0)));
+            when(rs.getLong(anyString())).thenAnswer(get -> {
+                Long value = (Long) row.get(get.<String>getArgument(0));
+                wasNull.set(value == null);
+                return value != null ? value : 0L;
+            });
+            when(rs.wasNull()).thenAnswer(get -> wasNull.get());
+            mapped.add(mapper.mapRow(rs, i));
+        }
+        return mapped;
+    }
+}